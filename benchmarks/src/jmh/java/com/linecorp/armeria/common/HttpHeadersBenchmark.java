@@ -19,12 +19,44 @@ package com.linecorp.armeria.common;
 import javax.annotation.Nullable;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.linecorp.armeria.internal.ArmeriaHttpUtil;
+
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.Http2Headers;
 
 /**
- * Microbenchmarks of {@link DefaultHttpHeaders} construction.
+ * Microbenchmarks of {@link DefaultHttpHeaders} construction and the conversion of Netty
+ * {@link Http2Headers} into {@link RequestHeaders}.
  */
+@State(Scope.Thread)
 public class HttpHeadersBenchmark {
 
+    private Http2Headers http2Headers;
+
+    @Setup
+    public void setUp() {
+        // Typical request headers sent by a browser through a proxy.
+        http2Headers = new DefaultHttp2Headers()
+                .method("GET")
+                .scheme("https")
+                .authority("example.com")
+                .path("/api/v1/items?page=2")
+                .add("accept", "application/json, text/plain, */*")
+                .add("accept-encoding", "gzip, deflate, br")
+                .add("accept-language", "en-US,en;q=0.9")
+                .add("content-type", "application/json; charset=utf-8")
+                .add("cookie", "session=0123456789abcdef")
+                .add("cookie", "theme=dark")
+                .add("user-agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko)")
+                .add("x-forwarded-for", "203.0.113.1")
+                .add("x-request-id", "5f8c0d8e-8f3a-4c2b-9f6e-1d2c3b4a5e6f");
+    }
+
     @Nullable
     @Benchmark
     public MediaType parseKnown() {
@@ -40,4 +72,34 @@ public class HttpHeadersBenchmark {
                 HttpHeaderNames.CONTENT_TYPE, "application/grpc+oroto");
         return headers.contentType();
     }
+
+    @Benchmark
+    public void convertHttp2HeadersEagerly(Blackhole bh) {
+        final RequestHeaders headers = (RequestHeaders) ArmeriaHttpUtil.toArmeria(http2Headers, true, false);
+        consumeCommonlyAccessedHeaders(headers, bh);
+    }
+
+    @Benchmark
+    public void convertHttp2HeadersLazily(Blackhole bh) {
+        // ':scheme' and ':authority' exist, so the context and the server config are not used.
+        final RequestHeaders headers =
+                ArmeriaHttpUtil.toArmeriaRequestHeaders(null, http2Headers, false, "https", null);
+        consumeCommonlyAccessedHeaders(headers, bh);
+    }
+
+    @Benchmark
+    public void convertHttp2HeadersLazilyAndCopy(Blackhole bh) {
+        final RequestHeaders headers =
+                ArmeriaHttpUtil.toArmeriaRequestHeaders(null, http2Headers, false, "https", null);
+        consumeCommonlyAccessedHeaders(headers, bh);
+        bh.consume(headers.toBuilder().add("x-added", "1").build());
+    }
+
+    private static void consumeCommonlyAccessedHeaders(RequestHeaders headers, Blackhole bh) {
+        bh.consume(headers.method());
+        bh.consume(headers.path());
+        bh.consume(headers.authority());
+        bh.consume(headers.contentType());
+        bh.consume(headers.get(HttpHeaderNames.ACCEPT_ENCODING));
+    }
 }
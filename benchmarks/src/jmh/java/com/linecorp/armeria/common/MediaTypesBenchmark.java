@@ -37,6 +37,15 @@ public class MediaTypesBenchmark {
     private static final MediaType NOT_GRPC_MEDIA_TYPE_WITH_PARAMS =
             MediaType.parse("application/json; charset=utf-8; q=0.9");
 
+    private static final MediaTypeSet HTML_OR_JSON = new MediaTypeSet(
+            MediaType.HTML_UTF_8, MediaType.JSON_UTF_8, MediaType.PLAIN_TEXT_UTF_8);
+
+    // The 'accept' header sent by a typical browser when navigating to a page.
+    private static final String BROWSER_ACCEPT_HEADER =
+            "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,image/apng,*/*;q=0.8";
+
+    private static final String API_CLIENT_ACCEPT_HEADER = "application/json, text/plain, */*";
+
     @Benchmark
     public void simpleMatch(Blackhole bh) {
         bh.consume(MEDIA_TYPES.match(GRPC_MEDIA_TYPE));
@@ -65,4 +74,20 @@ public class MediaTypesBenchmark {
         bh.consume(MEDIA_TYPES.match(GRPC_MEDIA_TYPE_WITH_PARAMS));
         bh.consume(MEDIA_TYPES.match(NOT_GRPC_MEDIA_TYPE_WITH_PARAMS));
     }
+
+    @Benchmark
+    public void matchBrowserAcceptHeader(Blackhole bh) {
+        bh.consume(HTML_OR_JSON.matchHeaders(BROWSER_ACCEPT_HEADER));
+    }
+
+    @Benchmark
+    public void matchApiClientAcceptHeader(Blackhole bh) {
+        bh.consume(HTML_OR_JSON.matchHeaders(API_CLIENT_ACCEPT_HEADER));
+    }
+
+    @Benchmark
+    public void parseContentType(Blackhole bh) {
+        // Not one of the well-known media types, so it is looked up from the parsed media type cache.
+        bh.consume(MediaType.parse("application/json; charset=utf-8; profile=armeria"));
+    }
 }
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Random;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -37,7 +38,8 @@ import com.linecorp.armeria.client.endpoint.EndpointSelector;
 @State(Scope.Thread)
 public class WeightedRoundRobinStrategyBenchmark {
 
-    final int numEndpoints = 500;
+    @Param({ "10", "500", "2000" })
+    int numEndpoints;
 
     // normal round robin, all weight: 300
     EndpointSelector selectorSameWeight;
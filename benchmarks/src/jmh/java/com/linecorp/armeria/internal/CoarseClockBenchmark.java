@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+
+import com.linecorp.armeria.common.util.SystemInfo;
+
+public class CoarseClockBenchmark {
+
+    @Benchmark
+    public long systemNanoTime() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.coarseClockPrecisionMillis=1")
+    public long coarseNanoTime() {
+        return CoarseClock.nanoTime();
+    }
+
+    @Benchmark
+    public long systemCurrentTimeMicros() {
+        return SystemInfo.currentTimeMicros();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.coarseClockPrecisionMillis=1")
+    public long coarseCurrentTimeMicros() {
+        return CoarseClock.currentTimeMicros();
+    }
+}
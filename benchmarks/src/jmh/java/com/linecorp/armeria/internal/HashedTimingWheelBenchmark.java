@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.linecorp.armeria.internal.HashedTimingWheel.Timeout;
+import com.linecorp.armeria.shared.EventLoopJmhExecutor;
+
+import io.netty.channel.EventLoop;
+
+/**
+ * Microbenchmarks that schedule and cancel a timeout for each of {@code numStreams} concurrent streams,
+ * comparing {@link EventLoop#schedule(Runnable, long, TimeUnit)} and {@link HashedTimingWheel}.
+ * The timeouts are cancelled in the order of creation, as the requests with the same timeout usually
+ * complete in that order.
+ */
+@Fork(jvmArgsAppend = { EventLoopJmhExecutor.JVM_ARG_1, EventLoopJmhExecutor.JVM_ARG_2 })
+@State(Scope.Thread)
+public class HashedTimingWheelBenchmark {
+
+    private static final Runnable NOOP = () -> {};
+
+    @Param({ "1000", "100000" })
+    private int numStreams;
+
+    private EventLoop eventLoop;
+    private ScheduledFuture<?>[] futures;
+    private Timeout[] timeouts;
+
+    @Setup
+    public void setUp() {
+        eventLoop = EventLoopJmhExecutor.currentEventLoop();
+        futures = new ScheduledFuture<?>[numStreams];
+        timeouts = new Timeout[numStreams];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100000)
+    public int eventLoopSchedule() {
+        final EventLoop eventLoop = this.eventLoop;
+        final ScheduledFuture<?>[] futures = this.futures;
+        int numCancelled = 0;
+        for (int i = 0; i < 100000; i += futures.length) {
+            for (int j = 0; j < futures.length; j++) {
+                futures[j] = eventLoop.schedule(NOOP, 10, TimeUnit.SECONDS);
+            }
+            for (ScheduledFuture<?> f : futures) {
+                if (f.cancel(false)) {
+                    numCancelled++;
+                }
+            }
+        }
+        return numCancelled;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100000)
+    public int timingWheel() {
+        final EventLoop eventLoop = this.eventLoop;
+        final Timeout[] timeouts = this.timeouts;
+        int numCancelled = 0;
+        for (int i = 0; i < 100000; i += timeouts.length) {
+            for (int j = 0; j < timeouts.length; j++) {
+                timeouts[j] = HashedTimingWheel.newTimeout(eventLoop, NOOP, 10, TimeUnit.SECONDS);
+            }
+            for (Timeout t : timeouts) {
+                if (t.cancel()) {
+                    numCancelled++;
+                }
+            }
+        }
+        return numCancelled;
+    }
+}
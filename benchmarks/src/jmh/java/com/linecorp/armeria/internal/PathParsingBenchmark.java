@@ -32,6 +32,9 @@ public class PathParsingBenchmark {
 
     private String path1;
     private String path2;
+    private String pathWithQuery;
+    private String encodedPath;
+    private String encodedPathWithQuery;
 
     @Setup(Level.Invocation)
     @SuppressWarnings("RedundantStringConstructorCall")
@@ -39,6 +42,9 @@ public class PathParsingBenchmark {
         // Create a new String for paths every time to avoid constant folding.
         path1 = new String("/armeria/services/hello-world");
         path2 = new String("/armeria/services/goodbye-world");
+        pathWithQuery = new String("/api/v1/users/1234/orders?status=shipped&sort=-created_at&page=3");
+        encodedPath = new String("/files/%E3%83%86%E3%82%B9%E3%83%88/my%20document%2Bdraft.pdf");
+        encodedPathWithQuery = new String("/search/books?q=caf%C3%A9+au+lait&filter=author%3Dsmith%26co");
     }
 
     @Benchmark
@@ -76,4 +82,22 @@ public class PathParsingBenchmark {
         bh.consume(parsed2);
         return parsed;
     }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.parsedPathCache=off")
+    public PathAndQuery withQuery_cacheDisabled() {
+        return PathAndQuery.parse(pathWithQuery);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.parsedPathCache=off")
+    public PathAndQuery encoded_cacheDisabled() {
+        return PathAndQuery.parse(encodedPath);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dcom.linecorp.armeria.parsedPathCache=off")
+    public PathAndQuery encodedWithQuery_cacheDisabled() {
+        return PathAndQuery.parse(encodedPathWithQuery);
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.linecorp.armeria.client;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import java.lang.reflect.InvocationHandler;
@@ -23,6 +24,7 @@ import java.lang.reflect.Proxy;
 import java.net.URI;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -123,6 +125,29 @@ public interface ClientFactory extends AutoCloseable {
      */
     ReleasableHolder<EventLoop> acquireEventLoop(Endpoint endpoint, SessionProtocol sessionProtocol);
 
+    /**
+     * Opens the connections to the specified {@link Endpoint} ahead of time, so that the first requests to
+     * the {@link Endpoint} do not have to wait for the DNS resolution, the TCP and TLS handshakes and
+     * the session protocol negotiation. The connections are opened in the {@link EventLoop}s which would be
+     * used for the requests to the {@link Endpoint}. Note that at most one HTTP/2 connection is opened per
+     * {@link EventLoop}, and the number of the {@link EventLoop}s used for an {@link Endpoint} is limited by
+     * {@link ClientFactoryBuilder#maxNumEventLoopsPerEndpoint(int)}.
+     *
+     * <p>This method returns a {@link CompletableFuture} which is completed with the number of
+     * the connections opened successfully, or {@code 0} if this factory does not pool connections.
+     *
+     * @param sessionProtocol the {@link SessionProtocol} of the connections, e.g. {@link SessionProtocol#HTTPS}
+     * @param endpoint the {@link Endpoint} to connect to
+     * @param numConnections the number of the connections to open
+     */
+    default CompletableFuture<Integer> warmUp(SessionProtocol sessionProtocol, Endpoint endpoint,
+                                              int numConnections) {
+        requireNonNull(sessionProtocol, "sessionProtocol");
+        requireNonNull(endpoint, "endpoint");
+        checkArgument(numConnections > 0, "numConnections: %s (expected: > 0)", numConnections);
+        return CompletableFuture.completedFuture(0);
+    }
+
     /**
      * Returns the {@link MeterRegistry} that collects various stats.
      */
@@ -42,6 +42,8 @@ import com.google.common.base.MoreObjects.ToStringHelper;
 import com.linecorp.armeria.common.CommonPools;
 import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.ServiceRequestContext;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
@@ -81,6 +83,8 @@ public final class ClientFactoryBuilder {
     private int maxNumEventLoopsPerEndpoint;
     private int maxNumEventLoopsPerHttp1Endpoint;
     private final List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions = new ArrayList<>();
+    private boolean preferServiceEventLoop;
+    private boolean loadBasedEventLoopScheduling;
 
     /**
      * Creates a new instance.
@@ -116,6 +120,10 @@ public final class ClientFactoryBuilder {
         checkState(maxNumEventLoopsPerHttp1Endpoint == 0 && maxNumEventLoopsPerEndpoint == 0 &&
                    maxNumEventLoopsFunctions.isEmpty(),
                    "Cannot set eventLoopSchedulerFactory when maxEventLoop per endpoint is specified.");
+        checkState(!preferServiceEventLoop,
+                   "preferServiceEventLoop() and eventLoopSchedulerFactory() are mutually exclusive.");
+        checkState(!loadBasedEventLoopScheduling,
+                   "loadBasedEventLoopScheduling() and eventLoopSchedulerFactory() are mutually exclusive.");
         option(ClientFactoryOption.EVENT_LOOP_SCHEDULER_FACTORY, eventLoopSchedulerFactory);
         return this;
     }
@@ -149,6 +157,45 @@ public final class ClientFactoryBuilder {
                    "maxNumEventLoopsPerEndpoint() and eventLoopSchedulerFactory() are mutually exclusive.");
     }
 
+    /**
+     * Sets whether a client request made within a {@link ServiceRequestContext} uses the {@link EventLoop}
+     * which serves the {@link ServiceRequestContext}, so that the server-side and client-side requests are
+     * handled by the same thread without any handoff. This takes effect only when the {@link EventLoop}
+     * belongs to the {@linkplain #workerGroup(EventLoopGroup, boolean) worker group} of the
+     * {@link ClientFactory}, e.g. when both the {@link Server} and the {@link ClientFactory} use
+     * {@linkplain CommonPools#workerGroup() the common worker group}. Note that enabling this option may
+     * open a connection to an {@link Endpoint} from more {@link EventLoop}s than
+     * {@link #maxNumEventLoopsPerEndpoint(int)}. This option is disabled by default.
+     */
+    public ClientFactoryBuilder preferServiceEventLoop(boolean preferServiceEventLoop) {
+        checkState(!options.containsKey(ClientFactoryOption.EVENT_LOOP_SCHEDULER_FACTORY),
+                   "preferServiceEventLoop() and eventLoopSchedulerFactory() are mutually exclusive.");
+        this.preferServiceEventLoop = preferServiceEventLoop;
+        return this;
+    }
+
+    /**
+     * Sets whether the {@link EventLoop}s are assigned to the {@link Endpoint}s based on their load rather
+     * than in a round-robin fashion. If enabled, the lag and the number of pending tasks of each
+     * {@link EventLoop} are sampled periodically, and:
+     * <ul>
+     *   <li>a new {@link Endpoint} is assigned to the least loaded {@link EventLoop}s, and</li>
+     *   <li>an {@link Endpoint} handled by a single {@link EventLoop} is moved to the least loaded
+     *       {@link EventLoop} when its {@link EventLoop} is loaded much more heavily, so that the new requests
+     *       are sent via a new connection. The old connection is closed when it becomes idle.</li>
+     * </ul>
+     * The load of each {@link EventLoop} and the number of the moves are exported under
+     * the {@code "armeria.client.eventLoops"} meter name prefix, tagged with {@code "factory"} which
+     * distinguishes the {@link ClientFactory}s sharing the same worker group. This option is disabled
+     * by default.
+     */
+    public ClientFactoryBuilder loadBasedEventLoopScheduling(boolean loadBasedEventLoopScheduling) {
+        checkState(!options.containsKey(ClientFactoryOption.EVENT_LOOP_SCHEDULER_FACTORY),
+                   "loadBasedEventLoopScheduling() and eventLoopSchedulerFactory() are mutually exclusive.");
+        this.loadBasedEventLoopScheduling = loadBasedEventLoopScheduling;
+        return this;
+    }
+
     /**
      * Sets the {@link ToIntFunction} which takes an {@link Endpoint} and produces the maximum number of
      * {@link EventLoop}s which will be used to handle connections to the specified {@link Endpoint}.
@@ -447,7 +494,7 @@ public final class ClientFactoryBuilder {
            final Function<? super EventLoopGroup, ? extends EventLoopScheduler>  eventLoopSchedulerFactory =
                    eventLoopGroup -> new DefaultEventLoopScheduler(
                            eventLoopGroup, maxNumEventLoopsPerEndpoint, maxNumEventLoopsPerHttp1Endpoint,
-                           maxNumEventLoopsFunctions);
+                           maxNumEventLoopsFunctions, preferServiceEventLoop, loadBasedEventLoopScheduling);
            return ClientFactoryOption.EVENT_LOOP_SCHEDULER_FACTORY.newValue(eventLoopSchedulerFactory);
         });
 
@@ -494,6 +541,12 @@ public final class ClientFactoryBuilder {
         if (!maxNumEventLoopsFunctions.isEmpty()) {
             helper.add("maxNumEventLoopsFunctions", maxNumEventLoopsFunctions);
         }
+        if (preferServiceEventLoop) {
+            helper.add("preferServiceEventLoop", true);
+        }
+        if (loadBasedEventLoopScheduling) {
+            helper.add("loadBasedEventLoopScheduling", true);
+        }
 
         return helper.toString();
     }
@@ -21,6 +21,7 @@ import static java.util.Objects.requireNonNull;
 import java.net.URI;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -74,6 +75,12 @@ public class DecoratingClientFactory extends AbstractClientFactory {
         return delegate().acquireEventLoop(endpoint, sessionProtocol);
     }
 
+    @Override
+    public CompletableFuture<Integer> warmUp(SessionProtocol sessionProtocol, Endpoint endpoint,
+                                             int numConnections) {
+        return delegate().warmUp(sessionProtocol, endpoint, numConnections);
+    }
+
     @Override
     public MeterRegistry meterRegistry() {
         return delegate().meterRegistry();
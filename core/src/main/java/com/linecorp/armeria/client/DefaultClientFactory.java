@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -121,6 +122,12 @@ final class DefaultClientFactory extends AbstractClientFactory {
         return httpClientFactory.acquireEventLoop(endpoint, sessionProtocol);
     }
 
+    @Override
+    public CompletableFuture<Integer> warmUp(SessionProtocol sessionProtocol, Endpoint endpoint,
+                                             int numConnections) {
+        return httpClientFactory.warmUp(sessionProtocol, endpoint, numConnections);
+    }
+
     @Override
     public MeterRegistry meterRegistry() {
         return httpClientFactory.meterRegistry();
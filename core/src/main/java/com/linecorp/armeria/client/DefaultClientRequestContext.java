@@ -50,6 +50,7 @@ import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.logging.RequestLogAvailability;
 import com.linecorp.armeria.common.logging.RequestLogBuilder;
 import com.linecorp.armeria.common.util.ReleasableHolder;
+import com.linecorp.armeria.internal.DeadlineUtil;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.buffer.ByteBufAllocator;
@@ -150,7 +151,7 @@ public class DefaultClientRequestContext extends NonWrappingRequestContext imple
                                     options.responseContentPreviewerFactory());
 
         writeTimeoutMillis = options.writeTimeoutMillis();
-        responseTimeoutMillis = options.responseTimeoutMillis();
+        responseTimeoutMillis = DeadlineUtil.capResponseTimeoutMillis(this, options.responseTimeoutMillis());
         maxResponseLength = options.maxResponseLength();
         additionalRequestHeaders = options.getOrElse(ClientOption.HTTP_HEADERS, HttpHeaders.of());
     }
@@ -18,6 +18,7 @@ package com.linecorp.armeria.client;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Objects.requireNonNull;
 
 import java.time.Duration;
@@ -25,8 +26,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.function.ToIntFunction;
 
 import javax.annotation.Nullable;
@@ -36,11 +41,16 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
 
+import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.util.ReleasableHolder;
+import com.linecorp.armeria.server.ServiceRequestContext;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 
@@ -53,10 +63,30 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
     private static final AtomicIntegerFieldUpdater<DefaultEventLoopScheduler> acquisitionStartIndexUpdater =
             AtomicIntegerFieldUpdater.newUpdater(DefaultEventLoopScheduler.class, "acquisitionStartIndex");
 
+    private static final AtomicLongFieldUpdater<DefaultEventLoopScheduler> lastRebalanceTimeNanosUpdater =
+            AtomicLongFieldUpdater.newUpdater(DefaultEventLoopScheduler.class, "lastRebalanceTimeNanos");
+
     private static final long CLEANUP_INTERVAL_NANOS = Duration.ofMinutes(1).toNanos();
 
     static final int DEFAULT_MAX_NUM_EVENT_LOOPS = 1;
 
+    /**
+     * The minimum load of an {@link EventLoop} to move the connections away from it.
+     */
+    private static final long MIN_REBALANCE_LOAD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The default minimum interval between the checks whether an {@link AbstractEventLoopState} has to be
+     * moved to another {@link EventLoop}, which prevents the connections from moving around too often.
+     */
+    private static final long DEFAULT_REBALANCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The difference of load below which two {@link EventLoop}s are considered equally loaded, so that
+     * the sampling jitter of idle {@link EventLoop}s does not affect the round-robin assignment.
+     */
+    private static final long LOAD_TOLERANCE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
     private final List<EventLoop> eventLoops;
 
     private final int maxNumEventLoopsPerEndpoint;
@@ -66,6 +96,25 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
 
     private final List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions;
 
+    /**
+     * The {@link ReleasableHolder}s of {@link #eventLoops} which are returned when a client request is
+     * made within a {@link ServiceRequestContext} served by one of them, or {@code null} if
+     * {@code preferServiceEventLoop} is disabled. Note that {@link EventLoop}s are compared by identity.
+     */
+    @Nullable
+    private final Map<EventLoop, ReleasableHolder<EventLoop>> serviceEventLoops;
+
+    /**
+     * The {@link EventLoopLoadMonitor}s of {@link #eventLoops} in the same order, or {@code null} if
+     * {@code loadBased} is disabled.
+     */
+    @Nullable
+    private final List<EventLoopLoadMonitor> monitors;
+    @Nullable
+    private final Map<EventLoop, EventLoopLoadMonitor> monitorsByEventLoop;
+    private final long rebalanceIntervalNanos;
+    private final LongAdder numRebalances = new LongAdder();
+
     private int cleanupCounter;
 
     @SuppressWarnings("FieldMayBeFinal")
@@ -74,9 +123,30 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
     @SuppressWarnings("FieldMayBeFinal")
     private volatile long lastCleanupTimeNanos = System.nanoTime();
 
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile long lastRebalanceTimeNanos =
+            System.nanoTime() - EventLoopLoadMonitor.SAMPLE_INTERVAL_NANOS;
+
     DefaultEventLoopScheduler(EventLoopGroup eventLoopGroup, int maxNumEventLoopsPerEndpoint,
                               int maxNumEventLoopsPerHttp1Endpoint,
                               List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions) {
+        this(eventLoopGroup, maxNumEventLoopsPerEndpoint, maxNumEventLoopsPerHttp1Endpoint,
+             maxNumEventLoopsFunctions, false, false);
+    }
+
+    DefaultEventLoopScheduler(EventLoopGroup eventLoopGroup, int maxNumEventLoopsPerEndpoint,
+                              int maxNumEventLoopsPerHttp1Endpoint,
+                              List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions,
+                              boolean preferServiceEventLoop, boolean loadBased) {
+        this(eventLoopGroup, maxNumEventLoopsPerEndpoint, maxNumEventLoopsPerHttp1Endpoint,
+             maxNumEventLoopsFunctions, preferServiceEventLoop, loadBased, DEFAULT_REBALANCE_INTERVAL_NANOS);
+    }
+
+    @VisibleForTesting
+    DefaultEventLoopScheduler(EventLoopGroup eventLoopGroup, int maxNumEventLoopsPerEndpoint,
+                              int maxNumEventLoopsPerHttp1Endpoint,
+                              List<ToIntFunction<Endpoint>> maxNumEventLoopsFunctions,
+                              boolean preferServiceEventLoop, boolean loadBased, long rebalanceIntervalNanos) {
         eventLoops = Streams.stream(eventLoopGroup)
                             .map(EventLoop.class::cast)
                             .collect(toImmutableList());
@@ -94,6 +164,25 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
                     Math.min(maxNumEventLoopsPerHttp1Endpoint, eventLoopSize);
         }
         this.maxNumEventLoopsFunctions = ImmutableList.copyOf(maxNumEventLoopsFunctions);
+
+        if (preferServiceEventLoop) {
+            final ImmutableMap.Builder<EventLoop, ReleasableHolder<EventLoop>> builder =
+                    ImmutableMap.builder();
+            eventLoops.forEach(eventLoop -> builder.put(eventLoop, new ServiceEventLoop(eventLoop)));
+            serviceEventLoops = builder.build();
+        } else {
+            serviceEventLoops = null;
+        }
+
+        if (loadBased) {
+            monitors = eventLoops.stream().map(EventLoopLoadMonitor::new).collect(toImmutableList());
+            monitorsByEventLoop = monitors.stream().collect(
+                    toImmutableMap(EventLoopLoadMonitor::eventLoop, Function.identity()));
+        } else {
+            monitors = null;
+            monitorsByEventLoop = null;
+        }
+        this.rebalanceIntervalNanos = rebalanceIntervalNanos;
     }
 
     /**
@@ -106,22 +195,161 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
             final int current = acquisitionStartIndex;
             final int next = (current + need) % eventLoops.size();
             if (acquisitionStartIndexUpdater.compareAndSet(this, current, next)) {
+                if (monitors != null && need < eventLoops.size()) {
+                    // Start from the least loaded event loop. The round-robin index is used when
+                    // the event loops are equally loaded, e.g. when they are all idle.
+                    return leastLoadedIndex(monitors, current);
+                }
                 return current;
             }
         }
     }
 
+    private static int leastLoadedIndex(List<EventLoopLoadMonitor> monitors, int startIndex) {
+        final int size = monitors.size();
+        int bestIndex = startIndex;
+        long bestLoadNanos = monitors.get(startIndex).loadNanos();
+        for (int i = 1; i < size && bestLoadNanos > LOAD_TOLERANCE_NANOS; i++) {
+            final int index = (startIndex + i) % size;
+            final long loadNanos = monitors.get(index).loadNanos();
+            if (loadNanos + LOAD_TOLERANCE_NANOS < bestLoadNanos) {
+                bestIndex = index;
+                bestLoadNanos = loadNanos;
+            }
+        }
+        return bestIndex;
+    }
+
+    boolean isLoadBased() {
+        return monitors != null;
+    }
+
+    /**
+     * Returns the minimum interval between the calls to {@link #rebalance(EventLoop)} for the same
+     * {@link AbstractEventLoopState}.
+     */
+    long rebalanceIntervalNanos() {
+        return rebalanceIntervalNanos;
+    }
+
+    /**
+     * Returns the less loaded one of two randomly chosen {@link EventLoop}s if the specified
+     * {@link EventLoop} is loaded much more heavily than it, or {@code null} if the connections do not
+     * need to be moved away from the specified {@link EventLoop} or {@code loadBased} is disabled.
+     * Choosing from two random candidates instead of the least loaded one prevents the states which
+     * rebalance at the same time from moving to the same {@link EventLoop}. Also, only one state is moved
+     * per sample, because the load of the target does not reflect the moved state until the next sample.
+     */
+    @Nullable
+    EventLoop rebalance(EventLoop eventLoop) {
+        if (monitors == null) {
+            return null;
+        }
+        assert monitorsByEventLoop != null;
+        final EventLoopLoadMonitor monitor = monitorsByEventLoop.get(eventLoop);
+        if (monitor == null || monitors.size() < 2) {
+            return null;
+        }
+
+        final long loadNanos = monitor.loadNanos();
+        if (loadNanos < MIN_REBALANCE_LOAD_NANOS) {
+            return null;
+        }
+
+        final EventLoopLoadMonitor candidate = lessLoadedOfTwo(monitors, monitor);
+        if (candidate.loadNanos() * 2 > loadNanos) {
+            // Not skewed enough.
+            return null;
+        }
+
+        final long currentTimeNanos = System.nanoTime();
+        final long lastRebalanceTimeNanos = this.lastRebalanceTimeNanos;
+        if (currentTimeNanos - lastRebalanceTimeNanos < EventLoopLoadMonitor.SAMPLE_INTERVAL_NANOS ||
+            !lastRebalanceTimeNanosUpdater.compareAndSet(this, lastRebalanceTimeNanos, currentTimeNanos)) {
+            // Another state has been moved since the last sample.
+            return null;
+        }
+
+        numRebalances.increment();
+        return candidate.eventLoop();
+    }
+
+    /**
+     * Returns the less loaded one of two distinct {@link EventLoopLoadMonitor}s chosen at random, except
+     * the specified {@code current} one.
+     */
+    private static EventLoopLoadMonitor lessLoadedOfTwo(List<EventLoopLoadMonitor> monitors,
+                                                        EventLoopLoadMonitor current) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int size = monitors.size();
+        final int first = random.nextInt(size);
+        final int second = (first + 1 + random.nextInt(size - 1)) % size;
+        final EventLoopLoadMonitor a = monitors.get(first);
+        final EventLoopLoadMonitor b = monitors.get(second);
+        if (a == current) {
+            return b;
+        }
+        if (b == current) {
+            return a;
+        }
+        return a.loadNanos() <= b.loadNanos() ? a : b;
+    }
+
+    /**
+     * Registers the per-{@link EventLoop} load meters and the number of rebalances. This method does
+     * nothing if {@code loadBased} is disabled.
+     */
+    void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        if (monitors == null) {
+            return;
+        }
+        monitors.forEach(monitor -> monitor.registerMetrics(registry, idPrefix));
+        registry.more().counter(idPrefix.name("rebalances"), idPrefix.tags(),
+                                numRebalances, LongAdder::sum);
+    }
+
+    /**
+     * Stops sampling the load of the {@link EventLoop}s.
+     */
+    void close() {
+        if (monitors != null) {
+            monitors.forEach(EventLoopLoadMonitor::close);
+        }
+    }
+
     @Override
     public ReleasableHolder<EventLoop> acquire(Endpoint endpoint, SessionProtocol sessionProtocol) {
         requireNonNull(endpoint, "endpoint");
         checkArgument(!endpoint.isGroup(), "endpoint must be a host: %s", endpoint);
         requireNonNull(sessionProtocol, "sessionProtocol");
+        if (serviceEventLoops != null) {
+            final ReleasableHolder<EventLoop> serviceEventLoop = serviceEventLoop(serviceEventLoops);
+            if (serviceEventLoop != null) {
+                return serviceEventLoop;
+            }
+        }
+
         final AbstractEventLoopState state = state(endpoint, sessionProtocol);
         final AbstractEventLoopEntry acquired = state.acquire();
         cleanup();
         return acquired;
     }
 
+    /**
+     * Returns the {@link ReleasableHolder} of the {@link EventLoop} which serves the current
+     * {@link ServiceRequestContext}, or {@code null} if there is no {@link ServiceRequestContext} or
+     * its {@link EventLoop} does not belong to the {@link EventLoopGroup} of this scheduler.
+     */
+    @Nullable
+    private static ReleasableHolder<EventLoop> serviceEventLoop(
+            Map<EventLoop, ReleasableHolder<EventLoop>> serviceEventLoops) {
+        final RequestContext ctx = RequestContext.currentOrNull();
+        if (!(ctx instanceof ServiceRequestContext)) {
+            return null;
+        }
+        return serviceEventLoops.get(ctx.eventLoop());
+    }
+
     @VisibleForTesting
     List<AbstractEventLoopEntry> entries(Endpoint endpoint, SessionProtocol sessionProtocol) {
         return state(endpoint, sessionProtocol).entries();
@@ -247,6 +475,28 @@ final class DefaultEventLoopScheduler implements EventLoopScheduler {
         }
     }
 
+    /**
+     * A {@link ReleasableHolder} of the {@link EventLoop} which serves a {@link ServiceRequestContext}.
+     * It is not counted by {@link AbstractEventLoopState} because the {@link EventLoop} has been chosen
+     * by the server already.
+     */
+    private static final class ServiceEventLoop implements ReleasableHolder<EventLoop> {
+
+        private final EventLoop eventLoop;
+
+        ServiceEventLoop(EventLoop eventLoop) {
+            this.eventLoop = eventLoop;
+        }
+
+        @Override
+        public EventLoop get() {
+            return eventLoop;
+        }
+
+        @Override
+        public void release() {}
+    }
+
     private static final class StateKey {
         private final String ipOrHost;
         private final int port;
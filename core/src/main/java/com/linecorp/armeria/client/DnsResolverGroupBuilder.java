@@ -39,6 +39,7 @@ import io.netty.resolver.dns.DnsNameResolver;
 import io.netty.resolver.dns.DnsNameResolverBuilder;
 import io.netty.resolver.dns.DnsQueryLifecycleObserverFactory;
 import io.netty.resolver.dns.DnsServerAddressStreamProvider;
+import io.netty.resolver.dns.DnsServerAddressStreamProviders;
 import io.netty.resolver.dns.NoopAuthoritativeDnsServerCache;
 import io.netty.resolver.dns.NoopDnsCache;
 import io.netty.resolver.dns.NoopDnsCnameCache;
@@ -62,6 +63,7 @@ public final class DnsResolverGroupBuilder {
     private int minTtl = 1;
     private int maxTtl = Integer.MAX_VALUE;
     private int negativeTtl;
+    private boolean sharedCacheEnabled;
 
     // DnsNameResolverBuilder properties:
 
@@ -127,6 +129,22 @@ public final class DnsResolverGroupBuilder {
         return this;
     }
 
+    /**
+     * Sets whether the DNS queries are sent via the process-wide DNS cache which is shared with the resolvers
+     * of other {@link ClientFactory}s and the {@code DnsEndpointGroup}s with the shared cache enabled.
+     * The concurrent queries for the same host name are coalesced into a single query, and the results are
+     * cached until their TTL elapses, or for {@link #negativeTtl(int)} if the queries failed.
+     * This option is disabled by default.
+     *
+     * <p>Note that the results are shared only between the resolvers which use the same
+     * {@link DnsServerAddressStreamProvider}. Do not enable this option if the resolvers use different
+     * search domains for the same host name.
+     */
+    public DnsResolverGroupBuilder sharedCacheEnabled(boolean sharedCacheEnabled) {
+        this.sharedCacheEnabled = sharedCacheEnabled;
+        return this;
+    }
+
     /**
      * Sets if this resolver should generate detailed trace information in exception messages so that
      * it is easier to understand the cause of resolution failure. This flag is enabled by default.
@@ -339,7 +357,15 @@ public final class DnsResolverGroupBuilder {
                 builder.decodeIdn(decodeIdn);
             }
         };
+        final Object cacheScope;
+        if (sharedCacheEnabled) {
+            // Netty returns the same provider instance for the platform default.
+            cacheScope = dnsServerAddressStreamProvider != null ?
+                         dnsServerAddressStreamProvider : DnsServerAddressStreamProviders.platformDefault();
+        } else {
+            cacheScope = null;
+        }
         return new RefreshingAddressResolverGroup(resolverConfigurator, minTtl, maxTtl, negativeTtl,
-                                                  refreshBackoff, resolvedAddressTypes);
+                                                  refreshBackoff, resolvedAddressTypes, cacheScope);
     }
 }
@@ -39,6 +39,8 @@ import com.google.common.net.InternetDomainName;
 
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointGroupRegistry;
+import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.client.endpoint.ZoneAwareEndpointSelectionStrategy;
 import com.linecorp.armeria.common.Scheme;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.SessionProtocol;
@@ -139,7 +141,7 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
         requireNonNull(host, "host");
 
         if (NetUtil.isValidIpV4Address(host)) {
-            return new Endpoint(host, host, port, DEFAULT_WEIGHT, HostType.IPv4_ONLY);
+            return new Endpoint(host, host, port, DEFAULT_WEIGHT, null, HostType.IPv4_ONLY);
         }
 
         if (NetUtil.isValidIpV6Address(host)) {
@@ -150,11 +152,11 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
             } else {
                 ipV6Addr = host;
             }
-            return new Endpoint(ipV6Addr, ipV6Addr, port, DEFAULT_WEIGHT, HostType.IPv6_ONLY);
+            return new Endpoint(ipV6Addr, ipV6Addr, port, DEFAULT_WEIGHT, null, HostType.IPv6_ONLY);
         }
 
         return new Endpoint(InternetDomainName.from(host).toString(),
-                            null, port, DEFAULT_WEIGHT, HostType.HOSTNAME_ONLY);
+                            null, port, DEFAULT_WEIGHT, null, HostType.HOSTNAME_ONLY);
     }
 
     private enum HostType {
@@ -173,6 +175,8 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
     private final String ipAddr;
     private final int port;
     private final int weight;
+    @Nullable
+    private final String zone;
     private final List<Endpoint> endpoints;
     @Nullable // null if this endpoint is a group.
     private final HostType hostType;
@@ -185,15 +189,18 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
         ipAddr = null;
         port = 0;
         weight = 0;
+        zone = null;
         hostType = null;
         endpoints = ImmutableList.of(this);
     }
 
-    private Endpoint(String host, @Nullable String ipAddr, int port, int weight, HostType hostType) {
+    private Endpoint(String host, @Nullable String ipAddr, int port, int weight, @Nullable String zone,
+                     HostType hostType) {
         this.host = host;
         this.ipAddr = ipAddr;
         this.port = port;
         this.weight = weight;
+        this.zone = zone;
         this.hostType = hostType;
         groupName = null;
         endpoints = ImmutableList.of(this);
@@ -364,7 +371,7 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
         if (this.port == port) {
             return this;
         }
-        return new Endpoint(host, ipAddr, port, weight, hostType);
+        return new Endpoint(host, ipAddr, port, weight, zone, hostType);
     }
 
     /**
@@ -380,7 +387,7 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
         if (port == 0) {
             return this;
         }
-        return new Endpoint(host, ipAddr, 0, weight, hostType);
+        return new Endpoint(host, ipAddr, 0, weight, zone, hostType);
     }
 
     /**
@@ -400,7 +407,7 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
             return this;
         }
 
-        return new Endpoint(host, ipAddr, defaultPort, weight, hostType);
+        return new Endpoint(host, ipAddr, defaultPort, weight, zone, hostType);
     }
 
     /**
@@ -418,7 +425,7 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
         ensureSingle();
         validatePort("defaultPort", defaultPort);
         if (port == defaultPort) {
-            return new Endpoint(host, ipAddr, 0, weight, hostType);
+            return new Endpoint(host, ipAddr, 0, weight, zone, hostType);
         }
         return this;
     }
@@ -458,12 +465,12 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
 
         // Replace the host name as well if the host name is an IP address.
         if (isIpAddrOnly()) {
-            return new Endpoint(ipAddr, ipAddr, port, weight,
+            return new Endpoint(ipAddr, ipAddr, port, weight, zone,
                                 ipFamily == StandardProtocolFamily.INET ? HostType.IPv4_ONLY
                                                                         : HostType.IPv6_ONLY);
         }
 
-        return new Endpoint(host(), ipAddr, port, weight,
+        return new Endpoint(host(), ipAddr, port, weight, zone,
                             ipFamily == StandardProtocolFamily.INET ? HostType.HOSTNAME_AND_IPv4
                                                                     : HostType.HOSTNAME_AND_IPv6);
     }
@@ -476,7 +483,7 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
             throw new IllegalStateException("can't clear the IP address if host name is an IP address: " +
                                             this);
         }
-        return new Endpoint(host(), null, port, weight, HostType.HOSTNAME_ONLY);
+        return new Endpoint(host(), null, port, weight, zone, HostType.HOSTNAME_ONLY);
     }
 
     /**
@@ -492,7 +499,7 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
         if (this.weight == weight) {
             return this;
         }
-        return new Endpoint(host(), ipAddr(), port, weight, hostType);
+        return new Endpoint(host(), ipAddr(), port, weight, zone, hostType);
     }
 
     /**
@@ -503,6 +510,35 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
         return weight;
     }
 
+    /**
+     * Returns a new host endpoint with the specified zone, such as an availability zone of a cloud
+     * provider. The zone is used by the {@link EndpointSelectionStrategy}s which are aware of the network
+     * topology, e.g. {@link ZoneAwareEndpointSelectionStrategy}.
+     *
+     * @param zone the zone of this endpoint, or {@code null} to clear it
+     * @return the new endpoint with the specified zone. {@code this} if this endpoint has the same zone.
+     *
+     * @throws IllegalStateException if this endpoint is not a host but a group
+     */
+    public Endpoint withZone(@Nullable String zone) {
+        ensureSingle();
+        if (Objects.equals(this.zone, zone)) {
+            return this;
+        }
+        return new Endpoint(host(), ipAddr(), port, weight, zone, hostType);
+    }
+
+    /**
+     * Returns the zone of this endpoint.
+     *
+     * @return the zone, or {@code null} if not specified.
+     */
+    @Nullable
+    public String zone() {
+        ensureSingle();
+        return zone;
+    }
+
     /**
      * Converts this endpoint into the authority part of a URI.
      *
@@ -706,6 +742,9 @@ public final class Endpoint implements Comparable<Endpoint>, EndpointGroup {
                 helper.add("ipAddr", ipAddr);
             }
             helper.add("weight", weight);
+            if (zone != null) {
+                helper.add("zone", zone);
+            }
         }
         return helper.toString();
     }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.internal.EventLoopLagProbe;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.netty.channel.EventLoop;
+
+/**
+ * Estimates the load of an {@link EventLoop} from the samples of an {@link EventLoopLagProbe}. The load is
+ * the delay a new task would experience, i.e. how late the {@link EventLoop} runs a scheduled task plus
+ * the time it takes to run its pending tasks.
+ *
+ * @see DefaultEventLoopScheduler
+ */
+final class EventLoopLoadMonitor {
+
+    static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The estimated time it takes to run a pending task. Most tasks of an {@link EventLoop} are short I/O
+     * callbacks, so we do not need to be precise here.
+     */
+    private static final long PENDING_TASK_COST_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final EventLoopLagProbe probe;
+
+    @Nullable
+    private volatile MeterRegistry registry;
+    @Nullable
+    private volatile MeterIdPrefix idPrefix;
+
+    EventLoopLoadMonitor(EventLoop eventLoop) {
+        probe = new EventLoopLagProbe(eventLoop, SAMPLE_INTERVAL_NANOS, unused -> onSample());
+        probe.start();
+    }
+
+    EventLoop eventLoop() {
+        return probe.eventLoop();
+    }
+
+    /**
+     * Returns the estimated delay of a new task submitted to the {@link EventLoop}.
+     */
+    long loadNanos() {
+        return probe.lagNanos() + probe.pendingTasks() * PENDING_TASK_COST_NANOS;
+    }
+
+    /**
+     * Registers the meters of the {@link EventLoop} when the next sample is taken, so that the meters are
+     * tagged with the name of its thread.
+     */
+    void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        this.idPrefix = idPrefix;
+        this.registry = registry;
+    }
+
+    void close() {
+        probe.stop();
+    }
+
+    private void onSample() {
+        final MeterRegistry registry = this.registry;
+        if (registry != null) {
+            this.registry = null;
+            final MeterIdPrefix idPrefix = this.idPrefix;
+            assert idPrefix != null;
+            registerMetrics(registry, idPrefix, Thread.currentThread().getName());
+        }
+    }
+
+    private void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix, String threadName) {
+        TimeGauge.builder(idPrefix.name("lag"), probe, TimeUnit.NANOSECONDS, EventLoopLagProbe::lastLagNanos)
+                 .tags(idPrefix.tags("eventLoop", threadName))
+                 .register(registry);
+        registry.gauge(idPrefix.name("pending.tasks"), idPrefix.tags("eventLoop", threadName),
+                       probe, EventLoopLagProbe::pendingTasks);
+        TimeGauge.builder(idPrefix.name("load"), this, TimeUnit.NANOSECONDS, EventLoopLoadMonitor::loadNanos)
+                 .tags(idPrefix.tags("eventLoop", threadName))
+                 .register(registry);
+    }
+}
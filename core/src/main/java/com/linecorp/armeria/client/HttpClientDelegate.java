@@ -31,6 +31,7 @@ import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.logging.RequestLogBuilder;
+import com.linecorp.armeria.internal.DeadlineUtil;
 import com.linecorp.armeria.internal.PathAndQuery;
 
 import io.netty.channel.Channel;
@@ -73,6 +74,14 @@ final class HttpClientDelegate implements HttpClient {
             return HttpResponse.ofFailure(cause);
         }
 
+        if (DeadlineUtil.timeoutMillisToPropagate(ctx) == 0) {
+            // The deadline inherited from the request being served has passed already, so there is no point
+            // in sending the request which will be rejected by the server.
+            final ResponseTimeoutException cause = ResponseTimeoutException.get();
+            handleEarlyRequestException(ctx, req, cause);
+            return HttpResponse.ofFailure(cause);
+        }
+
         final Endpoint endpointWithPort = endpoint.withDefaultPort(ctx.sessionProtocol().defaultPort());
         final EventLoop eventLoop = ctx.eventLoop();
         final DecodedHttpResponse res = new DecodedHttpResponse(eventLoop);
@@ -16,15 +16,20 @@
 
 package com.linecorp.armeria.client;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.Objects.requireNonNull;
 
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -33,12 +38,15 @@ import javax.annotation.Nullable;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.MapMaker;
 
+import com.linecorp.armeria.client.HttpChannelPool.PoolKey;
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.Scheme;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.util.ReleasableHolder;
 import com.linecorp.armeria.internal.TransportType;
+import com.linecorp.armeria.internal.dns.DnsQueryCache;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.bootstrap.Bootstrap;
@@ -48,6 +56,7 @@ import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.FutureListener;
 
 /**
  * A {@link ClientFactory} that creates an HTTP client.
@@ -59,6 +68,14 @@ final class HttpClientFactory extends AbstractClientFactory {
                   .map(p -> Scheme.of(SerializationFormat.NONE, p))
                   .collect(toImmutableSet());
 
+    private static final AtomicInteger nextFactoryId = new AtomicInteger();
+
+    /**
+     * The value of the {@code factory} tag of the event loop meters. The {@link ClientFactory}s which share
+     * a worker group sample its {@link EventLoop}s separately, so their meters must not collide.
+     */
+    private final String factoryId = String.valueOf(nextFactoryId.getAndIncrement());
+
     private final EventLoopGroup workerGroup;
     private final boolean shutdownWorkerGroupOnClose;
     private final Bootstrap baseBootstrap;
@@ -123,6 +140,8 @@ final class HttpClientFactory extends AbstractClientFactory {
         useHttp1Pipelining = options.useHttp1Pipelining();
         connectionPoolListener = options.connectionPoolListener();
         meterRegistry = options.meterRegistry();
+        registerDnsCacheMetrics();
+        registerEventLoopMetrics();
 
         this.options = options;
 
@@ -210,6 +229,94 @@ final class HttpClientFactory extends AbstractClientFactory {
         return eventLoopScheduler.acquire(endpoint, sessionProtocol);
     }
 
+    @Override
+    public CompletableFuture<Integer> warmUp(SessionProtocol sessionProtocol, Endpoint endpoint,
+                                             int numConnections) {
+        requireNonNull(sessionProtocol, "sessionProtocol");
+        requireNonNull(endpoint, "endpoint");
+        checkArgument(numConnections > 0, "numConnections: %s (expected: > 0)", numConnections);
+        if (closed) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        final Endpoint endpointWithPort = endpoint.withDefaultPort(sessionProtocol.defaultPort());
+
+        // Acquire all the event loops before releasing them, so that the connections are spread over
+        // the event loops just like the concurrent requests to the endpoint are.
+        final List<ReleasableHolder<EventLoop>> eventLoops = new ArrayList<>(numConnections);
+        for (int i = 0; i < numConnections; i++) {
+            eventLoops.add(acquireEventLoop(endpointWithPort, sessionProtocol));
+        }
+
+        final AtomicInteger numOpenedConnections = new AtomicInteger();
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[numConnections];
+        for (int i = 0; i < numConnections; i++) {
+            final ReleasableHolder<EventLoop> eventLoop = eventLoops.get(i);
+            futures[i] = warmUp(eventLoop.get(), sessionProtocol, endpointWithPort).handle((unused, cause) -> {
+                if (cause == null) {
+                    numOpenedConnections.incrementAndGet();
+                }
+                return null;
+            });
+            eventLoop.release();
+        }
+        return CompletableFuture.allOf(futures).thenApply(unused -> numOpenedConnections.get());
+    }
+
+    private CompletableFuture<Void> warmUp(EventLoop eventLoop, SessionProtocol sessionProtocol,
+                                           Endpoint endpointWithPort) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        if (endpointWithPort.hasIpAddr()) {
+            warmUp(eventLoop, sessionProtocol, endpointWithPort, endpointWithPort.ipAddr(), future);
+            return future;
+        }
+
+        addressResolverGroup.getResolver(eventLoop)
+                            .resolve(InetSocketAddress.createUnresolved(endpointWithPort.host(),
+                                                                        endpointWithPort.port()))
+                            .addListener((FutureListener<InetSocketAddress>) f -> {
+                                if (f.isSuccess()) {
+                                    final String ipAddr = f.getNow().getAddress().getHostAddress();
+                                    warmUp(eventLoop, sessionProtocol, endpointWithPort, ipAddr, future);
+                                } else {
+                                    future.completeExceptionally(f.cause());
+                                }
+                            });
+        return future;
+    }
+
+    private void warmUp(EventLoop eventLoop, SessionProtocol sessionProtocol, Endpoint endpointWithPort,
+                        String ipAddr, CompletableFuture<Void> future) {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> warmUp(eventLoop, sessionProtocol, endpointWithPort, ipAddr, future));
+            return;
+        }
+
+        final HttpChannelPool pool = pool(eventLoop);
+        final PoolKey key = new PoolKey(endpointWithPort.host(), ipAddr, endpointWithPort.port());
+        final PooledChannel existingChannel = pool.acquireNow(sessionProtocol, key);
+        if (existingChannel != null) {
+            existingChannel.release();
+            if (existingChannel.protocol().isMultiplex()) {
+                // The HTTP/2 connection in the pool is shared by all requests in this event loop.
+                future.complete(null);
+                return;
+            }
+        }
+
+        pool.acquireLater(sessionProtocol, key, ClientConnectionTimings.builder())
+            .handle((pooledChannel, cause) -> {
+                if (cause == null) {
+                    // Return the connection to the pool so that the requests can use it.
+                    pooledChannel.release();
+                    future.complete(null);
+                } else {
+                    future.completeExceptionally(cause);
+                }
+                return null;
+            });
+    }
+
     @Override
     public MeterRegistry meterRegistry() {
         return meterRegistry;
@@ -218,6 +325,21 @@ final class HttpClientFactory extends AbstractClientFactory {
     @Override
     public void setMeterRegistry(MeterRegistry meterRegistry) {
         this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry");
+        registerDnsCacheMetrics();
+        registerEventLoopMetrics();
+    }
+
+    private void registerDnsCacheMetrics() {
+        // The cache is shared by all ClientFactories and DnsEndpointGroups, so the meters are registered
+        // even if this factory does not use it.
+        DnsQueryCache.shared().registerMetrics(meterRegistry, new MeterIdPrefix("armeria.client.dns.cache"));
+    }
+
+    private void registerEventLoopMetrics() {
+        if (eventLoopScheduler instanceof DefaultEventLoopScheduler) {
+            ((DefaultEventLoopScheduler) eventLoopScheduler).registerMetrics(
+                    meterRegistry, new MeterIdPrefix("armeria.client.eventLoops", "factory", factoryId));
+        }
     }
 
     @Override
@@ -293,6 +415,9 @@ final class HttpClientFactory extends AbstractClientFactory {
         }
 
         addressResolverGroup.close();
+        if (eventLoopScheduler instanceof DefaultEventLoopScheduler) {
+            ((DefaultEventLoopScheduler) eventLoopScheduler).close();
+        }
         if (shutdownWorkerGroupOnClose) {
             workerGroup.shutdownGracefully().syncUninterruptibly();
         }
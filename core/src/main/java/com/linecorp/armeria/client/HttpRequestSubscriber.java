@@ -19,7 +19,6 @@ package com.linecorp.armeria.client;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Set;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
@@ -44,6 +43,9 @@ import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.logging.RequestLogBuilder;
 import com.linecorp.armeria.common.stream.ClosedPublisherException;
 import com.linecorp.armeria.common.util.Exceptions;
+import com.linecorp.armeria.internal.DeadlineUtil;
+import com.linecorp.armeria.internal.HashedTimingWheel;
+import com.linecorp.armeria.internal.HashedTimingWheel.Timeout;
 import com.linecorp.armeria.internal.HttpObjectEncoder;
 
 import io.netty.channel.Channel;
@@ -79,7 +81,7 @@ final class HttpRequestSubscriber implements Subscriber<HttpObject>, ChannelFutu
     @Nullable
     private Subscription subscription;
     @Nullable
-    private ScheduledFuture<?> timeoutFuture;
+    private Timeout timeout;
     private State state = State.NEEDS_TO_WRITE_FIRST_HEADER;
     private boolean isSubscriptionCompleted;
 
@@ -149,13 +151,13 @@ final class HttpRequestSubscriber implements Subscriber<HttpObject>, ChannelFutu
         final EventLoop eventLoop = ch.eventLoop();
         if (timeoutMillis > 0) {
             // The timer would be executed if the first message has not been sent out within the timeout.
-            timeoutFuture = eventLoop.schedule(
-                    () -> failAndRespond(WriteTimeoutException.get()),
+            timeout = HashedTimingWheel.newTimeout(
+                    eventLoop, () -> failAndRespond(WriteTimeoutException.get()),
                     timeoutMillis, TimeUnit.MILLISECONDS);
         }
 
         // NB: This must be invoked at the end of this method because otherwise the callback methods in this
-        //     class can be called before the member fields (subscription and timeoutFuture) are initialized.
+        //     class can be called before the member fields (subscription and timeout) are initialized.
         //     It is because the successful write of the first headers will trigger subscription.request(1).
         writeFirstHeader();
     }
@@ -201,6 +203,19 @@ final class HttpRequestSubscriber implements Subscriber<HttpObject>, ChannelFutu
             newHeaders.add(HttpHeaderNames.USER_AGENT, HttpHeaderUtil.USER_AGENT.toString());
         }
 
+        // Calculate the timeout when the headers are written, so that the time spent before this point,
+        // e.g. resolving the address or acquiring a connection, is not propagated.
+        long propagatedTimeoutMillis = DeadlineUtil.timeoutMillisToPropagate(reqCtx);
+        if (propagatedTimeoutMillis >= 0) {
+            // Do not forward the timeout of a proxied request as it is, but do not extend it either.
+            final long existingTimeoutMillis =
+                    DeadlineUtil.parseTimeoutMillis(newHeaders.get(DeadlineUtil.ARMERIA_TIMEOUT));
+            if (existingTimeoutMillis >= 0) {
+                propagatedTimeoutMillis = Math.min(propagatedTimeoutMillis, existingTimeoutMillis);
+            }
+            newHeaders.set(DeadlineUtil.ARMERIA_TIMEOUT, Long.toString(propagatedTimeoutMillis));
+        }
+
         // :scheme and :authority are auto-filled in the beginning of decorator chain,
         // but a decorator might have removed them, so we check again.
         final SessionProtocol sessionProtocol = reqCtx.sessionProtocol();
@@ -351,13 +366,13 @@ final class HttpRequestSubscriber implements Subscriber<HttpObject>, ChannelFutu
     }
 
     private boolean cancelTimeout() {
-        final ScheduledFuture<?> timeoutFuture = this.timeoutFuture;
-        if (timeoutFuture == null) {
+        final Timeout timeout = this.timeout;
+        if (timeout == null) {
             return true;
         }
 
-        this.timeoutFuture = null;
-        return timeoutFuture.cancel(false);
+        this.timeout = null;
+        return timeout.cancel();
     }
 
     private IllegalStateException newIllegalStateException(String msg) {
@@ -36,6 +36,8 @@ import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.stream.CancelledSubscriptionException;
 import com.linecorp.armeria.common.stream.StreamWriter;
 import com.linecorp.armeria.common.util.Exceptions;
+import com.linecorp.armeria.internal.HashedTimingWheel;
+import com.linecorp.armeria.internal.HashedTimingWheel.Timeout;
 import com.linecorp.armeria.internal.InboundTrafficController;
 
 import io.netty.channel.Channel;
@@ -43,7 +45,6 @@ import io.netty.channel.EventLoop;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.collection.IntObjectHashMap;
 import io.netty.util.collection.IntObjectMap;
-import io.netty.util.concurrent.ScheduledFuture;
 
 abstract class HttpResponseDecoder {
 
@@ -140,7 +141,7 @@ abstract class HttpResponseDecoder {
         private final long responseTimeoutMillis;
         private final long maxContentLength;
         @Nullable
-        private ScheduledFuture<?> responseTimeoutFuture;
+        private Timeout responseTimeout;
 
         private boolean loggedResponseFirstBytesTransferred;
 
@@ -159,7 +160,7 @@ abstract class HttpResponseDecoder {
         }
 
         void scheduleTimeout(EventLoop eventLoop) {
-            if (responseTimeoutFuture != null || responseTimeoutMillis <= 0 || !isOpen()) {
+            if (responseTimeout != null || responseTimeoutMillis <= 0 || !isOpen()) {
                 // No need to schedule a response timeout if:
                 // - the timeout has been scheduled already,
                 // - the timeout has been disabled or
@@ -167,8 +168,8 @@ abstract class HttpResponseDecoder {
                 return;
             }
 
-            responseTimeoutFuture = eventLoop.schedule(
-                    this, responseTimeoutMillis, TimeUnit.MILLISECONDS);
+            responseTimeout = HashedTimingWheel.newTimeout(
+                    eventLoop, this, responseTimeoutMillis, TimeUnit.MILLISECONDS);
         }
 
         long maxContentLength() {
@@ -324,10 +325,10 @@ abstract class HttpResponseDecoder {
         private void cancelTimeoutOrLog(@Nullable Throwable cause,
                                         Consumer<Throwable> actionOnTimeoutCancelled) {
 
-            final ScheduledFuture<?> responseTimeoutFuture = this.responseTimeoutFuture;
-            this.responseTimeoutFuture = null;
+            final Timeout responseTimeout = this.responseTimeout;
+            this.responseTimeout = null;
 
-            if (responseTimeoutFuture == null || responseTimeoutFuture.cancel(false)) {
+            if (responseTimeout == null || responseTimeout.cancel()) {
                 // There's no timeout or the response has not been timed out.
                 actionOnTimeoutCancelled.accept(cause);
                 return;
@@ -26,6 +26,7 @@ final class OneEventLoopState extends AbstractEventLoopState {
     private final List<AbstractEventLoopEntry> entry = new ArrayList<>();
 
     private int allActiveRequests;
+    private long nextRebalanceTimeNanos;
 
     OneEventLoopState(List<EventLoop> eventLoops, DefaultEventLoopScheduler scheduler) {
         super(eventLoops, scheduler);
@@ -35,12 +36,38 @@ final class OneEventLoopState extends AbstractEventLoopState {
     synchronized AbstractEventLoopEntry acquire() {
         if (entry.isEmpty()) {
             entry.add(new Entry(this, eventLoops().get(scheduler().acquisitionStartIndex(1))));
+            nextRebalanceTimeNanos = System.nanoTime() + scheduler().rebalanceIntervalNanos();
+        } else {
+            maybeRebalance();
         }
         final AbstractEventLoopEntry e = entry.get(0);
         allActiveRequests++;
         return e;
     }
 
+    /**
+     * Moves this state to a less loaded {@link EventLoop} if the current one is overloaded, so that
+     * the new requests are sent via a connection owned by the least loaded {@link EventLoop}. The existing
+     * connection, e.g. a long-lived HTTP/2 connection, is closed when it becomes idle.
+     */
+    private void maybeRebalance() {
+        if (!scheduler().isLoadBased()) {
+            return;
+        }
+
+        final long currentTimeNanos = System.nanoTime();
+        if (currentTimeNanos - nextRebalanceTimeNanos < 0) {
+            return;
+        }
+        nextRebalanceTimeNanos = currentTimeNanos + scheduler().rebalanceIntervalNanos();
+
+        final EventLoop newEventLoop = scheduler().rebalance(entry.get(0).get());
+        if (newEventLoop != null) {
+            // Note that release() does not depend on which entry is released.
+            entry.set(0, new Entry(this, newEventLoop));
+        }
+    }
+
     @Override
     synchronized void release(AbstractEventLoopEntry e) {
         if (--allActiveRequests == 0) {
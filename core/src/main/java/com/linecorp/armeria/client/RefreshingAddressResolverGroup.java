@@ -42,6 +42,7 @@ import com.google.common.collect.ImmutableList.Builder;
 import com.linecorp.armeria.client.RefreshingAddressResolver.CacheEntry;
 import com.linecorp.armeria.client.retry.Backoff;
 import com.linecorp.armeria.internal.dns.DefaultDnsNameResolver;
+import com.linecorp.armeria.internal.dns.DnsQueryCache;
 
 import io.netty.channel.EventLoop;
 import io.netty.handler.codec.dns.DnsRecordType;
@@ -127,11 +128,21 @@ final class RefreshingAddressResolverGroup extends AddressResolverGroup<InetSock
     private final Backoff refreshBackoff;
     private final List<DnsRecordType> dnsRecordTypes;
     private final Consumer<DnsNameResolverBuilder> resolverConfigurator;
+    @Nullable
+    private final Object cacheScope;
 
+    /**
+     * Creates a new instance.
+     *
+     * @param cacheScope the scope of the results in the {@link DnsQueryCache#shared()}, or {@code null} to
+     *                   send the queries without the shared cache
+     */
     RefreshingAddressResolverGroup(Consumer<DnsNameResolverBuilder> resolverConfigurator,
                                    int minTtl, int maxTtl, int negativeTtl, Backoff refreshBackoff,
-                                   @Nullable ResolvedAddressTypes resolvedAddressTypes) {
+                                   @Nullable ResolvedAddressTypes resolvedAddressTypes,
+                                   @Nullable Object cacheScope) {
         this.resolverConfigurator = resolverConfigurator;
+        this.cacheScope = cacheScope;
         this.minTtl = minTtl;
         this.maxTtl = maxTtl;
         this.negativeTtl = negativeTtl;
@@ -154,7 +165,13 @@ final class RefreshingAddressResolverGroup extends AddressResolverGroup<InetSock
         final EventLoop eventLoop = (EventLoop) executor;
         final DnsNameResolverBuilder builder = new DnsNameResolverBuilder(eventLoop);
         resolverConfigurator.accept(builder);
-        final DefaultDnsNameResolver resolver = new DefaultDnsNameResolver(builder.build(), eventLoop);
+        final DefaultDnsNameResolver resolver;
+        if (cacheScope != null) {
+            resolver = new DefaultDnsNameResolver(builder.build(), eventLoop, DnsQueryCache.shared(),
+                                                  cacheScope, negativeTtl);
+        } else {
+            resolver = new DefaultDnsNameResolver(builder.build(), eventLoop);
+        }
         return new RefreshingAddressResolver(eventLoop, cache, resolver, dnsRecordTypes, minTtl, maxTtl,
                                              negativeTtl, refreshBackoff);
     }
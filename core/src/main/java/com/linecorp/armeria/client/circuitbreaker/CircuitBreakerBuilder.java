@@ -27,6 +27,7 @@ import java.util.Optional;
 import com.google.common.annotations.VisibleForTesting;
 
 import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.CoarseClock;
 
 /**
  * Builds a {@link CircuitBreaker} instance using builder pattern.
@@ -47,7 +48,7 @@ public final class CircuitBreakerBuilder {
 
         private static final int COUNTER_UPDATE_INTERVAL_SECONDS = 1;
 
-        private static final Ticker TICKER = Ticker.systemTicker();
+        private static final Ticker TICKER = CoarseClock.ticker();
     }
 
     private final Optional<String> name;
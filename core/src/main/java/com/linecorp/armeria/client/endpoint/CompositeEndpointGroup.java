@@ -85,6 +85,13 @@ final class CompositeEndpointGroup extends AbstractListenable<List<Endpoint>> im
         return merged = newEndpoints.build();
     }
 
+    /**
+     * Returns the {@link EndpointGroup}s merged by this group.
+     */
+    List<EndpointGroup> endpointGroups() {
+        return endpointGroups;
+    }
+
     @Override
     public CompletableFuture<List<Endpoint>> initialEndpointsFuture() {
         return initialEndpointsFuture;
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableSet;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.SessionProtocol;
+
+/**
+ * A {@link DynamicEndpointGroup} which opens the connections to the {@link Endpoint}s of an existing
+ * {@link EndpointGroup} using {@link ClientFactory#warmUp(SessionProtocol, Endpoint, int)} before
+ * providing them, so that the requests are not sent to the {@link Endpoint}s without a connection, e.g.
+ * right after a deployment.
+ *
+ * <p>The {@link #initialEndpointsFuture()} of this group is completed after the connections to the initial
+ * {@link Endpoint}s of the delegate {@link EndpointGroup} are opened. An {@link Endpoint} added to
+ * the delegate later is provided once its connections are opened. Note that an {@link Endpoint} is
+ * provided even if its connections could not be opened, because detecting unhealthy {@link Endpoint}s is
+ * the role of {@link com.linecorp.armeria.client.endpoint.healthcheck.HealthCheckedEndpointGroup}.
+ *
+ * <pre>{@code
+ * EndpointGroup group = ConnectionWarmingEndpointGroup.of(
+ *         DnsAddressEndpointGroup.of("foo.com", 8080), clientFactory, SessionProtocol.HTTP, 2);
+ * group.awaitInitialEndpoints();
+ * }</pre>
+ */
+public final class ConnectionWarmingEndpointGroup extends DynamicEndpointGroup {
+
+    /**
+     * Returns a newly created {@link ConnectionWarmingEndpointGroup}.
+     *
+     * @param delegate the {@link EndpointGroup} that provides the {@link Endpoint}s
+     * @param clientFactory the {@link ClientFactory} of the clients that send requests to the group
+     * @param sessionProtocol the {@link SessionProtocol} of the connections
+     * @param numConnectionsPerEndpoint the number of the connections to open for each {@link Endpoint}
+     */
+    public static ConnectionWarmingEndpointGroup of(EndpointGroup delegate, ClientFactory clientFactory,
+                                                    SessionProtocol sessionProtocol,
+                                                    int numConnectionsPerEndpoint) {
+        return new ConnectionWarmingEndpointGroup(delegate, clientFactory, sessionProtocol,
+                                                  numConnectionsPerEndpoint);
+    }
+
+    private final EndpointGroup delegate;
+    private final ClientFactory clientFactory;
+    private final SessionProtocol sessionProtocol;
+    private final int numConnectionsPerEndpoint;
+
+    /**
+     * The warm-up of the current {@link Endpoint}s, which may be in progress.
+     */
+    private final Map<Endpoint, CompletableFuture<Integer>> warmUpFutures = new ConcurrentHashMap<>();
+
+    private ConnectionWarmingEndpointGroup(EndpointGroup delegate, ClientFactory clientFactory,
+                                           SessionProtocol sessionProtocol, int numConnectionsPerEndpoint) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.clientFactory = requireNonNull(clientFactory, "clientFactory");
+        this.sessionProtocol = requireNonNull(sessionProtocol, "sessionProtocol");
+        checkArgument(numConnectionsPerEndpoint > 0,
+                      "numConnectionsPerEndpoint: %s (expected: > 0)", numConnectionsPerEndpoint);
+        this.numConnectionsPerEndpoint = numConnectionsPerEndpoint;
+
+        delegate.addListener(this::warmUp);
+        delegate.initialEndpointsFuture().thenAccept(this::warmUp);
+    }
+
+    private void warmUp(List<Endpoint> endpoints) {
+        for (Endpoint e : endpoints) {
+            if (warmUpFutures.containsKey(e)) {
+                continue;
+            }
+
+            final CompletableFuture<Integer> future =
+                    clientFactory.warmUp(sessionProtocol, e, numConnectionsPerEndpoint);
+            if (warmUpFutures.putIfAbsent(e, future) == null) {
+                future.handle((unused1, unused2) -> {
+                    refreshEndpoints();
+                    return null;
+                });
+            }
+        }
+        refreshEndpoints();
+    }
+
+    private synchronized void refreshEndpoints() {
+        if (!delegate.initialEndpointsFuture().isDone()) {
+            return;
+        }
+
+        final List<Endpoint> endpoints = delegate.endpoints();
+        // Forget the removed endpoints so that they are warmed up again when added back.
+        warmUpFutures.keySet().retainAll(ImmutableSet.copyOf(endpoints));
+        if (!initialEndpointsFuture().isDone() &&
+            warmUpFutures.values().stream().anyMatch(f -> !f.isDone())) {
+            // Wait until the connections to all the initial endpoints are opened.
+            return;
+        }
+
+        setEndpoints(endpoints.stream()
+                              .filter(e -> {
+                                  final CompletableFuture<Integer> f = warmUpFutures.get(e);
+                                  return f != null && f.isDone();
+                              })
+                              .collect(toImmutableList()));
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        delegate.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("endpoints", endpoints())
+                          .add("sessionProtocol", sessionProtocol)
+                          .add("numConnectionsPerEndpoint", numConnectionsPerEndpoint)
+                          .add("delegate", delegate)
+                          .toString();
+    }
+}
@@ -20,6 +20,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -124,7 +125,7 @@ public class DynamicEndpointGroup extends AbstractListenable<List<Endpoint>> imp
         for (int i = 0; i < oldEndpoints.size(); i++) {
             final Endpoint a = oldEndpoints.get(i);
             final Endpoint b = newEndpoints.get(i);
-            if (!a.equals(b) || a.weight() != b.weight()) {
+            if (!a.equals(b) || a.weight() != b.weight() || !Objects.equals(a.zone(), b.zone())) {
                 return true;
             }
         }
@@ -34,6 +34,20 @@ public interface EndpointSelectionStrategy {
      */
     EndpointSelectionStrategy WEIGHTED_ROUND_ROBIN = new WeightedRoundRobinStrategy();
 
+    /**
+     * A strategy which selects the least loaded {@link Endpoint}, estimated from the number of outstanding
+     * requests and the exponentially weighted moving average of the response latency of each
+     * {@link Endpoint}.
+     */
+    EndpointSelectionStrategy LEAST_LOADED = new LeastLoadedStrategy(false);
+
+    /**
+     * A strategy which picks two {@link Endpoint}s at random and selects the less loaded one, which is
+     * estimated the same way as {@link #LEAST_LOADED}. Unlike {@link #LEAST_LOADED}, the cost of
+     * a selection does not grow with the number of {@link Endpoint}s.
+     */
+    EndpointSelectionStrategy POWER_OF_TWO_CHOICES = new LeastLoadedStrategy(true);
+
     /**
      * Creates a new {@link EndpointSelector} that selects an {@link Endpoint} from the specified
      * {@link EndpointGroup}.
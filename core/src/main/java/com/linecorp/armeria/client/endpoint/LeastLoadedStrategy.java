@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.LongMath;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.HttpStatusClass;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.CoarseClock;
+
+/**
+ * An {@link EndpointSelectionStrategy} which prefers the {@link Endpoint} with the least load, where
+ * the load of an {@link Endpoint} is estimated from its number of outstanding requests and
+ * the exponentially weighted moving average (EWMA) of its response latency.
+ *
+ * <p>If {@code powerOfTwoChoices} is {@code true}, the selector picks two {@link Endpoint}s at random
+ * and chooses the less loaded one. Otherwise, it chooses the least loaded one among all {@link Endpoint}s.
+ */
+final class LeastLoadedStrategy implements EndpointSelectionStrategy {
+
+    /**
+     * The weight of a new latency sample.
+     */
+    private static final double ALPHA = 0.3;
+
+    /**
+     * The latency of an {@link Endpoint} is forgotten if no response has been received from it for this
+     * amount of time, so that an {@link Endpoint} which was slow once can receive requests again.
+     */
+    private static final long LATENCY_EXPIRY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The minimum latency recorded for a failed request. A failed request often completes much faster
+     * than a successful one, so its actual latency would make a failing {@link Endpoint} look the least
+     * loaded.
+     */
+    @VisibleForTesting
+    static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean powerOfTwoChoices;
+    private final Ticker ticker;
+
+    LeastLoadedStrategy(boolean powerOfTwoChoices) {
+        this(powerOfTwoChoices, CoarseClock.ticker());
+    }
+
+    @VisibleForTesting
+    LeastLoadedStrategy(boolean powerOfTwoChoices, Ticker ticker) {
+        this.powerOfTwoChoices = powerOfTwoChoices;
+        this.ticker = requireNonNull(ticker, "ticker");
+    }
+
+    @Override
+    public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+        return new LeastLoadedSelector(endpointGroup);
+    }
+
+    private final class LeastLoadedSelector implements EndpointSelector {
+
+        private final EndpointGroup endpointGroup;
+        private volatile EndpointState[] states;
+
+        LeastLoadedSelector(EndpointGroup endpointGroup) {
+            this.endpointGroup = requireNonNull(endpointGroup, "endpointGroup");
+            states = newStates(endpointGroup.endpoints(), new EndpointState[0]);
+            endpointGroup.addListener(endpoints -> states = newStates(endpoints, states));
+        }
+
+        @Override
+        public EndpointGroup group() {
+            return endpointGroup;
+        }
+
+        @Override
+        public EndpointSelectionStrategy strategy() {
+            return LeastLoadedStrategy.this;
+        }
+
+        @Override
+        public Endpoint select(ClientRequestContext ctx) {
+            final EndpointState[] states = this.states;
+            final int numStates = states.length;
+            if (numStates == 0) {
+                throw new EndpointGroupException(endpointGroup + " is empty");
+            }
+
+            final long now = ticker.read();
+            final EndpointState selected;
+            if (numStates == 1) {
+                selected = states[0];
+            } else if (powerOfTwoChoices) {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                final int first = random.nextInt(numStates);
+                // Choose the second one from the others so that we always compare two different endpoints.
+                int second = random.nextInt(numStates - 1);
+                if (second >= first) {
+                    second++;
+                }
+                selected = lessLoaded(states[first], states[second], now);
+            } else {
+                // Start from a random position so that the ties are not always broken in favor of the
+                // first endpoint.
+                final int offset = ThreadLocalRandom.current().nextInt(numStates);
+                EndpointState leastLoaded = states[offset];
+                for (int i = 1; i < numStates; i++) {
+                    leastLoaded = lessLoaded(leastLoaded, states[(offset + i) % numStates], now);
+                }
+                selected = leastLoaded;
+            }
+
+            selected.onRequest();
+            ctx.log().addListener(log -> onResponse(selected, log), RequestLogAvailability.COMPLETE);
+            return selected.endpoint;
+        }
+
+        private void onResponse(EndpointState state, RequestLog log) {
+            final long now = ticker.read();
+            state.onRequestComplete();
+
+            final long sampleNanos = Math.max(1, log.totalDurationNanos());
+            if (isFailure(log)) {
+                // Penalize the failing endpoint with an absolute amount rather than with its own latency,
+                // which is 0 if it has never succeeded, so that it is ranked below the healthy ones.
+                final long maxLatencyNanos = maxLatencyNanos(states, state, now);
+                state.onResponse(Math.max(Math.max(sampleNanos, FAILURE_PENALTY_NANOS),
+                                          LongMath.saturatedMultiply(maxLatencyNanos, 2)), now);
+            } else {
+                state.onResponse(sampleNanos, now);
+            }
+        }
+    }
+
+    private static boolean isFailure(RequestLog log) {
+        return log.responseCause() != null ||
+               log.status().codeClass() == HttpStatusClass.SERVER_ERROR;
+    }
+
+    /**
+     * Returns the maximum latency of the {@link EndpointState}s other than the specified one.
+     */
+    private static long maxLatencyNanos(EndpointState[] states, EndpointState exclude, long now) {
+        long maxLatencyNanos = 0;
+        for (EndpointState state : states) {
+            if (state != exclude) {
+                maxLatencyNanos = Math.max(maxLatencyNanos, state.latencyNanos(now));
+            }
+        }
+        return maxLatencyNanos;
+    }
+
+    private static EndpointState[] newStates(List<Endpoint> endpoints, EndpointState[] oldStates) {
+        // Keep the statistics of the endpoints which still exist.
+        final Map<Endpoint, EndpointState> oldStateMap = new HashMap<>();
+        for (EndpointState state : oldStates) {
+            oldStateMap.put(state.endpoint, state);
+        }
+
+        final EndpointState[] states = new EndpointState[endpoints.size()];
+        for (int i = 0; i < states.length; i++) {
+            final Endpoint endpoint = endpoints.get(i);
+            final EndpointState oldState = oldStateMap.get(endpoint);
+            states[i] = oldState != null ? oldState : new EndpointState(endpoint);
+        }
+        return states;
+    }
+
+    @VisibleForTesting
+    static EndpointState lessLoaded(EndpointState a, EndpointState b, long now) {
+        final int outstandingA = a.outstandingRequests;
+        final int outstandingB = b.outstandingRequests;
+        final long latencyA = a.latencyNanos(now);
+        final long latencyB = b.latencyNanos(now);
+
+        if (latencyA > 0 && latencyB > 0) {
+            // Compare the expected time to complete all the outstanding requests and the new one.
+            final double costA = (outstandingA + 1) * (double) latencyA;
+            final double costB = (outstandingB + 1) * (double) latencyB;
+            if (costA != costB) {
+                return costA < costB ? a : b;
+            }
+        }
+
+        // Compare only the number of outstanding requests when the latency of either side is unknown.
+        return outstandingA <= outstandingB ? a : b;
+    }
+
+    @VisibleForTesting
+    static final class EndpointState {
+
+        private static final AtomicIntegerFieldUpdater<EndpointState> outstandingRequestsUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(EndpointState.class, "outstandingRequests");
+
+        final Endpoint endpoint;
+
+        // Updated via outstandingRequestsUpdater
+        private volatile int outstandingRequests;
+
+        // The latency is updated without synchronization. A lost update under contention only makes
+        // the moving average slightly less accurate.
+        private volatile long latencyNanos;
+        private volatile long lastResponseTimeNanos;
+
+        EndpointState(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * Returns the EWMA of the response latency, or {@code 0} if unknown or expired.
+         */
+        long latencyNanos(long now) {
+            final long latencyNanos = this.latencyNanos;
+            if (latencyNanos == 0 || now - lastResponseTimeNanos > LATENCY_EXPIRY_NANOS) {
+                return 0;
+            }
+            return latencyNanos;
+        }
+
+        void onRequest() {
+            outstandingRequestsUpdater.incrementAndGet(this);
+        }
+
+        void onRequestComplete() {
+            outstandingRequestsUpdater.decrementAndGet(this);
+        }
+
+        @VisibleForTesting
+        void onResponse(long sampleNanos, long now) {
+            final long oldLatencyNanos = latencyNanos(now);
+            if (oldLatencyNanos == 0) {
+                latencyNanos = sampleNanos;
+            } else {
+                latencyNanos = Math.max(1, (long) (oldLatencyNanos + ALPHA * (sampleNanos - oldLatencyNanos)));
+            }
+            lastResponseTimeNanos = now;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+
+import com.linecorp.armeria.client.Endpoint;
+
+/**
+ * A {@link DynamicEndpointGroup} which provides only a subset of the {@link Endpoint}s of an existing
+ * {@link EndpointGroup}, so that the number of connections to each {@link Endpoint} does not grow linearly
+ * with the number of clients.
+ *
+ * <p>The {@link Endpoint}s of the delegate {@link EndpointGroup} are placed on a ring in their natural
+ * order, and each client is placed on the same ring at the position determined by the hash of its ID.
+ * The subset of a client is the {@code subsetSize} {@link Endpoint}s which follow its position on the
+ * ring. Therefore, the subset of a client is stable as long as the {@link Endpoint}s do not change, and
+ * the clients with evenly distributed IDs are spread evenly over the {@link Endpoint}s. Note that the
+ * subset is not sticky; when an {@link Endpoint} is added or removed, the subset is computed again from
+ * the new ring and may contain different {@link Endpoint}s.
+ *
+ * <p>The size of the subset can be changed at runtime with {@link #setSubsetSize(int)}, e.g. to expand
+ * the subset when the load of the client rises.
+ *
+ * <pre>{@code
+ * EndpointGroup group = SubsettingEndpointGroup.of(
+ *         DnsAddressEndpointGroup.of("foo.com", 8080), System.getenv("HOSTNAME"), 10);
+ * }</pre>
+ */
+public final class SubsettingEndpointGroup extends DynamicEndpointGroup {
+
+    private static final double TWO_TO_THE_32 = 1L << 32;
+
+    /**
+     * Returns a newly created {@link SubsettingEndpointGroup}.
+     *
+     * @param delegate the {@link EndpointGroup} that provides the candidate {@link Endpoint}s
+     * @param clientId the ID of this client which determines the subset. The clients with the same ID get
+     *                 the same subset, so it is recommended to use a unique ID such as a host name.
+     * @param subsetSize the maximum number of the {@link Endpoint}s in the subset
+     */
+    public static SubsettingEndpointGroup of(EndpointGroup delegate, String clientId, int subsetSize) {
+        requireNonNull(clientId, "clientId");
+        final long hash = Hashing.murmur3_32().hashString(clientId, StandardCharsets.UTF_8).asInt() &
+                          0xFFFFFFFFL;
+        return new SubsettingEndpointGroup(delegate, hash / TWO_TO_THE_32, subsetSize);
+    }
+
+    private final EndpointGroup delegate;
+    private final double offset;
+    private final Consumer<List<Endpoint>> listener = unused -> refreshEndpoints();
+    private volatile int subsetSize;
+
+    @VisibleForTesting
+    SubsettingEndpointGroup(EndpointGroup delegate, double offset, int subsetSize) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        checkArgument(offset >= 0 && offset < 1, "offset: %s (expected: 0 <= offset < 1)", offset);
+        validateSubsetSize(subsetSize);
+        this.offset = offset;
+        this.subsetSize = subsetSize;
+
+        delegate.addListener(listener);
+        delegate.initialEndpointsFuture().thenAccept(unused -> refreshEndpoints());
+    }
+
+    /**
+     * Returns the maximum number of the {@link Endpoint}s in the subset.
+     */
+    public int subsetSize() {
+        return subsetSize;
+    }
+
+    /**
+     * Sets the maximum number of the {@link Endpoint}s in the subset. If the {@link Endpoint}s of the
+     * delegate did not change, a larger subset contains all {@link Endpoint}s of the previous subset
+     * because both start from the same position on the ring, so that the existing connections can be
+     * reused.
+     */
+    public void setSubsetSize(int subsetSize) {
+        validateSubsetSize(subsetSize);
+        this.subsetSize = subsetSize;
+        refreshEndpoints();
+    }
+
+    private static void validateSubsetSize(int subsetSize) {
+        checkArgument(subsetSize > 0, "subsetSize: %s (expected: > 0)", subsetSize);
+    }
+
+    private void refreshEndpoints() {
+        if (!delegate.initialEndpointsFuture().isDone()) {
+            return;
+        }
+        setEndpoints(subset(delegate.endpoints(), offset, subsetSize));
+    }
+
+    @VisibleForTesting
+    static List<Endpoint> subset(List<Endpoint> endpoints, double offset, int subsetSize) {
+        final int numEndpoints = endpoints.size();
+        if (numEndpoints <= subsetSize) {
+            return endpoints;
+        }
+
+        final List<Endpoint> sorted = ImmutableList.sortedCopyOf(endpoints);
+        final int start = (int) (offset * numEndpoints);
+        final ImmutableList.Builder<Endpoint> builder = ImmutableList.builderWithExpectedSize(subsetSize);
+        for (int i = 0; i < subsetSize; i++) {
+            builder.add(sorted.get((start + i) % numEndpoints));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        delegate.removeListener(listener);
+        delegate.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("subset", endpoints())
+                          .add("subsetSize", subsetSize)
+                          .add("offset", offset)
+                          .add("delegate", delegate)
+                          .toString();
+    }
+}
@@ -20,10 +20,10 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Streams;
 
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.Endpoint;
@@ -53,7 +53,13 @@ final class WeightedRoundRobinStrategy implements EndpointSelectionStrategy {
         WeightedRoundRobinSelector(EndpointGroup endpointGroup) {
             this.endpointGroup = endpointGroup;
             endpointsAndWeights = new EndpointsAndWeights(endpointGroup.endpoints());
-            endpointGroup.addListener(endpoints -> endpointsAndWeights = new EndpointsAndWeights(endpoints));
+            endpointGroup.addListener(endpoints -> {
+                // Keep the current state if the same endpoints are notified again, which is common for
+                // the endpoint groups that refresh their endpoints periodically, e.g. DNS.
+                if (!endpointsAndWeights.hasSameEndpoints(endpoints)) {
+                    endpointsAndWeights = new EndpointsAndWeights(endpoints);
+                }
+            });
         }
 
         @Override
@@ -72,19 +78,6 @@ final class WeightedRoundRobinStrategy implements EndpointSelectionStrategy {
             return endpointsAndWeights.selectEndpoint(currentSequence);
         }
 
-        // endpoints accumulation which are grouped by weight
-        private static final class EndpointsGroupByWeight {
-            final long startIndex;
-            final int weight;
-            final long accumulatedWeight;
-
-            EndpointsGroupByWeight(long startIndex, int weight, long accumulatedWeight) {
-                this.startIndex = startIndex;
-                this.weight = weight;
-                this.accumulatedWeight = accumulatedWeight;
-            }
-        }
-
         //
         // In general, assume the weights are w0 < w1 < ... < wM where M = N - 1, N is number of endpoints.
         //
@@ -108,76 +101,118 @@ final class WeightedRoundRobinStrategy implements EndpointSelectionStrategy {
         // * F(2) = X(0) + X(1) + X(2)
         // * F(i) = F(i-1) + X(i)
         //
-        // We could easily find the part (which sequence S belongs) using binary search on F.
-        // Just find the index k where:
+        // S belongs to the part k where:
+        //
+        //                               F(k - 1) <= S < F(k), where F(-1) = 0.
         //
-        //                               F(k) <= S < F(k + 1).
+        // The index of the sequence in this part is P = S - F(k - 1). Because part k starts at index k,
+        // and contains (N - k) elements, then the real index is:
         //
-        // So, S belongs to part number (k + 1), index of the sequence in this part is P = S - F(k).
-        // Because part (k + 1) start at index (k + 1), and contains (N - k - 1) elements,
-        // then the real index is:
+        //                              k + (P % (N - k))
         //
-        //                              (k + 1) + (P % (N - k - 1))
+        // To find the part k in constant time regardless of the number of parts, we divide
+        // [0, totalWeight) into buckets of the same size and remember the first part which overlaps with
+        // each bucket. We start from the part remembered for the bucket of S and move to the next part
+        // until F(k) > S. Because there are more buckets than parts, only a few steps are needed on average.
         //
         // For special case like w(i) == w(i+1). We just group them all together
         // and mark the start index of the group.
         //
         private static final class EndpointsAndWeights {
+
+            private static final int BUCKETS_PER_PART = 4;
+
+            private final List<Endpoint> rawEndpoints;
             private final List<Endpoint> endpoints;
             private final boolean weighted;
             private final long totalWeight; // prevent overflow by using long
-            private final List<EndpointsGroupByWeight> accumulatedGroups;
 
-            EndpointsAndWeights(Iterable<Endpoint> endpoints) {
+            // F(k) and the index of the first endpoint of each part
+            private final long[] accumulatedWeights;
+            private final int[] startIndices;
+
+            // The first part which overlaps with each bucket
+            private final long bucketSize;
+            private final int[] firstParts;
+
+            EndpointsAndWeights(List<Endpoint> endpoints) {
+                rawEndpoints = ImmutableList.copyOf(endpoints);
 
                 // prepare immutable endpoints
-                this.endpoints = Streams.stream(endpoints)
+                this.endpoints = rawEndpoints.stream()
                         .filter(e -> e.weight() > 0) // only process endpoint with weight > 0
                         .sorted(Comparator.comparing(Endpoint::weight)
                                 .thenComparing(Endpoint::host)
                                 .thenComparingInt(Endpoint::port))
                         .collect(toImmutableList());
-                final long numEndpoints = this.endpoints.size();
-
-                // get min weight, max weight and number of distinct weight
-                int minWeight = Integer.MAX_VALUE;
-                int maxWeight = Integer.MIN_VALUE;
-                int numberDistinctWeight = 0;
+                final int numEndpoints = this.endpoints.size();
 
+                // get number of distinct weight
+                int numParts = 0;
                 int oldWeight = -1;
                 for (Endpoint endpoint : this.endpoints) {
                     final int weight = endpoint.weight();
-                    minWeight = Math.min(minWeight, weight);
-                    maxWeight = Math.max(maxWeight, weight);
-                    numberDistinctWeight += weight == oldWeight ? 0 : 1;
+                    numParts += weight == oldWeight ? 0 : 1;
                     oldWeight = weight;
                 }
 
                 // accumulation
+                accumulatedWeights = new long[numParts];
+                startIndices = new int[numParts];
                 long totalWeight = 0;
+                int part = -1;
+                int previousWeight = 0;
+                for (int i = 0; i < numEndpoints; i++) {
+                    final int weight = this.endpoints.get(i).weight();
+                    if (part < 0 || weight != previousWeight) {
+                        totalWeight += (long) (weight - previousWeight) * (numEndpoints - i);
+                        part++;
+                        accumulatedWeights[part] = totalWeight;
+                        startIndices[part] = i;
+                        previousWeight = weight;
+                    }
+                }
 
-                ImmutableList.Builder<EndpointsGroupByWeight> accumulatedGroupsBuilder
-                        = ImmutableList.builderWithExpectedSize(numberDistinctWeight);
-                EndpointsGroupByWeight currentGroup = null;
+                this.totalWeight = totalWeight;
+                weighted = numParts > 1;
 
-                long rest = numEndpoints;
-                for (Endpoint endpoint : this.endpoints) {
-                    if (currentGroup == null || currentGroup.weight != endpoint.weight()) {
-                        totalWeight += currentGroup == null ?
-                                endpoint.weight() * rest
-                                : (endpoint.weight() - currentGroup.weight) * rest;
-                        currentGroup = new EndpointsGroupByWeight(
-                                numEndpoints - rest, endpoint.weight(), totalWeight
-                        );
-                        accumulatedGroupsBuilder = accumulatedGroupsBuilder.add(currentGroup);
+                if (weighted) {
+                    final long numBuckets = Math.min(totalWeight, (long) numParts * BUCKETS_PER_PART);
+                    bucketSize = (totalWeight + numBuckets - 1) / numBuckets;
+                    firstParts = new int[(int) ((totalWeight + bucketSize - 1) / bucketSize)];
+                    int firstPart = 0;
+                    for (int i = 0; i < firstParts.length; i++) {
+                        final long bucketStart = i * bucketSize;
+                        while (accumulatedWeights[firstPart] <= bucketStart) {
+                            firstPart++;
+                        }
+                        firstParts[i] = firstPart;
                     }
-
-                    rest--;
+                } else {
+                    bucketSize = 0;
+                    firstParts = new int[0];
                 }
+            }
 
-                this.accumulatedGroups = accumulatedGroupsBuilder.build();
-                this.totalWeight = totalWeight;
-                this.weighted = minWeight != maxWeight;
+            /**
+             * Returns whether this instance has been built from the same {@link Endpoint}s with the same
+             * weights and zones in the same order.
+             */
+            boolean hasSameEndpoints(List<Endpoint> endpoints) {
+                final int numEndpoints = rawEndpoints.size();
+                if (numEndpoints != endpoints.size()) {
+                    return false;
+                }
+                for (int i = 0; i < numEndpoints; i++) {
+                    final Endpoint oldEndpoint = rawEndpoints.get(i);
+                    final Endpoint newEndpoint = endpoints.get(i);
+                    // Endpoint.equals() does not compare the weights and zones.
+                    if (!oldEndpoint.equals(newEndpoint) || oldEndpoint.weight() != newEndpoint.weight() ||
+                        !Objects.equals(oldEndpoint.zone(), newEndpoint.zone())) {
+                        return false;
+                    }
+                }
+                return true;
             }
 
             Endpoint selectEndpoint(int currentSequence) {
@@ -186,35 +221,16 @@ final class WeightedRoundRobinStrategy implements EndpointSelectionStrategy {
                 }
 
                 if (weighted) {
-                    final long numberEndpoints = endpoints.size();
-
                     final long mod = Math.abs(currentSequence % totalWeight);
 
-                    if (mod < accumulatedGroups.get(0).accumulatedWeight) {
-                        return endpoints.get((int) (mod % numberEndpoints));
-                    }
-
-                    int left = 0;
-                    int right = accumulatedGroups.size() - 1;
-                    int mid;
-                    while (left < right) {
-                        mid = left + ((right - left) >> 1);
-
-                        if (mid == left) {
-                            break;
-                        }
-
-                        if (accumulatedGroups.get(mid).accumulatedWeight <= mod) {
-                            left = mid;
-                        } else {
-                            right = mid;
-                        }
+                    int part = firstParts[(int) (mod / bucketSize)];
+                    while (accumulatedWeights[part] <= mod) {
+                        part++;
                     }
 
-                    // (left + 1) is the part where sequence belongs
-                    final long indexInPart = mod - accumulatedGroups.get(left).accumulatedWeight;
-                    final long startIndex = accumulatedGroups.get(left + 1).startIndex;
-                    return endpoints.get((int) (startIndex + indexInPart % (numberEndpoints - startIndex)));
+                    final long indexInPart = part == 0 ? mod : mod - accumulatedWeights[part - 1];
+                    final int startIndex = startIndices[part];
+                    return endpoints.get((int) (startIndex + indexInPart % (endpoints.size() - startIndex)));
                 }
 
                 return endpoints.get(Math.abs(currentSequence % endpoints.size()));
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.healthcheck.HealthCheckedEndpointGroup;
+
+/**
+ * An {@link EndpointSelectionStrategy} which prefers the {@link Endpoint}s in the local zone and spills
+ * over to the {@link Endpoint}s in the other zones when the local zone is not healthy enough.
+ * The zone of an {@link Endpoint} is specified with {@link Endpoint#withZone(String)}.
+ *
+ * <p>The healthy ratio of the local zone is the number of the local {@link Endpoint}s in the
+ * {@link EndpointGroup} divided by the number of the local candidate {@link Endpoint}s. The candidates are
+ * retrieved from {@link HealthCheckedEndpointGroup#candidates()} if the {@link EndpointGroup} is
+ * a {@link HealthCheckedEndpointGroup} or a group created by {@link EndpointGroup#of(EndpointGroup...)} which
+ * contains {@link HealthCheckedEndpointGroup}s. Otherwise, e.g. when a {@link HealthCheckedEndpointGroup} is
+ * wrapped by another {@link EndpointGroup} such as {@link EndpointGroup#orElse(EndpointGroup)}, all local
+ * {@link Endpoint}s in the group are considered healthy, and the requests are not spilled over
+ * proportionally.
+ *
+ * <p>If the healthy ratio is greater than or equal to {@code minHealthyRatio}, all requests are sent to
+ * the local zone. Otherwise, the requests are spilled over to the other zones proportionally, i.e.
+ * {@code healthyRatio / minHealthyRatio} of the requests are sent to the local zone and the rest are sent to
+ * the other zones. For example, when {@code minHealthyRatio} is {@code 0.8} and only half of the local
+ * {@link Endpoint}s are healthy, 62.5% of the requests are sent to the local zone.
+ * The {@link Endpoint}s in the same tier are selected in a round-robin fashion.
+ *
+ * <pre>{@code
+ * EndpointGroup group = HealthCheckedEndpointGroup.of(
+ *         EndpointGroup.of(Endpoint.of("a.foo.com", 8080).withZone("zone-a"),
+ *                          Endpoint.of("b.foo.com", 8080).withZone("zone-b")),
+ *         "/health");
+ * EndpointGroupRegistry.register("foo", group, new ZoneAwareEndpointSelectionStrategy("zone-a"));
+ * }</pre>
+ */
+public final class ZoneAwareEndpointSelectionStrategy implements EndpointSelectionStrategy {
+
+    private static final double DEFAULT_MIN_HEALTHY_RATIO = 0.7;
+
+    private final String localZone;
+    private final double minHealthyRatio;
+
+    /**
+     * Creates a new instance which spills over to the other zones when less than 70% of the
+     * {@link Endpoint}s in the specified local zone are healthy.
+     *
+     * @param localZone the zone where this client is running
+     */
+    public ZoneAwareEndpointSelectionStrategy(String localZone) {
+        this(localZone, DEFAULT_MIN_HEALTHY_RATIO);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param localZone the zone where this client is running
+     * @param minHealthyRatio the minimum ratio of the healthy {@link Endpoint}s in the local zone which
+     *                        is required to send all requests to the local zone
+     */
+    public ZoneAwareEndpointSelectionStrategy(String localZone, double minHealthyRatio) {
+        this.localZone = requireNonNull(localZone, "localZone");
+        checkArgument(minHealthyRatio > 0 && minHealthyRatio <= 1,
+                      "minHealthyRatio: %s (expected: 0 < minHealthyRatio <= 1)", minHealthyRatio);
+        this.minHealthyRatio = minHealthyRatio;
+    }
+
+    @Override
+    public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+        return new ZoneAwareSelector(endpointGroup);
+    }
+
+    @VisibleForTesting
+    Tiers newTiers(EndpointGroup endpointGroup) {
+        final ImmutableList.Builder<Endpoint> localBuilder = ImmutableList.builder();
+        final ImmutableList.Builder<Endpoint> remoteBuilder = ImmutableList.builder();
+        for (Endpoint e : endpointGroup.endpoints()) {
+            if (localZone.equals(e.zone())) {
+                localBuilder.add(e);
+            } else {
+                remoteBuilder.add(e);
+            }
+        }
+        final List<Endpoint> local = localBuilder.build();
+        final List<Endpoint> remote = remoteBuilder.build();
+
+        final int numLocalCandidates = numLocalCandidates(endpointGroup);
+
+        final double localShare;
+        if (local.isEmpty()) {
+            localShare = 0;
+        } else if (remote.isEmpty() || numLocalCandidates <= local.size()) {
+            localShare = 1;
+        } else {
+            final double healthyRatio = (double) local.size() / numLocalCandidates;
+            localShare = Math.min(1, healthyRatio / minHealthyRatio);
+        }
+
+        return new Tiers(local, remote, localShare);
+    }
+
+    /**
+     * Returns the number of the local {@link Endpoint}s which the specified {@link EndpointGroup} would have
+     * if all of them were healthy.
+     */
+    private int numLocalCandidates(EndpointGroup endpointGroup) {
+        if (endpointGroup instanceof HealthCheckedEndpointGroup) {
+            return numLocal(((HealthCheckedEndpointGroup) endpointGroup).candidates());
+        }
+        if (endpointGroup instanceof CompositeEndpointGroup) {
+            int numLocalCandidates = 0;
+            for (EndpointGroup group : ((CompositeEndpointGroup) endpointGroup).endpointGroups()) {
+                numLocalCandidates += numLocalCandidates(group);
+            }
+            return numLocalCandidates;
+        }
+        return numLocal(endpointGroup.endpoints());
+    }
+
+    private int numLocal(List<Endpoint> endpoints) {
+        return (int) endpoints.stream().filter(e -> localZone.equals(e.zone())).count();
+    }
+
+    private final class ZoneAwareSelector implements EndpointSelector {
+
+        private final EndpointGroup endpointGroup;
+        private final AtomicInteger localSequence = new AtomicInteger();
+        private final AtomicInteger remoteSequence = new AtomicInteger();
+        private volatile Tiers tiers;
+
+        ZoneAwareSelector(EndpointGroup endpointGroup) {
+            this.endpointGroup = requireNonNull(endpointGroup, "endpointGroup");
+            tiers = newTiers(endpointGroup);
+            endpointGroup.addListener(unused -> tiers = newTiers(endpointGroup));
+        }
+
+        @Override
+        public EndpointGroup group() {
+            return endpointGroup;
+        }
+
+        @Override
+        public EndpointSelectionStrategy strategy() {
+            return ZoneAwareEndpointSelectionStrategy.this;
+        }
+
+        @Override
+        public Endpoint select(ClientRequestContext ctx) {
+            final Tiers tiers = this.tiers;
+            if (tiers.useLocal()) {
+                return select(tiers.local, localSequence);
+            }
+            if (tiers.remote.isEmpty()) {
+                throw new EndpointGroupException(endpointGroup + " is empty");
+            }
+            return select(tiers.remote, remoteSequence);
+        }
+
+        private Endpoint select(List<Endpoint> endpoints, AtomicInteger sequence) {
+            return endpoints.get(Math.abs(sequence.getAndIncrement() % endpoints.size()));
+        }
+    }
+
+    @VisibleForTesting
+    static final class Tiers {
+
+        final List<Endpoint> local;
+        final List<Endpoint> remote;
+        final double localShare;
+
+        Tiers(List<Endpoint> local, List<Endpoint> remote, double localShare) {
+            this.local = local;
+            this.remote = remote;
+            this.localShare = localShare;
+        }
+
+        boolean useLocal() {
+            if (localShare >= 1) {
+                return true;
+            }
+            if (localShare <= 0) {
+                return false;
+            }
+            return ThreadLocalRandom.current().nextDouble() < localShare;
+        }
+    }
+}
@@ -84,10 +84,11 @@ public final class DnsAddressEndpointGroup extends DnsEndpointGroup {
 
     DnsAddressEndpointGroup(EventLoop eventLoop, int minTtl, int maxTtl,
                             DnsServerAddressStreamProvider serverAddressStreamProvider,
-                            Backoff backoff, @Nullable ResolvedAddressTypes resolvedAddressTypes,
+                            Backoff backoff, boolean sharedCacheEnabled,
+                            @Nullable ResolvedAddressTypes resolvedAddressTypes,
                             String hostname, int port) {
 
-        super(eventLoop, minTtl, maxTtl, serverAddressStreamProvider, backoff,
+        super(eventLoop, minTtl, maxTtl, serverAddressStreamProvider, backoff, sharedCacheEnabled,
               newQuestions(hostname, resolvedAddressTypes),
               resolverBuilder -> {
                   if (resolvedAddressTypes != null) {
@@ -70,7 +70,7 @@ public final class DnsAddressEndpointGroupBuilder
      */
     public DnsAddressEndpointGroup build() {
         return new DnsAddressEndpointGroup(eventLoop(), minTtl(), maxTtl(),
-                                           serverAddressStreamProvider(), backoff(),
+                                           serverAddressStreamProvider(), backoff(), sharedCacheEnabled(),
                                            resolvedAddressTypes, hostname(), port);
     }
 }
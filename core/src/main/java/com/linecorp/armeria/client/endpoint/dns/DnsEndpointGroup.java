@@ -36,6 +36,7 @@ import com.linecorp.armeria.client.endpoint.DynamicEndpointGroup;
 import com.linecorp.armeria.client.retry.Backoff;
 import com.linecorp.armeria.internal.TransportType;
 import com.linecorp.armeria.internal.dns.DefaultDnsNameResolver;
+import com.linecorp.armeria.internal.dns.DnsQueryCache;
 import com.linecorp.armeria.internal.dns.DnsUtil;
 
 import io.netty.buffer.ByteBuf;
@@ -73,7 +74,7 @@ abstract class DnsEndpointGroup extends DynamicEndpointGroup {
 
     DnsEndpointGroup(EventLoop eventLoop, int minTtl, int maxTtl,
                      DnsServerAddressStreamProvider serverAddressStreamProvider,
-                     Backoff backoff, Iterable<DnsQuestion> questions,
+                     Backoff backoff, boolean sharedCacheEnabled, Iterable<DnsQuestion> questions,
                      Consumer<DnsNameResolverBuilder> resolverConfigurator) {
 
         this.eventLoop = eventLoop;
@@ -95,7 +96,12 @@ abstract class DnsEndpointGroup extends DynamicEndpointGroup {
                 .nameServerProvider(serverAddressStreamProvider);
 
         resolverConfigurator.accept(resolverBuilder);
-        resolver = new DefaultDnsNameResolver(resolverBuilder.build(), eventLoop);
+        if (sharedCacheEnabled) {
+            resolver = new DefaultDnsNameResolver(resolverBuilder.build(), eventLoop, DnsQueryCache.shared(),
+                                                  serverAddressStreamProvider, 0);
+        } else {
+            resolver = new DefaultDnsNameResolver(resolverBuilder.build(), eventLoop);
+        }
     }
 
     final Logger logger() {
@@ -26,6 +26,8 @@ import javax.annotation.Nullable;
 import com.google.common.base.Ascii;
 import com.google.common.collect.ImmutableList;
 
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.DnsResolverGroupBuilder;
 import com.linecorp.armeria.client.retry.Backoff;
 import com.linecorp.armeria.common.CommonPools;
 import com.linecorp.armeria.internal.TransportType;
@@ -45,6 +47,7 @@ abstract class DnsEndpointGroupBuilder<B extends DnsEndpointGroupBuilder<B>> {
     private DnsServerAddressStreamProvider serverAddressStreamProvider =
             DnsServerAddressStreamProviders.platformDefault();
     private Backoff backoff = Backoff.exponential(1000, 32000).withJitter(0.2);
+    private boolean sharedCacheEnabled;
 
     DnsEndpointGroupBuilder(String hostname) {
         this.hostname = Ascii.toLowerCase(IDN.toASCII(requireNonNull(hostname, "hostname"),
@@ -140,4 +143,25 @@ abstract class DnsEndpointGroupBuilder<B extends DnsEndpointGroupBuilder<B>> {
         this.backoff = requireNonNull(backoff, "backoff");
         return self();
     }
+
+    final boolean sharedCacheEnabled() {
+        return sharedCacheEnabled;
+    }
+
+    /**
+     * Sets whether the DNS queries are sent via the process-wide DNS cache which is shared with the other
+     * {@link DnsEndpointGroup}s and the DNS resolvers of {@link ClientFactory}s with the shared cache enabled.
+     * The concurrent queries for the same host name are coalesced into a single query, and the results are
+     * cached until their TTL elapses. This option is disabled by default.
+     *
+     * <p>Note that the results are shared only between the groups and resolvers which use the same
+     * DNS server addresses. Do not enable this option if the groups use different search domains for the same
+     * host name.
+     *
+     * @see DnsResolverGroupBuilder#sharedCacheEnabled(boolean)
+     */
+    public final B sharedCacheEnabled(boolean sharedCacheEnabled) {
+        this.sharedCacheEnabled = sharedCacheEnabled;
+        return self();
+    }
 }
@@ -67,8 +67,8 @@ public final class DnsServiceEndpointGroup extends DnsEndpointGroup {
 
     DnsServiceEndpointGroup(EventLoop eventLoop, int minTtl, int maxTtl,
                             DnsServerAddressStreamProvider serverAddressStreamProvider,
-                            Backoff backoff, String hostname) {
-        super(eventLoop, minTtl, maxTtl, serverAddressStreamProvider, backoff,
+                            Backoff backoff, boolean sharedCacheEnabled, String hostname) {
+        super(eventLoop, minTtl, maxTtl, serverAddressStreamProvider, backoff, sharedCacheEnabled,
               ImmutableList.of(DnsQuestionWithoutTrailingDot.of(hostname, DnsRecordType.SRV)),
               unused -> {});
         start();
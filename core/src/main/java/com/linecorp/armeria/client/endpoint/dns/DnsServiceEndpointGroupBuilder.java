@@ -42,6 +42,6 @@ public final class DnsServiceEndpointGroupBuilder
     public DnsServiceEndpointGroup build() {
         return new DnsServiceEndpointGroup(eventLoop(), minTtl(), maxTtl(),
                                            serverAddressStreamProvider(),
-                                           backoff(), hostname());
+                                           backoff(), sharedCacheEnabled(), hostname());
     }
 }
@@ -73,8 +73,9 @@ public final class DnsTextEndpointGroup extends DnsEndpointGroup {
 
     DnsTextEndpointGroup(EventLoop eventLoop, int minTtl, int maxTtl,
                          DnsServerAddressStreamProvider serverAddressStreamProvider,
-                         Backoff backoff, String hostname, Function<byte[], Endpoint> mapping) {
-        super(eventLoop, minTtl, maxTtl, serverAddressStreamProvider, backoff,
+                         Backoff backoff, boolean sharedCacheEnabled,
+                         String hostname, Function<byte[], Endpoint> mapping) {
+        super(eventLoop, minTtl, maxTtl, serverAddressStreamProvider, backoff, sharedCacheEnabled,
               ImmutableList.of(DnsQuestionWithoutTrailingDot.of(hostname, DnsRecordType.TXT)),
               unused -> {});
         this.mapping = mapping;
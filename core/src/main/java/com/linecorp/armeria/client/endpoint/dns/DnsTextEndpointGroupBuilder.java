@@ -52,6 +52,6 @@ public final class DnsTextEndpointGroupBuilder
     public DnsTextEndpointGroup build() {
         return new DnsTextEndpointGroup(eventLoop(), minTtl(), maxTtl(),
                                         serverAddressStreamProvider(),
-                                        backoff(), hostname(), mapping);
+                                        backoff(), sharedCacheEnabled(), hostname(), mapping);
     }
 }
@@ -175,6 +175,14 @@ public final class HealthCheckedEndpointGroup extends DynamicEndpointGroup {
                              .collect(toImmutableList()));
     }
 
+    /**
+     * Returns the candidate {@link Endpoint}s provided by the delegate {@link EndpointGroup}, including
+     * the ones which are not healthy.
+     */
+    public List<Endpoint> candidates() {
+        return delegate.endpoints();
+    }
+
     @Override
     public void close() {
         if (closed) {
@@ -118,9 +118,7 @@ public class HealthCheckedEndpointGroupBuilder extends AbstractHealthCheckedEndp
 
         @Override
         public AsyncCloseable apply(HealthCheckerContext ctx) {
-            final HttpHealthChecker checker = new HttpHealthChecker(ctx, path, useGet);
-            checker.start();
-            return checker;
+            return SharedHttpHealthChecker.subscribe(ctx, path, useGet);
         }
     }
 }
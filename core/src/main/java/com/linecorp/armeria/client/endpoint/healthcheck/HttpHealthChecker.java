@@ -22,6 +22,7 @@ import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.math.LongMath;
 
 import com.linecorp.armeria.client.ClientOptions;
@@ -38,19 +39,27 @@ import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.RequestHeaders;
 import com.linecorp.armeria.common.RequestHeadersBuilder;
+import com.linecorp.armeria.common.metric.MoreMeters;
 import com.linecorp.armeria.common.util.AsyncCloseable;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 import io.netty.util.AsciiString;
 
 final class HttpHealthChecker implements AsyncCloseable {
 
     private static final AsciiString ARMERIA_LPHC = HttpHeaderNames.of("armeria-lphc");
 
+    private static final String DURATION_METER_NAME = "armeria.client.endpointGroup.healthCheck.duration";
+
     private final HealthCheckerContext ctx;
     private final WebClient webClient;
     private final String authority;
     private final String path;
     private final boolean useGet;
+    private final Timer healthyDuration;
+    private final Timer unhealthyDuration;
     private boolean wasHealthy;
     private long maxLongPollingSeconds;
     @Nullable
@@ -68,6 +77,12 @@ final class HttpHealthChecker implements AsyncCloseable {
         authority = endpoint.authority();
         this.path = path;
         this.useGet = useGet;
+
+        final MeterRegistry registry = ctx.clientFactory().meterRegistry();
+        healthyDuration = MoreMeters.newTimer(registry, DURATION_METER_NAME,
+                                              ImmutableList.of(Tag.of("result", "healthy")));
+        unhealthyDuration = MoreMeters.newTimer(registry, DURATION_METER_NAME,
+                                                ImmutableList.of(Tag.of("result", "unhealthy")));
     }
 
     void start() {
@@ -91,6 +106,9 @@ final class HttpHealthChecker implements AsyncCloseable {
             headers = builder.build();
         }
 
+        // Do not record the duration of a long polling check, which is mostly the time spent waiting.
+        final boolean longPolling = maxLongPollingSeconds > 0;
+        final long startTimeNanos = System.nanoTime();
         lastResponse = webClient.execute(headers);
         lastResponse.aggregate().handle((res, cause) -> {
             if (closed) {
@@ -120,6 +138,11 @@ final class HttpHealthChecker implements AsyncCloseable {
                 maxLongPollingSeconds = 0;
             }
 
+            if (!longPolling) {
+                final Timer duration = isHealthy ? healthyDuration : unhealthyDuration;
+                duration.record(System.nanoTime() - startTimeNanos, TimeUnit.NANOSECONDS);
+            }
+
             ctx.updateHealth(isHealthy ? 1 : 0);
             wasHealthy = isHealthy;
 
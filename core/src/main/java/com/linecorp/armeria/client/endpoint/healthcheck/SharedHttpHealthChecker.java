@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.healthcheck;
+
+import static com.linecorp.armeria.client.endpoint.healthcheck.HealthCheckedEndpointGroup.DEFAULT_HEALTH_CHECK_RETRY_BACKOFF;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.ClientOptionsBuilder;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.util.AsyncCloseable;
+
+/**
+ * An {@link HttpHealthChecker} which is shared by all {@link HealthCheckedEndpointGroup}s that check the same
+ * {@link Endpoint} with the same {@link ClientFactory}, {@link SessionProtocol}, client configurator and
+ * request, so that only one health check request is sent to an {@link Endpoint} at a time no matter how many
+ * {@link HealthCheckedEndpointGroup}s watch it. The result of a health check is propagated to all the
+ * {@link HealthCheckerContext}s which subscribed to it.
+ */
+final class SharedHttpHealthChecker implements HealthCheckerContext {
+
+    // Guarded by itself.
+    @VisibleForTesting
+    static final Map<Key, SharedHttpHealthChecker> checkers = new HashMap<>();
+
+    /**
+     * Starts to propagate the health of the {@link Endpoint} specified in the {@link HealthCheckerContext},
+     * sending health check requests if nobody is checking it yet.
+     *
+     * @return the {@link AsyncCloseable} which stops propagating the health when closed
+     */
+    static AsyncCloseable subscribe(HealthCheckerContext ctx, String path, boolean useGet) {
+        final Key key = new Key(ctx, path, useGet);
+        final SharedHttpHealthChecker checker;
+        synchronized (checkers) {
+            final SharedHttpHealthChecker oldChecker = checkers.get(key);
+            if (oldChecker != null) {
+                oldChecker.add(ctx);
+                checker = oldChecker;
+            } else {
+                checker = new SharedHttpHealthChecker(key, ctx);
+                checkers.put(key, checker);
+                checker.add(ctx);
+                // Start while holding the lock so that remove() always finds the delegate to close.
+                checker.start(path, useGet);
+            }
+        }
+        return () -> checker.remove(ctx);
+    }
+
+    private final Key key;
+    private final Endpoint endpoint;
+    private final ClientFactory clientFactory;
+    private final SessionProtocol protocol;
+    private final Function<? super ClientOptionsBuilder, ClientOptionsBuilder> clientConfigurator;
+
+    // Guarded by 'this'.
+    private final List<HealthCheckerContext> subscribers = new ArrayList<>();
+    private double lastHealth = -1; // Unknown yet
+
+    // Set while holding the lock of 'checkers'.
+    @Nullable
+    private volatile HttpHealthChecker delegate;
+
+    private SharedHttpHealthChecker(Key key, HealthCheckerContext ctx) {
+        this.key = key;
+        endpoint = ctx.endpoint();
+        clientFactory = ctx.clientFactory();
+        protocol = ctx.protocol();
+        clientConfigurator = ctx.clientConfigurator();
+    }
+
+    private void start(String path, boolean useGet) {
+        final HttpHealthChecker delegate = new HttpHealthChecker(this, path, useGet);
+        this.delegate = delegate;
+        delegate.start();
+    }
+
+    private void add(HealthCheckerContext ctx) {
+        final double lastHealth;
+        synchronized (this) {
+            subscribers.add(ctx);
+            lastHealth = this.lastHealth;
+        }
+
+        if (lastHealth >= 0) {
+            // Tell the health determined already, because the next check may take long with long polling.
+            try {
+                ctx.executor().execute(() -> ctx.updateHealth(lastHealth));
+            } catch (RejectedExecutionException ignored) {
+                // The context has been destroyed already.
+            }
+        }
+    }
+
+    private CompletableFuture<?> remove(HealthCheckerContext ctx) {
+        final boolean removedAll;
+        synchronized (checkers) {
+            synchronized (this) {
+                subscribers.remove(ctx);
+                removedAll = subscribers.isEmpty();
+            }
+            if (removedAll) {
+                checkers.remove(key);
+            }
+        }
+
+        final HttpHealthChecker delegate = this.delegate;
+        if (removedAll && delegate != null) {
+            return delegate.closeAsync();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private synchronized List<HealthCheckerContext> subscribers() {
+        return ImmutableList.copyOf(subscribers);
+    }
+
+    @Override
+    public Endpoint endpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ClientFactory clientFactory() {
+        return clientFactory;
+    }
+
+    @Override
+    public SessionProtocol protocol() {
+        return protocol;
+    }
+
+    @Override
+    public Function<? super ClientOptionsBuilder, ClientOptionsBuilder> clientConfigurator() {
+        return clientConfigurator;
+    }
+
+    @Override
+    public ScheduledExecutorService executor() {
+        // The scheduled checks are stopped by HttpHealthChecker.closeAsync() when nobody subscribes.
+        return clientFactory.eventLoopGroup();
+    }
+
+    @Override
+    public long nextDelayMillis() {
+        // Use the shortest delay among the subscribers so that no subscriber gets the health later than
+        // it would get without sharing.
+        long nextDelayMillis = Long.MAX_VALUE;
+        for (HealthCheckerContext ctx : subscribers()) {
+            nextDelayMillis = Math.min(nextDelayMillis, ctx.nextDelayMillis());
+        }
+        if (nextDelayMillis == Long.MAX_VALUE) {
+            nextDelayMillis = DEFAULT_HEALTH_CHECK_RETRY_BACKOFF.nextDelayMillis(1);
+        }
+        return nextDelayMillis;
+    }
+
+    @Override
+    public void updateHealth(double health) {
+        final List<HealthCheckerContext> subscribers;
+        synchronized (this) {
+            lastHealth = health;
+            subscribers = ImmutableList.copyOf(this.subscribers);
+        }
+        subscribers.forEach(ctx -> ctx.updateHealth(health));
+    }
+
+    @VisibleForTesting
+    static final class Key {
+
+        private final ClientFactory clientFactory;
+        private final SessionProtocol protocol;
+        private final Endpoint endpoint;
+        private final Function<? super ClientOptionsBuilder, ClientOptionsBuilder> clientConfigurator;
+        private final String path;
+        private final boolean useGet;
+
+        Key(HealthCheckerContext ctx, String path, boolean useGet) {
+            clientFactory = ctx.clientFactory();
+            protocol = ctx.protocol();
+            endpoint = ctx.endpoint();
+            clientConfigurator = ctx.clientConfigurator();
+            this.path = path;
+            this.useGet = useGet;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(clientFactory), protocol, endpoint,
+                                System.identityHashCode(clientConfigurator), path, useGet);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            // Compare the client factories and configurators by identity because they do not
+            // implement equals().
+            final Key that = (Key) obj;
+            return clientFactory == that.clientFactory &&
+                   protocol == that.protocol &&
+                   endpoint.equals(that.endpoint) &&
+                   clientConfigurator == that.clientConfigurator &&
+                   path.equals(that.path) &&
+                   useGet == that.useGet;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * A token bucket which limits the ratio of hedged attempts to requests. Every request deposits
+ * {@code ratio} tokens and every hedged attempt withdraws {@code 1} token. The bucket holds at most
+ * {@code maxTokens} tokens, so that a burst of hedged attempts after a quiet period is bounded.
+ */
+final class HedgingBudget {
+
+    /**
+     * The number of units in a token, so that a fractional ratio can be represented with a {@code long}.
+     */
+    private static final long UNITS_PER_TOKEN = 1000;
+
+    private final long unitsPerRequest;
+    private final long maxUnits;
+    private final AtomicLong units = new AtomicLong();
+
+    HedgingBudget(double ratio, int maxTokens) {
+        unitsPerRequest = Math.round(ratio * UNITS_PER_TOKEN);
+        maxUnits = maxTokens * UNITS_PER_TOKEN;
+    }
+
+    /**
+     * Deposits the tokens for a new request.
+     */
+    void deposit() {
+        for (;;) {
+            final long current = units.get();
+            if (current >= maxUnits) {
+                return;
+            }
+            final long next = Math.min(maxUnits, current + unitsPerRequest);
+            if (units.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Withdraws a token for a hedged attempt.
+     *
+     * @return {@code true} if a token was withdrawn, or {@code false} if the budget is exhausted
+     */
+    boolean tryWithdraw() {
+        for (;;) {
+            final long current = units.get();
+            if (current < UNITS_PER_TOKEN) {
+                return false;
+            }
+            if (units.compareAndSet(current, current - UNITS_PER_TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("ratio", (double) unitsPerRequest / UNITS_PER_TOKEN)
+                          .add("maxTokens", maxUnits / UNITS_PER_TOKEN)
+                          .add("tokens", (double) units.get() / UNITS_PER_TOKEN)
+                          .toString();
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import static com.linecorp.armeria.client.retry.RetryingClient.ARMERIA_RETRY_COUNT;
+import static com.linecorp.armeria.internal.ClientUtil.executeWithFallback;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.client.SimpleDecoratingHttpClient;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpRequestDuplicator;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * An {@link HttpClient} decorator that sends a hedged request when the response for the previous attempt
+ * does not start within the hedging delay, and uses the response that starts first. The other attempts
+ * are cancelled as soon as a response starts.
+ *
+ * <p>Unlike {@link RetryingHttpClient}, which sends another attempt only after the previous attempt
+ * failed, this decorator reduces the tail latency of a request by racing the attempts. The number of
+ * hedged attempts is limited by a token budget, so that a slow server is not overwhelmed by them.
+ * Decorate with {@link RetryingHttpClient} as well to retry the failed requests.
+ *
+ * <p>Note that a hedged request is sent while the previous attempt may still be processed by a server,
+ * so only idempotent requests should be hedged. The {@code "armeria-retry-count"} header is set to
+ * the hedged attempts.
+ */
+public final class HedgingHttpClient extends SimpleDecoratingHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgingHttpClient.class);
+
+    /**
+     * Returns a new {@link HedgingHttpClientBuilder}.
+     */
+    public static HedgingHttpClientBuilder builder() {
+        return new HedgingHttpClientBuilder();
+    }
+
+    /**
+     * Creates a new {@link HttpClient} decorator that sends a hedged request when the response does not
+     * start within the specified {@code hedgingDelay}.
+     */
+    public static Function<? super HttpClient, HedgingHttpClient> newDecorator(Duration hedgingDelay) {
+        return builder().hedgingDelay(hedgingDelay).newDecorator();
+    }
+
+    private final long hedgingDelayMillis;
+    @Nullable
+    private final LatencyPercentileTracker latencyTracker;
+    private final int maxTotalAttempts;
+    private final HedgingBudget budget;
+
+    HedgingHttpClient(HttpClient delegate, long hedgingDelayMillis, double hedgingDelayPercentile,
+                      int maxTotalAttempts, double budgetRatio, int maxBudgetTokens) {
+        super(delegate);
+        this.hedgingDelayMillis = hedgingDelayMillis;
+        latencyTracker = hedgingDelayPercentile > 0 ? new LatencyPercentileTracker(hedgingDelayPercentile)
+                                                    : null;
+        this.maxTotalAttempts = maxTotalAttempts;
+        budget = new HedgingBudget(budgetRatio, maxBudgetTokens);
+    }
+
+    @Override
+    public HttpResponse execute(ClientRequestContext ctx, HttpRequest req) throws Exception {
+        final CompletableFuture<HttpResponse> responseFuture = new CompletableFuture<>();
+        final HttpResponse res = HttpResponse.from(responseFuture, ctx.eventLoop());
+        final HttpRequestDuplicator reqDuplicator = new HttpRequestDuplicator(req, 0, ctx.eventLoop());
+        budget.deposit();
+
+        final HedgedRequest hedgedRequest = new HedgedRequest(ctx, req, reqDuplicator, res, responseFuture);
+        // All attempts are made in the event loop so that the state of HedgedRequest is not shared
+        // between threads.
+        final EventLoop eventLoop = ctx.eventLoop();
+        if (eventLoop.inEventLoop()) {
+            hedgedRequest.start();
+        } else {
+            try {
+                ctx.contextAwareEventLoop().execute(hedgedRequest::start);
+            } catch (Throwable t) {
+                hedgedRequest.fail(t);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns the delay after which a hedged request is sent.
+     */
+    private long hedgingDelayMillis() {
+        if (latencyTracker != null) {
+            final long percentileNanos = latencyTracker.percentileNanos();
+            if (percentileNanos >= 0) {
+                return TimeUnit.NANOSECONDS.toMillis(percentileNanos);
+            }
+        }
+        return hedgingDelayMillis;
+    }
+
+    private final class HedgedRequest {
+
+        private final ClientRequestContext ctx;
+        private final HttpRequest originalReq;
+        private final HttpRequestDuplicator reqDuplicator;
+        private final HttpResponse returnedRes;
+        private final CompletableFuture<HttpResponse> future;
+        private final List<Attempt> attempts = new ArrayList<>(maxTotalAttempts);
+
+        @Nullable
+        private ScheduledFuture<?> hedgingFuture;
+        @Nullable
+        private Attempt lastFailedAttempt;
+        private int numPendingAttempts;
+        private boolean done;
+
+        HedgedRequest(ClientRequestContext ctx, HttpRequest originalReq, HttpRequestDuplicator reqDuplicator,
+                      HttpResponse returnedRes, CompletableFuture<HttpResponse> future) {
+            this.ctx = ctx;
+            this.originalReq = originalReq;
+            this.reqDuplicator = reqDuplicator;
+            this.returnedRes = returnedRes;
+            this.future = future;
+        }
+
+        void start() {
+            returnedRes.completionFuture().handle((unused, cause) -> {
+                if (cause != null) {
+                    // The returned response has been aborted by the client before it starts.
+                    if (ctx.eventLoop().inEventLoop()) {
+                        fail(cause);
+                    } else {
+                        ctx.eventLoop().execute(() -> fail(cause));
+                    }
+                }
+                return null;
+            });
+            sendAttempt();
+        }
+
+        private void sendAttempt() {
+            final int attemptNo = attempts.size();
+            final boolean initialAttempt = attemptNo == 0;
+            final HttpRequest duplicateReq;
+            if (initialAttempt) {
+                duplicateReq = reqDuplicator.duplicateStream();
+            } else {
+                duplicateReq = reqDuplicator.duplicateStream(
+                        originalReq.headers().toBuilder().setInt(ARMERIA_RETRY_COUNT, attemptNo).build());
+            }
+
+            final ClientRequestContext derivedCtx =
+                    RetryingClient.newDerivedContext(ctx, duplicateReq, ctx.rpcRequest(), initialAttempt);
+            ctx.logBuilder().addChild(derivedCtx.log());
+
+            final long startTimeNanos = System.nanoTime();
+            final HttpResponse response =
+                    executeWithFallback(delegate(), derivedCtx,
+                                        (context, cause) -> HttpResponse.ofFailure(cause));
+            final Attempt attempt = new Attempt(derivedCtx, response, startTimeNanos);
+            attempts.add(attempt);
+            numPendingAttempts++;
+            derivedCtx.log().addListener(log -> {
+                if (ctx.eventLoop().inEventLoop()) {
+                    onResponseHeaders(attempt, log);
+                } else {
+                    ctx.eventLoop().execute(() -> onResponseHeaders(attempt, log));
+                }
+            }, RequestLogAvailability.RESPONSE_HEADERS);
+
+            if (!done && attempts.size() < maxTotalAttempts) {
+                hedgingFuture = ctx.eventLoop().schedule(this::hedge, hedgingDelayMillis(),
+                                                         TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void hedge() {
+            hedgingFuture = null;
+            if (done) {
+                return;
+            }
+
+            // Do not hedge if the request has been aborted by the client.
+            if (!originalReq.completionFuture().isCompletedExceptionally()) {
+                if (budget.tryWithdraw()) {
+                    sendAttempt();
+                    return;
+                }
+                logger.debug("{} Not sending a hedged request due to the exhausted budget: {}",
+                             ctx, budget);
+            }
+
+            if (numPendingAttempts == 0 && lastFailedAttempt != null) {
+                // No attempts will succeed.
+                complete(lastFailedAttempt);
+            }
+        }
+
+        private void onResponseHeaders(Attempt attempt, RequestLog log) {
+            attempt.responded = true;
+            final Throwable responseCause =
+                    log.isAvailable(RequestLogAvailability.RESPONSE_END) ? log.responseCause() : null;
+            if (responseCause == null) {
+                // Record the latencies of all attempts, including the ones which lost the race, so that
+                // the percentile is not biased towards the fastest attempts.
+                recordLatency(attempt);
+            }
+
+            if (done) {
+                // The response of another attempt has been chosen already.
+                attempt.response.abort();
+                return;
+            }
+
+            numPendingAttempts--;
+            if (responseCause != null && (numPendingAttempts > 0 || hedgingFuture != null)) {
+                // Wait for the other attempts instead of failing the request.
+                if (lastFailedAttempt != null) {
+                    lastFailedAttempt.response.abort();
+                }
+                lastFailedAttempt = attempt;
+                return;
+            }
+
+            complete(attempt);
+        }
+
+        private void complete(Attempt attempt) {
+            done = true;
+            cancelHedging();
+            for (Attempt a : attempts) {
+                if (a != attempt) {
+                    if (!a.responded) {
+                        // The latency of the cancelled attempt is at least the time elapsed so far.
+                        recordLatency(a);
+                    }
+                    a.response.abort();
+                }
+            }
+            ctx.logBuilder().endResponseWithChild(attempt.ctx.log());
+            future.complete(attempt.response);
+            reqDuplicator.close();
+        }
+
+        void fail(Throwable cause) {
+            if (done) {
+                return;
+            }
+            done = true;
+            cancelHedging();
+            attempts.forEach(a -> a.response.abort());
+            if (attempts.isEmpty()) {
+                ctx.logBuilder().endRequest(cause);
+            }
+            ctx.logBuilder().endResponse(cause);
+            future.completeExceptionally(cause);
+            reqDuplicator.abort(cause);
+        }
+
+        private void recordLatency(Attempt attempt) {
+            if (latencyTracker != null && !attempt.latencyRecorded) {
+                attempt.latencyRecorded = true;
+                latencyTracker.record(System.nanoTime() - attempt.startTimeNanos);
+            }
+        }
+
+        private void cancelHedging() {
+            if (hedgingFuture != null) {
+                hedgingFuture.cancel(false);
+                hedgingFuture = null;
+            }
+        }
+    }
+
+    private static final class Attempt {
+
+        final ClientRequestContext ctx;
+        final HttpResponse response;
+        final long startTimeNanos;
+        boolean responded;
+        boolean latencyRecorded;
+
+        Attempt(ClientRequestContext ctx, HttpResponse response, long startTimeNanos) {
+            this.ctx = ctx;
+            this.response = response;
+            this.startTimeNanos = startTimeNanos;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.client.HttpClient;
+
+/**
+ * Builds a new {@link HedgingHttpClient} or its decorator function.
+ */
+public final class HedgingHttpClientBuilder {
+
+    static final long DEFAULT_HEDGING_DELAY_MILLIS = 100;
+    static final int DEFAULT_MAX_TOTAL_ATTEMPTS = 2;
+    static final double DEFAULT_BUDGET_RATIO = 0.1;
+    static final int DEFAULT_MAX_BUDGET_TOKENS = 10;
+
+    private long hedgingDelayMillis = DEFAULT_HEDGING_DELAY_MILLIS;
+    private double hedgingDelayPercentile;
+    private int maxTotalAttempts = DEFAULT_MAX_TOTAL_ATTEMPTS;
+    private double budgetRatio = DEFAULT_BUDGET_RATIO;
+    private int maxBudgetTokens = DEFAULT_MAX_BUDGET_TOKENS;
+
+    HedgingHttpClientBuilder() {}
+
+    /**
+     * Sets the delay after which a hedged request is sent if the response for the previous attempt has
+     * not started yet. If {@link #hedgingDelayPercentile(double)} is set, this delay is used only until
+     * enough responses are collected. The default value is {@value #DEFAULT_HEDGING_DELAY_MILLIS}
+     * milliseconds.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public HedgingHttpClientBuilder hedgingDelayMillis(long hedgingDelayMillis) {
+        checkArgument(hedgingDelayMillis >= 0,
+                      "hedgingDelayMillis: %s (expected: >= 0)", hedgingDelayMillis);
+        this.hedgingDelayMillis = hedgingDelayMillis;
+        return this;
+    }
+
+    /**
+     * Sets the delay after which a hedged request is sent if the response for the previous attempt has
+     * not started yet. If {@link #hedgingDelayPercentile(double)} is set, this delay is used only until
+     * enough responses are collected. The default value is {@value #DEFAULT_HEDGING_DELAY_MILLIS}
+     * milliseconds.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public HedgingHttpClientBuilder hedgingDelay(Duration hedgingDelay) {
+        checkArgument(!requireNonNull(hedgingDelay, "hedgingDelay").isNegative(),
+                      "hedgingDelay: %s (expected: >= 0)", hedgingDelay);
+        return hedgingDelayMillis(hedgingDelay.toMillis());
+    }
+
+    /**
+     * Makes the hedging delay follow the specified percentile of the recent response latencies,
+     * e.g. {@code 0.95} sends a hedged request when the response has not started within the time in which
+     * 95% of the recent responses started. Until enough responses are collected, the delay specified with
+     * {@link #hedgingDelay(Duration)} is used.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public HedgingHttpClientBuilder hedgingDelayPercentile(double hedgingDelayPercentile) {
+        checkArgument(hedgingDelayPercentile > 0 && hedgingDelayPercentile < 1,
+                      "hedgingDelayPercentile: %s (expected: > 0 && < 1)", hedgingDelayPercentile);
+        this.hedgingDelayPercentile = hedgingDelayPercentile;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of total attempts, including the initial one. The default value is
+     * {@value #DEFAULT_MAX_TOTAL_ATTEMPTS}.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public HedgingHttpClientBuilder maxTotalAttempts(int maxTotalAttempts) {
+        checkArgument(maxTotalAttempts > 0, "maxTotalAttempts: %s (expected: > 0)", maxTotalAttempts);
+        this.maxTotalAttempts = maxTotalAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the budget of the hedged requests. Every request earns {@code ratio} tokens up to
+     * {@code maxTokens} and every hedged request spends one token, so that the number of hedged requests
+     * does not exceed {@code ratio} of the requests in the long run. The default values are
+     * {@value #DEFAULT_BUDGET_RATIO} and {@value #DEFAULT_MAX_BUDGET_TOKENS}.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public HedgingHttpClientBuilder budget(double ratio, int maxTokens) {
+        checkArgument(ratio > 0 && ratio <= 1, "ratio: %s (expected: > 0 && <= 1)", ratio);
+        checkArgument(maxTokens > 0, "maxTokens: %s (expected: > 0)", maxTokens);
+        budgetRatio = ratio;
+        maxBudgetTokens = maxTokens;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link HedgingHttpClient} based on the properties of this builder.
+     */
+    public HedgingHttpClient build(HttpClient delegate) {
+        return new HedgingHttpClient(delegate, hedgingDelayMillis, hedgingDelayPercentile,
+                                     maxTotalAttempts, budgetRatio, maxBudgetTokens);
+    }
+
+    /**
+     * Returns a newly-created decorator that decorates an {@link HttpClient} with a new
+     * {@link HedgingHttpClient} based on the properties of this builder.
+     */
+    public Function<? super HttpClient, HedgingHttpClient> newDecorator() {
+        return this::build;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues()
+                          .add("hedgingDelayMillis", hedgingDelayMillis)
+                          .add("hedgingDelayPercentile",
+                               hedgingDelayPercentile > 0 ? hedgingDelayPercentile : null)
+                          .add("maxTotalAttempts", maxTotalAttempts)
+                          .add("budgetRatio", budgetRatio)
+                          .add("maxBudgetTokens", maxBudgetTokens)
+                          .toString();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Keeps the most recent response latencies in a fixed-size ring and computes their percentile.
+ * The percentile is recomputed only once every {@value #RECOMPUTE_INTERVAL} samples, so that
+ * {@link #percentileNanos()} is cheap enough to be called for every request.
+ */
+final class LatencyPercentileTracker {
+
+    @VisibleForTesting
+    static final int NUM_SAMPLES = 256;
+    private static final int SAMPLE_MASK = NUM_SAMPLES - 1;
+    @VisibleForTesting
+    static final int RECOMPUTE_INTERVAL = 32;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(NUM_SAMPLES);
+    private final AtomicLong numRecorded = new AtomicLong();
+
+    private volatile long percentileNanos = -1;
+
+    LatencyPercentileTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    /**
+     * Records the latency of a response.
+     */
+    void record(long latencyNanos) {
+        final long index = numRecorded.getAndIncrement();
+        samples.set((int) (index & SAMPLE_MASK), latencyNanos);
+        if ((index + 1) % RECOMPUTE_INTERVAL == 0) {
+            recompute(Math.min(index + 1, NUM_SAMPLES));
+        }
+    }
+
+    /**
+     * Returns the percentile of the recent latencies in nanoseconds, or {@code -1} if not enough
+     * latencies have been recorded yet.
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long numSamples) {
+        final long[] sorted = new long[(int) numSamples];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        percentileNanos = sorted[Math.max(0, rank)];
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Ticker;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limits the number of retries to a ratio of the successful requests in a sliding window, so that
+ * the retries do not amplify the load on a struggling server. A {@link RetryBudget} is usually shared
+ * by all {@link RetryingClient}s which send requests to the same service.
+ *
+ * <pre>{@code
+ * // Allow retries up to 10% of the successful requests plus 10 retries per second.
+ * RetryBudget budget = RetryBudget.of(0.1, 10, Duration.ofSeconds(10));
+ * RetryingHttpClient.builder(strategy)
+ *                   .retryBudget(budget)
+ *                   .newDecorator();
+ * }</pre>
+ *
+ * <p>A request is considered successful when its {@link RetryStrategy} or {@link RetryStrategyWithContent}
+ * decides not to retry it. The window is divided into {@value #NUM_BUCKETS} buckets and the counters
+ * are updated without locking, so the limit is approximate under high concurrency.
+ */
+public final class RetryBudget {
+
+    @VisibleForTesting
+    static final int NUM_BUCKETS = 10;
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofSeconds(10);
+    private static final int DEFAULT_MIN_RETRIES_PER_SECOND = 10;
+
+    /**
+     * Returns a new {@link RetryBudget} which allows retries up to the specified {@code ratio} of
+     * the successful requests in the last 10 seconds, plus 10 retries per second so that
+     * a client with low traffic can retry.
+     */
+    public static RetryBudget of(double ratio) {
+        return of(ratio, DEFAULT_MIN_RETRIES_PER_SECOND, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Returns a new {@link RetryBudget} which allows retries up to the specified {@code ratio} of
+     * the successful requests in the specified {@code window}, plus {@code minRetriesPerSecond} retries
+     * per second so that a client with low traffic can retry.
+     */
+    public static RetryBudget of(double ratio, int minRetriesPerSecond, Duration window) {
+        requireNonNull(window, "window");
+        checkArgument(ratio >= 0, "ratio: %s (expected: >= 0)", ratio);
+        checkArgument(minRetriesPerSecond >= 0,
+                      "minRetriesPerSecond: %s (expected: >= 0)", minRetriesPerSecond);
+        checkArgument(window.toMillis() >= NUM_BUCKETS,
+                      "window: %s (expected: >= %sms)", window, NUM_BUCKETS);
+        return new RetryBudget(ratio, minRetriesPerSecond, window.toNanos(), Ticker.systemTicker());
+    }
+
+    private final double ratio;
+    private final double minRetries;
+    private final long bucketNanos;
+    private final Ticker ticker;
+
+    // The index of the time slice each bucket is for, and the number of successes and retries in it.
+    private final AtomicLongArray bucketSlices = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLongArray successes = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLongArray retries = new AtomicLongArray(NUM_BUCKETS);
+
+    private final LongAdder allowedRetries = new LongAdder();
+    private final LongAdder deniedRetries = new LongAdder();
+
+    @VisibleForTesting
+    RetryBudget(double ratio, int minRetriesPerSecond, long windowNanos, Ticker ticker) {
+        this.ratio = ratio;
+        minRetries = minRetriesPerSecond * (windowNanos / 1_000_000_000.0);
+        bucketNanos = windowNanos / NUM_BUCKETS;
+        this.ticker = ticker;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            bucketSlices.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Registers the counters of the allowed and denied retries.
+     */
+    public void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        requireNonNull(registry, "registry");
+        requireNonNull(idPrefix, "idPrefix");
+
+        final String retries = idPrefix.name("retries");
+        registry.more().counter(retries, idPrefix.tags("result", "allowed"),
+                                allowedRetries, LongAdder::sum);
+        registry.more().counter(retries, idPrefix.tags("result", "denied"),
+                                deniedRetries, LongAdder::sum);
+    }
+
+    /**
+     * Records a successful request.
+     */
+    void onSuccess() {
+        successes.incrementAndGet(currentBucket());
+    }
+
+    /**
+     * Acquires a permission to retry.
+     *
+     * @return {@code true} if the retry is allowed, or {@code false} if the budget is exhausted
+     */
+    boolean tryRetry() {
+        final long slice = currentSlice();
+        final int bucket = bucket(slice);
+        long numSuccesses = 0;
+        long numRetries = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            if (bucketSlices.get(i) > slice - NUM_BUCKETS) {
+                numSuccesses += successes.get(i);
+                numRetries += retries.get(i);
+            }
+        }
+
+        if (numRetries + 1 > numSuccesses * ratio + minRetries) {
+            deniedRetries.increment();
+            return false;
+        }
+
+        retries.incrementAndGet(bucket);
+        allowedRetries.increment();
+        return true;
+    }
+
+    private int currentBucket() {
+        return bucket(currentSlice());
+    }
+
+    private long currentSlice() {
+        return ticker.read() / bucketNanos;
+    }
+
+    /**
+     * Returns the index of the bucket for the specified time slice, resetting the bucket if it was used
+     * for an old time slice.
+     */
+    private int bucket(long slice) {
+        final int bucket = (int) Math.floorMod(slice, (long) NUM_BUCKETS);
+        final long oldSlice = bucketSlices.get(bucket);
+        if (oldSlice != slice && bucketSlices.compareAndSet(bucket, oldSlice, slice)) {
+            // Note that the increments made by other threads between the CAS above and the resets below
+            // are lost, which is acceptable for an approximate limit.
+            successes.set(bucket, 0);
+            retries.set(bucket, 0);
+        }
+        return bucket;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("ratio", ratio)
+                          .add("minRetries", minRetries)
+                          .add("windowNanos", bucketNanos * NUM_BUCKETS)
+                          .toString();
+    }
+}
@@ -73,13 +73,28 @@ public abstract class RetryingClient<I extends Request, O extends Response>
     private final int maxTotalAttempts;
     private final long responseTimeoutMillisForEachAttempt;
 
+    @Nullable
+    private final RetryBudget retryBudget;
+
     /**
      * Creates a new instance that decorates the specified {@link Client}.
      */
     protected RetryingClient(Client<I, O> delegate, RetryStrategy retryStrategy,
                              int maxTotalAttempts, long responseTimeoutMillisForEachAttempt) {
+        this(delegate, retryStrategy, maxTotalAttempts, responseTimeoutMillisForEachAttempt, null);
+    }
+
+    /**
+     * Creates a new instance that decorates the specified {@link Client}.
+     *
+     * @param retryBudget the {@link RetryBudget} which limits the retries, or {@code null} to retry
+     *                    without a budget
+     */
+    protected RetryingClient(Client<I, O> delegate, RetryStrategy retryStrategy,
+                             int maxTotalAttempts, long responseTimeoutMillisForEachAttempt,
+                             @Nullable RetryBudget retryBudget) {
         this(delegate, requireNonNull(retryStrategy, "retryStrategyWithoutContent"), null,
-             maxTotalAttempts, responseTimeoutMillisForEachAttempt);
+             maxTotalAttempts, responseTimeoutMillisForEachAttempt, retryBudget);
     }
 
     /**
@@ -88,8 +103,21 @@ public abstract class RetryingClient<I extends Request, O extends Response>
     protected RetryingClient(Client<I, O> delegate,
                              RetryStrategyWithContent<O> retryStrategyWithContent,
                              int maxTotalAttempts, long responseTimeoutMillisForEachAttempt) {
+        this(delegate, retryStrategyWithContent, maxTotalAttempts, responseTimeoutMillisForEachAttempt, null);
+    }
+
+    /**
+     * Creates a new instance that decorates the specified {@link Client}.
+     *
+     * @param retryBudget the {@link RetryBudget} which limits the retries, or {@code null} to retry
+     *                    without a budget
+     */
+    protected RetryingClient(Client<I, O> delegate,
+                             RetryStrategyWithContent<O> retryStrategyWithContent,
+                             int maxTotalAttempts, long responseTimeoutMillisForEachAttempt,
+                             @Nullable RetryBudget retryBudget) {
         this(delegate, null, requireNonNull(retryStrategyWithContent, "retryStrategyWithContent"),
-             maxTotalAttempts, responseTimeoutMillisForEachAttempt);
+             maxTotalAttempts, responseTimeoutMillisForEachAttempt, retryBudget);
     }
 
     /**
@@ -97,8 +125,10 @@ public abstract class RetryingClient<I extends Request, O extends Response>
      */
     private RetryingClient(Client<I, O> delegate, @Nullable RetryStrategy retryStrategy,
                            @Nullable RetryStrategyWithContent<O> retryStrategyWithContent,
-                           int maxTotalAttempts, long responseTimeoutMillisForEachAttempt) {
+                           int maxTotalAttempts, long responseTimeoutMillisForEachAttempt,
+                           @Nullable RetryBudget retryBudget) {
         super(delegate);
+        this.retryBudget = retryBudget;
         this.retryStrategy = retryStrategy;
         this.retryStrategyWithContent = retryStrategyWithContent;
 
@@ -113,8 +143,8 @@ public abstract class RetryingClient<I extends Request, O extends Response>
 
     @Override
     public O execute(ClientRequestContext ctx, I req) throws Exception {
-        final State state =
-                new State(maxTotalAttempts, responseTimeoutMillisForEachAttempt, ctx.responseTimeoutMillis());
+        final State state = new State(maxTotalAttempts, responseTimeoutMillisForEachAttempt,
+                                      ctx.responseTimeoutMillis(), retryBudget);
         ctx.attr(STATE).set(state);
         return doExecute(ctx, req);
     }
@@ -129,6 +159,11 @@ public abstract class RetryingClient<I extends Request, O extends Response>
      * This should be called when retrying is finished.
      */
     protected static void onRetryingComplete(ClientRequestContext ctx) {
+        final State state = ctx.attr(STATE).get();
+        if (state != null && state.retryBudget != null && !state.gaveUp) {
+            // The last attempt has been accepted by the retry strategy.
+            state.retryBudget.onSuccess();
+        }
         ctx.logBuilder().endResponseWithLastChild();
     }
 
@@ -224,6 +259,8 @@ public abstract class RetryingClient<I extends Request, O extends Response>
         final State state = ctx.attr(STATE).get();
         final int currentAttemptNo = state.currentAttemptNoWith(backoff);
 
+        // Set to true first and then reset to false when the retry is allowed.
+        state.gaveUp = true;
         if (currentAttemptNo < 0) {
             logger.debug("Exceeded the default number of max attempt: {}", state.maxTotalAttempts);
             return -1;
@@ -241,6 +278,12 @@ public abstract class RetryingClient<I extends Request, O extends Response>
             return -1;
         }
 
+        if (state.retryBudget != null && !state.retryBudget.tryRetry()) {
+            logger.debug("Exceeded the retry budget: {}", state.retryBudget);
+            return -1;
+        }
+
+        state.gaveUp = false;
         return nextDelay;
     }
 
@@ -278,15 +321,20 @@ public abstract class RetryingClient<I extends Request, O extends Response>
         private final int maxTotalAttempts;
         private final long responseTimeoutMillisForEachAttempt;
         private final long deadlineNanos;
+        @Nullable
+        private final RetryBudget retryBudget;
 
         @Nullable
         private Backoff lastBackoff;
         private int currentAttemptNoWithLastBackoff;
         private int totalAttemptNo;
+        private boolean gaveUp;
 
-        State(int maxTotalAttempts, long responseTimeoutMillisForEachAttempt, long responseTimeoutMillis) {
+        State(int maxTotalAttempts, long responseTimeoutMillisForEachAttempt, long responseTimeoutMillis,
+              @Nullable RetryBudget retryBudget) {
             this.maxTotalAttempts = maxTotalAttempts;
             this.responseTimeoutMillisForEachAttempt = responseTimeoutMillisForEachAttempt;
+            this.retryBudget = retryBudget;
 
             if (responseTimeoutMillis <= 0 || responseTimeoutMillis == Long.MAX_VALUE) {
                 deadlineNanos = 0;
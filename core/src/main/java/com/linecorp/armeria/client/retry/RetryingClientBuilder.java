@@ -46,6 +46,8 @@ public abstract class RetryingClientBuilder<O extends Response> {
 
     private int maxTotalAttempts = Flags.defaultMaxTotalAttempts();
     private long responseTimeoutMillisForEachAttempt = Flags.defaultResponseTimeoutMillis();
+    @Nullable
+    private RetryBudget retryBudget;
 
     /**
      * Creates a new builder with the specified {@link RetryStrategy}.
@@ -136,6 +138,24 @@ public abstract class RetryingClientBuilder<O extends Response> {
         return responseTimeoutMillisForEachAttempt(responseTimeoutForEachAttempt.toMillis());
     }
 
+    /**
+     * Sets the {@link RetryBudget} which limits the number of retries to a ratio of the successful
+     * requests. Share the same {@link RetryBudget} between the clients which send requests to the same
+     * service, so that the retries do not overwhelm the service during an outage. If unspecified,
+     * the retries are limited only by {@link #maxTotalAttempts(int)} and {@link Backoff}.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public RetryingClientBuilder<O> retryBudget(RetryBudget retryBudget) {
+        this.retryBudget = requireNonNull(retryBudget, "retryBudget");
+        return this;
+    }
+
+    @Nullable
+    RetryBudget retryBudget() {
+        return retryBudget;
+    }
+
     @Override
     public String toString() {
         return toStringHelper().toString();
@@ -146,6 +166,7 @@ public abstract class RetryingClientBuilder<O extends Response> {
                           .add("retryStrategy", retryStrategy)
                           .add("retryStrategyWithContent", retryStrategyWithContent)
                           .add("maxTotalAttempts", maxTotalAttempts)
-                          .add("responseTimeoutMillisForEachAttempt", responseTimeoutMillisForEachAttempt);
+                          .add("responseTimeoutMillisForEachAttempt", responseTimeoutMillisForEachAttempt)
+                          .add("retryBudget", retryBudget);
     }
 }
@@ -126,8 +126,9 @@ public final class RetryingHttpClient extends RetryingClient<HttpRequest, HttpRe
      */
     RetryingHttpClient(HttpClient delegate,
                        RetryStrategy retryStrategy, int totalMaxAttempts,
-                       long responseTimeoutMillisForEachAttempt, boolean useRetryAfter) {
-        super(delegate, retryStrategy, totalMaxAttempts, responseTimeoutMillisForEachAttempt);
+                       long responseTimeoutMillisForEachAttempt, boolean useRetryAfter,
+                       @Nullable RetryBudget retryBudget) {
+        super(delegate, retryStrategy, totalMaxAttempts, responseTimeoutMillisForEachAttempt, retryBudget);
         needsContentInStrategy = false;
         this.useRetryAfter = useRetryAfter;
         contentPreviewLength = 0;
@@ -139,8 +140,9 @@ public final class RetryingHttpClient extends RetryingClient<HttpRequest, HttpRe
     RetryingHttpClient(HttpClient delegate,
                        RetryStrategyWithContent<HttpResponse> retryStrategyWithContent, int totalMaxAttempts,
                        long responseTimeoutMillisForEachAttempt, boolean useRetryAfter,
-                       int contentPreviewLength) {
-        super(delegate, retryStrategyWithContent, totalMaxAttempts, responseTimeoutMillisForEachAttempt);
+                       int contentPreviewLength, @Nullable RetryBudget retryBudget) {
+        super(delegate, retryStrategyWithContent, totalMaxAttempts, responseTimeoutMillisForEachAttempt,
+              retryBudget);
         needsContentInStrategy = true;
         this.useRetryAfter = useRetryAfter;
         checkArgument(contentPreviewLength > 0,
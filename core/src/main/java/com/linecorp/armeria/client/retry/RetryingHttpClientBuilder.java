@@ -109,11 +109,11 @@ public final class RetryingHttpClientBuilder extends RetryingClientBuilder<HttpR
         if (needsContentInStrategy) {
             return new RetryingHttpClient(delegate, retryStrategyWithContent(), maxTotalAttempts(),
                                           responseTimeoutMillisForEachAttempt(), useRetryAfter,
-                                          contentPreviewLength);
+                                          contentPreviewLength, retryBudget());
         }
 
         return new RetryingHttpClient(delegate, retryStrategy(), maxTotalAttempts(),
-                                      responseTimeoutMillisForEachAttempt(), useRetryAfter);
+                                      responseTimeoutMillisForEachAttempt(), useRetryAfter, retryBudget());
     }
 
     /**
@@ -151,4 +151,9 @@ public final class RetryingHttpClientBuilder extends RetryingClientBuilder<HttpR
     public RetryingHttpClientBuilder responseTimeoutForEachAttempt(Duration responseTimeoutForEachAttempt) {
         return (RetryingHttpClientBuilder) super.responseTimeoutForEachAttempt(responseTimeoutForEachAttempt);
     }
+
+    @Override
+    public RetryingHttpClientBuilder retryBudget(RetryBudget retryBudget) {
+        return (RetryingHttpClientBuilder) super.retryBudget(retryBudget);
+    }
 }
@@ -21,6 +21,8 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
+import javax.annotation.Nullable;
+
 import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.ResponseTimeoutException;
 import com.linecorp.armeria.client.RpcClient;
@@ -90,8 +92,10 @@ public final class RetryingRpcClient extends RetryingClient<RpcRequest, RpcRespo
      */
     RetryingRpcClient(RpcClient delegate,
                       RetryStrategyWithContent<RpcResponse> retryStrategyWithContent,
-                      int totalMaxAttempts, long responseTimeoutMillisForEachAttempt) {
-        super(delegate, retryStrategyWithContent, totalMaxAttempts, responseTimeoutMillisForEachAttempt);
+                      int totalMaxAttempts, long responseTimeoutMillisForEachAttempt,
+                      @Nullable RetryBudget retryBudget) {
+        super(delegate, retryStrategyWithContent, totalMaxAttempts, responseTimeoutMillisForEachAttempt,
+              retryBudget);
     }
 
     @Override
@@ -43,7 +43,7 @@ public final class RetryingRpcClientBuilder extends RetryingClientBuilder<RpcRes
     public RetryingRpcClient build(RpcClient delegate) {
         return new RetryingRpcClient(
                 delegate, retryStrategyWithContent(), maxTotalAttempts(),
-                responseTimeoutMillisForEachAttempt());
+                responseTimeoutMillisForEachAttempt(), retryBudget());
     }
 
     /**
@@ -74,4 +74,9 @@ public final class RetryingRpcClientBuilder extends RetryingClientBuilder<RpcRes
             Duration responseTimeoutForEachAttempt) {
         return (RetryingRpcClientBuilder) super.responseTimeoutForEachAttempt(responseTimeoutForEachAttempt);
     }
+
+    @Override
+    public RetryingRpcClientBuilder retryBudget(RetryBudget retryBudget) {
+        return (RetryingRpcClientBuilder) super.retryBudget(retryBudget);
+    }
 }
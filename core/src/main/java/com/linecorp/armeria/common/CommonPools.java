@@ -20,9 +20,13 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.linecorp.armeria.client.ClientFactoryBuilder;
 import com.linecorp.armeria.common.util.EventLoopGroups;
 import com.linecorp.armeria.common.util.ThreadFactories;
+import com.linecorp.armeria.internal.VirtualThreads;
 import com.linecorp.armeria.server.ServerBuilder;
 
 import io.netty.channel.EventLoopGroup;
@@ -32,25 +36,43 @@ import io.netty.channel.EventLoopGroup;
  */
 public final class CommonPools {
 
+    private static final Logger logger = LoggerFactory.getLogger(CommonPools.class);
+
     private static final ScheduledExecutorService BLOCKING_TASK_EXECUTOR;
     private static final EventLoopGroup WORKER_GROUP;
 
     static {
+        BLOCKING_TASK_EXECUTOR = newBlockingTaskExecutor();
+
+        WORKER_GROUP = EventLoopGroups.newEventLoopGroup(Flags.numCommonWorkers(),
+                                                         "armeria-common-worker", true);
+    }
+
+    private static ScheduledExecutorService newBlockingTaskExecutor() {
+        if (Flags.useVirtualThreadBlockingTaskExecutor()) {
+            final ScheduledExecutorService executor =
+                    VirtualThreads.newBlockingTaskExecutor("armeria-common-blocking-tasks");
+            if (executor != null) {
+                logger.info("Using virtual threads for the common blocking task executor");
+                return executor;
+            }
+            logger.warn("Virtual threads are not available; using platform threads for " +
+                        "the common blocking task executor");
+        }
+
         // Threads spawned as needed and reused, with a 60s timeout and unbounded work queue.
         final ScheduledThreadPoolExecutor scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(
                 Flags.numCommonBlockingTaskThreads(),
                 ThreadFactories.newThreadFactory("armeria-common-blocking-tasks", true));
         scheduledThreadPoolExecutor.setKeepAliveTime(60, TimeUnit.SECONDS);
         scheduledThreadPoolExecutor.allowCoreThreadTimeOut(true);
-        BLOCKING_TASK_EXECUTOR = scheduledThreadPoolExecutor;
-
-        WORKER_GROUP = EventLoopGroups.newEventLoopGroup(Flags.numCommonWorkers(),
-                                                         "armeria-common-worker", true);
+        return scheduledThreadPoolExecutor;
     }
 
     /**
      * Returns the default common blocking task {@link ScheduledExecutorService} which is used for
-     * potentially long-running tasks which may block I/O threads.
+     * potentially long-running tasks which may block I/O threads. The tasks run on virtual threads if
+     * {@link Flags#useVirtualThreadBlockingTaskExecutor()} is enabled and virtual threads are available.
      */
     public static ScheduledExecutorService blockingTaskExecutor() {
         return BLOCKING_TASK_EXECUTOR;
@@ -51,9 +51,13 @@ import com.linecorp.armeria.server.RoutingContext;
 import com.linecorp.armeria.server.ServerBuilder;
 import com.linecorp.armeria.server.Service;
 import com.linecorp.armeria.server.ServiceConfig;
+import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.annotation.ExceptionHandler;
 import com.linecorp.armeria.server.annotation.ExceptionVerbosity;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.epoll.Epoll;
 import io.netty.handler.codec.http2.Http2CodecUtil;
@@ -264,6 +268,12 @@ public final class Flags {
                    DEFAULT_DEFAULT_MAX_TOTAL_ATTEMPTS,
                    value -> value > 0);
 
+    private static final int DEFAULT_COARSE_CLOCK_PRECISION_MILLIS = 0; // Disabled
+    private static final int COARSE_CLOCK_PRECISION_MILLIS =
+            getInt("coarseClockPrecisionMillis",
+                   DEFAULT_COARSE_CLOCK_PRECISION_MILLIS,
+                   value -> value >= 0);
+
     private static final String DEFAULT_ROUTE_CACHE_SPEC = "maximumSize=4096";
     private static final Optional<String> ROUTE_CACHE_SPEC =
             caffeineSpec("routeCache", DEFAULT_ROUTE_CACHE_SPEC);
@@ -280,6 +290,10 @@ public final class Flags {
     private static final Optional<String> PARSED_PATH_CACHE_SPEC =
             caffeineSpec("parsedPathCache", DEFAULT_PARSED_PATH_CACHE_SPEC);
 
+    private static final String DEFAULT_PARSED_MEDIA_TYPE_CACHE_SPEC = "maximumSize=1024";
+    private static final Optional<String> PARSED_MEDIA_TYPE_CACHE_SPEC =
+            caffeineSpec("parsedMediaTypeCache", DEFAULT_PARSED_MEDIA_TYPE_CACHE_SPEC);
+
     private static final String DEFAULT_HEADER_VALUE_CACHE_SPEC = "maximumSize=4096";
     private static final Optional<String> HEADER_VALUE_CACHE_SPEC =
             caffeineSpec("headerValueCache", DEFAULT_HEADER_VALUE_CACHE_SPEC);
@@ -289,7 +303,7 @@ public final class Flags {
             caffeineSpec("fileServiceCache", DEFAULT_FILE_SERVICE_CACHE_SPEC);
 
     private static final String DEFAULT_CACHED_HEADERS =
-            ":authority,:scheme,:method,accept-encoding,content-type";
+            ":authority,:scheme,:method,accept,accept-encoding,content-type,user-agent";
     private static final List<String> CACHED_HEADERS =
             CSV_SPLITTER.splitToList(getNormalized(
                     "cachedHeaders", DEFAULT_CACHED_HEADERS, CharMatcher.ascii()::matchesAllOf));
@@ -301,6 +315,13 @@ public final class Flags {
 
     private static final boolean USE_JDK_DNS_RESOLVER = getBoolean("useJdkDnsResolver", false);
 
+    private static final boolean USE_STRIPED_REQUEST_METRICS = getBoolean("useStripedRequestMetrics", false);
+
+    private static final boolean USE_DEADLINE_PROPAGATION = getBoolean("useDeadlinePropagation", false);
+
+    private static final boolean USE_VIRTUAL_THREAD_BLOCKING_TASK_EXECUTOR =
+            getBoolean("useVirtualThreadBlockingTaskExecutor", false);
+
     static {
         if (!isEpollAvailable()) {
             final Throwable cause = Epoll.unavailabilityCause();
@@ -730,6 +751,21 @@ public final class Flags {
         return DEFAULT_MAX_TOTAL_ATTEMPTS;
     }
 
+    /**
+     * Returns the precision of the coarse clock in milliseconds. When enabled, the request logs, the
+     * request timeouts, the circuit breakers and the {@code "date"} header read the current time from
+     * the values updated periodically by a background thread instead of reading the system clock several
+     * times per request. This may be useful when reading the system clock is expensive, e.g. on some
+     * virtualized hosts, at the cost of the precision of the recorded timings.
+     *
+     * <p>The default value of this flag is {@value #DEFAULT_COARSE_CLOCK_PRECISION_MILLIS}, which disables
+     * the coarse clock. Specify the {@code -Dcom.linecorp.armeria.coarseClockPrecisionMillis=<integer>} JVM
+     * option to override the default value.
+     */
+    public static int coarseClockPrecisionMillis() {
+        return COARSE_CLOCK_PRECISION_MILLIS;
+    }
+
     /**
      * Returns the value of the {@code routeCache} parameter. It would be used to create a Caffeine
      * {@link Cache} instance using {@link CaffeineSpec} for routing a request. The {@link Cache}
@@ -774,10 +810,25 @@ public final class Flags {
         return PARSED_PATH_CACHE_SPEC;
     }
 
+    /**
+     * Returns the value of the {@code parsedMediaTypeCache} parameter. It would be used to create Caffeine
+     * {@link Cache} instances using {@link CaffeineSpec} for mapping raw media types to {@link MediaType}s
+     * and raw {@code "accept"} header values to the media ranges, after validation.
+     *
+     * <p>The default value of this flag is {@value DEFAULT_PARSED_MEDIA_TYPE_CACHE_SPEC}. Specify the
+     * {@code -Dcom.linecorp.armeria.parsedMediaTypeCache=<spec>} JVM option to override the default value.
+     * For example, {@code -Dcom.linecorp.armeria.parsedMediaTypeCache=maximumSize=1024,expireAfterAccess=600s}.
+     * Also, specify {@code -Dcom.linecorp.armeria.parsedMediaTypeCache=off} JVM option to disable it.
+     */
+    public static Optional<String> parsedMediaTypeCacheSpec() {
+        return PARSED_MEDIA_TYPE_CACHE_SPEC;
+    }
+
     /**
      * Returns the value of the {@code headerValueCache} parameter. It would be used to create a Caffeine
      * {@link Cache} instance using {@link CaffeineSpec} for mapping raw HTTP ASCII header values to
-     * {@link String}.
+     * {@link String}. The values of the headers specified in {@link #cachedHeaders()} are looked up from
+     * a small lock-free table of each header first, and then from this cache.
      *
      * <p>The default value of this flag is {@value DEFAULT_HEADER_VALUE_CACHE_SPEC}. Specify the
      * {@code -Dcom.linecorp.armeria.headerValueCache=<spec>} JVM option to override the default value.
@@ -803,7 +854,9 @@ public final class Flags {
 
     /**
      * Returns the value of the {@code cachedHeaders} parameter which contains a comma-separated list of
-     * headers whose values are cached using {@code headerValueCache}.
+     * headers whose values are cached using {@code headerValueCache}. The cached values are reused across
+     * requests, e.g. the parsed {@link MediaType} of a {@code "content-type"} header value. Note that
+     * the values are not cached at all if {@code headerValueCache} is {@code off}.
      *
      * <p>The default value of this flag is {@value DEFAULT_CACHED_HEADERS}. Specify the
      * {@code -Dcom.linecorp.armeria.cachedHeaders=<csv>} JVM option to override the default value.
@@ -864,6 +917,59 @@ public final class Flags {
         return USE_JDK_DNS_RESOLVER;
     }
 
+    /**
+     * Returns whether the durations and lengths of the requests collected by {@code MetricCollectingService}
+     * and {@code MetricCollectingClient} are recorded into the histograms striped by thread rather than
+     * Micrometer's {@link Timer}s and {@link DistributionSummary}s. A histogram is split into a few stripes
+     * once the event loops contend on it, and the stripes are merged only when the meters are read by
+     * a {@link MeterRegistry}, so that the event loops rarely contend with each other. Note that
+     * the percentiles are approximate and exported as separate gauges named {@code <name>.percentile}
+     * with the {@code phi} tag.
+     *
+     * <p>This flag is disabled by default.
+     * Specify the {@code -Dcom.linecorp.armeria.useStripedRequestMetrics=true} JVM option
+     * to enable it.
+     */
+    public static boolean useStripedRequestMetrics() {
+        return USE_STRIPED_REQUEST_METRICS;
+    }
+
+    /**
+     * Returns whether the deadline of a request is propagated from a server to the clients which send
+     * requests while serving it. If enabled:
+     * <ul>
+     *   <li>the response timeout of a client request made in the scope of a {@link ServiceRequestContext}
+     *       is capped by the remaining request timeout of the {@link ServiceRequestContext},</li>
+     *   <li>a client sends its response timeout in milliseconds as the {@code "armeria-timeout"} header,
+     *       and</li>
+     *   <li>a server shortens the request timeout to the {@code "armeria-timeout"} header value and
+     *       rejects the request without invoking the service if the value is {@code 0}, i.e. the deadline
+     *       has passed already.</li>
+     * </ul>
+     *
+     * <p>This flag is disabled by default.
+     * Specify the {@code -Dcom.linecorp.armeria.useDeadlinePropagation=true} JVM option
+     * to enable it.
+     */
+    public static boolean useDeadlinePropagation() {
+        return USE_DEADLINE_PROPAGATION;
+    }
+
+    /**
+     * Returns whether the {@linkplain CommonPools#blockingTaskExecutor() common blocking task executor} runs
+     * each task on a virtual thread rather than on one of the {@link #numCommonBlockingTaskThreads()}
+     * platform threads. Virtual threads are available since Java 21; the platform threads are used
+     * if they are not available. Note that this flag has effect only if a user did not specify
+     * a blocking task executor.
+     *
+     * <p>This flag is disabled by default.
+     * Specify the {@code -Dcom.linecorp.armeria.useVirtualThreadBlockingTaskExecutor=true} JVM option
+     * to enable it.
+     */
+    public static boolean useVirtualThreadBlockingTaskExecutor() {
+        return USE_VIRTUAL_THREAD_BLOCKING_TASK_EXECUTOR;
+    }
+
     private static Optional<String> caffeineSpec(String name, String defaultValue) {
         final String spec = get(name, defaultValue, value -> {
             try {
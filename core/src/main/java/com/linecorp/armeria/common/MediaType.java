@@ -51,6 +51,8 @@ import javax.annotation.Nullable;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Ascii;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Joiner;
@@ -958,6 +960,24 @@ public final class MediaType {
         if (wellKnown != null) {
             return wellKnown;
         }
+
+        final Cache<String, MediaType> cache = ParsedMediaTypeCache.CACHE;
+        if (cache == null) {
+            return parseUncached(input);
+        }
+
+        final MediaType cached = cache.getIfPresent(input);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Do not cache the inputs which are not parsable, so that they do not occupy the cache.
+        final MediaType parsed = parseUncached(input);
+        cache.put(input, parsed);
+        return parsed;
+    }
+
+    private static MediaType parseUncached(String input) {
         Tokenizer tokenizer = new Tokenizer(input);
         try {
             String type = tokenizer.consumeToken(TOKEN_MATCHER);
@@ -1165,6 +1185,14 @@ public final class MediaType {
         return false;
     }
 
+    private static final class ParsedMediaTypeCache {
+        // Initialized lazily so that the class initialization of MediaType does not depend on Flags.
+        @Nullable
+        static final Cache<String, MediaType> CACHE =
+                Flags.parsedMediaTypeCacheSpec().map(spec -> Caffeine.from(spec).<String, MediaType>build())
+                     .orElse(null);
+    }
+
     private static final class KnownTypesByString {
         // Contains the well known media types as well as those registered in the server by SerializationFormats
         // to optimize parsing of these standard types.
@@ -21,12 +21,18 @@ import static java.util.Objects.requireNonNull;
 
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
@@ -57,7 +63,33 @@ public final class MediaTypeSet extends AbstractSet<MediaType> {
     private static final String Q = "q";
     private static final MediaType[] EMPTY_MEDIA_TYPES = new MediaType[0];
 
+    /**
+     * Orders media ranges from the most preferred to the least preferred, i.e. by higher qvalue, fewer
+     * wildcards and more parameters. Note that qvalues have no more than three digits after the decimal
+     * point, so we do not need the tolerance that {@link #match(Iterable)} uses when comparing them.
+     */
+    private static final Comparator<MediaType> PREFERENCE_ORDER = (a, b) -> {
+        int cmp = Float.compare(qualityFactor(b), qualityFactor(a));
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Integer.compare(a.numWildcards(), b.numWildcards());
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Integer.compare(numParameters(b), numParameters(a));
+    };
+
+    /**
+     * Maps a raw {@code "accept"} header value to its media ranges sorted in {@link #PREFERENCE_ORDER}.
+     */
+    @Nullable
+    private static final Cache<String, MediaType[]> SORTED_RANGES_CACHE =
+            Flags.parsedMediaTypeCacheSpec().map(spec -> Caffeine.from(spec).<String, MediaType[]>build())
+                 .orElse(null);
+
     private final MediaType[] mediaTypes;
+    private final List<Optional<MediaType>> optionalMediaTypes;
 
     /**
      * Creates a new instance.
@@ -85,6 +117,11 @@ public final class MediaTypeSet extends AbstractSet<MediaType> {
         }
 
         this.mediaTypes = mediaTypesCopy.toArray(EMPTY_MEDIA_TYPES);
+        final ImmutableList.Builder<Optional<MediaType>> optionalMediaTypes = ImmutableList.builder();
+        for (MediaType mediaType : this.mediaTypes) {
+            optionalMediaTypes.add(Optional.of(mediaType));
+        }
+        this.optionalMediaTypes = optionalMediaTypes.build();
     }
 
     @Override
@@ -125,7 +162,7 @@ public final class MediaTypeSet extends AbstractSet<MediaType> {
 
         final List<MediaType> ranges = new ArrayList<>(4);
         for (CharSequence acceptHeader : acceptHeaders) {
-            addRanges(ranges, acceptHeader);
+            Collections.addAll(ranges, sortedRanges(acceptHeader));
         }
         return match(ranges);
     }
@@ -142,10 +179,14 @@ public final class MediaTypeSet extends AbstractSet<MediaType> {
      */
     public Optional<MediaType> matchHeaders(CharSequence... acceptHeaders) {
         requireNonNull(acceptHeaders, "acceptHeaders");
+        if (acceptHeaders.length == 1) {
+            // Fast path: the ranges of a single header are already in the order of preference.
+            return matchSorted(sortedRanges(acceptHeaders[0]));
+        }
 
         final List<MediaType> ranges = new ArrayList<>(4);
         for (CharSequence acceptHeader : acceptHeaders) {
-            addRanges(ranges, acceptHeader);
+            Collections.addAll(ranges, sortedRanges(acceptHeader));
         }
         return match(ranges);
     }
@@ -197,7 +238,7 @@ public final class MediaTypeSet extends AbstractSet<MediaType> {
         int matchNumParams = Integer.MIN_VALUE;    // higher = better
         for (MediaType range : ranges) {
             requireNonNull(range, "ranges contains null.");
-            float qValue = range.qualityFactor(Float.NEGATIVE_INFINITY);
+            float qValue = qualityFactor(range, Float.NEGATIVE_INFINITY);
             final int numWildcards = range.numWildcards();
             final int numParams;
             if (qValue < 0) {
@@ -244,6 +285,72 @@ public final class MediaTypeSet extends AbstractSet<MediaType> {
         return Optional.ofNullable(match);
     }
 
+    /**
+     * Finds the {@link MediaType} in this {@link List} that matches the first media range that has
+     * a match. The specified ranges must be sorted in {@link #PREFERENCE_ORDER}.
+     */
+    private Optional<MediaType> matchSorted(MediaType[] sortedRanges) {
+        for (MediaType range : sortedRanges) {
+            for (int i = 0; i < mediaTypes.length; i++) {
+                if (mediaTypes[i].belongsTo(range)) {
+                    return optionalMediaTypes.get(i);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the media ranges in the specified {@code "accept"} header value, sorted in
+     * {@link #PREFERENCE_ORDER}. Sorting is stable, so the ranges with the same preference are in
+     * the order of appearance, which is how {@link #match(Iterable)} breaks a tie.
+     */
+    @VisibleForTesting
+    static MediaType[] sortedRanges(CharSequence acceptHeader) {
+        final String key = acceptHeader.toString();
+        final Cache<String, MediaType[]> cache = SORTED_RANGES_CACHE;
+        if (cache != null) {
+            final MediaType[] cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final List<MediaType> ranges = new ArrayList<>(4);
+        addRanges(ranges, key);
+        ranges.sort(PREFERENCE_ORDER);
+        final MediaType[] sortedRanges = ranges.toArray(EMPTY_MEDIA_TYPES);
+        if (cache != null) {
+            cache.put(key, sortedRanges);
+        }
+        return sortedRanges;
+    }
+
+    /**
+     * Returns the qvalue of the specified media range, or {@code 1.0} if not specified.
+     */
+    private static float qualityFactor(MediaType range) {
+        return qualityFactor(range, 1.0f);
+    }
+
+    /**
+     * Returns the qvalue of the specified media range. A {@code NaN} qvalue, e.g. {@code "q=NaN"}, is
+     * treated as {@code 0} like other malformed qvalues, because {@link Float#compare(float, float)} would
+     * otherwise place it before all other ranges.
+     */
+    private static float qualityFactor(MediaType range, float defaultValueIfNotSpecified) {
+        final float qValue = range.qualityFactor(defaultValueIfNotSpecified);
+        return Float.isNaN(qValue) ? 0.0f : qValue;
+    }
+
+    /**
+     * Returns the number of the parameters of the specified media range, excluding the qvalue.
+     */
+    private static int numParameters(MediaType range) {
+        final int numParams = range.parameters().size();
+        return range.qualityFactor(Float.NEGATIVE_INFINITY) < 0 ? numParams : numParams - 1;
+    }
+
     private static final int ST_SKIP_LEADING_WHITESPACES = 0;
     private static final int ST_READ_QDTEXT = 1;
     private static final int ST_READ_QUOTED_STRING = 2;
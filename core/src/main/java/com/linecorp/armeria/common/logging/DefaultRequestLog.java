@@ -59,8 +59,8 @@ import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.Scheme;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.SessionProtocol;
-import com.linecorp.armeria.common.util.SystemInfo;
 import com.linecorp.armeria.common.util.TextFormatter;
+import com.linecorp.armeria.internal.CoarseClock;
 
 import io.netty.channel.Channel;
 import io.netty.util.Attribute;
@@ -239,6 +239,15 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
         propagateResponseSideLog(lastChild);
     }
 
+    @Override
+    public void endResponseWithChild(RequestLog child) {
+        requireNonNull(child, "child");
+        checkState(!hasLastChild, "last child is already added");
+        checkState(children != null && children.contains(child), "not a child: %s", child);
+        hasLastChild = true;
+        propagateResponseSideLog(child);
+    }
+
     private void propagateResponseSideLog(RequestLog lastChild) {
         // update the available logs if the lastChild already has them
         if (lastChild.isAvailable(RESPONSE_START)) {
@@ -400,7 +409,7 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
     private void startRequest0(Channel channel, SessionProtocol sessionProtocol,
                                @Nullable SSLSession sslSession, boolean updateAvailability) {
         startRequest0(channel, sessionProtocol, sslSession,
-                      System.nanoTime(), SystemInfo.currentTimeMicros(),
+                      CoarseClock.nanoTime(), CoarseClock.currentTimeMicros(),
                       updateAvailability);
     }
 
@@ -533,7 +542,7 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
         if (isAvailabilityAlreadyUpdated(REQUEST_FIRST_BYTES_TRANSFERRED)) {
             return;
         }
-        requestFirstBytesTransferred0(System.nanoTime());
+        requestFirstBytesTransferred0(CoarseClock.nanoTime());
     }
 
     @Override
@@ -683,7 +692,7 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
     }
 
     private void endRequest0(@Nullable Throwable requestCause) {
-        endRequest0(requestCause, System.nanoTime());
+        endRequest0(requestCause, CoarseClock.nanoTime());
     }
 
     private void endRequest0(@Nullable Throwable requestCause, long requestEndTimeNanos) {
@@ -699,7 +708,7 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
         // if the request is not started yet, call startRequest() with requestEndTimeNanos so that
         // totalRequestDuration will be 0
         startRequest0(null, context().sessionProtocol(), null,
-                      requestEndTimeNanos, SystemInfo.currentTimeMicros(), false);
+                      requestEndTimeNanos, CoarseClock.currentTimeMicros(), false);
 
         this.requestEndTimeNanos = requestEndTimeNanos;
         this.requestCause = requestCause;
@@ -717,7 +726,7 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
     }
 
     private void startResponse0(boolean updateAvailability) {
-        startResponse0(System.nanoTime(), SystemInfo.currentTimeMicros(), updateAvailability);
+        startResponse0(CoarseClock.nanoTime(), CoarseClock.currentTimeMicros(), updateAvailability);
     }
 
     private void startResponse0(long responseStartTimeNanos, long responseStartTimeMicros,
@@ -798,7 +807,7 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
         if (isAvailabilityAlreadyUpdated(RESPONSE_FIRST_BYTES_TRANSFERRED)) {
             return;
         }
-        responseFirstBytesTransferred0(System.nanoTime());
+        responseFirstBytesTransferred0(CoarseClock.nanoTime());
     }
 
     @Override
@@ -954,7 +963,7 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
     }
 
     private void endResponse0(@Nullable Throwable responseCause) {
-        endResponse0(responseCause, System.nanoTime());
+        endResponse0(responseCause, CoarseClock.nanoTime());
     }
 
     private void endResponse0(@Nullable Throwable responseCause, long responseEndTimeNanos) {
@@ -969,7 +978,7 @@ public class DefaultRequestLog implements RequestLog, RequestLogBuilder {
         }
         // if the response is not started yet, call startResponse() with responseEndTimeNanos so that
         // totalResponseDuration will be 0
-        startResponse0(responseEndTimeNanos, SystemInfo.currentTimeMicros(), false);
+        startResponse0(responseEndTimeNanos, CoarseClock.currentTimeMicros(), false);
 
         this.responseEndTimeNanos = responseEndTimeNanos;
         if (this.responseCause == null) {
@@ -37,6 +37,9 @@ final class NoopRequestLogBuilder implements RequestLogBuilder {
     @Override
     public void endResponseWithLastChild() {}
 
+    @Override
+    public void endResponseWithChild(RequestLog child) {}
+
     @Override
     public void startRequest(Channel channel, SessionProtocol sessionProtocol) {}
 
@@ -61,6 +61,39 @@ public interface RequestLogBuilder {
      */
     void endResponseWithLastChild();
 
+    /**
+     * Fills the response-side logs from the specified child, which must have been added with
+     * {@link #addChild(RequestLog)}. This is useful when the response of the child added earlier is used
+     * while the children added later are cancelled. Note that already fulfilled
+     * {@link RequestLogAvailability}s in the child log will be propagated immediately.
+     *
+     * <p>The default implementation copies the response-side properties of the specified child into this
+     * builder as they become available. Override this method if the implementation can propagate them
+     * more efficiently.
+     */
+    default void endResponseWithChild(RequestLog child) {
+        requireNonNull(child, "child");
+        child.addListener(log -> startResponse(log.responseStartTimeNanos(), log.responseStartTimeMicros()),
+                          RequestLogAvailability.RESPONSE_START);
+        child.addListener(log -> responseFirstBytesTransferred(log.responseFirstBytesTransferredTimeNanos()),
+                          RequestLogAvailability.RESPONSE_FIRST_BYTES_TRANSFERRED);
+        child.addListener(log -> responseHeaders(log.responseHeaders()),
+                          RequestLogAvailability.RESPONSE_HEADERS);
+        child.addListener(log -> responseContent(log.responseContent(), log.rawResponseContent()),
+                          RequestLogAvailability.RESPONSE_CONTENT);
+        child.addListener(log -> {
+            responseLength(log.responseLength());
+            responseContentPreview(log.responseContentPreview());
+            responseTrailers(log.responseTrailers());
+            final Throwable responseCause = log.responseCause();
+            if (responseCause != null) {
+                endResponse(responseCause, log.responseEndTimeNanos());
+            } else {
+                endResponse(log.responseEndTimeNanos());
+            }
+        }, RequestLogAvailability.RESPONSE_END);
+    }
+
     // Methods related with a request:
 
     /**
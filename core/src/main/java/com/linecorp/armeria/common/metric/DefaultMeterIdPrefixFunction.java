@@ -0,0 +1,245 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.RpcRequest;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
+import com.linecorp.armeria.server.Route;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.VirtualHost;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+/**
+ * The {@link MeterIdPrefixFunction} returned by {@link MeterIdPrefixFunction#ofDefault(String)}.
+ *
+ * <p>The {@link MeterIdPrefix}es are cached for each combination of {@link VirtualHost}, {@link Route},
+ * method and {@link HttpStatus}, so that the same {@link MeterIdPrefix} instance is returned for the same
+ * combination without allocation. Once the number of the cached combinations of {@link VirtualHost},
+ * {@link Route} and method reaches {@code maxNumCombinations}, the requests of a new combination are
+ * counted into the overflow {@link MeterIdPrefix} whose {@code hostnamePattern}, {@code method} and
+ * {@code route} tags are {@value #OVERFLOW_TAG_VALUE}, so that a high-cardinality tag does not make
+ * the number of meters grow infinitely.
+ */
+final class DefaultMeterIdPrefixFunction implements MeterIdPrefixFunction {
+
+    static final int DEFAULT_MAX_NUM_COMBINATIONS = 1000;
+
+    static final String OVERFLOW_TAG_VALUE = "other";
+
+    private final String name;
+    private final int maxNumCombinations;
+    private final AtomicInteger numCombinations = new AtomicInteger();
+
+    // Use the identity of VirtualHost and Route, whose equals() and hashCode() are not cheap.
+    private final ConcurrentMap<VirtualHost, ConcurrentMap<Route, ConcurrentMap<String, PrefixTable>>>
+            serviceTables = new MapMaker().weakKeys().makeMap();
+    private final ConcurrentMap<String, PrefixTable> clientTables = new ConcurrentHashMap<>();
+
+    private final PrefixTable serviceOverflowTable;
+    private final PrefixTable clientOverflowTable;
+
+    DefaultMeterIdPrefixFunction(String name, int maxNumCombinations) {
+        this.name = name;
+        this.maxNumCombinations = maxNumCombinations;
+        serviceOverflowTable = new PrefixTable(name, OVERFLOW_TAG_VALUE,
+                                               OVERFLOW_TAG_VALUE, OVERFLOW_TAG_VALUE);
+        clientOverflowTable = new PrefixTable(name, null, OVERFLOW_TAG_VALUE, null);
+    }
+
+    @Override
+    public MeterIdPrefix activeRequestPrefix(MeterRegistry registry, RequestLog log) {
+        return prefixTable(log).activeRequestPrefix;
+    }
+
+    @Override
+    public MeterIdPrefix apply(MeterRegistry registry, RequestLog log) {
+        final HttpStatus status;
+        if (log.isAvailable(RequestLogAvailability.RESPONSE_HEADERS)) {
+            status = log.status();
+        } else {
+            status = HttpStatus.UNKNOWN;
+        }
+        return prefixTable(log).prefix(status);
+    }
+
+    private PrefixTable prefixTable(RequestLog log) {
+        final RequestContext ctx = log.context();
+        final String methodName = methodName(log);
+
+        if (ctx instanceof ServiceRequestContext) {
+            final ServiceRequestContext sCtx = (ServiceRequestContext) ctx;
+            final VirtualHost virtualHost = sCtx.virtualHost();
+            final Route route = sCtx.route();
+            final ConcurrentMap<String, PrefixTable> tables =
+                    serviceTables.computeIfAbsent(virtualHost, unused -> new MapMaker().weakKeys().makeMap())
+                                 .computeIfAbsent(route, unused -> new ConcurrentHashMap<>());
+            final PrefixTable table = tables.get(methodName);
+            if (table != null) {
+                return table;
+            }
+            if (!reserveCombination()) {
+                return serviceOverflowTable;
+            }
+            return tables.computeIfAbsent(methodName, unused -> new PrefixTable(
+                    name, virtualHost.hostnamePattern(), methodName, route.meterTag()));
+        }
+
+        final PrefixTable table = clientTables.get(methodName);
+        if (table != null) {
+            return table;
+        }
+        if (!reserveCombination()) {
+            return clientOverflowTable;
+        }
+        return clientTables.computeIfAbsent(methodName,
+                                            unused -> new PrefixTable(name, null, methodName, null));
+    }
+
+    private static String methodName(RequestLog log) {
+        final Object requestContent = log.requestContent();
+        if (requestContent instanceof RpcRequest) {
+            final String methodName = ((RpcRequest) requestContent).method();
+            if (methodName != null) {
+                return methodName;
+            }
+        }
+        return log.requestHeaders().method().name();
+    }
+
+    /**
+     * Increases the number of the cached combinations if it did not reach the limit. Note that the limit
+     * may be exceeded slightly when two threads add the same combination at the same time.
+     */
+    private boolean reserveCombination() {
+        for (;;) {
+            final int current = numCombinations.get();
+            if (current >= maxNumCombinations) {
+                return false;
+            }
+            if (numCombinations.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("name", name)
+                          .add("maxNumCombinations", maxNumCombinations)
+                          .add("numCombinations", numCombinations)
+                          .toString();
+    }
+
+    /**
+     * The {@link MeterIdPrefix}es of a combination of {@link VirtualHost}, {@link Route} and method.
+     */
+    private static final class PrefixTable {
+
+        private static final StatusPrefix[] EMPTY_PREFIXES = new StatusPrefix[0];
+
+        private final String name;
+        @Nullable
+        private final String hostnamePattern;
+        private final String method;
+        @Nullable
+        private final String route;
+
+        final MeterIdPrefix activeRequestPrefix;
+
+        // There are only a few distinct statuses for a combination in practice, so a copy-on-write array
+        // is enough.
+        private volatile StatusPrefix[] prefixes = EMPTY_PREFIXES;
+
+        PrefixTable(String name, @Nullable String hostnamePattern, String method, @Nullable String route) {
+            this.name = name;
+            this.hostnamePattern = hostnamePattern;
+            this.method = method;
+            this.route = route;
+            activeRequestPrefix = newPrefix(null);
+        }
+
+        MeterIdPrefix prefix(HttpStatus status) {
+            final int code = status.code();
+            for (StatusPrefix p : prefixes) {
+                if (p.code == code) {
+                    return p.prefix;
+                }
+            }
+            return addPrefix(status);
+        }
+
+        private synchronized MeterIdPrefix addPrefix(HttpStatus status) {
+            final StatusPrefix[] prefixes = this.prefixes;
+            for (StatusPrefix p : prefixes) {
+                if (p.code == status.code()) {
+                    return p.prefix;
+                }
+            }
+
+            final MeterIdPrefix prefix = newPrefix(status);
+            final StatusPrefix[] newPrefixes = new StatusPrefix[prefixes.length + 1];
+            System.arraycopy(prefixes, 0, newPrefixes, 0, prefixes.length);
+            newPrefixes[prefixes.length] = new StatusPrefix(status.code(), prefix);
+            this.prefixes = newPrefixes;
+            return prefix;
+        }
+
+        private MeterIdPrefix newPrefix(@Nullable HttpStatus status) {
+            // hostNamePattern, httpStatus, method, route
+            final ImmutableList.Builder<Tag> tagListBuilder = ImmutableList.builderWithExpectedSize(4);
+            // For optimal performance, add tags in order.
+            if (hostnamePattern != null) {
+                tagListBuilder.add(Tag.of("hostnamePattern", hostnamePattern));
+            }
+            if (status != null) {
+                tagListBuilder.add(Tag.of("httpStatus", status.codeAsText()));
+            }
+            tagListBuilder.add(Tag.of("method", method));
+            if (route != null) {
+                tagListBuilder.add(Tag.of("route", route));
+            }
+            return new MeterIdPrefix(name, tagListBuilder.build());
+        }
+    }
+
+    private static final class StatusPrefix {
+
+        final int code;
+        final MeterIdPrefix prefix;
+
+        StatusPrefix(int code, MeterIdPrefix prefix) {
+            this.code = code;
+            this.prefix = prefix;
+        }
+    }
+}
@@ -16,22 +16,16 @@
 
 package com.linecorp.armeria.common.metric;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import java.util.function.BiFunction;
 
-import com.google.common.collect.ImmutableList;
-
 import com.linecorp.armeria.client.metric.MetricCollectingClient;
 import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpStatus;
-import com.linecorp.armeria.common.RequestContext;
-import com.linecorp.armeria.common.RequestHeaders;
-import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.logging.RequestLog;
-import com.linecorp.armeria.internal.metric.RequestMetricSupport;
 import com.linecorp.armeria.server.Route;
-import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.VirtualHost;
 import com.linecorp.armeria.server.metric.MetricCollectingService;
 
@@ -65,60 +59,31 @@ public interface MeterIdPrefixFunction {
      *     <li>{@code httpStatus} - {@link HttpStatus#code()}</li>
      *   </ul></li>
      * </ul>
+     * At most 1000 distinct combinations of {@code hostnamePattern}, {@code route} and {@code method}
+     * are tagged as they are. See {@link #ofDefault(String, int)} for more information.
      */
     static MeterIdPrefixFunction ofDefault(String name) {
-        requireNonNull(name, "name");
-        return new MeterIdPrefixFunction() {
-            @Override
-            public MeterIdPrefix activeRequestPrefix(MeterRegistry registry, RequestLog log) {
-                // hostNamePattern, method, route
-                final ImmutableList.Builder<Tag> tagListBuilder = ImmutableList.builderWithExpectedSize(3);
-                // For optimal performance, add tags in order.
-                buildTags(tagListBuilder, log, false);
-                return new MeterIdPrefix(name, tagListBuilder.build());
-            }
-
-            @Override
-            public MeterIdPrefix apply(MeterRegistry registry, RequestLog log) {
-                // hostNamePattern, httpStatus, method, route
-                final ImmutableList.Builder<Tag> tagListBuilder = ImmutableList.builderWithExpectedSize(4);
-                // For optimal performance, add tags in order.
-                buildTags(tagListBuilder, log, true);
-                return new MeterIdPrefix(name, tagListBuilder.build());
-            }
-
-            private void buildTags(ImmutableList.Builder<Tag> tagListBuilder, RequestLog log,
-                                   boolean addStatus) {
-                final RequestContext ctx = log.context();
-                final Object requestContent = log.requestContent();
-
-                String methodName = null;
-                if (requestContent instanceof RpcRequest) {
-                    methodName = ((RpcRequest) requestContent).method();
-                }
-
-                if (methodName == null) {
-                    final RequestHeaders requestHeaders = log.requestHeaders();
-                    methodName = requestHeaders.method().name();
-                }
-
-                if (ctx instanceof ServiceRequestContext) {
-                    final ServiceRequestContext sCtx = (ServiceRequestContext) ctx;
-                    tagListBuilder.add(Tag.of("hostnamePattern", sCtx.virtualHost().hostnamePattern()));
-                }
-
-                if (addStatus) {
-                    RequestMetricSupport.appendHttpStatusTag(tagListBuilder, log);
-                }
-
-                tagListBuilder.add(Tag.of("method", methodName));
+        return ofDefault(name, DefaultMeterIdPrefixFunction.DEFAULT_MAX_NUM_COMBINATIONS);
+    }
 
-                if (ctx instanceof ServiceRequestContext) {
-                    final ServiceRequestContext sCtx = (ServiceRequestContext) ctx;
-                    tagListBuilder.add(Tag.of("route", sCtx.route().meterTag()));
-                }
-            }
-        };
+    /**
+     * Returns the default function that creates a {@link MeterIdPrefix} with the specified name and
+     * the {@link Tag}s derived from the {@link RequestLog} properties, as described in
+     * {@link #ofDefault(String)}. The returned function caches the {@link MeterIdPrefix}es it creates,
+     * so that the same {@link MeterIdPrefix} instance is returned for the same combination of tag values.
+     * Once the number of the distinct combinations of {@code hostnamePattern}, {@code route} and
+     * {@code method} reaches {@code maxNumCombinations}, the requests of a new combination are counted
+     * with the tag values of {@code "other"}, so that the number of meters does not grow infinitely.
+     *
+     * @param maxNumCombinations the maximum number of the distinct combinations of {@code hostnamePattern},
+     *                           {@code route} and {@code method}. {@link #ofDefault(String)} uses
+     *                           {@code 1000}.
+     */
+    static MeterIdPrefixFunction ofDefault(String name, int maxNumCombinations) {
+        requireNonNull(name, "name");
+        checkArgument(maxNumCombinations > 0,
+                      "maxNumCombinations: %s (expected: > 0)", maxNumCombinations);
+        return new DefaultMeterIdPrefixFunction(name, maxNumCombinations);
     }
 
     /**
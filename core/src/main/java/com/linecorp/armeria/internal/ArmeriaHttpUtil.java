@@ -30,7 +30,6 @@
  */
 package com.linecorp.armeria.internal;
 
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.netty.handler.codec.http.HttpUtil.isAsteriskForm;
 import static io.netty.handler.codec.http.HttpUtil.isOriginForm;
 import static io.netty.handler.codec.http2.Http2Error.PROTOCOL_ERROR;
@@ -50,20 +49,16 @@ import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.StringJoiner;
 import java.util.function.BiConsumer;
 
 import javax.annotation.Nullable;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Ascii;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 
-import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpHeaders;
@@ -235,16 +230,6 @@ public final class ArmeriaHttpUtil {
     private static final Splitter COOKIE_SPLITTER = Splitter.on(';').trimResults().omitEmptyStrings();
     private static final String COOKIE_SEPARATOR = "; ";
 
-    @Nullable
-    private static final LoadingCache<AsciiString, String> HEADER_VALUE_CACHE =
-            Flags.headerValueCacheSpec().map(ArmeriaHttpUtil::buildCache).orElse(null);
-    private static final Set<AsciiString> CACHED_HEADERS = Flags.cachedHeaders().stream().map(AsciiString::of)
-                                                                .collect(toImmutableSet());
-
-    private static LoadingCache<AsciiString, String> buildCache(String spec) {
-        return Caffeine.from(spec).build(AsciiString::toString);
-    }
-
     /**
      * Concatenates two path strings.
      */
@@ -501,22 +486,51 @@ public final class ArmeriaHttpUtil {
 
     /**
      * Converts the specified Netty HTTP/2 into Armeria HTTP/2 {@link RequestHeaders}.
+     * The returned {@link RequestHeaders} is a view of the specified {@link Http2Headers} which does not
+     * copy the headers until it is necessary, so the specified {@link Http2Headers} must not be modified
+     * after this method returns.
      */
     public static RequestHeaders toArmeriaRequestHeaders(ChannelHandlerContext ctx, Http2Headers headers,
                                                          boolean endOfStream, String scheme,
                                                          ServerConfig cfg) {
-        final RequestHeadersBuilder builder = RequestHeaders.builder();
-        toArmeria(builder, headers, endOfStream);
         // A CONNECT request might not have ":scheme". See https://tools.ietf.org/html/rfc7540#section-8.1.2.3
-        if (!builder.contains(HttpHeaderNames.SCHEME)) {
-            builder.add(HttpHeaderNames.SCHEME, scheme);
-        }
-        if (!builder.contains(HttpHeaderNames.AUTHORITY)) {
+        final CharSequence schemeValue = headers.scheme();
+        final String actualScheme = schemeValue != null ? schemeValue.toString() : scheme;
+        final CharSequence authorityValue = headers.authority();
+        final String actualAuthority;
+        if (authorityValue != null) {
+            actualAuthority = authorityValue.toString();
+        } else {
             final String defaultHostname = cfg.defaultVirtualHost().defaultHostname();
             final int port = ((InetSocketAddress) ctx.channel().localAddress()).getPort();
-            builder.add(HttpHeaderNames.AUTHORITY, defaultHostname + ':' + port);
+            actualAuthority = defaultHostname + ':' + port;
         }
-        return builder.build();
+
+        final Http2RequestHeadersView view =
+                new Http2RequestHeadersView(headers, endOfStream, actualScheme, actualAuthority);
+        if (containsProhibitedValueChar(headers)) {
+            // Convert eagerly so that the malformed header value is rejected as early as before.
+            view.toBuilder();
+        }
+        return view;
+    }
+
+    private static boolean containsProhibitedValueChar(Http2Headers headers) {
+        for (Entry<CharSequence, CharSequence> e : headers) {
+            final CharSequence value = e.getValue();
+            final int length = value.length();
+            for (int i = 0; i < length; i++) {
+                switch (value.charAt(i)) {
+                    case 0:
+                    case '\n':
+                    case 0xB:
+                    case '\f':
+                    case '\r':
+                        return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -536,7 +550,7 @@ public final class ArmeriaHttpUtil {
         return builder.build();
     }
 
-    private static void toArmeria(HttpHeadersBuilder builder, Http2Headers headers, boolean endOfStream) {
+    static void toArmeria(HttpHeadersBuilder builder, Http2Headers headers, boolean endOfStream) {
         builder.sizeHint(headers.size());
         builder.endOfStream(endOfStream);
 
@@ -965,16 +979,8 @@ public final class ArmeriaHttpUtil {
         return headers;
     }
 
-    private static String convertHeaderValue(AsciiString name, CharSequence value) {
-        if (!(value instanceof AsciiString)) {
-            return value.toString();
-        }
-        if (HEADER_VALUE_CACHE != null && CACHED_HEADERS.contains(name)) {
-            final String converted = HEADER_VALUE_CACHE.get((AsciiString) value);
-            assert converted != null; // loader does not return null.
-            return converted;
-        }
-        return value.toString();
+    static String convertHeaderValue(AsciiString name, CharSequence value) {
+        return HeaderValueCache.toString(name, value);
     }
 
     /**
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.util.SystemInfo;
+import com.linecorp.armeria.common.util.Ticker;
+
+/**
+ * A clock which answers the monotonic and wall time from the values updated periodically by a background
+ * thread, so that the components which read the current time several times per request do not have to
+ * read the system clock every time. The precision is specified with
+ * {@link Flags#coarseClockPrecisionMillis()}. If the precision is {@code 0}, which is the default, this
+ * clock always reads the system clock.
+ */
+public final class CoarseClock {
+
+    private static final long PRECISION_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Flags.coarseClockPrecisionMillis());
+
+    // Written only by the updater thread.
+    private static volatile long nanoTime = System.nanoTime();
+    private static volatile long currentTimeMicros = SystemInfo.currentTimeMicros();
+
+    private static final Ticker TICKER = CoarseClock::nanoTime;
+
+    static {
+        if (PRECISION_NANOS > 0) {
+            final Thread updater = new Thread(CoarseClock::update, "armeria-coarse-clock");
+            updater.setDaemon(true);
+            updater.start();
+        }
+    }
+
+    /**
+     * Returns whether the clock values are updated periodically instead of being read from the system
+     * clock on every call.
+     */
+    public static boolean isEnabled() {
+        return PRECISION_NANOS > 0;
+    }
+
+    /**
+     * Returns the approximate value of {@link System#nanoTime()}, which lags behind by at most
+     * {@link Flags#coarseClockPrecisionMillis()}.
+     */
+    public static long nanoTime() {
+        return PRECISION_NANOS > 0 ? nanoTime : System.nanoTime();
+    }
+
+    /**
+     * Returns the approximate value of {@link SystemInfo#currentTimeMicros()}, which lags behind by at most
+     * {@link Flags#coarseClockPrecisionMillis()}.
+     */
+    public static long currentTimeMicros() {
+        return PRECISION_NANOS > 0 ? currentTimeMicros : SystemInfo.currentTimeMicros();
+    }
+
+    /**
+     * Returns the {@link Ticker} which reads {@link #nanoTime()}.
+     */
+    public static Ticker ticker() {
+        return TICKER;
+    }
+
+    private static void update() {
+        for (;;) {
+            LockSupport.parkNanos(PRECISION_NANOS);
+            tick();
+        }
+    }
+
+    @VisibleForTesting
+    static void tick() {
+        nanoTime = System.nanoTime();
+        currentTimeMicros = SystemInfo.currentTimeMicros();
+    }
+
+    private CoarseClock() {}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAvailability;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.netty.util.AsciiString;
+import io.netty.util.AttributeKey;
+
+/**
+ * Utilities for propagating the deadline of a request from a server to the clients which send requests
+ * while serving it.
+ *
+ * @see Flags#useDeadlinePropagation()
+ */
+public final class DeadlineUtil {
+
+    /**
+     * The header which contains the number of milliseconds the client waits for the response.
+     */
+    public static final AsciiString ARMERIA_TIMEOUT = HttpHeaderNames.of("armeria-timeout");
+
+    /**
+     * The deadline of a client request in {@link CoarseClock#nanoTime()}, which is inherited from
+     * the {@link ServiceRequestContext} where the client request was made.
+     */
+    private static final AttributeKey<Long> DEADLINE_NANOS =
+            AttributeKey.valueOf(DeadlineUtil.class, "DEADLINE_NANOS");
+
+    /**
+     * Returns the specified response timeout of a client request capped by the remaining request timeout
+     * of the {@link ServiceRequestContext} in the current thread. The deadline is also stored in
+     * the specified {@link ClientRequestContext}, so that
+     * {@link #timeoutMillisToPropagate(ClientRequestContext)} can calculate the time remaining when
+     * the request is sent. The specified value is returned as it is
+     * if {@link Flags#useDeadlinePropagation()} is disabled or there is no {@link ServiceRequestContext}
+     * with a request timeout in the current thread.
+     */
+    public static long capResponseTimeoutMillis(ClientRequestContext ctx, long responseTimeoutMillis) {
+        if (!Flags.useDeadlinePropagation()) {
+            return responseTimeoutMillis;
+        }
+
+        final RequestContext current = RequestContext.currentOrNull();
+        if (!(current instanceof ServiceRequestContext)) {
+            return responseTimeoutMillis;
+        }
+
+        final ServiceRequestContext serviceCtx = (ServiceRequestContext) current;
+        final long remainingMillis = remainingTimeoutMillis(serviceCtx);
+        if (remainingMillis >= 0) {
+            final long deadlineNanos = CoarseClock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+            ctx.attr(DEADLINE_NANOS).set(deadlineNanos);
+        }
+        return capResponseTimeoutMillis(serviceCtx, responseTimeoutMillis);
+    }
+
+    /**
+     * Returns the specified response timeout of a client request capped by the remaining request timeout
+     * of the specified {@link ServiceRequestContext}. Returns {@code 1} if the request timeout has passed
+     * already, so that the client request times out immediately, because {@code 0} disables the timeout.
+     */
+    static long capResponseTimeoutMillis(ServiceRequestContext ctx, long responseTimeoutMillis) {
+        final long remainingMillis = remainingTimeoutMillis(ctx);
+        if (remainingMillis < 0) {
+            // No deadline.
+            return responseTimeoutMillis;
+        }
+
+        final long cappedMillis = Math.max(remainingMillis, 1);
+        if (responseTimeoutMillis == 0) {
+            return cappedMillis;
+        }
+        return Math.min(responseTimeoutMillis, cappedMillis);
+    }
+
+    /**
+     * Returns the remaining request timeout of the specified {@link ServiceRequestContext} in milliseconds,
+     * {@code 0} if the request timeout has passed already, or {@code -1} if the request timeout is
+     * disabled.
+     */
+    static long remainingTimeoutMillis(ServiceRequestContext ctx) {
+        final long requestTimeoutMillis = ctx.requestTimeoutMillis();
+        if (requestTimeoutMillis <= 0) {
+            return -1;
+        }
+
+        final RequestLog log = ctx.log();
+        if (!log.isAvailable(RequestLogAvailability.REQUEST_START)) {
+            return requestTimeoutMillis;
+        }
+
+        final long elapsedMillis =
+                TimeUnit.NANOSECONDS.toMillis(CoarseClock.nanoTime() - log.requestStartTimeNanos());
+        return Math.max(requestTimeoutMillis - elapsedMillis, 0);
+    }
+
+    /**
+     * Returns the value of the {@link #ARMERIA_TIMEOUT} header to send with the request of the specified
+     * {@link ClientRequestContext} now, or {@code -1} if the header should not be sent. If the request
+     * inherited a deadline from a {@link ServiceRequestContext}, the time remaining until the deadline is
+     * returned when it is less than the response timeout, which is {@code 0} if the deadline has passed.
+     * Otherwise, the response timeout is returned as it is, because it starts only after the request is
+     * sent.
+     */
+    public static long timeoutMillisToPropagate(ClientRequestContext ctx) {
+        if (!Flags.useDeadlinePropagation()) {
+            return -1;
+        }
+
+        final long responseTimeoutMillis = ctx.responseTimeoutMillis();
+        final Long deadlineNanos = ctx.attr(DEADLINE_NANOS).get();
+        if (deadlineNanos == null) {
+            return responseTimeoutMillis > 0 ? responseTimeoutMillis : -1;
+        }
+
+        final long remainingMillis =
+                Math.max(TimeUnit.NANOSECONDS.toMillis(deadlineNanos - CoarseClock.nanoTime()), 0);
+        return responseTimeoutMillis > 0 ? Math.min(responseTimeoutMillis, remainingMillis)
+                                         : remainingMillis;
+    }
+
+    /**
+     * Returns the value of the {@link #ARMERIA_TIMEOUT} header in the specified {@link RequestHeaders},
+     * or {@code -1} if {@link Flags#useDeadlinePropagation()} is disabled or the header is absent or
+     * invalid.
+     */
+    public static long timeoutMillis(RequestHeaders headers) {
+        if (!Flags.useDeadlinePropagation()) {
+            return -1;
+        }
+        return parseTimeoutMillis(headers.get(ARMERIA_TIMEOUT));
+    }
+
+    /**
+     * Returns the timeout in the specified value of the {@link #ARMERIA_TIMEOUT} header, or {@code -1} if
+     * the value is absent or invalid.
+     */
+    public static long parseTimeoutMillis(@Nullable String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            final long timeoutMillis = Long.parseLong(value);
+            return timeoutMillis >= 0 ? timeoutMillis : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private DeadlineUtil() {}
+}
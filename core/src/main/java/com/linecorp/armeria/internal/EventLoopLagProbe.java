@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Samples the lag and the number of pending tasks of an {@link EventLoop} by scheduling a task periodically
+ * between {@link #start()} and {@link #stop()}. The lag is how late the {@link EventLoop} runs the scheduled
+ * task. The scheduled task is updated only by the {@link EventLoop}, so that it is never scheduled more
+ * than once.
+ */
+public final class EventLoopLagProbe {
+
+    private final EventLoop eventLoop;
+    private final long sampleIntervalNanos;
+    private final Consumer<? super EventLoopLagProbe> sampleListener;
+    private final Runnable sampleTask = this::sample;
+
+    @Nullable
+    private ScheduledFuture<?> scheduledFuture;
+    private volatile boolean running;
+
+    private volatile long expectedRunTimeNanos;
+    private volatile long lastLagNanos;
+    private volatile int pendingTasks;
+
+    /**
+     * Creates a new instance which is not started yet.
+     *
+     * @param sampleListener the {@link Consumer} which is invoked by the {@link EventLoop} after each sample,
+     *                       e.g. to register the meters tagged with the name of the {@link EventLoop} thread
+     */
+    public EventLoopLagProbe(EventLoop eventLoop, long sampleIntervalNanos,
+                             Consumer<? super EventLoopLagProbe> sampleListener) {
+        this.eventLoop = requireNonNull(eventLoop, "eventLoop");
+        this.sampleIntervalNanos = sampleIntervalNanos;
+        this.sampleListener = requireNonNull(sampleListener, "sampleListener");
+    }
+
+    /**
+     * Returns the {@link EventLoop} sampled by this probe.
+     */
+    public EventLoop eventLoop() {
+        return eventLoop;
+    }
+
+    /**
+     * Starts sampling. This method does nothing if already started.
+     */
+    public void start() {
+        // Do not report the time while stopped as a lag.
+        expectedRunTimeNanos = System.nanoTime() + sampleIntervalNanos;
+        running = true;
+        execute(() -> {
+            if (scheduledFuture == null) {
+                schedule();
+            }
+        });
+    }
+
+    /**
+     * Stops sampling and resets the lag. The sampling can be resumed with {@link #start()}.
+     */
+    public void stop() {
+        running = false;
+        execute(() -> {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+                scheduledFuture = null;
+            }
+            lastLagNanos = 0;
+        });
+    }
+
+    private void execute(Runnable task) {
+        try {
+            eventLoop.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // The EventLoop has been shut down; there is nothing to sample.
+        }
+    }
+
+    private void schedule() {
+        expectedRunTimeNanos = System.nanoTime() + sampleIntervalNanos;
+        scheduledFuture = eventLoop.schedule(sampleTask, sampleIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the lag of the last sample, or the lag of the pending sample if it is larger, so that
+     * the lag is detected even when the {@link EventLoop} is too busy to run the sampling task.
+     */
+    public long lagNanos() {
+        final long lastLagNanos = this.lastLagNanos;
+        if (!running) {
+            return lastLagNanos;
+        }
+        return Math.max(lastLagNanos, System.nanoTime() - expectedRunTimeNanos);
+    }
+
+    /**
+     * Returns the lag of the last sample.
+     */
+    public long lastLagNanos() {
+        return lastLagNanos;
+    }
+
+    /**
+     * Returns the number of the pending tasks of the {@link EventLoop} at the last sample, or {@code 0} if
+     * the {@link EventLoop} does not expose it.
+     */
+    public int pendingTasks() {
+        return pendingTasks;
+    }
+
+    private void sample() {
+        scheduledFuture = null;
+        lastLagNanos = Math.max(System.nanoTime() - expectedRunTimeNanos, 0);
+        if (eventLoop instanceof SingleThreadEventExecutor) {
+            pendingTasks = ((SingleThreadEventExecutor) eventLoop).pendingTasks();
+        }
+        sampleListener.accept(this);
+
+        if (running && !eventLoop.isShuttingDown()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.math.IntMath;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * A hashed timing wheel which is bound to an {@link EventLoop}, used for scheduling the request, response
+ * and write timeouts. Unlike {@link EventLoop#schedule(Runnable, long, TimeUnit)}, which adds a task to
+ * the priority queue of the {@link EventLoop} for each timeout, adding and cancelling a {@link Timeout}
+ * is an O(1) operation on a doubly-linked list and only one periodic task is scheduled on
+ * the {@link EventLoop} while there are pending {@link Timeout}s.
+ *
+ * <p>A {@link Timeout} never expires earlier than requested, but it may expire later by up to about twice
+ * the tick duration, which is {@value #DEFAULT_TICK_MILLIS} milliseconds. This is negligible for
+ * the timeouts of a request or a response.
+ */
+public final class HashedTimingWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    static final long DEFAULT_TICK_MILLIS = 10;
+    static final int DEFAULT_NUM_BUCKETS = 512;
+
+    private static final FastThreadLocal<HashedTimingWheel> wheels = new FastThreadLocal<>();
+
+    /**
+     * Schedules the specified {@code task} to be run by the specified {@link EventLoop} after
+     * the specified {@code delay}. This method may be invoked from any thread, but it is cheapest when
+     * invoked from the thread of the {@link EventLoop}.
+     */
+    public static Timeout newTimeout(EventLoop eventLoop, Runnable task, long delay, TimeUnit unit) {
+        requireNonNull(eventLoop, "eventLoop");
+        requireNonNull(task, "task");
+        requireNonNull(unit, "unit");
+
+        final Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(delay));
+        if (eventLoop.inEventLoop()) {
+            add(eventLoop, timeout);
+        } else {
+            eventLoop.execute(() -> add(eventLoop, timeout));
+        }
+        return timeout;
+    }
+
+    private static void add(EventLoop eventLoop, Timeout timeout) {
+        HashedTimingWheel wheel = wheels.get();
+        if (wheel == null) {
+            wheel = new HashedTimingWheel(eventLoop, TimeUnit.MILLISECONDS.toNanos(DEFAULT_TICK_MILLIS),
+                                          DEFAULT_NUM_BUCKETS);
+            wheels.set(wheel);
+        } else if (wheel.eventLoop != eventLoop) {
+            // The current thread runs more than one EventLoop, e.g. an EmbeddedEventLoop in a test.
+            // Fall back to the EventLoop's own scheduler.
+            timeout.scheduleWithoutWheel(eventLoop);
+            return;
+        }
+        wheel.add(timeout);
+    }
+
+    private final EventLoop eventLoop;
+    private final long tickNanos;
+    private final long startNanos;
+    private final Timeout[] buckets;
+    private final int mask;
+
+    /**
+     * The tick whose bucket is processed next.
+     */
+    private long nextTick;
+    private int numTimeouts;
+    @Nullable
+    private ScheduledFuture<?> tickFuture;
+
+    @VisibleForTesting
+    HashedTimingWheel(EventLoop eventLoop, long tickNanos, int numBuckets) {
+        checkArgument(tickNanos > 0, "tickNanos: %s (expected: > 0)", tickNanos);
+        checkArgument(numBuckets > 0 && IntMath.isPowerOfTwo(numBuckets),
+                      "numBuckets: %s (expected: a power of 2)", numBuckets);
+        this.eventLoop = eventLoop;
+        this.tickNanos = tickNanos;
+        startNanos = System.nanoTime();
+        buckets = new Timeout[numBuckets];
+        mask = numBuckets - 1;
+    }
+
+    @VisibleForTesting
+    void add(Timeout timeout) {
+        assert eventLoop.inEventLoop();
+        if (timeout.state != Timeout.ST_INIT) {
+            // Cancelled before added.
+            return;
+        }
+
+        if (numTimeouts++ == 0) {
+            // Skip the ticks passed while there were no timeouts.
+            nextTick = Math.max(nextTick, currentTick());
+            if (tickFuture == null) {
+                tickFuture = eventLoop.scheduleAtFixedRate(this::onTick, tickNanos, tickNanos,
+                                                           TimeUnit.NANOSECONDS);
+            }
+        }
+
+        final long deadlineTick = Math.max(ceilTick(timeout.deadlineNanos), nextTick);
+        final int index = (int) (deadlineTick & mask);
+        final Timeout head = buckets[index];
+        timeout.wheel = this;
+        timeout.deadlineTick = deadlineTick;
+        timeout.bucketIndex = index;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[index] = timeout;
+    }
+
+    private void remove(Timeout timeout) {
+        assert eventLoop.inEventLoop();
+        if (timeout.wheel != this) {
+            // Not added yet or removed already.
+            return;
+        }
+
+        final Timeout prev = timeout.prev;
+        final Timeout next = timeout.next;
+        if (prev != null) {
+            prev.next = next;
+        } else {
+            buckets[timeout.bucketIndex] = next;
+        }
+        if (next != null) {
+            next.prev = prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.wheel = null;
+        numTimeouts--;
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - startNanos) / tickNanos;
+    }
+
+    private long ceilTick(long deadlineNanos) {
+        final long elapsedNanos = deadlineNanos - startNanos;
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return (elapsedNanos + tickNanos - 1) / tickNanos;
+    }
+
+    @VisibleForTesting
+    void onTick() {
+        if (numTimeouts == 0) {
+            // Stop ticking until a new timeout is added.
+            final ScheduledFuture<?> tickFuture = this.tickFuture;
+            if (tickFuture != null) {
+                tickFuture.cancel(false);
+                this.tickFuture = null;
+            }
+            return;
+        }
+
+        final long currentTick = currentTick();
+        if (currentTick < nextTick) {
+            return;
+        }
+
+        // Collect the expired timeouts first, because a task may add or cancel other timeouts.
+        Timeout expired = null;
+        final long numTicks = Math.min(currentTick - nextTick + 1, buckets.length);
+        for (long i = 0; i < numTicks; i++) {
+            Timeout t = buckets[(int) ((nextTick + i) & mask)];
+            while (t != null) {
+                final Timeout next = t.next;
+                if (t.state != Timeout.ST_INIT) {
+                    // Cancelled by other thread.
+                    remove(t);
+                } else if (t.deadlineTick <= currentTick) {
+                    remove(t);
+                    if (t.expire()) {
+                        t.next = expired;
+                        expired = t;
+                    }
+                }
+                t = next;
+            }
+        }
+        nextTick = currentTick + 1;
+
+        while (expired != null) {
+            final Timeout next = expired.next;
+            expired.next = null;
+            expired.run();
+            expired = next;
+        }
+    }
+
+    @VisibleForTesting
+    int numTimeouts() {
+        return numTimeouts;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("eventLoop", eventLoop)
+                          .add("tickNanos", tickNanos)
+                          .add("numBuckets", buckets.length)
+                          .add("numTimeouts", numTimeouts)
+                          .toString();
+    }
+
+    /**
+     * A handle of the task scheduled with {@link #newTimeout(EventLoop, Runnable, long, TimeUnit)}.
+     */
+    public static final class Timeout {
+
+        private static final AtomicIntegerFieldUpdater<Timeout> stateUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineNanos;
+
+        // Accessed only by the EventLoop.
+        @Nullable
+        private HashedTimingWheel wheel;
+        @Nullable
+        private Timeout prev;
+        @Nullable
+        private Timeout next;
+        private long deadlineTick;
+        private int bucketIndex;
+
+        @Nullable
+        private volatile ScheduledFuture<?> future;
+        private volatile int state;
+
+        @VisibleForTesting
+        Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private void scheduleWithoutWheel(EventLoop eventLoop) {
+            if (state == ST_INIT) {
+                future = eventLoop.schedule(() -> {
+                    if (expire()) {
+                        run();
+                    }
+                }, deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private boolean expire() {
+            return stateUpdater.compareAndSet(this, ST_INIT, ST_EXPIRED);
+        }
+
+        private void run() {
+            assert state == ST_EXPIRED;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                logger.warn("An exception was raised by a timeout task: {}", task, t);
+            }
+        }
+
+        /**
+         * Cancels this {@link Timeout}.
+         *
+         * @return {@code true} if this {@link Timeout} has been cancelled by this method.
+         *         {@code false} if this {@link Timeout} has expired or has been cancelled already.
+         */
+        public boolean cancel() {
+            if (!stateUpdater.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+
+            final HashedTimingWheel wheel = this.wheel;
+            if (wheel != null && wheel.eventLoop.inEventLoop()) {
+                wheel.remove(this);
+            } else {
+                // Removed lazily by the wheel.
+                final ScheduledFuture<?> future = this.future;
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns whether this {@link Timeout} has been cancelled.
+         */
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        /**
+         * Returns whether this {@link Timeout} has expired.
+         */
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                              .add("task", task)
+                              .add("state", state == ST_INIT ? "INIT"
+                                                             : state == ST_CANCELLED ? "CANCELLED"
+                                                                                     : "EXPIRED")
+                              .toString();
+        }
+    }
+}
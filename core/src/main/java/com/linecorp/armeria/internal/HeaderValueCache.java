@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.AsciiString;
+
+/**
+ * Converts the raw values of the headers specified in {@link Flags#cachedHeaders()} into {@link String}s
+ * and {@link MediaType}s, reusing the previously converted instances for the same value.
+ *
+ * <p>Each header name has its own direct-mapped table which is looked up with the hash code of the raw
+ * value. A hit in the table returns the previously converted instance without any allocation or locking.
+ * A miss falls back to the Caffeine cache configured with {@link Flags#headerValueCacheSpec()}.
+ */
+public final class HeaderValueCache {
+
+    @VisibleForTesting
+    static final int NUM_SLOTS = 256;
+    private static final int SLOT_MASK = NUM_SLOTS - 1;
+
+    @Nullable
+    private static final LoadingCache<AsciiString, String> SHARED_CACHE =
+            Flags.headerValueCacheSpec().map(HeaderValueCache::buildCache).orElse(null);
+
+    private static final Map<AsciiString, Table> TABLES;
+
+    @Nullable
+    private static final Table CONTENT_TYPE_TABLE;
+
+    static {
+        if (SHARED_CACHE != null) {
+            final ImmutableMap.Builder<AsciiString, Table> builder = ImmutableMap.builder();
+            Flags.cachedHeaders().stream()
+                 .map(HttpHeaderNames::of)
+                 .distinct()
+                 .forEach(name -> builder.put(name, new Table()));
+            TABLES = builder.build();
+        } else {
+            TABLES = ImmutableMap.of();
+        }
+        CONTENT_TYPE_TABLE = TABLES.get(HttpHeaderNames.CONTENT_TYPE);
+    }
+
+    private static LoadingCache<AsciiString, String> buildCache(String spec) {
+        return Caffeine.from(spec).build(AsciiString::toString);
+    }
+
+    /**
+     * Registers the hit and miss counters of each cached header name.
+     */
+    public static void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        requireNonNull(registry, "registry");
+        requireNonNull(idPrefix, "idPrefix");
+
+        final String requests = idPrefix.name("requests");
+        TABLES.forEach((name, table) -> {
+            final String header = name.toString();
+            registry.more().counter(requests, idPrefix.tags("header", header, "result", "hit"),
+                                    table, t -> t.hits.sum());
+            registry.more().counter(requests, idPrefix.tags("header", header, "result", "miss"),
+                                    table, t -> t.misses.sum());
+        });
+    }
+
+    /**
+     * Converts the specified raw header value into a {@link String}. The previously converted
+     * {@link String} is returned if the header is one of {@link Flags#cachedHeaders()} and its value has
+     * been converted before.
+     *
+     * @param name the lower-cased name of the header
+     * @param value the raw value of the header
+     */
+    public static String toString(AsciiString name, CharSequence value) {
+        final Table table = TABLES.get(name);
+        if (table == null) {
+            return value.toString();
+        }
+        return table.get(value).value;
+    }
+
+    /**
+     * Parses the specified raw {@code "content-type"} header value into a {@link MediaType}, reusing
+     * the previously parsed {@link MediaType} for the same value. This method is meant to be used only
+     * while decoding the headers of the requests received by a server, so that the headers created by
+     * users do not pollute the shared table. Pass the raw value rather than the one converted by
+     * {@link #toString(AsciiString, CharSequence)}, so that a lookup is counted only once.
+     *
+     * @return the parsed {@link MediaType}, or {@code null} if the specified value is not valid.
+     */
+    @Nullable
+    public static MediaType toContentType(CharSequence value) {
+        final Table table = CONTENT_TYPE_TABLE;
+        if (table == null) {
+            return parseMediaType(value.toString());
+        }
+        return table.get(value).mediaType();
+    }
+
+    @Nullable
+    private static MediaType parseMediaType(String value) {
+        try {
+            return MediaType.parse(value);
+        } catch (IllegalArgumentException unused) {
+            // Invalid media type
+            return null;
+        }
+    }
+
+    private HeaderValueCache() {}
+
+    private static final class Table {
+
+        // Entries are immutable except for the lazily parsed MediaType, so we do not need volatile
+        // semantics here. A stale read will only result in a miss.
+        private final Entry[] entries = new Entry[NUM_SLOTS];
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        Entry get(CharSequence value) {
+            final int hash = AsciiString.hashCode(value);
+            final int index = (hash ^ hash >>> 16) & SLOT_MASK;
+            final Entry e = entries[index];
+            if (e != null && e.matches(hash, value)) {
+                hits.increment();
+                return e;
+            }
+
+            misses.increment();
+            final Entry newEntry = new Entry(hash, toStringSlow(value));
+            entries[index] = newEntry;
+            return newEntry;
+        }
+
+        private static String toStringSlow(CharSequence value) {
+            if (value instanceof String) {
+                return (String) value;
+            }
+            if (value instanceof AsciiString && SHARED_CACHE != null) {
+                final String converted = SHARED_CACHE.get((AsciiString) value);
+                assert converted != null; // loader does not return null.
+                return converted;
+            }
+            return value.toString();
+        }
+    }
+
+    private static final class Entry {
+
+        private final int hash;
+        final String value;
+        @Nullable
+        private MediaType mediaType;
+        private boolean invalidMediaType;
+
+        Entry(int hash, String value) {
+            this.hash = hash;
+            this.value = value;
+        }
+
+        boolean matches(int hash, CharSequence value) {
+            if (this.hash != hash) {
+                return false;
+            }
+            // Note that AsciiString.hashCode() is case-insensitive while header values are case-sensitive.
+            return this.value == value || AsciiString.contentEquals(this.value, value);
+        }
+
+        @Nullable
+        MediaType mediaType() {
+            final MediaType mediaType = this.mediaType;
+            if (mediaType != null || invalidMediaType) {
+                return mediaType;
+            }
+
+            final MediaType parsed = parseMediaType(value);
+            if (parsed != null) {
+                this.mediaType = parsed;
+            } else {
+                invalidMediaType = true;
+            }
+            return parsed;
+        }
+    }
+}
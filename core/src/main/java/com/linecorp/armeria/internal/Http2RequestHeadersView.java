@@ -0,0 +1,384 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.RequestHeadersBuilder;
+
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.util.AsciiString;
+
+/**
+ * A read-only {@link RequestHeaders} view over the {@link Http2Headers} decoded by Netty.
+ *
+ * <p>The pseudo headers and single-valued lookups which are accessed on every request, such as
+ * {@link #method()}, {@link #path()} and {@link #get(CharSequence)}, are answered from the decoded
+ * {@link Http2Headers} directly. The other operations, such as iteration, {@link #equals(Object)} and
+ * {@link #toBuilder()}, convert the decoded headers into a regular {@link RequestHeaders} once and
+ * delegate to it from then on.
+ */
+final class Http2RequestHeadersView implements RequestHeaders {
+
+    private final Http2Headers headers;
+    private final boolean endOfStream;
+    private final String scheme;
+    private final String authority;
+
+    @Nullable
+    private HttpMethod method;
+    @Nullable
+    private String path;
+    @Nullable
+    private MediaType contentType;
+
+    @Nullable
+    private volatile RequestHeaders materialized;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param headers the decoded {@link Http2Headers} which must contain the {@code ":method"} and
+     *                {@code ":path"} headers. It must not be modified after this view is created.
+     * @param scheme the value of the {@code ":scheme"} header, which may come from {@code headers}
+     * @param authority the value of the {@code ":authority"} header, which may come from {@code headers}
+     */
+    Http2RequestHeadersView(Http2Headers headers, boolean endOfStream, String scheme, String authority) {
+        this.headers = headers;
+        this.endOfStream = endOfStream;
+        this.scheme = scheme;
+        this.authority = authority;
+    }
+
+    private RequestHeaders materialize() {
+        RequestHeaders materialized = this.materialized;
+        if (materialized == null) {
+            final RequestHeadersBuilder builder = RequestHeaders.builder();
+            ArmeriaHttpUtil.toArmeria(builder, headers, endOfStream);
+            if (!builder.contains(HttpHeaderNames.SCHEME)) {
+                builder.add(HttpHeaderNames.SCHEME, scheme);
+            }
+            if (!builder.contains(HttpHeaderNames.AUTHORITY)) {
+                builder.add(HttpHeaderNames.AUTHORITY, authority);
+            }
+            this.materialized = materialized = builder.build();
+        }
+        return materialized;
+    }
+
+    /**
+     * Returns the name to look up from the decoded {@link Http2Headers}, or {@code null} if the lookup
+     * has to be done against the converted headers.
+     */
+    @Nullable
+    private AsciiString lookupName(CharSequence name) {
+        requireNonNull(name, "name");
+        if (materialized != null) {
+            return null;
+        }
+
+        // HttpHeaderNames.of() returns the interned instance for a known header name, so a lookup with
+        // a String or a constant from HttpHeaderNames does not allocate a new AsciiString.
+        final AsciiString lowerCased = HttpHeaderNames.of(name);
+        if (HttpHeaderNames.COOKIE.contentEquals(lowerCased)) {
+            // Multiple cookie headers must be concatenated into a single value.
+            return null;
+        }
+        return lowerCased;
+    }
+
+    // Shortcut methods
+
+    @Override
+    public URI uri() {
+        return materialize().uri();
+    }
+
+    @Override
+    public HttpMethod method() {
+        final HttpMethod method = this.method;
+        if (method != null) {
+            return method;
+        }
+
+        final CharSequence methodStr = headers.method();
+        checkState(methodStr != null, ":method header does not exist.");
+        final String methodName = methodStr.toString();
+        return this.method = HttpMethod.isSupported(methodName) ? HttpMethod.valueOf(methodName)
+                                                                : HttpMethod.UNKNOWN;
+    }
+
+    @Override
+    public String path() {
+        final String path = this.path;
+        if (path != null) {
+            return path;
+        }
+
+        final CharSequence pathStr = headers.path();
+        checkState(pathStr != null, ":path header does not exist.");
+        return this.path = pathStr.toString();
+    }
+
+    @Override
+    public String scheme() {
+        return scheme;
+    }
+
+    @Override
+    public String authority() {
+        return authority;
+    }
+
+    @Override
+    public boolean isEndOfStream() {
+        return endOfStream;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        final MediaType contentType = this.contentType;
+        if (contentType != null) {
+            return contentType;
+        }
+
+        // Look up the raw value directly, because get() would look up the cache once more.
+        final CharSequence contentTypeValue = headers.get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentTypeValue == null) {
+            return null;
+        }
+
+        return this.contentType = HeaderValueCache.toContentType(contentTypeValue);
+    }
+
+    // Getters which are answered from the decoded headers when possible
+
+    @Nullable
+    @Override
+    public String get(CharSequence name) {
+        final AsciiString lookupName = lookupName(name);
+        if (lookupName == null) {
+            return materialize().get(name);
+        }
+
+        if (lookupName.contentEquals(HttpHeaderNames.SCHEME)) {
+            return scheme;
+        }
+        if (lookupName.contentEquals(HttpHeaderNames.AUTHORITY)) {
+            return authority;
+        }
+
+        final CharSequence value = headers.get(lookupName);
+        return value != null ? ArmeriaHttpUtil.convertHeaderValue(lookupName, value) : null;
+    }
+
+    @Override
+    public String get(CharSequence name, String defaultValue) {
+        requireNonNull(defaultValue, "defaultValue");
+        final String value = get(name);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public boolean contains(CharSequence name) {
+        final AsciiString lookupName = lookupName(name);
+        if (lookupName == null) {
+            return materialize().contains(name);
+        }
+
+        return lookupName.contentEquals(HttpHeaderNames.SCHEME) ||
+               lookupName.contentEquals(HttpHeaderNames.AUTHORITY) ||
+               headers.contains(lookupName);
+    }
+
+    // Getters which require the converted headers
+
+    @Override
+    public List<String> getAll(CharSequence name) {
+        return materialize().getAll(name);
+    }
+
+    @Nullable
+    @Override
+    public Integer getInt(CharSequence name) {
+        return materialize().getInt(name);
+    }
+
+    @Override
+    public int getInt(CharSequence name, int defaultValue) {
+        return materialize().getInt(name, defaultValue);
+    }
+
+    @Nullable
+    @Override
+    public Long getLong(CharSequence name) {
+        return materialize().getLong(name);
+    }
+
+    @Override
+    public long getLong(CharSequence name, long defaultValue) {
+        return materialize().getLong(name, defaultValue);
+    }
+
+    @Nullable
+    @Override
+    public Float getFloat(CharSequence name) {
+        return materialize().getFloat(name);
+    }
+
+    @Override
+    public float getFloat(CharSequence name, float defaultValue) {
+        return materialize().getFloat(name, defaultValue);
+    }
+
+    @Nullable
+    @Override
+    public Double getDouble(CharSequence name) {
+        return materialize().getDouble(name);
+    }
+
+    @Override
+    public double getDouble(CharSequence name, double defaultValue) {
+        return materialize().getDouble(name, defaultValue);
+    }
+
+    @Nullable
+    @Override
+    public Long getTimeMillis(CharSequence name) {
+        return materialize().getTimeMillis(name);
+    }
+
+    @Override
+    public long getTimeMillis(CharSequence name, long defaultValue) {
+        return materialize().getTimeMillis(name, defaultValue);
+    }
+
+    @Override
+    public boolean contains(CharSequence name, String value) {
+        return materialize().contains(name, value);
+    }
+
+    @Override
+    public boolean containsObject(CharSequence name, Object value) {
+        return materialize().containsObject(name, value);
+    }
+
+    @Override
+    public boolean containsInt(CharSequence name, int value) {
+        return materialize().containsInt(name, value);
+    }
+
+    @Override
+    public boolean containsLong(CharSequence name, long value) {
+        return materialize().containsLong(name, value);
+    }
+
+    @Override
+    public boolean containsFloat(CharSequence name, float value) {
+        return materialize().containsFloat(name, value);
+    }
+
+    @Override
+    public boolean containsDouble(CharSequence name, double value) {
+        return materialize().containsDouble(name, value);
+    }
+
+    @Override
+    public boolean containsTimeMillis(CharSequence name, long value) {
+        return materialize().containsTimeMillis(name, value);
+    }
+
+    @Override
+    public int size() {
+        return materialize().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        // ':method' and ':path' always exist.
+        return false;
+    }
+
+    @Override
+    public Set<AsciiString> names() {
+        return materialize().names();
+    }
+
+    @Override
+    public Iterator<Entry<AsciiString, String>> iterator() {
+        return materialize().iterator();
+    }
+
+    @Override
+    public Iterator<String> valueIterator(CharSequence name) {
+        return materialize().valueIterator(name);
+    }
+
+    @Override
+    public void forEach(BiConsumer<AsciiString, String> action) {
+        materialize().forEach(action);
+    }
+
+    @Override
+    public void forEachValue(CharSequence name, Consumer<String> action) {
+        materialize().forEachValue(name, action);
+    }
+
+    @Override
+    public RequestHeadersBuilder toBuilder() {
+        return materialize().toBuilder();
+    }
+
+    @Override
+    public int hashCode() {
+        return materialize().hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o instanceof Http2RequestHeadersView) {
+            return materialize().equals(((Http2RequestHeadersView) o).materialize());
+        }
+
+        return materialize().equals(o);
+    }
+
+    @Override
+    public String toString() {
+        return materialize().toString();
+    }
+}
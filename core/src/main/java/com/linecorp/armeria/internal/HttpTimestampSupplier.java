@@ -23,6 +23,8 @@ import java.util.concurrent.TimeUnit;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import com.linecorp.armeria.common.util.Ticker;
+
 /**
  * Utility to supply HTTP formatted timestamps in an optimized way. Nanosecond level precision around the
  * border of a second has minor approximations, but it is still fine to use these for HTTP timestamps as
@@ -37,11 +39,13 @@ public final class HttpTimestampSupplier {
         return INSTANCE.currentTimestamp();
     }
 
-    private static final HttpTimestampSupplier INSTANCE = new HttpTimestampSupplier(Clock.systemUTC());
+    private static final HttpTimestampSupplier INSTANCE =
+            new HttpTimestampSupplier(Clock.systemUTC(), CoarseClock.ticker());
 
     private static final long NANOS_IN_SECOND = TimeUnit.SECONDS.toNanos(1);
 
     private final Clock clock;
+    private final Ticker ticker;
 
     // We do not use volatile fields because time only goes up - stale reads of nextUpdateNanos will
     // cause extra computation of timestamp but will not affect the accuracy. As this is intended to
@@ -52,13 +56,14 @@ public final class HttpTimestampSupplier {
     private long nextUpdateNanos;
 
     @VisibleForTesting
-    HttpTimestampSupplier(Clock clock) {
+    HttpTimestampSupplier(Clock clock, Ticker ticker) {
         this.clock = clock;
+        this.ticker = ticker;
     }
 
     @VisibleForTesting
     String currentTimestamp() {
-        final long currentTimeNanos = System.nanoTime();
+        final long currentTimeNanos = ticker.read();
 
         if (currentTimeNanos < nextUpdateNanos) {
             return timestamp;
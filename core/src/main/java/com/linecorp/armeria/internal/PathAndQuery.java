@@ -51,6 +51,14 @@ public final class PathAndQuery {
 
     private static final int PERCENT_ENCODING_MARKER = 0xFF;
 
+    /**
+     * The ASCII characters which are kept as they are when they appear in a path or a query.
+     * Used by {@link #splitPathAndQueryFast(String)} to find out if the path and query need to be
+     * decoded and encoded again.
+     */
+    private static final boolean[] VERBATIM_PATH_CHARS = new boolean[128];
+    private static final boolean[] VERBATIM_QUERY_CHARS = new boolean[128];
+
     private static final byte[] RAW_CHAR_TO_MARKER = new byte[256];
     private static final String[] MARKER_TO_PERCENT_ENCODED_CHAR = new String[256];
 
@@ -67,6 +75,13 @@ public final class PathAndQuery {
             ALLOWED_QUERY_CHARS.set(allowedQueryChars.charAt(i));
         }
 
+        for (int i = 0; i < 128; i++) {
+            VERBATIM_PATH_CHARS[i] = ALLOWED_PATH_CHARS.get(i);
+            VERBATIM_QUERY_CHARS[i] = ALLOWED_QUERY_CHARS.get(i);
+        }
+        // '+' in a query is decoded into ' ', which is encoded back into '+'.
+        VERBATIM_QUERY_CHARS['+'] = true;
+
         for (final ReservedChar reservedChar : ReservedChar.values()) {
             RAW_CHAR_TO_MARKER[reservedChar.rawChar] = reservedChar.marker;
             MARKER_TO_PERCENT_ENCODED_CHAR[reservedChar.marker] = reservedChar.percentEncodedChar;
@@ -186,13 +201,18 @@ public final class PathAndQuery {
 
     @Nullable
     private static PathAndQuery splitPathAndQuery(@Nullable final String pathAndQuery) {
-        final Bytes path;
-        final Bytes query;
-
         if (pathAndQuery == null) {
             return ROOT_PATH_QUERY;
         }
 
+        final PathAndQuery fastResult = splitPathAndQueryFast(pathAndQuery);
+        if (fastResult != null) {
+            return fastResult;
+        }
+
+        final Bytes path;
+        final Bytes query;
+
         // Split by the first '?'.
         final int queryPos = pathAndQuery.indexOf('?');
         if (queryPos >= 0) {
@@ -226,6 +246,82 @@ public final class PathAndQuery {
                                 query != null ? encodeToPercents(query, false) : null);
     }
 
+    /**
+     * Splits the specified {@link String} into the path part and the query part without decoding and
+     * encoding them again, which is possible when it has no characters that would be changed by
+     * the decoding and encoding, i.e. percent-encoded characters, consecutive slashes and the characters
+     * that have to be percent-encoded.
+     *
+     * @return a {@link PathAndQuery}, or {@code null} if the specified {@link String} has to be decoded
+     *         or it is not valid.
+     */
+    @Nullable
+    private static PathAndQuery splitPathAndQueryFast(String pathAndQuery) {
+        final int length = pathAndQuery.length();
+        if (length == 0 || pathAndQuery.charAt(0) != '/') {
+            return null;
+        }
+
+        int queryPos = -1;
+        boolean inFirstPathComponent = true;
+        char prev = '/';
+        for (int i = 1; i < length; i++) {
+            final char ch = pathAndQuery.charAt(i);
+            if (ch == '?') {
+                queryPos = i;
+                break;
+            }
+            if (ch >= 128 || !VERBATIM_PATH_CHARS[ch]) {
+                return null;
+            }
+            if (ch == '/') {
+                if (prev == '/') {
+                    // Consecutive slashes have to be removed.
+                    return null;
+                }
+                inFirstPathComponent = false;
+            } else if (ch == ':' && inFirstPathComponent) {
+                return null;
+            }
+            prev = ch;
+        }
+
+        final int pathEnd = queryPos >= 0 ? queryPos : length;
+        if (pathContainsDoubleDots(pathAndQuery, pathEnd)) {
+            return null;
+        }
+
+        if (queryPos < 0) {
+            return new PathAndQuery(pathAndQuery, null);
+        }
+
+        for (int i = queryPos + 1; i < length; i++) {
+            final char ch = pathAndQuery.charAt(i);
+            if (ch >= 128 || !VERBATIM_QUERY_CHARS[ch]) {
+                return null;
+            }
+        }
+
+        return new PathAndQuery(pathAndQuery.substring(0, queryPos), pathAndQuery.substring(queryPos + 1));
+    }
+
+    private static boolean pathContainsDoubleDots(String path, int end) {
+        char c0 = 0;
+        char c1 = 0;
+        char c2 = '/';
+        for (int i = 1; i < end; i++) {
+            final char c3 = path.charAt(i);
+            if (c3 == '/' && c2 == '.' && c1 == '.' && c0 == '/') {
+                return true;
+            }
+            c0 = c1;
+            c1 = c2;
+            c2 = c3;
+        }
+
+        return c0 == '/' && c1 == '.' && c2 == '.';
+    }
+
     @Nullable
     private static Bytes decodePercentsAndEncodeToUtf8(String value, int start, int end, boolean isPath) {
         final int length = end - start;
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.util.ThreadFactories;
+
+/**
+ * A {@link ScheduledExecutorService} which starts a new virtual thread for each task. The tasks submitted
+ * via {@code schedule*()} are kept by a single platform thread until they are due, and then handed off to
+ * new virtual threads, so that a blocking task never blocks the scheduler. The delayed tasks are cancelled
+ * when this executor is shut down.
+ *
+ * @see VirtualThreads#newBlockingTaskExecutor(String)
+ */
+public final class VirtualThreadBlockingTaskExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    private final ThreadFactory threadFactory;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Set<Thread> activeThreads = ConcurrentHashMap.newKeySet();
+    private final Set<Future<?>> delayedTasks = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger numActiveTasks = new AtomicInteger();
+    private final CountDownLatch terminationLatch = new CountDownLatch(1);
+    private volatile boolean shutdown;
+
+    VirtualThreadBlockingTaskExecutor(String threadNamePrefix, ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+        scheduler = new ScheduledThreadPoolExecutor(
+                1, ThreadFactories.newThreadFactory(threadNamePrefix + "-scheduler", true));
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Returns whether there is a task which is running or waiting for its delay to elapse.
+     */
+    public boolean hasPendingTasks() {
+        return numActiveTasks.get() != 0 || !scheduler.getQueue().isEmpty();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        requireNonNull(command, "command");
+        numActiveTasks.incrementAndGet();
+        if (shutdown) {
+            onTaskCompletion();
+            throw new RejectedExecutionException("executor shut down");
+        }
+
+        final Thread thread = threadFactory.newThread(() -> {
+            final Thread currentThread = Thread.currentThread();
+            activeThreads.add(currentThread);
+            try {
+                command.run();
+            } finally {
+                activeThreads.remove(currentThread);
+                onTaskCompletion();
+            }
+        });
+        thread.start();
+    }
+
+    private void onTaskCompletion() {
+        if (numActiveTasks.decrementAndGet() == 0 && shutdown) {
+            terminationLatch.countDown();
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        requireNonNull(command, "command");
+        return schedule(new HandOffTask<>(command, null), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        requireNonNull(callable, "callable");
+        return schedule(new HandOffTask<>(callable), delay, unit);
+    }
+
+    private <V> ScheduledFuture<V> schedule(HandOffTask<V> task, long delay, TimeUnit unit) {
+        requireNonNull(unit, "unit");
+        delayedTasks.add(task);
+        try {
+            task.trigger = scheduler.schedule(() -> {
+                if (delayedTasks.remove(task)) {
+                    handOff(task, task);
+                }
+            }, delay, unit);
+        } catch (RejectedExecutionException e) {
+            delayedTasks.remove(task);
+            throw e;
+        }
+        return task;
+    }
+
+    private void handOff(Runnable task, Future<?> future) {
+        try {
+            execute(task);
+        } catch (RejectedExecutionException e) {
+            future.cancel(false);
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+                                                  TimeUnit unit) {
+        return schedulePeriodically(command, initialDelay, period, unit, true);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                     TimeUnit unit) {
+        return schedulePeriodically(command, initialDelay, delay, unit, false);
+    }
+
+    private ScheduledFuture<?> schedulePeriodically(Runnable command, long initialDelay, long period,
+                                                    TimeUnit unit, boolean fixedRate) {
+        requireNonNull(command, "command");
+        requireNonNull(unit, "unit");
+        if (period <= 0) {
+            throw new IllegalArgumentException("period: " + period + " (expected: > 0)");
+        }
+        final PeriodicTask task = new PeriodicTask(command, unit.toNanos(period), fixedRate);
+        delayedTasks.add(task);
+        task.scheduleNext(unit.toNanos(initialDelay));
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        scheduler.shutdown();
+        delayedTasks.forEach(task -> task.cancel(false));
+        if (numActiveTasks.get() == 0) {
+            terminationLatch.countDown();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        scheduler.shutdownNow();
+        activeThreads.forEach(Thread::interrupt);
+        // The delayed tasks are cancelled rather than returned.
+        return ImmutableList.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminationLatch.getCount() == 0 && scheduler.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        if (!terminationLatch.await(timeout, unit)) {
+            return false;
+        }
+        return scheduler.awaitTermination(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A one-shot task which runs on a virtual thread once its trigger, scheduled by the scheduler, fires.
+     */
+    private final class HandOffTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+        @Nullable
+        volatile ScheduledFuture<?> trigger;
+
+        HandOffTask(Callable<V> callable) {
+            super(callable);
+        }
+
+        HandOffTask(Runnable runnable, @Nullable V result) {
+            super(runnable, result);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            final ScheduledFuture<?> trigger = this.trigger;
+            return trigger != null ? trigger.getDelay(unit) : 0;
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            final ScheduledFuture<?> trigger = this.trigger;
+            if (cancelled) {
+                delayedTasks.remove(this);
+                if (trigger != null) {
+                    trigger.cancel(false);
+                }
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * A periodic task which schedules its next trigger only after the current run completes, so that
+     * the runs never overlap, as they do not with {@link ScheduledThreadPoolExecutor}. Unlike
+     * {@link HandOffTask}, this is not a {@link Runnable} because it is run only by its triggers.
+     */
+    private final class PeriodicTask implements ScheduledFuture<Void> {
+
+        private final Runnable command;
+        private final long periodNanos;
+        private final boolean fixedRate;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private volatile long nextRunTimeNanos;
+        @Nullable
+        private volatile ScheduledFuture<?> trigger;
+        @Nullable
+        private volatile Thread runner;
+
+        PeriodicTask(Runnable command, long periodNanos, boolean fixedRate) {
+            this.command = command;
+            this.periodNanos = periodNanos;
+            this.fixedRate = fixedRate;
+        }
+
+        void scheduleNext(long delayNanos) {
+            nextRunTimeNanos = System.nanoTime() + delayNanos;
+            final ScheduledFuture<?> trigger;
+            try {
+                trigger = scheduler.schedule(() -> handOff(this::runOnce, this),
+                                             delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                cancel(false);
+                throw e;
+            }
+            this.trigger = trigger;
+            if (isDone()) {
+                // Cancelled while scheduling.
+                trigger.cancel(false);
+            }
+        }
+
+        private void runOnce() {
+            if (isDone()) {
+                return;
+            }
+            runner = Thread.currentThread();
+            try {
+                command.run();
+            } catch (Throwable cause) {
+                if (future.completeExceptionally(cause)) {
+                    delayedTasks.remove(this);
+                }
+                return;
+            } finally {
+                runner = null;
+            }
+            if (isDone() || shutdown) {
+                return;
+            }
+            try {
+                if (fixedRate) {
+                    scheduleNext(nextRunTimeNanos + periodNanos - System.nanoTime());
+                } else {
+                    scheduleNext(periodNanos);
+                }
+            } catch (RejectedExecutionException ignored) {
+                // Shut down concurrently.
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(nextRunTimeNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!future.cancel(false)) {
+                return false;
+            }
+            delayedTasks.remove(this);
+            final ScheduledFuture<?> trigger = this.trigger;
+            if (trigger != null) {
+                trigger.cancel(false);
+            }
+            if (mayInterruptIfRunning) {
+                final Thread runner = this.runner;
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public Void get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        @Override
+        public Void get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return future.get(timeout, unit);
+        }
+    }
+}
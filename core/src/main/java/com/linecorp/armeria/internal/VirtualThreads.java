@@ -0,0 +1,213 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Creates the blocking task executors which run their tasks on virtual threads, available since Java 21.
+ * Virtual threads are created via reflection because Armeria is compiled against Java 8.
+ *
+ * <p>A virtual thread which blocks while holding a monitor or running a native frame pins its carrier
+ * thread, which reduces the parallelism of all other virtual threads. {@link #registerMetrics(MeterRegistry,
+ * MeterIdPrefix)} exports the number and the total duration of such pinning events, as recorded by the
+ * {@code jdk.VirtualThreadPinned} JFR event which lasted longer than {@value #PINNED_THRESHOLD_MILLIS}
+ * milliseconds.
+ */
+public final class VirtualThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * The threshold of the pinning events to record. A {@code RecordingStream} records every event
+     * unless a threshold is specified, unlike the {@code default} JFR configuration.
+     */
+    private static final long PINNED_THRESHOLD_MILLIS = 20;
+
+    @Nullable
+    private static final Method OF_VIRTUAL;
+    @Nullable
+    private static final Method BUILDER_NAME;
+    @Nullable
+    private static final Method BUILDER_FACTORY;
+    @Nullable
+    private static final Method IS_VIRTUAL;
+
+    private static final LongAdder numPinnedEvents = new LongAdder();
+    private static final LongAdder pinnedNanos = new LongAdder();
+    private static boolean pinningMonitorStarted;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method isVirtual = null;
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            isVirtual = Thread.class.getMethod("isVirtual");
+            // Make sure virtual threads are not a preview feature disabled in this JVM.
+            ofVirtual.invoke(null);
+        } catch (Throwable cause) {
+            logger.debug("Virtual threads are not available:", cause);
+            ofVirtual = null;
+        }
+
+        if (ofVirtual != null) {
+            OF_VIRTUAL = ofVirtual;
+            BUILDER_NAME = builderName;
+            BUILDER_FACTORY = builderFactory;
+            IS_VIRTUAL = isVirtual;
+        } else {
+            OF_VIRTUAL = null;
+            BUILDER_NAME = null;
+            BUILDER_FACTORY = null;
+            IS_VIRTUAL = null;
+        }
+    }
+
+    /**
+     * Returns whether virtual threads are available in the current JVM.
+     */
+    public static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Returns whether the specified {@link Thread} is a virtual thread.
+     */
+    public static boolean isVirtual(Thread thread) {
+        requireNonNull(thread, "thread");
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a new {@link ThreadFactory} which creates virtual threads named with the specified prefix,
+     * or {@code null} if virtual threads are not available.
+     */
+    @Nullable
+    public static ThreadFactory newThreadFactory(String threadNamePrefix) {
+        requireNonNull(threadNamePrefix, "threadNamePrefix");
+        if (OF_VIRTUAL == null) {
+            return null;
+        }
+        assert BUILDER_NAME != null;
+        assert BUILDER_FACTORY != null;
+        try {
+            final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), threadNamePrefix + '-', 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (Exception e) {
+            logger.warn("Failed to create a virtual thread factory:", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a new {@link ScheduledExecutorService} which starts a new virtual thread for each task, or
+     * {@code null} if virtual threads are not available. The executor is not bounded by
+     * {@link Flags#numCommonBlockingTaskThreads()}. Only the delayed tasks are queued, by a single platform
+     * thread which hands them off to virtual threads when they are due.
+     *
+     * @see VirtualThreadBlockingTaskExecutor
+     */
+    @Nullable
+    public static ScheduledExecutorService newBlockingTaskExecutor(String threadNamePrefix) {
+        final ThreadFactory threadFactory = newThreadFactory(threadNamePrefix);
+        if (threadFactory == null) {
+            return null;
+        }
+        return new VirtualThreadBlockingTaskExecutor(threadNamePrefix, threadFactory);
+    }
+
+    /**
+     * Registers the meters which tell how often and how long virtual threads pinned their carrier threads.
+     * This method does nothing if virtual threads or JFR event streaming are not available.
+     */
+    public static void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        requireNonNull(registry, "registry");
+        requireNonNull(idPrefix, "idPrefix");
+        if (!isAvailable() || !startPinningMonitor()) {
+            return;
+        }
+
+        registry.more().timer(idPrefix.name("pinned"), idPrefix.tags(), numPinnedEvents,
+                              LongAdder::sum, unused -> pinnedNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    private static synchronized boolean startPinningMonitor() {
+        if (pinningMonitorStarted) {
+            return true;
+        }
+
+        try {
+            final Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+            final Method getDuration = Class.forName("jdk.jfr.consumer.RecordedEvent")
+                                            .getMethod("getDuration");
+            final Object stream = streamClass.getConstructor().newInstance();
+            final Object settings = streamClass.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+            Class.forName("jdk.jfr.EventSettings").getMethod("withThreshold", Duration.class)
+                 .invoke(settings, Duration.ofMillis(PINNED_THRESHOLD_MILLIS));
+            final Consumer<Object> onPinned = event -> {
+                numPinnedEvents.increment();
+                try {
+                    pinnedNanos.add(((Duration) getDuration.invoke(event)).toNanos());
+                } catch (Exception ignored) {
+                    // Should never reach here.
+                }
+            };
+            streamClass.getMethod("onEvent", String.class, Consumer.class)
+                       .invoke(stream, PINNED_EVENT, onPinned);
+            streamClass.getMethod("startAsync").invoke(stream);
+            pinningMonitorStarted = true;
+            return true;
+        } catch (Throwable cause) {
+            logger.warn("Failed to start monitoring the pinned virtual threads:", cause);
+            return false;
+        }
+    }
+
+    private VirtualThreads() {}
+}
@@ -16,6 +16,7 @@
 
 package com.linecorp.armeria.internal.annotation;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -40,6 +41,8 @@ import com.linecorp.armeria.server.annotation.ExceptionVerbosity;
  *     {@link IllegalArgumentException}, or</li>
  *     <li>an {@link HttpResponse} with the status code that an {@link HttpStatusException} holds, or</li>
  *     <li>an {@link HttpResponse} that an {@link HttpResponseException} holds, or</li>
+ *     <li>an {@link HttpResponse} with {@code 503 Service Unavailable} status code when the cause is
+ *     a {@link RejectedExecutionException}, e.g. the blocking task executor is full, or</li>
  *     <li>an {@link HttpResponse} with {@code 500 Internal Server Error}.</li>
  * </ul>
  */
@@ -61,6 +64,10 @@ final class DefaultExceptionHandler implements ExceptionHandlerFunction {
             return ((HttpResponseException) cause).httpResponse();
         }
 
+        if (cause instanceof RejectedExecutionException) {
+            return HttpResponse.of(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
         log(log -> log.warn("{} Unhandled exception from an annotated service:", ctx, cause));
 
         return HttpResponse.of(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -31,6 +31,7 @@ import io.netty.channel.EventLoop;
 import io.netty.handler.codec.dns.DnsQuestion;
 import io.netty.handler.codec.dns.DnsRecord;
 import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsServerAddressStreamProvider;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.Promise;
@@ -41,10 +42,35 @@ public class DefaultDnsNameResolver {
 
     private final DnsNameResolver delegate;
     private final EventLoop eventLoop;
+    @Nullable
+    private final DnsQueryCache cache;
+    @Nullable
+    private final Object cacheScope;
+    private final int negativeTtl;
 
     public DefaultDnsNameResolver(DnsNameResolver delegate, EventLoop eventLoop) {
         this.delegate = requireNonNull(delegate, "delegate");
         this.eventLoop = requireNonNull(eventLoop, "eventLoop");
+        cache = null;
+        cacheScope = null;
+        negativeTtl = 0;
+    }
+
+    /**
+     * Creates a new instance which sends the queries via the specified {@link DnsQueryCache}.
+     *
+     * @param cacheScope the object which distinguishes the cached results of this resolver from the results
+     *                   of the resolvers that send queries to different DNS servers, such as
+     *                   the {@link DnsServerAddressStreamProvider} of this resolver
+     * @param negativeTtl the number of seconds to cache the failed queries
+     */
+    public DefaultDnsNameResolver(DnsNameResolver delegate, EventLoop eventLoop,
+                                  DnsQueryCache cache, Object cacheScope, int negativeTtl) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.eventLoop = requireNonNull(eventLoop, "eventLoop");
+        this.cache = requireNonNull(cache, "cache");
+        this.cacheScope = requireNonNull(cacheScope, "cacheScope");
+        this.negativeTtl = negativeTtl;
     }
 
     public EventLoop executor() {
@@ -54,6 +80,14 @@ public class DefaultDnsNameResolver {
     public Future<List<DnsRecord>> sendQueries(List<DnsQuestion> questions, String logPrefix) {
         requireNonNull(questions, "questions");
         requireNonNull(logPrefix, "logPrefix");
+        if (cache != null) {
+            assert cacheScope != null;
+            return cache.sendQueries(this, cacheScope, questions, logPrefix, negativeTtl);
+        }
+        return sendQueriesWithoutCache(questions, logPrefix);
+    }
+
+    Future<List<DnsRecord>> sendQueriesWithoutCache(List<DnsQuestion> questions, String logPrefix) {
         final int numQuestions = questions.size();
         if (numQuestions == 1) {
             // Simple case of single query
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.dns;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.dns.DefaultDnsRawRecord;
+import io.netty.handler.codec.dns.DnsQuestion;
+import io.netty.handler.codec.dns.DnsRawRecord;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * A process-wide cache of DNS query results which is shared by the {@link DefaultDnsNameResolver}s of
+ * different {@code DnsEndpointGroup}s and {@code ClientFactory}s.
+ *
+ * <ul>
+ *   <li>The concurrent queries for the same questions are coalesced into a single query.</li>
+ *   <li>A successful result is cached until the smallest TTL of its records elapses. The records served
+ *       from the cache have their TTL decreased by the time spent in the cache.</li>
+ *   <li>A failure is cached for the negative TTL specified by the resolver which sent the query, if the
+ *       failure was not caused by an I/O error or a timeout.</li>
+ *   <li>A cache hit in the last 10% of the TTL of an entry sends a query in the background, so that
+ *       the frequently used entries are refreshed before they expire.</li>
+ *   <li>At most {@value #MAXIMUM_SIZE} entries are kept. The entries which are not used recently are
+ *       evicted when the cache is full.</li>
+ * </ul>
+ *
+ * <p>Entries are looked up by the questions and the scope specified by the resolver, such as its
+ * {@link io.netty.resolver.dns.DnsServerAddressStreamProvider}, so that the resolvers which send queries to
+ * different DNS servers do not share the results.
+ */
+public final class DnsQueryCache {
+
+    @VisibleForTesting
+    static final double PREFETCH_RATIO = 0.1;
+
+    private static final int MAXIMUM_SIZE = 8192;
+
+    private static final DnsQueryCache SHARED = new DnsQueryCache(Ticker.systemTicker(), MAXIMUM_SIZE);
+
+    /**
+     * Returns the process-wide {@link DnsQueryCache}.
+     */
+    public static DnsQueryCache shared() {
+        return SHARED;
+    }
+
+    private final Cache<Key, Entry> cache;
+    private final ConcurrentMap<Key, Entry> entries;
+    private final Ticker ticker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder prefetches = new LongAdder();
+
+    @VisibleForTesting
+    DnsQueryCache(Ticker ticker, int maximumSize) {
+        this.ticker = ticker;
+        cache = Caffeine.newBuilder()
+                        .ticker(ticker::read)
+                        .maximumSize(maximumSize)
+                        .expireAfter(new EntryExpiry())
+                        .build();
+        entries = cache.asMap();
+    }
+
+    /**
+     * Registers the meters which count the lookups by their result and the number of the cached entries.
+     */
+    public void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        requireNonNull(registry, "registry");
+        requireNonNull(idPrefix, "idPrefix");
+
+        final String requests = idPrefix.name("requests");
+        registry.more().counter(requests, idPrefix.tags("result", "hit"), hits, LongAdder::sum);
+        registry.more().counter(requests, idPrefix.tags("result", "negativeHit"), negativeHits, LongAdder::sum);
+        registry.more().counter(requests, idPrefix.tags("result", "miss"), misses, LongAdder::sum);
+        registry.more().counter(requests, idPrefix.tags("result", "coalesced"), coalesced, LongAdder::sum);
+        registry.more().counter(idPrefix.name("prefetches"), idPrefix.tags(), prefetches, LongAdder::sum);
+        registry.gauge(idPrefix.name("entries"), idPrefix.tags(), cache, Cache::estimatedSize);
+    }
+
+    /**
+     * Sends the specified DNS questions using the specified {@link DefaultDnsNameResolver} unless
+     * the result is in this cache already or the same questions are being sent by another resolver.
+     */
+    Future<List<DnsRecord>> sendQueries(DefaultDnsNameResolver resolver, Object scope,
+                                        List<DnsQuestion> questions, String logPrefix, int negativeTtl) {
+        final Key key = new Key(scope, questions);
+        for (;;) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                final Entry newEntry = new Entry();
+                if (entries.putIfAbsent(key, newEntry) != null) {
+                    // Lost the race.
+                    continue;
+                }
+                misses.increment();
+                query(resolver, key, newEntry, logPrefix, negativeTtl, false);
+                return newEntry.subscribe(resolver);
+            }
+
+            final Result result = entry.future.getNow(null);
+            if (result == null) {
+                coalesced.increment();
+                return entry.subscribe(resolver);
+            }
+
+            final long currentNanos = ticker.read();
+            if (currentNanos - result.expiresAtNanos >= 0) {
+                entries.remove(key, entry);
+                continue;
+            }
+
+            if (result.cause != null) {
+                negativeHits.increment();
+            } else {
+                hits.increment();
+                if (currentNanos - result.prefetchAtNanos >= 0 &&
+                    entry.prefetching.compareAndSet(false, true)) {
+                    prefetches.increment();
+                    query(resolver, key, new Entry(), logPrefix, negativeTtl, true);
+                }
+            }
+            return entry.subscribe(resolver);
+        }
+    }
+
+    private void query(DefaultDnsNameResolver resolver, Key key, Entry entry, String logPrefix,
+                       int negativeTtl, boolean prefetch) {
+        resolver.sendQueriesWithoutCache(key.questions, logPrefix).addListener(f -> {
+            final Result result;
+            if (f.isSuccess()) {
+                @SuppressWarnings("unchecked")
+                final List<DnsRecord> records = (List<DnsRecord>) f.getNow();
+                result = newResult(records);
+            } else {
+                result = newResult(f.cause(), negativeTtl);
+            }
+
+            if (prefetch) {
+                if (result.cause == null) {
+                    entry.future.complete(result);
+                    entries.put(key, entry);
+                }
+                // Keep serving the old entry until it expires if prefetching failed.
+                return;
+            }
+
+            entry.future.complete(result);
+            if (ticker.read() - result.expiresAtNanos >= 0) {
+                entries.remove(key, entry);
+            } else {
+                // Replace the entry with itself so that its expiration time is updated from the result.
+                entries.replace(key, entry, entry);
+            }
+        });
+    }
+
+    private Result newResult(List<DnsRecord> records) {
+        long ttl = Long.MAX_VALUE;
+        final ImmutableList.Builder<DnsRecord> builder = ImmutableList.builderWithExpectedSize(records.size());
+        try {
+            for (DnsRecord r : records) {
+                ttl = Math.min(ttl, r.timeToLive());
+                if (r instanceof DnsRawRecord) {
+                    // Copy the content so that the cached records do not hold a pooled buffer.
+                    builder.add(new CachedRecord(r, ByteBufUtil.getBytes(((DnsRawRecord) r).content())));
+                } else {
+                    builder.add(ReferenceCountUtil.retain(r));
+                }
+            }
+        } finally {
+            records.forEach(ReferenceCountUtil::safeRelease);
+        }
+
+        if (ttl == Long.MAX_VALUE) {
+            ttl = 0;
+        }
+        final long currentNanos = ticker.read();
+        final long ttlNanos = TimeUnit.SECONDS.toNanos(ttl);
+        return new Result(builder.build(), null, currentNanos + ttlNanos,
+                          currentNanos + (long) (ttlNanos * (1 - PREFETCH_RATIO)));
+    }
+
+    private Result newResult(Throwable cause, int negativeTtl) {
+        // Do not cache the failures caused by an I/O error or a timeout, which have the cause.
+        final boolean cacheable = cause instanceof UnknownHostException && cause.getCause() == null;
+        final long ttlNanos = cacheable ? TimeUnit.SECONDS.toNanos(negativeTtl) : 0;
+        final long expiresAtNanos = ticker.read() + ttlNanos;
+        return new Result(null, cause, expiresAtNanos, expiresAtNanos);
+    }
+
+    @VisibleForTesting
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Expires an {@link Entry} when the TTL of its {@link Result} elapses. An {@link Entry} whose query is
+     * in progress does not expire, but it can still be evicted when the cache is full.
+     */
+    private static final class EntryExpiry implements Expiry<Key, Entry> {
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            return entry.expireAfterNanos(currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return entry.expireAfterNanos(currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private final class Entry {
+
+        final CompletableFuture<Result> future = new CompletableFuture<>();
+        final AtomicBoolean prefetching = new AtomicBoolean();
+
+        long expireAfterNanos(long currentNanos) {
+            final Result result = future.getNow(null);
+            if (result == null) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, result.expiresAtNanos - currentNanos);
+        }
+
+        Future<List<DnsRecord>> subscribe(DefaultDnsNameResolver resolver) {
+            final Promise<List<DnsRecord>> promise = resolver.executor().newPromise();
+            future.thenAccept(result -> {
+                if (result.cause != null) {
+                    promise.tryFailure(result.cause);
+                } else {
+                    promise.trySuccess(result.records(ticker.read()));
+                }
+            });
+            return promise;
+        }
+    }
+
+    private static final class Result {
+
+        @Nullable
+        private final List<DnsRecord> records;
+        @Nullable
+        final Throwable cause;
+        final long expiresAtNanos;
+        final long prefetchAtNanos;
+
+        Result(@Nullable List<DnsRecord> records, @Nullable Throwable cause,
+               long expiresAtNanos, long prefetchAtNanos) {
+            this.records = records;
+            this.cause = cause;
+            this.expiresAtNanos = expiresAtNanos;
+            this.prefetchAtNanos = prefetchAtNanos;
+        }
+
+        /**
+         * Returns the copy of the cached records whose TTL is decreased by the time spent in the cache.
+         * The caller is responsible for releasing the returned records.
+         */
+        List<DnsRecord> records(long currentNanos) {
+            assert records != null;
+            final long remainingTtl =
+                    Math.max(0, TimeUnit.NANOSECONDS.toSeconds(expiresAtNanos - currentNanos));
+            final ImmutableList.Builder<DnsRecord> builder =
+                    ImmutableList.builderWithExpectedSize(records.size());
+            for (DnsRecord r : records) {
+                if (r instanceof CachedRecord) {
+                    builder.add(((CachedRecord) r).toRawRecord(remainingTtl));
+                } else {
+                    builder.add(ReferenceCountUtil.retain(r));
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * A {@link DnsRecord} whose content is copied into a heap byte array.
+     */
+    private static final class CachedRecord implements DnsRecord {
+
+        private final String name;
+        private final DnsRecordType type;
+        private final int dnsClass;
+        private final long timeToLive;
+        private final byte[] content;
+
+        CachedRecord(DnsRecord record, byte[] content) {
+            name = record.name();
+            type = record.type();
+            dnsClass = record.dnsClass();
+            timeToLive = record.timeToLive();
+            this.content = content;
+        }
+
+        DnsRawRecord toRawRecord(long timeToLive) {
+            return new DefaultDnsRawRecord(name, type, dnsClass, Math.min(this.timeToLive, timeToLive),
+                                           Unpooled.wrappedBuffer(content));
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public DnsRecordType type() {
+            return type;
+        }
+
+        @Override
+        public int dnsClass() {
+            return dnsClass;
+        }
+
+        @Override
+        public long timeToLive() {
+            return timeToLive;
+        }
+    }
+
+    private static final class Key {
+
+        private final Object scope;
+        private final List<DnsQuestion> questions;
+        private final int hashCode;
+
+        Key(Object scope, List<DnsQuestion> questions) {
+            this.scope = scope;
+            this.questions = ImmutableList.copyOf(questions);
+            hashCode = Objects.hash(scope, this.questions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return hashCode == that.hashCode && scope.equals(that.scope) && questions.equals(that.questions);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                              .add("scope", scope)
+                              .add("questions", questions)
+                              .toString();
+        }
+    }
+}
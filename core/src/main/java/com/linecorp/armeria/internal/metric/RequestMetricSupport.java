@@ -23,6 +23,7 @@ import static java.util.Objects.requireNonNull;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
 
 import javax.annotation.Nullable;
 
@@ -31,6 +32,7 @@ import com.google.common.collect.ImmutableList;
 import com.linecorp.armeria.client.ClientConnectionTimings;
 import com.linecorp.armeria.client.ResponseTimeoutException;
 import com.linecorp.armeria.client.WriteTimeoutException;
+import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.RpcResponse;
@@ -125,20 +127,18 @@ public final class RequestMetricSupport {
         updateMetrics(log, metrics);
         final ClientConnectionTimings timings = ClientConnectionTimings.get(log);
         if (timings != null) {
-            metrics.connectionAcquisitionDuration().record(timings.connectionAcquisitionDurationNanos(),
-                                                           TimeUnit.NANOSECONDS);
+            metrics.connectionAcquisitionDuration().accept(timings.connectionAcquisitionDurationNanos());
             final long dnsResolutionDurationNanos = timings.dnsResolutionDurationNanos();
             if (dnsResolutionDurationNanos >= 0) {
-                metrics.dnsResolutionDuration().record(dnsResolutionDurationNanos, TimeUnit.NANOSECONDS);
+                metrics.dnsResolutionDuration().accept(dnsResolutionDurationNanos);
             }
             final long socketConnectDurationNanos = timings.socketConnectDurationNanos();
             if (socketConnectDurationNanos >= 0) {
-                metrics.socketConnectDuration().record(socketConnectDurationNanos, TimeUnit.NANOSECONDS);
+                metrics.socketConnectDuration().accept(socketConnectDurationNanos);
             }
             final long pendingAcquisitionDurationNanos = timings.pendingAcquisitionDurationNanos();
             if (pendingAcquisitionDurationNanos >= 0) {
-                metrics.pendingAcquisitionDuration().record(pendingAcquisitionDurationNanos,
-                                                            TimeUnit.NANOSECONDS);
+                metrics.pendingAcquisitionDuration().accept(pendingAcquisitionDurationNanos);
             }
         }
         if (log.requestCause() != null) {
@@ -164,11 +164,11 @@ public final class RequestMetricSupport {
             return;
         }
 
-        metrics.requestDuration().record(log.requestDurationNanos(), TimeUnit.NANOSECONDS);
-        metrics.requestLength().record(log.requestLength());
-        metrics.responseDuration().record(log.responseDurationNanos(), TimeUnit.NANOSECONDS);
-        metrics.responseLength().record(log.responseLength());
-        metrics.totalDuration().record(log.totalDurationNanos(), TimeUnit.NANOSECONDS);
+        metrics.requestDuration().accept(log.requestDurationNanos());
+        metrics.requestLength().accept(log.requestLength());
+        metrics.responseDuration().accept(log.responseDurationNanos());
+        metrics.responseLength().accept(log.responseLength());
+        metrics.totalDuration().accept(log.totalDurationNanos());
 
         if (isSuccess(log)) {
             metrics.success().increment();
@@ -197,33 +197,56 @@ public final class RequestMetricSupport {
 
     private RequestMetricSupport() {}
 
+    /**
+     * Returns a newly-registered recorder of the durations in nanoseconds.
+     */
+    private static LongConsumer newDurationRecorder(MeterRegistry registry, String name,
+                                                    Iterable<Tag> tags) {
+        if (Flags.useStripedRequestMetrics()) {
+            return StripedHistogram.newTimer(registry, name, tags)::record;
+        }
+        final Timer timer = newTimer(registry, name, tags);
+        return nanos -> timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns a newly-registered recorder of the lengths in bytes.
+     */
+    private static LongConsumer newLengthRecorder(MeterRegistry registry, String name, Iterable<Tag> tags) {
+        if (Flags.useStripedRequestMetrics()) {
+            return StripedHistogram.newDistributionSummary(registry, name, tags)::record;
+        }
+        final DistributionSummary summary = newDistributionSummary(registry, name, tags);
+        return summary::record;
+    }
+
     // metrics that only needed to be called when a request completed
     private interface RequestMetrics {
         Counter success();
 
         Counter failure();
 
-        Timer requestDuration();
+        LongConsumer requestDuration();
 
-        DistributionSummary requestLength();
+        LongConsumer requestLength();
 
-        Timer responseDuration();
+        LongConsumer responseDuration();
 
-        DistributionSummary responseLength();
+        LongConsumer responseLength();
 
-        Timer totalDuration();
+        LongConsumer totalDuration();
     }
 
     private interface ClientRequestMetrics extends RequestMetrics {
         Counter actualRequests();
 
-        Timer connectionAcquisitionDuration();
+        LongConsumer connectionAcquisitionDuration();
 
-        Timer dnsResolutionDuration();
+        LongConsumer dnsResolutionDuration();
 
-        Timer socketConnectDuration();
+        LongConsumer socketConnectDuration();
 
-        Timer pendingAcquisitionDuration();
+        LongConsumer pendingAcquisitionDuration();
 
         Counter writeTimeouts();
 
@@ -240,27 +263,22 @@ public final class RequestMetricSupport {
 
         private final Counter success;
         private final Counter failure;
-        private final Timer requestDuration;
-        private final DistributionSummary requestLength;
-        private final Timer responseDuration;
-        private final DistributionSummary responseLength;
-        private final Timer totalDuration;
+        private final LongConsumer requestDuration;
+        private final LongConsumer requestLength;
+        private final LongConsumer responseDuration;
+        private final LongConsumer responseLength;
+        private final LongConsumer totalDuration;
 
         AbstractRequestMetrics(MeterRegistry parent, MeterIdPrefix idPrefix) {
             final String requests = idPrefix.name("requests");
             success = parent.counter(requests, idPrefix.tags("result", "success"));
             failure = parent.counter(requests, idPrefix.tags("result", "failure"));
 
-            requestDuration = newTimer(
-                    parent, idPrefix.name("requestDuration"), idPrefix.tags());
-            requestLength = newDistributionSummary(
-                    parent, idPrefix.name("requestLength"), idPrefix.tags());
-            responseDuration = newTimer(
-                    parent, idPrefix.name("responseDuration"), idPrefix.tags());
-            responseLength = newDistributionSummary(
-                    parent, idPrefix.name("responseLength"), idPrefix.tags());
-            totalDuration = newTimer(
-                    parent, idPrefix.name("totalDuration"), idPrefix.tags());
+            requestDuration = newDurationRecorder(parent, idPrefix.name("requestDuration"), idPrefix.tags());
+            requestLength = newLengthRecorder(parent, idPrefix.name("requestLength"), idPrefix.tags());
+            responseDuration = newDurationRecorder(parent, idPrefix.name("responseDuration"), idPrefix.tags());
+            responseLength = newLengthRecorder(parent, idPrefix.name("responseLength"), idPrefix.tags());
+            totalDuration = newDurationRecorder(parent, idPrefix.name("totalDuration"), idPrefix.tags());
         }
 
         @Override
@@ -274,27 +292,27 @@ public final class RequestMetricSupport {
         }
 
         @Override
-        public Timer requestDuration() {
+        public LongConsumer requestDuration() {
             return requestDuration;
         }
 
         @Override
-        public DistributionSummary requestLength() {
+        public LongConsumer requestLength() {
             return requestLength;
         }
 
         @Override
-        public Timer responseDuration() {
+        public LongConsumer responseDuration() {
             return responseDuration;
         }
 
         @Override
-        public DistributionSummary responseLength() {
+        public LongConsumer responseLength() {
             return responseLength;
         }
 
         @Override
-        public Timer totalDuration() {
+        public LongConsumer totalDuration() {
             return totalDuration;
         }
     }
@@ -309,10 +327,10 @@ public final class RequestMetricSupport {
         private final MeterRegistry parent;
         private final MeterIdPrefix idPrefix;
 
-        private final Timer connectionAcquisitionDuration;
-        private final Timer dnsResolutionDuration;
-        private final Timer socketConnectDuration;
-        private final Timer pendingAcquisitionDuration;
+        private final LongConsumer connectionAcquisitionDuration;
+        private final LongConsumer dnsResolutionDuration;
+        private final LongConsumer socketConnectDuration;
+        private final LongConsumer pendingAcquisitionDuration;
 
         private final Counter writeTimeouts;
         private final Counter responseTimeouts;
@@ -325,11 +343,13 @@ public final class RequestMetricSupport {
             this.parent = parent;
             this.idPrefix = idPrefix;
 
-            connectionAcquisitionDuration = newTimer(
+            connectionAcquisitionDuration = newDurationRecorder(
                     parent, idPrefix.name("connectionAcquisitionDuration"), idPrefix.tags());
-            dnsResolutionDuration = newTimer(parent, idPrefix.name("dnsResolutionDuration"), idPrefix.tags());
-            socketConnectDuration = newTimer(parent, idPrefix.name("socketConnectDuration"), idPrefix.tags());
-            pendingAcquisitionDuration = newTimer(
+            dnsResolutionDuration = newDurationRecorder(
+                    parent, idPrefix.name("dnsResolutionDuration"), idPrefix.tags());
+            socketConnectDuration = newDurationRecorder(
+                    parent, idPrefix.name("socketConnectDuration"), idPrefix.tags());
+            pendingAcquisitionDuration = newDurationRecorder(
                     parent, idPrefix.name("pendingAcquisitionDuration"), idPrefix.tags());
 
             final String timeouts = idPrefix.name("timeouts");
@@ -352,22 +372,22 @@ public final class RequestMetricSupport {
         }
 
         @Override
-        public Timer connectionAcquisitionDuration() {
+        public LongConsumer connectionAcquisitionDuration() {
             return connectionAcquisitionDuration;
         }
 
         @Override
-        public Timer dnsResolutionDuration() {
+        public LongConsumer dnsResolutionDuration() {
             return dnsResolutionDuration;
         }
 
         @Override
-        public Timer socketConnectDuration() {
+        public LongConsumer socketConnectDuration() {
             return socketConnectDuration;
         }
 
         @Override
-        public Timer pendingAcquisitionDuration() {
+        public LongConsumer pendingAcquisitionDuration() {
             return pendingAcquisitionDuration;
         }
 
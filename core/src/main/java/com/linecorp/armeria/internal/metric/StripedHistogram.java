@@ -0,0 +1,328 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.metric;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nullable;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.math.IntMath;
+
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.metric.MoreMeters;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.util.DoubleFormat;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * A histogram whose values are recorded into the stripe of the current thread and merged only when
+ * it is read, which is used instead of a {@link io.micrometer.core.instrument.Timer} or
+ * a {@link io.micrometer.core.instrument.DistributionSummary} when {@link Flags#useStripedRequestMetrics()}
+ * is enabled.
+ *
+ * <p>Each stripe counts the values in log-linear buckets, i.e. every power of two is divided into
+ * {@value #NUM_SUB_BUCKETS} buckets, so a percentile is accurate within 12.5%. The percentiles and
+ * the maximum are calculated from the values recorded in the last one or two rotation intervals,
+ * which is the {@link DistributionStatisticConfig#getExpiry()} divided by
+ * {@link DistributionStatisticConfig#getBufferLength()} of {@link MoreMeters#distributionStatisticConfig()}.
+ *
+ * <p>A stripe takes about 3 KiB, so a histogram starts with a single stripe shared by all threads, and
+ * allocates the stripes of other threads only after two threads contended on it. At most
+ * {@value #MAX_STRIPES} stripes are used, so the threads may still share a stripe with each other.
+ */
+final class StripedHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    @VisibleForTesting
+    static final int NUM_SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // The values equal to or greater than 2^48 are recorded as 2^48 - 1.
+    private static final int MAX_EXPONENT = 47;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    @VisibleForTesting
+    static final int NUM_BUCKETS = bucketIndex(MAX_VALUE) + 1;
+
+    // The indexes of the count and the sum of the values in a stripe.
+    private static final int COUNT_INDEX = NUM_BUCKETS;
+    private static final int SUM_INDEX = NUM_BUCKETS + 1;
+
+    private static final int MAX_STRIPES = 8;
+    private static final int NUM_STRIPES =
+            Math.min(IntMath.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors()), MAX_STRIPES);
+    private static final AtomicInteger nextStripe = new AtomicInteger();
+    private static final FastThreadLocal<Integer> stripeIndex = new FastThreadLocal<Integer>() {
+        @Override
+        protected Integer initialValue() {
+            return nextStripe.getAndIncrement() & (NUM_STRIPES - 1);
+        }
+    };
+
+    private static final long SNAPSHOT_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Returns a newly-registered {@link StripedHistogram} which is exported as a timer whose values are
+     * in nanoseconds.
+     */
+    static StripedHistogram newTimer(MeterRegistry registry, String name, Iterable<Tag> tags) {
+        final StripedHistogram histogram = new StripedHistogram(rotationIntervalNanos());
+        FunctionTimer.builder(name, histogram, StripedHistogram::count, StripedHistogram::sum,
+                              TimeUnit.NANOSECONDS)
+                     .tags(tags)
+                     .register(registry);
+        TimeGauge.builder(name + ".max", histogram, TimeUnit.NANOSECONDS, StripedHistogram::max)
+                 .tags(tags)
+                 .register(registry);
+        for (double phi : percentiles()) {
+            TimeGauge.builder(name + ".percentile", histogram, TimeUnit.NANOSECONDS, h -> h.percentile(phi))
+                     .tags(tags)
+                     .tag("phi", DoubleFormat.decimalOrNan(phi))
+                     .register(registry);
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns a newly-registered {@link StripedHistogram} which is exported as a distribution summary.
+     */
+    static StripedHistogram newDistributionSummary(MeterRegistry registry, String name, Iterable<Tag> tags) {
+        final StripedHistogram histogram = new StripedHistogram(rotationIntervalNanos());
+        Meter.builder(name, Meter.Type.DISTRIBUTION_SUMMARY,
+                      ImmutableList.of(new Measurement(() -> (double) histogram.count(), Statistic.COUNT),
+                                       new Measurement(() -> (double) histogram.sum(), Statistic.TOTAL),
+                                       new Measurement(() -> (double) histogram.max(), Statistic.MAX)))
+             .tags(tags)
+             .register(registry);
+        for (double phi : percentiles()) {
+            Gauge.builder(name + ".percentile", histogram, h -> h.percentile(phi))
+                 .tags(tags)
+                 .tag("phi", DoubleFormat.decimalOrNan(phi))
+                 .register(registry);
+        }
+        return histogram;
+    }
+
+    private static long rotationIntervalNanos() {
+        final DistributionStatisticConfig config = MoreMeters.distributionStatisticConfig();
+        final Duration expiry = config.getExpiry();
+        final Integer bufferLength = config.getBufferLength();
+        if (expiry == null || bufferLength == null || bufferLength <= 0) {
+            return TimeUnit.MINUTES.toNanos(1);
+        }
+        return Math.max(1, expiry.toNanos() / bufferLength);
+    }
+
+    private static double[] percentiles() {
+        final double[] percentiles = MoreMeters.distributionStatisticConfig().getPercentiles();
+        return percentiles != null ? percentiles : new double[0];
+    }
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(NUM_STRIPES);
+    private final AtomicLongArray baseStripe = new AtomicLongArray(NUM_BUCKETS + 2);
+    private final long rotationIntervalNanos;
+    private volatile boolean contended;
+
+    // Guarded by 'this'
+    private long[] olderBaseline = new long[NUM_BUCKETS];
+    private long[] newerBaseline = new long[NUM_BUCKETS];
+    private long lastRotationNanos = System.nanoTime();
+    @Nullable
+    private long[] windowCounts;
+    private long windowCountsNanos;
+
+    @VisibleForTesting
+    StripedHistogram(long rotationIntervalNanos) {
+        this.rotationIntervalNanos = rotationIntervalNanos;
+        stripes.set(0, baseStripe);
+    }
+
+    /**
+     * Records the specified value. A negative value is ignored.
+     */
+    void record(long value) {
+        if (value < 0) {
+            return;
+        }
+
+        final int bucketIndex = bucketIndex(Math.min(value, MAX_VALUE));
+        if (!contended) {
+            final AtomicLongArray stripe = baseStripe;
+            final long count = stripe.get(COUNT_INDEX);
+            if (stripe.compareAndSet(COUNT_INDEX, count, count + 1)) {
+                stripe.incrementAndGet(bucketIndex);
+                stripe.addAndGet(SUM_INDEX, value);
+                return;
+            }
+            // Another thread is recording a value at the same time. Use the stripe of each thread from now.
+            contended = true;
+        }
+
+        final AtomicLongArray stripe = stripe();
+        stripe.incrementAndGet(bucketIndex);
+        stripe.incrementAndGet(COUNT_INDEX);
+        stripe.addAndGet(SUM_INDEX, value);
+    }
+
+    private AtomicLongArray stripe() {
+        final int index = stripeIndex.get();
+        final AtomicLongArray stripe = stripes.get(index);
+        if (stripe != null) {
+            return stripe;
+        }
+        final AtomicLongArray newStripe = new AtomicLongArray(NUM_BUCKETS + 2);
+        if (stripes.compareAndSet(index, null, newStripe)) {
+            return newStripe;
+        }
+        return stripes.get(index);
+    }
+
+    @VisibleForTesting
+    int numStripes() {
+        int numStripes = 0;
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            if (stripes.get(i) != null) {
+                numStripes++;
+            }
+        }
+        return numStripes;
+    }
+
+    long count() {
+        return sumOf(COUNT_INDEX);
+    }
+
+    long sum() {
+        return sumOf(SUM_INDEX);
+    }
+
+    private long sumOf(int index) {
+        long sum = 0;
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            final AtomicLongArray stripe = stripes.get(i);
+            if (stripe != null) {
+                sum += stripe.get(index);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the approximate maximum of the values recorded in the current window.
+     */
+    long max() {
+        final long[] counts = windowCounts();
+        for (int i = NUM_BUCKETS - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the approximate percentile of the values recorded in the current window.
+     */
+    long percentile(double phi) {
+        final long[] counts = windowCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(phi * total));
+        long cumulative = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return highestEquivalentValue(NUM_BUCKETS - 1);
+    }
+
+    /**
+     * Merges the stripes and returns the number of values in each bucket recorded since the baseline.
+     * The result is reused for {@link #SNAPSHOT_TTL_NANOS}, so that the gauges read in a single scrape
+     * do not merge the stripes again.
+     */
+    private synchronized long[] windowCounts() {
+        final long now = System.nanoTime();
+        if (windowCounts != null && now - windowCountsNanos < SNAPSHOT_TTL_NANOS) {
+            return windowCounts;
+        }
+
+        final long[] current = new long[NUM_BUCKETS];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            final AtomicLongArray stripe = stripes.get(i);
+            if (stripe != null) {
+                for (int j = 0; j < NUM_BUCKETS; j++) {
+                    current[j] += stripe.get(j);
+                }
+            }
+        }
+
+        if (now - lastRotationNanos >= rotationIntervalNanos) {
+            olderBaseline = newerBaseline;
+            newerBaseline = current.clone();
+            lastRotationNanos = now;
+        }
+
+        final long[] counts = new long[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = current[i] - olderBaseline[i];
+        }
+        windowCounts = counts;
+        windowCountsNanos = now;
+        return counts;
+    }
+
+    @VisibleForTesting
+    static int bucketIndex(long value) {
+        if (value < NUM_SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (NUM_SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * NUM_SUB_BUCKETS + subBucket;
+    }
+
+    @VisibleForTesting
+    static long highestEquivalentValue(int bucketIndex) {
+        if (bucketIndex < NUM_SUB_BUCKETS) {
+            return bucketIndex;
+        }
+        final int shift = bucketIndex / NUM_SUB_BUCKETS - 1;
+        final long lowest = (long) (NUM_SUB_BUCKETS + bucketIndex % NUM_SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
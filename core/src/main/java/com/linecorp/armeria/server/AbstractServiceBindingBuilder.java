@@ -21,6 +21,7 @@ import static java.util.Objects.requireNonNull;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 
 import com.linecorp.armeria.common.logging.ContentPreviewerFactory;
@@ -102,6 +103,19 @@ abstract class AbstractServiceBindingBuilder extends AbstractBindingBuilder impl
         return this;
     }
 
+    @Override
+    public AbstractServiceBindingBuilder blockingTaskExecutor(ScheduledExecutorService blockingTaskExecutor,
+                                                              boolean shutdownOnStop) {
+        defaultServiceConfigSetters.blockingTaskExecutor(blockingTaskExecutor, shutdownOnStop);
+        return this;
+    }
+
+    @Override
+    public AbstractServiceBindingBuilder blockingTaskExecutor(int numThreads, int maxPendingTasks) {
+        defaultServiceConfigSetters.blockingTaskExecutor(numThreads, maxPendingTasks);
+        return this;
+    }
+
     @Override
     public AbstractServiceBindingBuilder decorator(
             Function<? super HttpService, ? extends HttpService> decorator) {
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.ThreadFactories;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A {@link ScheduledThreadPoolExecutor} dedicated to the blocking tasks of a service, which rejects a new task
+ * with a {@link RejectedExecutionException} when its queue is full, so that a slow service cannot occupy
+ * the blocking task threads of the other services.
+ *
+ * @see ServiceConfigSetters#blockingTaskExecutor(int, int)
+ */
+final class BoundedScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
+
+    private final int maxPendingTasks;
+    private final LongAdder numRejectedTasks = new LongAdder();
+
+    BoundedScheduledThreadPoolExecutor(int numThreads, int maxPendingTasks) {
+        super(validateNumThreads(numThreads),
+              ThreadFactories.newThreadFactory("armeria-service-blocking-tasks", true));
+        checkArgument(maxPendingTasks > 0, "maxPendingTasks: %s (expected: > 0)", maxPendingTasks);
+        this.maxPendingTasks = maxPendingTasks;
+        setKeepAliveTime(60, TimeUnit.SECONDS);
+        allowCoreThreadTimeOut(true);
+        setRemoveOnCancelPolicy(true);
+    }
+
+    private static int validateNumThreads(int numThreads) {
+        checkArgument(numThreads > 0, "numThreads: %s (expected: > 0)", numThreads);
+        return numThreads;
+    }
+
+    // Note that execute() and submit() delegate to schedule().
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        ensureCapacity();
+        return super.schedule(command, delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        ensureCapacity();
+        return super.schedule(callable, delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+                                                  TimeUnit unit) {
+        ensureCapacity();
+        return super.scheduleAtFixedRate(command, initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                     TimeUnit unit) {
+        ensureCapacity();
+        return super.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+    }
+
+    private void ensureCapacity() {
+        // The queue may grow slightly beyond the limit when tasks are submitted concurrently,
+        // which is fine for the purpose of isolation.
+        if (getQueue().size() >= maxPendingTasks && !isShutdown()) {
+            numRejectedTasks.increment();
+            throw new RejectedExecutionException(
+                    "too many pending blocking tasks (maxPendingTasks: " + maxPendingTasks + ')');
+        }
+    }
+
+    long numRejectedTasks() {
+        return numRejectedTasks.sum();
+    }
+
+    void registerMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        registry.gauge(idPrefix.name("active.threads"), idPrefix.tags(), this,
+                       ScheduledThreadPoolExecutor::getActiveCount);
+        registry.gauge(idPrefix.name("pending.tasks"), idPrefix.tags(), this, e -> e.getQueue().size());
+        registry.more().counter(idPrefix.name("rejected.tasks"), idPrefix.tags(), this,
+                                BoundedScheduledThreadPoolExecutor::numRejectedTasks);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "[maxPendingTasks = " + maxPendingTasks + ']';
+    }
+}
@@ -16,16 +16,20 @@
 
 package com.linecorp.armeria.server;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.linecorp.armeria.server.ServiceConfig.validateMaxRequestLength;
 import static com.linecorp.armeria.server.ServiceConfig.validateRequestTimeoutMillis;
 import static java.util.Objects.requireNonNull;
 
 import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
+
 import com.linecorp.armeria.common.logging.ContentPreviewerFactory;
 import com.linecorp.armeria.internal.ArmeriaHttpUtil;
 import com.linecorp.armeria.server.logging.AccessLogWriter;
@@ -51,6 +55,9 @@ final class DefaultServiceConfigSetters implements ServiceConfigSetters {
     @Nullable
     private AccessLogWriter accessLogWriter;
     private boolean shutdownAccessLogWriterOnStop;
+    @Nullable
+    private Supplier<? extends ScheduledExecutorService> blockingTaskExecutorFactory;
+    private boolean shutdownBlockingTaskExecutorOnStop;
 
     @Override
     public ServiceConfigSetters requestTimeout(Duration requestTimeout) {
@@ -117,6 +124,26 @@ final class DefaultServiceConfigSetters implements ServiceConfigSetters {
         return this;
     }
 
+    @Override
+    public ServiceConfigSetters blockingTaskExecutor(ScheduledExecutorService blockingTaskExecutor,
+                                                     boolean shutdownOnStop) {
+        requireNonNull(blockingTaskExecutor, "blockingTaskExecutor");
+        blockingTaskExecutorFactory = () -> blockingTaskExecutor;
+        shutdownBlockingTaskExecutorOnStop = shutdownOnStop;
+        return this;
+    }
+
+    @Override
+    public ServiceConfigSetters blockingTaskExecutor(int numThreads, int maxPendingTasks) {
+        checkArgument(numThreads > 0, "numThreads: %s (expected: > 0)", numThreads);
+        checkArgument(maxPendingTasks > 0, "maxPendingTasks: %s (expected: > 0)", maxPendingTasks);
+        // Create the executor whenever a Server is built. The routes of this binding share the executor
+        // because a Server invokes this factory only once. See ServiceConfigBuilder.build().
+        blockingTaskExecutorFactory = () -> new BoundedScheduledThreadPoolExecutor(numThreads, maxPendingTasks);
+        shutdownBlockingTaskExecutorOnStop = true;
+        return this;
+    }
+
     @Override
     public ServiceConfigSetters decorator(Function<? super HttpService, ? extends HttpService> decorator) {
         requireNonNull(decorator, "decorator");
@@ -163,6 +190,10 @@ final class DefaultServiceConfigSetters implements ServiceConfigSetters {
         if (accessLogWriter != null) {
             serviceConfigBuilder.accessLogWriter(accessLogWriter, shutdownAccessLogWriterOnStop);
         }
+        if (blockingTaskExecutorFactory != null) {
+            serviceConfigBuilder.blockingTaskExecutor(blockingTaskExecutorFactory,
+                                                      shutdownBlockingTaskExecutorOnStop);
+        }
         return serviceConfigBuilder;
     }
 }
@@ -314,7 +314,7 @@ public class DefaultServiceRequestContext extends NonWrappingRequestContext impl
             return blockingTaskExecutor;
         }
 
-        return blockingTaskExecutor = makeContextAware(server().config().blockingTaskExecutor());
+        return blockingTaskExecutor = makeContextAware(cfg.blockingTaskExecutor());
     }
 
     @Override
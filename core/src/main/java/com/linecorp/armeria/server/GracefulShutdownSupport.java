@@ -17,11 +17,15 @@
 package com.linecorp.armeria.server;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.internal.VirtualThreadBlockingTaskExecutor;
 
 /**
  * Keeps track of pending requests to allow shutdown to happen after a fixed quiet period passes
@@ -29,12 +33,14 @@ import com.google.common.base.Ticker;
  */
 abstract class GracefulShutdownSupport {
 
-    static GracefulShutdownSupport create(Duration quietPeriod, Executor blockingTaskExecutor) {
-        return create(quietPeriod, blockingTaskExecutor, Ticker.systemTicker());
+    static GracefulShutdownSupport create(Duration quietPeriod,
+                                          List<? extends Executor> blockingTaskExecutors) {
+        return create(quietPeriod, blockingTaskExecutors, Ticker.systemTicker());
     }
 
-    static GracefulShutdownSupport create(Duration quietPeriod, Executor blockingTaskExecutor, Ticker ticker) {
-        return new DefaultGracefulShutdownSupport(quietPeriod, blockingTaskExecutor, ticker);
+    static GracefulShutdownSupport create(Duration quietPeriod, List<? extends Executor> blockingTaskExecutors,
+                                          Ticker ticker) {
+        return new DefaultGracefulShutdownSupport(quietPeriod, blockingTaskExecutors, ticker);
     }
 
     static GracefulShutdownSupport createDisabled() {
@@ -97,7 +103,7 @@ abstract class GracefulShutdownSupport {
 
         private final long quietPeriodNanos;
         private final Ticker ticker;
-        private final Executor blockingTaskExecutor;
+        private final List<Executor> blockingTaskExecutors;
 
         /**
          * NOTE: {@link #updatedLastResTimeNanos} and {@link #lastResTimeNanos} are declared as non-volatile
@@ -109,9 +115,10 @@ abstract class GracefulShutdownSupport {
         private boolean setShutdownStartTimeNanos;
         private long shutdownStartTimeNanos;
 
-        DefaultGracefulShutdownSupport(Duration quietPeriod, Executor blockingTaskExecutor, Ticker ticker) {
+        DefaultGracefulShutdownSupport(Duration quietPeriod, List<? extends Executor> blockingTaskExecutors,
+                                       Ticker ticker) {
             quietPeriodNanos = quietPeriod.toNanos();
-            this.blockingTaskExecutor = blockingTaskExecutor;
+            this.blockingTaskExecutors = ImmutableList.copyOf(blockingTaskExecutors);
             this.ticker = ticker;
         }
 
@@ -162,6 +169,18 @@ abstract class GracefulShutdownSupport {
         }
 
         private boolean completedBlockingTasks() {
+            for (Executor blockingTaskExecutor : blockingTaskExecutors) {
+                if (!completedBlockingTasks(blockingTaskExecutor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean completedBlockingTasks(Executor blockingTaskExecutor) {
+            if (blockingTaskExecutor instanceof VirtualThreadBlockingTaskExecutor) {
+                return !((VirtualThreadBlockingTaskExecutor) blockingTaskExecutor).hasPendingTasks();
+            }
             if (!(blockingTaskExecutor instanceof ThreadPoolExecutor)) {
                 // Cannot determine if there's a blocking task.
                 return true;
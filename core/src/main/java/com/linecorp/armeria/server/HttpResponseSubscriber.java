@@ -20,7 +20,7 @@ import static com.linecorp.armeria.internal.ArmeriaHttpUtil.isTrailerBlacklisted
 
 import java.nio.channels.ClosedChannelException;
 import java.util.Set;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
@@ -47,6 +47,9 @@ import com.linecorp.armeria.common.logging.RequestLogAvailability;
 import com.linecorp.armeria.common.logging.RequestLogBuilder;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.common.util.Version;
+import com.linecorp.armeria.internal.CoarseClock;
+import com.linecorp.armeria.internal.HashedTimingWheel;
+import com.linecorp.armeria.internal.HashedTimingWheel.Timeout;
 import com.linecorp.armeria.internal.Http1ObjectEncoder;
 import com.linecorp.armeria.internal.HttpObjectEncoder;
 import com.linecorp.armeria.internal.HttpTimestampSupplier;
@@ -90,7 +93,7 @@ final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTim
     @Nullable
     private Subscription subscription;
     @Nullable
-    private ScheduledFuture<?> timeoutFuture;
+    private Timeout timeout;
     private State state = State.NEEDS_HEADERS;
     private boolean isComplete;
 
@@ -105,7 +108,7 @@ final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTim
         this.reqCtx = reqCtx;
         this.enableServerHeader = enableServerHeader;
         this.enableDateHeader = enableDateHeader;
-        startTimeNanos = System.nanoTime();
+        startTimeNanos = CoarseClock.nanoTime();
     }
 
     private HttpService service() {
@@ -123,11 +126,12 @@ final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTim
 
         if (newRequestTimeoutMillis > 0 && state != State.DONE) {
             // Calculate the amount of time passed since the creation of this subscriber.
-            final long passedTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
+            final long passedTimeMillis =
+                    TimeUnit.NANOSECONDS.toMillis(CoarseClock.nanoTime() - startTimeNanos);
 
             if (passedTimeMillis < newRequestTimeoutMillis) {
-                timeoutFuture = ctx.channel().eventLoop().schedule(
-                        this::onTimeout,
+                timeout = HashedTimingWheel.newTimeout(
+                        ctx.channel().eventLoop(), this::onTimeout,
                         newRequestTimeoutMillis - passedTimeMillis, TimeUnit.MILLISECONDS);
             } else {
                 // We went past the dead line set by the new timeout already.
@@ -282,6 +286,9 @@ final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTim
             failAndRespond(cause,
                            AggregatedHttpResponse.of(((HttpStatusException) cause).httpStatus()),
                            Http2Error.CANCEL);
+        } else if (Exceptions.peel(cause) instanceof RejectedExecutionException) {
+            // The blocking task executor of the service is full or shut down.
+            failAndRespond(cause, SERVICE_UNAVAILABLE_MESSAGE, Http2Error.CANCEL);
         } else if (Exceptions.isStreamCancelling(cause)) {
             failAndReset(cause);
         } else {
@@ -504,13 +511,13 @@ final class HttpResponseSubscriber implements Subscriber<HttpObject>, RequestTim
     }
 
     private boolean cancelTimeout() {
-        final ScheduledFuture<?> timeoutFuture = this.timeoutFuture;
-        if (timeoutFuture == null) {
+        final Timeout timeout = this.timeout;
+        if (timeout == null) {
             return true;
         }
 
-        this.timeoutFuture = null;
-        return timeoutFuture.cancel(false);
+        this.timeout = null;
+        return timeout.cancel();
     }
 
     private IllegalStateException newIllegalStateException(String msg) {
@@ -28,6 +28,7 @@ import static java.util.Objects.requireNonNull;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.IdentityHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -59,6 +60,7 @@ import com.linecorp.armeria.common.util.CompletionActions;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.common.util.SafeCloseable;
 import com.linecorp.armeria.internal.AbstractHttp2ConnectionHandler;
+import com.linecorp.armeria.internal.DeadlineUtil;
 import com.linecorp.armeria.internal.Http1ObjectEncoder;
 import com.linecorp.armeria.internal.Http2ObjectEncoder;
 import com.linecorp.armeria.internal.HttpObjectEncoder;
@@ -351,6 +353,19 @@ final class HttpServerHandler extends ChannelInboundHandlerAdapter implements Ht
                 nextRequestId(), routingCtx, routingResult,
                 req, sslSession, proxiedAddresses, clientAddress);
 
+        final long propagatedTimeoutMillis = DeadlineUtil.timeoutMillis(headers);
+        if (propagatedTimeoutMillis == 0) {
+            // The client gave up already; do not waste time on serving the request.
+            respond(ctx, reqCtx, HttpStatus.SERVICE_UNAVAILABLE, null, RequestTimeoutException.get());
+            return;
+        }
+        if (propagatedTimeoutMillis > 0) {
+            final long requestTimeoutMillis = reqCtx.requestTimeoutMillis();
+            if (requestTimeoutMillis == 0 || propagatedTimeoutMillis < requestTimeoutMillis) {
+                reqCtx.setRequestTimeoutMillis(propagatedTimeoutMillis);
+            }
+        }
+
         try (SafeCloseable ignored = reqCtx.push()) {
             final RequestLogBuilder logBuilder = reqCtx.logBuilder();
             HttpResponse serviceResponse;
@@ -366,6 +381,10 @@ final class HttpServerHandler extends ChannelInboundHandlerAdapter implements Ht
                     status = ((HttpStatusException) cause).httpStatus();
                     // We don't want to log HttpStatusException and HttpResponseException as the cause.
                     newCause = null;
+                } else if (cause instanceof RejectedExecutionException) {
+                    // The blocking task executor of the service is full or shut down.
+                    status = HttpStatus.SERVICE_UNAVAILABLE;
+                    newCause = cause;
                 } else {
                     logger.warn("{} Unexpected exception: {}, {}", reqCtx, service, req, cause);
                     status = HttpStatus.INTERNAL_SERVER_ERROR;
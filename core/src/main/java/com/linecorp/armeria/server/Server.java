@@ -54,8 +54,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
 import com.spotify.futures.CompletableFutures;
 
+import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.util.EventLoopGroups;
@@ -63,10 +65,13 @@ import com.linecorp.armeria.common.util.StartStopSupport;
 import com.linecorp.armeria.common.util.Version;
 import com.linecorp.armeria.internal.ChannelUtil;
 import com.linecorp.armeria.internal.ConnectionLimitingHandler;
+import com.linecorp.armeria.internal.HeaderValueCache;
 import com.linecorp.armeria.internal.PathAndQuery;
 import com.linecorp.armeria.internal.TransportType;
+import com.linecorp.armeria.internal.VirtualThreads;
 import com.linecorp.armeria.server.logging.AccessLogWriter;
 
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
@@ -78,6 +83,8 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
+import io.netty.handler.ssl.OpenSslContext;
+import io.netty.handler.ssl.OpenSslSessionStats;
 import io.netty.handler.ssl.SslContext;
 import io.netty.util.DomainNameMapping;
 import io.netty.util.concurrent.FastThreadLocalThread;
@@ -124,8 +131,16 @@ public final class Server implements AutoCloseable {
         // Server-wide cache metrics.
         final MeterIdPrefix idPrefix = new MeterIdPrefix("armeria.server.parsedPathCache");
         PathAndQuery.registerMetrics(config.meterRegistry(), idPrefix);
+        HeaderValueCache.registerMetrics(config.meterRegistry(),
+                                         new MeterIdPrefix("armeria.server.headerValueCache"));
+        if (Flags.useVirtualThreadBlockingTaskExecutor()) {
+            VirtualThreads.registerMetrics(config.meterRegistry(),
+                                           new MeterIdPrefix("armeria.server.virtualThreads"));
+        }
+        setupBlockingTaskExecutorMetrics();
 
         setupVersionMetrics();
+        setupTlsSessionMetrics();
 
         // Invoke the serviceAdded() method in Service so that it can keep the reference to this Server or
         // add a listener to it.
@@ -329,6 +344,54 @@ public final class Server implements AutoCloseable {
              .register(meterRegistry);
     }
 
+    /**
+     * Sets up the metrics which count the full and resumed TLS handshakes of each {@link OpenSslContext}.
+     * Note that the JDK SSL engine does not expose such statistics.
+     */
+    private void setupTlsSessionMetrics() {
+        final MeterRegistry meterRegistry = config().meterRegistry();
+        final Set<SslContext> seen = Sets.newIdentityHashSet();
+        for (VirtualHost h : config().virtualHosts()) {
+            final SslContext sslContext = h.sslContext();
+            if (!(sslContext instanceof OpenSslContext) || !seen.add(sslContext)) {
+                continue;
+            }
+
+            final OpenSslSessionStats stats = ((OpenSslContext) sslContext).sessionContext().stats();
+            final String hostnamePattern = h.hostnamePattern();
+            FunctionCounter.builder("armeria.server.tls.handshakes", stats, OpenSslSessionStats::hits)
+                           .tags("hostnamePattern", hostnamePattern, "type", "resumed")
+                           .description("The number of TLS handshakes which resumed a previous session")
+                           .register(meterRegistry);
+            FunctionCounter.builder("armeria.server.tls.handshakes", stats,
+                                    s -> Math.max(0, s.acceptGood() - s.hits()))
+                           .tags("hostnamePattern", hostnamePattern, "type", "full")
+                           .description("The number of TLS handshakes which established a new session")
+                           .register(meterRegistry);
+        }
+    }
+
+    private void setupBlockingTaskExecutorMetrics() {
+        final MeterRegistry meterRegistry = config().meterRegistry();
+        final Set<ScheduledExecutorService> seen = Sets.newIdentityHashSet();
+        for (ServiceConfig cfg : config().serviceConfigs()) {
+            if (!cfg.hasBlockingTaskExecutor()) {
+                continue;
+            }
+            final ScheduledExecutorService executor = cfg.blockingTaskExecutor();
+            if (!(executor instanceof BoundedScheduledThreadPoolExecutor) || !seen.add(executor)) {
+                continue;
+            }
+
+            // An executor shared by the routes of a service binding is tagged with its first route.
+            ((BoundedScheduledThreadPoolExecutor) executor).registerMetrics(
+                    meterRegistry,
+                    new MeterIdPrefix("armeria.server.blocking.tasks",
+                                      "hostnamePattern", cfg.virtualHost().hostnamePattern(),
+                                      "route", cfg.route().meterTag()));
+        }
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
@@ -354,7 +417,7 @@ public final class Server implements AutoCloseable {
             } else {
                 gracefulShutdownSupport =
                         GracefulShutdownSupport.create(config().gracefulShutdownQuietPeriod(),
-                                                       config().blockingTaskExecutor());
+                                                       blockingTaskExecutors());
             }
 
             // Initialize the server sockets asynchronously.
@@ -540,28 +603,14 @@ public final class Server implements AutoCloseable {
             serverChannels.clear();
 
             if (config.shutdownBlockingTaskExecutorOnStop()) {
-                final ScheduledExecutorService executor;
-                final ScheduledExecutorService blockingTaskExecutor = config.blockingTaskExecutor();
-                if (blockingTaskExecutor instanceof UnstoppableScheduledExecutorService) {
-                    executor =
-                            ((UnstoppableScheduledExecutorService) blockingTaskExecutor).getExecutorService();
-                } else {
-                    executor = blockingTaskExecutor;
-                }
-
-                try {
-                    executor.shutdown();
-                    while (!executor.isTerminated()) {
-                        try {
-                            executor.awaitTermination(1, TimeUnit.DAYS);
-                        } catch (InterruptedException ignore) {
-                            // Do nothing.
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to shutdown the blockingTaskExecutor: {}", executor, e);
-                }
+                shutdownBlockingTaskExecutor(config.blockingTaskExecutor());
             }
+            config.serviceConfigs()
+                  .stream()
+                  .filter(ServiceConfig::shutdownBlockingTaskExecutorOnStop)
+                  .map(ServiceConfig::blockingTaskExecutor)
+                  .distinct()
+                  .forEach(this::shutdownBlockingTaskExecutor);
 
             final Builder<AccessLogWriter> builder = ImmutableSet.builder();
             config.virtualHosts()
@@ -588,6 +637,43 @@ public final class Server implements AutoCloseable {
                               .thenRunAsync(() -> future.complete(null), config.startStopExecutor());
         }
 
+        /**
+         * Returns the server-wide blocking task executor and the distinct ones dedicated to services,
+         * so that the graceful shutdown waits for the blocking tasks of all services.
+         */
+        private List<ScheduledExecutorService> blockingTaskExecutors() {
+            final Builder<ScheduledExecutorService> builder = ImmutableSet.builder();
+            builder.add(unwrap(config().blockingTaskExecutor()));
+            config().serviceConfigs()
+                    .stream()
+                    .filter(ServiceConfig::hasBlockingTaskExecutor)
+                    .forEach(cfg -> builder.add(unwrap(cfg.blockingTaskExecutor())));
+            return builder.build().asList();
+        }
+
+        private void shutdownBlockingTaskExecutor(ScheduledExecutorService blockingTaskExecutor) {
+            final ScheduledExecutorService executor = unwrap(blockingTaskExecutor);
+            try {
+                executor.shutdown();
+                while (!executor.isTerminated()) {
+                    try {
+                        executor.awaitTermination(1, TimeUnit.DAYS);
+                    } catch (InterruptedException ignore) {
+                        // Do nothing.
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to shutdown the blockingTaskExecutor: {}", executor, e);
+            }
+        }
+
+        private ScheduledExecutorService unwrap(ScheduledExecutorService blockingTaskExecutor) {
+            if (blockingTaskExecutor instanceof UnstoppableScheduledExecutorService) {
+                return ((UnstoppableScheduledExecutorService) blockingTaskExecutor).getExecutorService();
+            }
+            return blockingTaskExecutor;
+        }
+
         @Override
         protected void notifyStarting(ServerListener listener, @Nullable Void arg) throws Exception {
             listener.serverStarting(Server.this);
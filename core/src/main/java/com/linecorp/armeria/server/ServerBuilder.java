@@ -36,6 +36,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -153,6 +154,9 @@ public final class ServerBuilder {
 
     private final List<ServerPort> ports = new ArrayList<>();
     private final List<ServerListener> serverListeners = new ArrayList<>();
+    @Nullable
+    private TlsSessionTicketKeyProvider tlsSessionTicketKeyProvider;
+    private long tlsSessionTicketKeyRefreshIntervalMillis;
     @VisibleForTesting
     final VirtualHostBuilder virtualHostTemplate = new VirtualHostBuilder(this, false);
     private final VirtualHostBuilder defaultVirtualHostBuilder = new VirtualHostBuilder(this, true);
@@ -1030,6 +1034,24 @@ public final class ServerBuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link TlsSessionTicketKeyProvider} which provides the keys for encrypting and decrypting
+     * the TLS session tickets. The keys are set to the {@link SslContext}s of all {@link VirtualHost}s when
+     * the {@link Server} starts and then refreshed every {@code refreshInterval}, so that the servers
+     * sharing the same provider can resume the TLS sessions established by each other.
+     * Note that this option is effective only when OpenSSL is used.
+     */
+    public ServerBuilder tlsSessionTicketKeyProvider(TlsSessionTicketKeyProvider provider,
+                                                     Duration refreshInterval) {
+        requireNonNull(provider, "provider");
+        requireNonNull(refreshInterval, "refreshInterval");
+        checkArgument(!refreshInterval.isNegative() && !refreshInterval.isZero(),
+                      "refreshInterval: %s (expected: > 0)", refreshInterval);
+        tlsSessionTicketKeyProvider = provider;
+        tlsSessionTicketKeyRefreshIntervalMillis = refreshInterval.toMillis();
+        return this;
+    }
+
     /**
      * Sets the default hostname of the default {@link VirtualHostBuilder}.
      */
@@ -1482,11 +1504,15 @@ public final class ServerBuilder {
      * Returns a newly-created {@link Server} based on the configuration properties set so far.
      */
     public Server build() {
+        // Create the blocking task executors of the services anew for each Server, because they are
+        // shut down when the Server stops.
+        final Map<Supplier<? extends ScheduledExecutorService>, ScheduledExecutorService>
+                blockingTaskExecutors = new IdentityHashMap<>();
         final VirtualHost defaultVirtualHost =
-                defaultVirtualHostBuilder.build(virtualHostTemplate);
+                defaultVirtualHostBuilder.build(virtualHostTemplate, blockingTaskExecutors);
         final List<VirtualHost> virtualHosts =
                 virtualHostBuilders.stream()
-                                   .map(vhb -> vhb.build(virtualHostTemplate))
+                                   .map(vhb -> vhb.build(virtualHostTemplate, blockingTaskExecutors))
                                    .collect(toImmutableList());
 
         // Pre-populate the domain name mapping for later matching.
@@ -1553,6 +1579,10 @@ public final class ServerBuilder {
                 enableServerHeader, enableDateHeader, requestIdGenerator), sslContexts);
 
         serverListeners.forEach(server::addListener);
+        if (tlsSessionTicketKeyProvider != null) {
+            server.addListener(new TlsSessionTicketKeyUpdater(tlsSessionTicketKeyProvider,
+                                                              tlsSessionTicketKeyRefreshIntervalMillis));
+        }
         return server;
     }
 
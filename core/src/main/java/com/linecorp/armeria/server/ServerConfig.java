@@ -88,6 +88,7 @@ public final class ServerConfig {
     private final Duration gracefulShutdownTimeout;
 
     private final ScheduledExecutorService blockingTaskExecutor;
+    private final ScheduledExecutorService unwrappedBlockingTaskExecutor;
     private final boolean shutdownBlockingTaskExecutorOnStop;
 
     private final MeterRegistry meterRegistry;
@@ -160,6 +161,7 @@ public final class ServerConfig {
                                    gracefulShutdownQuietPeriod, "gracefulShutdownQuietPeriod");
 
         requireNonNull(blockingTaskExecutor, "blockingTaskExecutor");
+        unwrappedBlockingTaskExecutor = blockingTaskExecutor;
         if (!(blockingTaskExecutor instanceof TimedExecutorService)) {
             blockingTaskExecutor = ExecutorServiceMetrics.monitor(meterRegistry, blockingTaskExecutor,
                                                                   "armeriaBlockingTaskExecutor");
@@ -558,6 +560,16 @@ public final class ServerConfig {
         return blockingTaskExecutor;
     }
 
+    /**
+     * Returns the {@link ScheduledExecutorService} dedicated to the execution of blocking tasks as it was
+     * specified, i.e. without the wrappers which collect its metrics and prevent it from being shut down.
+     * Use this method only to inspect the state of the executor, e.g. the number of queued tasks, and
+     * submit tasks via {@link #blockingTaskExecutor()}.
+     */
+    public ScheduledExecutorService unwrappedBlockingTaskExecutor() {
+        return unwrappedBlockingTaskExecutor;
+    }
+
     /**
      * Returns whether the worker {@link Executor} is shut down when the {@link Server} stops.
      */
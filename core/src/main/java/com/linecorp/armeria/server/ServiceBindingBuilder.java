@@ -20,6 +20,7 @@ import static java.util.Objects.requireNonNull;
 
 import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -214,6 +215,17 @@ public final class ServiceBindingBuilder extends AbstractServiceBindingBuilder {
         return (ServiceBindingBuilder) super.accessLogWriter(accessLogWriter, shutdownOnStop);
     }
 
+    @Override
+    public ServiceBindingBuilder blockingTaskExecutor(ScheduledExecutorService blockingTaskExecutor,
+                                                      boolean shutdownOnStop) {
+        return (ServiceBindingBuilder) super.blockingTaskExecutor(blockingTaskExecutor, shutdownOnStop);
+    }
+
+    @Override
+    public ServiceBindingBuilder blockingTaskExecutor(int numThreads, int maxPendingTasks) {
+        return (ServiceBindingBuilder) super.blockingTaskExecutor(numThreads, maxPendingTasks);
+    }
+
     @Override
     public ServiceBindingBuilder decorator(Function<? super HttpService, ? extends HttpService> decorator) {
         return (ServiceBindingBuilder) super.decorator(decorator);
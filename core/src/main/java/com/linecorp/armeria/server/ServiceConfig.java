@@ -19,6 +19,7 @@ package com.linecorp.armeria.server;
 import static java.util.Objects.requireNonNull;
 
 import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -61,6 +62,9 @@ public final class ServiceConfig {
     private final ContentPreviewerFactory responseContentPreviewerFactory;
     private final AccessLogWriter accessLogWriter;
     private final boolean shutdownAccessLogWriterOnStop;
+    @Nullable
+    private final ScheduledExecutorService blockingTaskExecutor;
+    private final boolean shutdownBlockingTaskExecutorOnStop;
     private final boolean handlesCorsPreflight;
 
     /**
@@ -73,9 +77,27 @@ public final class ServiceConfig {
                   ContentPreviewerFactory requestContentPreviewerFactory,
                   ContentPreviewerFactory responseContentPreviewerFactory, AccessLogWriter accessLogWriter,
                   boolean shutdownAccessLogWriterOnStop) {
+        this(route, service, loggerName, requestTimeoutMillis, maxRequestLength, verboseResponses,
+             requestContentPreviewerFactory, responseContentPreviewerFactory, accessLogWriter,
+             shutdownAccessLogWriterOnStop, null, false);
+    }
+
+    /**
+     * Creates a new instance.
+     */
+    ServiceConfig(Route route,
+                  HttpService service,
+                  @Nullable String loggerName, long requestTimeoutMillis,
+                  long maxRequestLength, boolean verboseResponses,
+                  ContentPreviewerFactory requestContentPreviewerFactory,
+                  ContentPreviewerFactory responseContentPreviewerFactory, AccessLogWriter accessLogWriter,
+                  boolean shutdownAccessLogWriterOnStop,
+                  @Nullable ScheduledExecutorService blockingTaskExecutor,
+                  boolean shutdownBlockingTaskExecutorOnStop) {
         this(null, route, service, loggerName, requestTimeoutMillis, maxRequestLength,
              verboseResponses, requestContentPreviewerFactory, responseContentPreviewerFactory,
-             accessLogWriter, shutdownAccessLogWriterOnStop);
+             accessLogWriter, shutdownAccessLogWriterOnStop, blockingTaskExecutor,
+             shutdownBlockingTaskExecutorOnStop);
     }
 
     /**
@@ -87,7 +109,9 @@ public final class ServiceConfig {
                           long maxRequestLength, boolean verboseResponses,
                           ContentPreviewerFactory requestContentPreviewerFactory,
                           ContentPreviewerFactory responseContentPreviewerFactory,
-                          AccessLogWriter accessLogWriter, boolean shutdownAccessLogWriterOnStop) {
+                          AccessLogWriter accessLogWriter, boolean shutdownAccessLogWriterOnStop,
+                          @Nullable ScheduledExecutorService blockingTaskExecutor,
+                          boolean shutdownBlockingTaskExecutorOnStop) {
         this.virtualHost = virtualHost;
         this.route = requireNonNull(route, "route");
         this.service = requireNonNull(service, "service");
@@ -101,6 +125,8 @@ public final class ServiceConfig {
                                                               "responseContentPreviewerFactory");
         this.accessLogWriter = requireNonNull(accessLogWriter, "accessLogWriter");
         this.shutdownAccessLogWriterOnStop = shutdownAccessLogWriterOnStop;
+        this.blockingTaskExecutor = blockingTaskExecutor;
+        this.shutdownBlockingTaskExecutorOnStop = shutdownBlockingTaskExecutorOnStop;
 
         handlesCorsPreflight = service.as(CorsService.class).isPresent();
     }
@@ -133,7 +159,8 @@ public final class ServiceConfig {
         return new ServiceConfig(virtualHost, route, service, loggerName, requestTimeoutMillis,
                                  maxRequestLength, verboseResponses, requestContentPreviewerFactory,
                                  responseContentPreviewerFactory, accessLogWriter,
-                                 shutdownAccessLogWriterOnStop);
+                                 shutdownAccessLogWriterOnStop, blockingTaskExecutor,
+                                 shutdownBlockingTaskExecutorOnStop);
     }
 
     ServiceConfig withDecoratedService(Function<? super HttpService, ? extends HttpService> decorator) {
@@ -141,7 +168,8 @@ public final class ServiceConfig {
         return new ServiceConfig(virtualHost, route, service.decorate(decorator), loggerName,
                                  requestTimeoutMillis, maxRequestLength, verboseResponses,
                                  requestContentPreviewerFactory, responseContentPreviewerFactory,
-                                 accessLogWriter, shutdownAccessLogWriterOnStop);
+                                 accessLogWriter, shutdownAccessLogWriterOnStop, blockingTaskExecutor,
+                                 shutdownBlockingTaskExecutorOnStop);
     }
 
     /**
@@ -254,6 +282,35 @@ public final class ServiceConfig {
         return shutdownAccessLogWriterOnStop;
     }
 
+    /**
+     * Returns the {@link ScheduledExecutorService} dedicated to the blocking tasks of the {@link #service()},
+     * or the {@linkplain ServerConfig#blockingTaskExecutor() server-wide one} if not set.
+     *
+     * @see ServiceRequestContext#blockingTaskExecutor()
+     */
+    public ScheduledExecutorService blockingTaskExecutor() {
+        if (blockingTaskExecutor != null) {
+            return blockingTaskExecutor;
+        }
+        return server().config().blockingTaskExecutor();
+    }
+
+    /**
+     * Tells whether the {@link ScheduledExecutorService} dedicated to the blocking tasks of
+     * the {@link #service()} is shut down when the {@link Server} stops. {@code false} is returned if
+     * the {@link #service()} uses the {@linkplain ServerConfig#blockingTaskExecutor() server-wide one}.
+     */
+    public boolean shutdownBlockingTaskExecutorOnStop() {
+        return blockingTaskExecutor != null && shutdownBlockingTaskExecutorOnStop;
+    }
+
+    /**
+     * Returns whether the {@link #service()} has its own blocking task executor.
+     */
+    boolean hasBlockingTaskExecutor() {
+        return blockingTaskExecutor != null;
+    }
+
     /**
      * Returns {@code true} if the service has {@link CorsDecorator} in the decorator chain.
      */
@@ -277,6 +334,8 @@ public final class ServiceConfig {
                              .add("responseContentPreviewerFactory", responseContentPreviewerFactory)
                              .add("accessLogWriter", accessLogWriter)
                              .add("shutdownAccessLogWriterOnStop", shutdownAccessLogWriterOnStop)
+                             .add("blockingTaskExecutor", blockingTaskExecutor)
+                             .add("shutdownBlockingTaskExecutorOnStop", shutdownBlockingTaskExecutorOnStop)
                              .toString();
     }
 }
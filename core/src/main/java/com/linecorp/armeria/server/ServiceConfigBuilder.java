@@ -18,6 +18,10 @@ package com.linecorp.armeria.server;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
 import javax.annotation.Nullable;
 
 import com.google.common.base.MoreObjects;
@@ -45,6 +49,9 @@ final class ServiceConfigBuilder {
     @Nullable
     private AccessLogWriter accessLogWriter;
     private boolean shutdownAccessLogWriterOnStop;
+    @Nullable
+    private Supplier<? extends ScheduledExecutorService> blockingTaskExecutorFactory;
+    private boolean shutdownBlockingTaskExecutorOnStop;
 
     ServiceConfigBuilder(Route route, HttpService service) {
         this.route = requireNonNull(route, "route");
@@ -119,13 +126,26 @@ final class ServiceConfigBuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link Supplier} of the blocking task executor, which is invoked once per {@link Server}
+     * when the {@link ServiceConfig} is built.
+     */
+    ServiceConfigBuilder blockingTaskExecutor(Supplier<? extends ScheduledExecutorService> factory,
+                                              boolean shutdownOnStop) {
+        blockingTaskExecutorFactory = factory;
+        shutdownBlockingTaskExecutorOnStop = shutdownOnStop;
+        return this;
+    }
+
     ServiceConfig build(long defaultRequestTimeoutMillis,
                         long defaultMaxRequestLength,
                         boolean defaultVerboseResponses,
                         ContentPreviewerFactory defaultRequestContentPreviewerFactory,
                         ContentPreviewerFactory defaultResponseContentPreviewerFactory,
                         AccessLogWriter defaultAccessLogWriter,
-                        boolean defaultShutdownAccessLogWriterOnStop) {
+                        boolean defaultShutdownAccessLogWriterOnStop,
+                        Map<Supplier<? extends ScheduledExecutorService>,
+                                ScheduledExecutorService> blockingTaskExecutors) {
         return new ServiceConfig(
                 route, service, loggerName,
                 requestTimeoutMillis != null ? requestTimeoutMillis : defaultRequestTimeoutMillis,
@@ -136,7 +156,10 @@ final class ServiceConfigBuilder {
                 responseContentPreviewerFactory != null ? responseContentPreviewerFactory
                                                         : defaultResponseContentPreviewerFactory,
                 accessLogWriter != null ? accessLogWriter : defaultAccessLogWriter,
-                accessLogWriter != null ? shutdownAccessLogWriterOnStop : defaultShutdownAccessLogWriterOnStop);
+                accessLogWriter != null ? shutdownAccessLogWriterOnStop : defaultShutdownAccessLogWriterOnStop,
+                blockingTaskExecutorFactory != null ? blockingTaskExecutors.computeIfAbsent(
+                        blockingTaskExecutorFactory, Supplier::get) : null,
+                shutdownBlockingTaskExecutorOnStop);
     }
 
     @Override
@@ -152,6 +175,8 @@ final class ServiceConfigBuilder {
                           .add("responseContentPreviewerFactory", responseContentPreviewerFactory)
                           .add("accessLogWriter", accessLogWriter)
                           .add("shutdownAccessLogWriterOnStop", shutdownAccessLogWriterOnStop)
+                          .add("blockingTaskExecutorFactory", blockingTaskExecutorFactory)
+                          .add("shutdownBlockingTaskExecutorOnStop", shutdownBlockingTaskExecutorOnStop)
                           .toString();
     }
 }
@@ -18,6 +18,8 @@ package com.linecorp.armeria.server;
 
 import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 
 import com.linecorp.armeria.common.logging.ContentPreviewer;
@@ -124,6 +126,31 @@ interface ServiceConfigSetters {
     ServiceConfigSetters accessLogWriter(AccessLogWriter accessLogWriter,
                                          boolean shutdownOnStop);
 
+    /**
+     * Sets the {@link ScheduledExecutorService} dedicated to the blocking tasks of an {@link HttpService},
+     * i.e. the tasks submitted to {@link ServiceRequestContext#blockingTaskExecutor()}, so that the slow
+     * blocking tasks of one {@link HttpService} do not occupy the threads of the other ones. If not set,
+     * the {@link ScheduledExecutorService} set via
+     * {@link ServerBuilder#blockingTaskExecutor(ScheduledExecutorService, boolean)} is used.
+     *
+     * @param shutdownOnStop whether to shut down the {@link ScheduledExecutorService} when the {@link Server}
+     *                       stops
+     */
+    ServiceConfigSetters blockingTaskExecutor(ScheduledExecutorService blockingTaskExecutor,
+                                              boolean shutdownOnStop);
+
+    /**
+     * Sets up a new blocking task executor dedicated to an {@link HttpService}, which has at most
+     * {@code numThreads} threads and rejects a new task with a {@link RejectedExecutionException} when
+     * {@code maxPendingTasks} tasks are waiting for a thread already, which results in
+     * a {@code 503 Service Unavailable} response. The executor is created when the {@link Server} is built
+     * and shut down when the {@link Server} stops, and its number of active threads, pending tasks and
+     * rejected tasks are exported under the {@code "armeria.server.blocking.tasks"} meter name prefix.
+     *
+     * @see #blockingTaskExecutor(ScheduledExecutorService, boolean)
+     */
+    ServiceConfigSetters blockingTaskExecutor(int numThreads, int maxPendingTasks);
+
     /**
      * Decorates an {@link HttpService} with the specified {@code decorator}.
      *
@@ -213,7 +213,9 @@ public interface ServiceRequestContext extends RequestContext {
     /**
      * Returns the {@link ScheduledExecutorService} that could be used for executing a potentially
      * long-running task. The {@link ScheduledExecutorService} will propagate the {@link ServiceRequestContext}
-     * automatically when running a task.
+     * automatically when running a task. It is the blocking task executor dedicated to the {@link Service},
+     * if set via {@link ServiceBindingBuilder#blockingTaskExecutor(ScheduledExecutorService, boolean)},
+     * or the {@linkplain ServerConfig#blockingTaskExecutor() server-wide one} otherwise.
      *
      * <p>Note that performing a long-running task in {@link Service#serve(ServiceRequestContext, Request)}
      * may block the {@link Server}'s I/O event loop and thus should be executed in other threads.
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+
+/**
+ * Provides the keys which are used for encrypting and decrypting the TLS session tickets, so that
+ * the clients can resume their sessions without a full handshake even after reconnecting to another
+ * {@link Server} which shares the same keys.
+ *
+ * <p>The {@link Server} gets the keys when it starts and every refresh interval specified with
+ * {@link ServerBuilder#tlsSessionTicketKeyProvider(TlsSessionTicketKeyProvider, Duration)}, so
+ * the keys can be rotated by returning a new key list. The first key is used for encrypting new tickets
+ * and all keys are used for decrypting the tickets, so a key should remain in the list for a while after
+ * it is replaced as the first key.
+ *
+ * <p>Note that the session tickets are supported only with OpenSSL. See {@code Flags#useOpenSsl()}.
+ */
+@FunctionalInterface
+public interface TlsSessionTicketKeyProvider {
+
+    /**
+     * Returns the current session ticket keys. This method is invoked from
+     * {@link ServerConfig#blockingTaskExecutor()}, so it may perform a blocking operation such as reading
+     * the keys from a secret store.
+     */
+    List<OpenSslSessionTicketKey> ticketKeys() throws Exception;
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Sets;
+
+import io.netty.handler.ssl.OpenSslContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.netty.handler.ssl.SslContext;
+
+/**
+ * A {@link ServerListener} which sets the session ticket keys provided by a
+ * {@link TlsSessionTicketKeyProvider} to the {@link SslContext}s of a {@link Server} periodically.
+ */
+final class TlsSessionTicketKeyUpdater extends ServerListenerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TlsSessionTicketKeyUpdater.class);
+
+    private final TlsSessionTicketKeyProvider provider;
+    private final long refreshIntervalMillis;
+
+    @Nullable
+    private ScheduledFuture<?> refreshFuture;
+
+    TlsSessionTicketKeyUpdater(TlsSessionTicketKeyProvider provider, long refreshIntervalMillis) {
+        this.provider = provider;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    @Override
+    public void serverStarting(Server server) throws Exception {
+        final Set<OpenSslContext> sslContexts = openSslContexts(server.config());
+        if (sslContexts.isEmpty()) {
+            logger.warn("{} is specified, but no virtual host uses OpenSSL.",
+                        TlsSessionTicketKeyProvider.class.getSimpleName());
+            return;
+        }
+
+        // Fail the startup if the initial keys are not available.
+        update(sslContexts);
+        refreshFuture = server.config().blockingTaskExecutor().scheduleWithFixedDelay(() -> {
+            try {
+                update(sslContexts);
+            } catch (Throwable cause) {
+                logger.warn("Failed to update the TLS session ticket keys; using the previous ones:", cause);
+            }
+        }, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void serverStopping(Server server) {
+        if (refreshFuture != null) {
+            refreshFuture.cancel(false);
+            refreshFuture = null;
+        }
+    }
+
+    private void update(Set<OpenSslContext> sslContexts) throws Exception {
+        final List<OpenSslSessionTicketKey> keys = provider.ticketKeys();
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalStateException(provider + " returned no session ticket keys.");
+        }
+
+        final OpenSslSessionTicketKey[] keyArray = keys.toArray(new OpenSslSessionTicketKey[0]);
+        for (OpenSslContext sslContext : sslContexts) {
+            sslContext.sessionContext().setTicketKeys(keyArray);
+        }
+    }
+
+    /**
+     * Returns the distinct {@link OpenSslContext}s of the {@link VirtualHost}s.
+     */
+    private static Set<OpenSslContext> openSslContexts(ServerConfig config) {
+        final Set<OpenSslContext> sslContexts = Sets.newIdentityHashSet();
+        for (VirtualHost h : config.virtualHosts()) {
+            final SslContext sslContext = h.sslContext();
+            if (sslContext instanceof OpenSslContext) {
+                sslContexts.add((OpenSslContext) sslContext);
+            }
+        }
+        return sslContexts;
+    }
+}
@@ -21,6 +21,7 @@ import static java.util.Objects.requireNonNull;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 
 import com.google.common.collect.ImmutableList;
@@ -258,6 +259,19 @@ public final class VirtualHostAnnotatedServiceBindingBuilder implements ServiceC
         return this;
     }
 
+    @Override
+    public VirtualHostAnnotatedServiceBindingBuilder blockingTaskExecutor(
+            ScheduledExecutorService blockingTaskExecutor, boolean shutdownOnStop) {
+        defaultServiceConfigSetters.blockingTaskExecutor(blockingTaskExecutor, shutdownOnStop);
+        return this;
+    }
+
+    @Override
+    public VirtualHostAnnotatedServiceBindingBuilder blockingTaskExecutor(int numThreads, int maxPendingTasks) {
+        defaultServiceConfigSetters.blockingTaskExecutor(numThreads, maxPendingTasks);
+        return this;
+    }
+
     @Override
     public VirtualHostAnnotatedServiceBindingBuilder decorator(
             Function<? super HttpService, ? extends HttpService> decorator) {
@@ -31,7 +31,10 @@ import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -844,7 +847,21 @@ public final class VirtualHostBuilder {
      * added to this builder.
      */
     VirtualHost build(VirtualHostBuilder template) {
+        return build(template, new IdentityHashMap<>());
+    }
+
+    /**
+     * Returns a newly-created {@link VirtualHost} based on the properties of this builder and the services
+     * added to this builder.
+     *
+     * @param blockingTaskExecutors the blocking task executors created so far for the {@link Server}
+     *                              being built, keyed by their factories
+     */
+    VirtualHost build(VirtualHostBuilder template,
+                      Map<Supplier<? extends ScheduledExecutorService>,
+                              ScheduledExecutorService> blockingTaskExecutors) {
         requireNonNull(template, "template");
+        requireNonNull(blockingTaskExecutors, "blockingTaskExecutors");
 
         if (defaultHostname == null) {
             if ("*".equals(hostnamePattern)) {
@@ -903,14 +920,14 @@ public final class VirtualHostBuilder {
         final List<ServiceConfig> serviceConfigs = serviceConfigBuilders.stream().map(cfgBuilder -> {
             return cfgBuilder.build(requestTimeoutMillis, maxRequestLength, verboseResponses,
                                     requestContentPreviewerFactory, responseContentPreviewerFactory,
-                                    accessLogWriter, shutdownAccessLogWriterOnStop);
+                                    accessLogWriter, shutdownAccessLogWriterOnStop, blockingTaskExecutors);
         }).collect(toImmutableList());
 
         final ServiceConfig fallbackServiceConfig =
                 new ServiceConfigBuilder(Route.ofCatchAll(), FallbackService.INSTANCE)
                         .build(requestTimeoutMillis, maxRequestLength, verboseResponses,
                                requestContentPreviewerFactory, responseContentPreviewerFactory,
-                               accessLogWriter, shutdownAccessLogWriterOnStop);
+                               accessLogWriter, shutdownAccessLogWriterOnStop, blockingTaskExecutors);
 
         SslContext sslContext = this.sslContext != null ? this.sslContext : template.sslContext;
         final boolean tlsSelfSigned = this.tlsSelfSigned != null ? this.tlsSelfSigned : template.tlsSelfSigned;
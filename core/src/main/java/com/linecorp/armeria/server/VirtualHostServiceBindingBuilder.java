@@ -20,6 +20,7 @@ import static java.util.Objects.requireNonNull;
 
 import java.nio.charset.Charset;
 import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -216,6 +217,18 @@ public final class VirtualHostServiceBindingBuilder extends AbstractServiceBindi
         return (VirtualHostServiceBindingBuilder) super.accessLogWriter(accessLogWriter, shutdownOnStop);
     }
 
+    @Override
+    public VirtualHostServiceBindingBuilder blockingTaskExecutor(
+            ScheduledExecutorService blockingTaskExecutor, boolean shutdownOnStop) {
+        return (VirtualHostServiceBindingBuilder) super.blockingTaskExecutor(blockingTaskExecutor,
+                                                                             shutdownOnStop);
+    }
+
+    @Override
+    public VirtualHostServiceBindingBuilder blockingTaskExecutor(int numThreads, int maxPendingTasks) {
+        return (VirtualHostServiceBindingBuilder) super.blockingTaskExecutor(numThreads, maxPendingTasks);
+    }
+
     @Override
     public VirtualHostServiceBindingBuilder decorator(
             Function<? super HttpService, ? extends HttpService> decorator) {
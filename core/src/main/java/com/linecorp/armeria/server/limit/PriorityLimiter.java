@@ -0,0 +1,298 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.limit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.HashedTimingWheel;
+import com.linecorp.armeria.internal.HashedTimingWheel.Timeout;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps the number of the active and pending requests of each priority tier. A {@link PriorityLimiter} is
+ * shared by all {@link PriorityLimitingService}s created by the same decorator function.
+ */
+final class PriorityLimiter {
+
+    private enum RejectReason {
+        QUEUE_FULL,
+        TIMEOUT;
+
+        final String tagValue = name().toLowerCase(Locale.ENGLISH);
+    }
+
+    private final List<Tier> tiers;
+    private final int maxConcurrency;
+    private final long pendingTimeoutMillis;
+    private final MeterIdPrefix meterIdPrefix;
+    private final AtomicBoolean registeredMetrics = new AtomicBoolean();
+
+    // Guarded by 'this'.
+    private int numActiveRequests;
+
+    PriorityLimiter(List<Tier> tiers, int maxConcurrency, long pendingTimeoutMillis,
+                    MeterIdPrefix meterIdPrefix) {
+        this.tiers = ImmutableList.copyOf(tiers);
+        this.maxConcurrency = maxConcurrency;
+        this.pendingTimeoutMillis = pendingTimeoutMillis;
+        this.meterIdPrefix = meterIdPrefix;
+    }
+
+    void registerMetrics(MeterRegistry registry) {
+        if (!registeredMetrics.compareAndSet(false, true)) {
+            return;
+        }
+
+        final String activeRequests = meterIdPrefix.name("active.requests");
+        final String pendingRequests = meterIdPrefix.name("pending.requests");
+        final String rejectedRequests = meterIdPrefix.name("rejected.requests");
+        for (Tier tier : tiers) {
+            registry.gauge(activeRequests, meterIdPrefix.tags("tier", tier.name),
+                           tier, t -> t.numActiveRequests);
+            registry.gauge(pendingRequests, meterIdPrefix.tags("tier", tier.name),
+                           tier, t -> t.numPendingRequests);
+            for (RejectReason reason : RejectReason.values()) {
+                registry.more().counter(rejectedRequests,
+                                        meterIdPrefix.tags("tier", tier.name, "reason", reason.tagValue),
+                                        tier.numRejectedRequests[reason.ordinal()], LongAdder::sum);
+            }
+        }
+    }
+
+    HttpResponse serve(HttpService delegate, ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        final Tier tier = classify(ctx);
+        final PendingRequest pendingRequest;
+        synchronized (this) {
+            if (tier.pendingRequests.isEmpty() && tryAcquire(tier)) {
+                pendingRequest = null;
+            } else if (tier.pendingRequests.size() >= tier.maxPendingRequests) {
+                tier.numRejectedRequests[RejectReason.QUEUE_FULL.ordinal()].increment();
+                return HttpResponse.of(HttpStatus.SERVICE_UNAVAILABLE);
+            } else {
+                pendingRequest = new PendingRequest(delegate, ctx, req, tier);
+                tier.pendingRequests.add(pendingRequest);
+                tier.numPendingRequests = tier.pendingRequests.size();
+            }
+        }
+
+        if (pendingRequest == null) {
+            return serveAcquired(delegate, ctx, req, tier);
+        }
+
+        if (pendingTimeoutMillis > 0) {
+            pendingRequest.timeout = HashedTimingWheel.newTimeout(
+                    ctx.eventLoop(), pendingRequest::onTimeout, pendingTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        return pendingRequest.response;
+    }
+
+    private Tier classify(ServiceRequestContext ctx) {
+        final List<Tier> tiers = this.tiers;
+        final int lastIndex = tiers.size() - 1;
+        for (int i = 0; i < lastIndex; i++) {
+            final Tier tier = tiers.get(i);
+            if (tier.predicate.test(ctx)) {
+                return tier;
+            }
+        }
+        // The last tier is the default tier.
+        return tiers.get(lastIndex);
+    }
+
+    // Must be invoked while holding the lock.
+    private boolean tryAcquire(Tier tier) {
+        if (maxConcurrency != 0 && numActiveRequests >= maxConcurrency) {
+            return false;
+        }
+        if (tier.maxConcurrency != 0 && tier.numActiveRequests >= tier.maxConcurrency) {
+            return false;
+        }
+        numActiveRequests++;
+        tier.numActiveRequests++;
+        return true;
+    }
+
+    private HttpResponse serveAcquired(HttpService delegate, ServiceRequestContext ctx, HttpRequest req,
+                                       Tier tier) throws Exception {
+        boolean success = false;
+        try {
+            final HttpResponse res = delegate.serve(ctx, req);
+            res.completionFuture().handle((unused, cause) -> {
+                release(tier);
+                return null;
+            });
+            success = true;
+            return res;
+        } finally {
+            if (!success) {
+                release(tier);
+            }
+        }
+    }
+
+    private void release(Tier tier) {
+        List<PendingRequest> dispatched = null;
+        synchronized (this) {
+            numActiveRequests--;
+            tier.numActiveRequests--;
+
+            // Dispatch the pending requests of the higher priority tiers first.
+            for (Tier t : tiers) {
+                PendingRequest pendingRequest;
+                while ((pendingRequest = t.pendingRequests.peek()) != null && tryAcquire(t)) {
+                    t.pendingRequests.poll();
+                    t.numPendingRequests = t.pendingRequests.size();
+                    if (dispatched == null) {
+                        dispatched = new ArrayList<>(2);
+                    }
+                    dispatched.add(pendingRequest);
+                }
+            }
+        }
+
+        if (dispatched != null) {
+            for (PendingRequest pendingRequest : dispatched) {
+                pendingRequest.dispatch();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("tiers", tiers)
+                          .add("maxConcurrency", maxConcurrency)
+                          .add("pendingTimeoutMillis", pendingTimeoutMillis)
+                          .toString();
+    }
+
+    static final class Tier {
+
+        final String name;
+        final Predicate<? super ServiceRequestContext> predicate;
+        final int maxConcurrency;
+        final int maxPendingRequests;
+
+        // Guarded by the PriorityLimiter.
+        final Queue<PendingRequest> pendingRequests = new ArrayDeque<>();
+        // Updated while holding the lock of the PriorityLimiter, read by the meters.
+        volatile int numActiveRequests;
+        volatile int numPendingRequests;
+
+        final LongAdder[] numRejectedRequests = new LongAdder[RejectReason.values().length];
+
+        Tier(String name, Predicate<? super ServiceRequestContext> predicate,
+             int maxConcurrency, int maxPendingRequests) {
+            this.name = name;
+            this.predicate = predicate;
+            this.maxConcurrency = maxConcurrency;
+            this.maxPendingRequests = maxPendingRequests;
+            for (int i = 0; i < numRejectedRequests.length; i++) {
+                numRejectedRequests[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                              .add("name", name)
+                              .add("maxConcurrency", maxConcurrency)
+                              .add("maxPendingRequests", maxPendingRequests)
+                              .toString();
+        }
+    }
+
+    private final class PendingRequest {
+
+        private final HttpService delegate;
+        private final ServiceRequestContext ctx;
+        private final HttpRequest req;
+        private final Tier tier;
+        private final CompletableFuture<HttpResponse> responseFuture = new CompletableFuture<>();
+        final HttpResponse response = HttpResponse.from(responseFuture);
+        @Nullable
+        volatile Timeout timeout;
+
+        PendingRequest(HttpService delegate, ServiceRequestContext ctx, HttpRequest req, Tier tier) {
+            this.delegate = delegate;
+            this.ctx = ctx;
+            this.req = req;
+            this.tier = tier;
+        }
+
+        void onTimeout() {
+            synchronized (PriorityLimiter.this) {
+                if (!tier.pendingRequests.remove(this)) {
+                    // Dispatched already.
+                    return;
+                }
+                tier.numPendingRequests = tier.pendingRequests.size();
+            }
+            tier.numRejectedRequests[RejectReason.TIMEOUT.ordinal()].increment();
+            responseFuture.complete(HttpResponse.of(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+
+        void dispatch() {
+            final Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+
+            if (ctx.eventLoop().inEventLoop()) {
+                serve();
+            } else {
+                ctx.eventLoop().execute(this::serve);
+            }
+        }
+
+        private void serve() {
+            if (!response.isOpen() || ctx.isTimedOut()) {
+                // The request has been timed out or the response has been aborted while pending.
+                release(tier);
+                return;
+            }
+
+            try (SafeCloseable ignored = ctx.push()) {
+                responseFuture.complete(serveAcquired(delegate, ctx, req, tier));
+            } catch (Throwable cause) {
+                responseFuture.completeExceptionally(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.limit;
+
+import static java.util.Objects.requireNonNull;
+
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceConfig;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.SimpleDecoratingHttpService;
+
+/**
+ * Decorates an {@link HttpService} to limit the number of concurrent requests for each priority tier.
+ *
+ * <p>A request is classified into the first tier whose predicate matches it, or the default tier if none
+ * matches. When the tier has reached its {@code maxConcurrency} or the total number of active requests
+ * reached {@link PriorityLimitingServiceBuilder#maxConcurrency(int)}, the request waits in the queue of
+ * the tier. Whenever a request completes, the pending requests of the tier added first are served first,
+ * so that the important requests, such as health checks, are served even when the server is overloaded
+ * by less important requests. A request is rejected with {@link HttpStatus#SERVICE_UNAVAILABLE} if
+ * the queue of its tier is full or it waited longer than
+ * {@link PriorityLimitingServiceBuilder#pendingTimeoutMillis(long)}.
+ *
+ * <pre>{@code
+ * ServerBuilder sb = Server.builder();
+ * sb.decorator(PriorityLimitingService.builder()
+ *                                     .addTier("health", ctx -> ctx.path().equals("/health"), 0, 0)
+ *                                     .addTier("premium", ctx -> ctx.request().headers()
+ *                                                                   .contains("x-premium"), 200, 1000)
+ *                                     .defaultTier(50, 100)
+ *                                     .maxConcurrency(250)
+ *                                     .newDecorator());
+ * }</pre>
+ *
+ * <p>All {@link PriorityLimitingService}s created by the same decorator function share the limits.
+ * The following meters are exported with the {@code tier} tag:
+ * <ul>
+ *   <li>{@code <prefix>.active.requests}</li>
+ *   <li>{@code <prefix>.pending.requests}</li>
+ *   <li>{@code <prefix>.rejected.requests} with the {@code reason} tag</li>
+ * </ul>
+ * where {@code <prefix>} is {@code "armeria.server.priority"} by default.
+ */
+public final class PriorityLimitingService extends SimpleDecoratingHttpService {
+
+    /**
+     * Returns a new {@link PriorityLimitingServiceBuilder}.
+     */
+    public static PriorityLimitingServiceBuilder builder() {
+        return new PriorityLimitingServiceBuilder();
+    }
+
+    private final PriorityLimiter limiter;
+
+    PriorityLimitingService(HttpService delegate, PriorityLimiter limiter) {
+        super(delegate);
+        this.limiter = requireNonNull(limiter, "limiter");
+    }
+
+    @Override
+    public void serviceAdded(ServiceConfig cfg) throws Exception {
+        super.serviceAdded(cfg);
+        limiter.registerMetrics(cfg.server().meterRegistry());
+    }
+
+    @Override
+    public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        return limiter.serve(delegate(), ctx, req);
+    }
+}
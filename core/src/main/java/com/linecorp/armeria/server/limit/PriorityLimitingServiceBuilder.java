@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.limit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.limit.PriorityLimiter.Tier;
+
+/**
+ * Builds a new {@link PriorityLimitingService} or its decorator function.
+ */
+public final class PriorityLimitingServiceBuilder {
+
+    static final String DEFAULT_TIER_NAME = "default";
+    static final long DEFAULT_PENDING_TIMEOUT_MILLIS = 10000;
+    static final String DEFAULT_METER_NAME = "armeria.server.priority";
+
+    private final List<Tier> tiers = new ArrayList<>();
+    private int defaultTierMaxConcurrency;
+    private int defaultTierMaxPendingRequests;
+    private int maxConcurrency;
+    private long pendingTimeoutMillis = DEFAULT_PENDING_TIMEOUT_MILLIS;
+    private MeterIdPrefix meterIdPrefix = new MeterIdPrefix(DEFAULT_METER_NAME);
+
+    PriorityLimitingServiceBuilder() {}
+
+    /**
+     * Adds a priority tier which is lower than the tiers added previously and higher than the default tier.
+     *
+     * @param name the name of the tier, which is used as the {@code tier} tag of the meters
+     * @param predicate the {@link Predicate} which returns {@code true} for the requests in the tier
+     * @param maxConcurrency the maximum number of concurrent requests in the tier.
+     *                       {@code 0} to disable the limit.
+     * @param maxPendingRequests the maximum number of the requests waiting in the queue of the tier.
+     *                           {@code 0} to reject requests immediately when the limit is reached.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public PriorityLimitingServiceBuilder addTier(String name,
+                                                  Predicate<? super ServiceRequestContext> predicate,
+                                                  int maxConcurrency, int maxPendingRequests) {
+        requireNonNull(name, "name");
+        requireNonNull(predicate, "predicate");
+        validate(maxConcurrency, maxPendingRequests);
+        checkArgument(!DEFAULT_TIER_NAME.equals(name), "name: %s (expected: not %s)", name, DEFAULT_TIER_NAME);
+        checkState(tiers.stream().noneMatch(tier -> tier.name.equals(name)), "duplicate tier name: %s", name);
+        tiers.add(new Tier(name, predicate, maxConcurrency, maxPendingRequests));
+        return this;
+    }
+
+    /**
+     * Sets the limits of the default tier, which is the lowest tier for the requests not matched by any
+     * other tiers. The number of concurrent requests in the default tier is not limited by default.
+     *
+     * @param maxConcurrency the maximum number of concurrent requests in the default tier.
+     *                       {@code 0} to disable the limit.
+     * @param maxPendingRequests the maximum number of the requests waiting in the queue of the default
+     *                           tier. {@code 0} to reject requests immediately when the limit is reached.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public PriorityLimitingServiceBuilder defaultTier(int maxConcurrency, int maxPendingRequests) {
+        validate(maxConcurrency, maxPendingRequests);
+        defaultTierMaxConcurrency = maxConcurrency;
+        defaultTierMaxPendingRequests = maxPendingRequests;
+        return this;
+    }
+
+    private static void validate(int maxConcurrency, int maxPendingRequests) {
+        checkArgument(maxConcurrency >= 0, "maxConcurrency: %s (expected: >= 0)", maxConcurrency);
+        checkArgument(maxPendingRequests >= 0,
+                      "maxPendingRequests: %s (expected: >= 0)", maxPendingRequests);
+    }
+
+    /**
+     * Sets the maximum number of concurrent requests in all tiers. When a request completes, the pending
+     * request of the highest tier is served first. {@code 0} disables the limit, which is the default.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public PriorityLimitingServiceBuilder maxConcurrency(int maxConcurrency) {
+        checkArgument(maxConcurrency >= 0, "maxConcurrency: %s (expected: >= 0)", maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets the amount of time a request may wait in the queue of its tier before it is rejected.
+     * {@code 0} disables the timeout, so that a pending request waits until it is served or times out by
+     * the request timeout. The default value is {@value #DEFAULT_PENDING_TIMEOUT_MILLIS} milliseconds.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public PriorityLimitingServiceBuilder pendingTimeoutMillis(long pendingTimeoutMillis) {
+        checkArgument(pendingTimeoutMillis >= 0,
+                      "pendingTimeoutMillis: %s (expected: >= 0)", pendingTimeoutMillis);
+        this.pendingTimeoutMillis = pendingTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Sets the amount of time a request may wait in the queue of its tier before it is rejected.
+     * {@link Duration#ZERO} disables the timeout, so that a pending request waits until it is served or
+     * times out by the request timeout. The default value is {@value #DEFAULT_PENDING_TIMEOUT_MILLIS}
+     * milliseconds.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public PriorityLimitingServiceBuilder pendingTimeout(Duration pendingTimeout) {
+        checkArgument(!requireNonNull(pendingTimeout, "pendingTimeout").isNegative(),
+                      "pendingTimeout: %s (expected: >= 0)", pendingTimeout);
+        return pendingTimeoutMillis(pendingTimeout.toMillis());
+    }
+
+    /**
+     * Sets the {@link MeterIdPrefix} of the meters exported by the {@link PriorityLimitingService}.
+     * {@code "armeria.server.priority"} is used by default.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public PriorityLimitingServiceBuilder meterIdPrefix(MeterIdPrefix meterIdPrefix) {
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link PriorityLimitingService} that decorates the specified
+     * {@link HttpService}, based on the properties of this builder.
+     */
+    public PriorityLimitingService build(HttpService delegate) {
+        return new PriorityLimitingService(requireNonNull(delegate, "delegate"), newLimiter());
+    }
+
+    /**
+     * Returns a newly-created decorator function that decorates an {@link HttpService} with
+     * a {@link PriorityLimitingService}, based on the properties of this builder. All the
+     * {@link PriorityLimitingService}s created by the returned function share the same limits.
+     */
+    public Function<? super HttpService, PriorityLimitingService> newDecorator() {
+        final PriorityLimiter limiter = newLimiter();
+        return delegate -> new PriorityLimitingService(delegate, limiter);
+    }
+
+    private PriorityLimiter newLimiter() {
+        // Create new tiers because a tier keeps the state of its requests.
+        final List<Tier> tiers = new ArrayList<>(this.tiers.size() + 1);
+        for (Tier t : this.tiers) {
+            tiers.add(new Tier(t.name, t.predicate, t.maxConcurrency, t.maxPendingRequests));
+        }
+        tiers.add(new Tier(DEFAULT_TIER_NAME, unused -> true,
+                           defaultTierMaxConcurrency, defaultTierMaxPendingRequests));
+        return new PriorityLimiter(tiers, maxConcurrency, pendingTimeoutMillis, meterIdPrefix);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("tiers", tiers)
+                          .add("defaultTierMaxConcurrency", defaultTierMaxConcurrency)
+                          .add("defaultTierMaxPendingRequests", defaultTierMaxPendingRequests)
+                          .add("maxConcurrency", maxConcurrency)
+                          .add("pendingTimeoutMillis", pendingTimeoutMillis)
+                          .add("meterIdPrefix", meterIdPrefix)
+                          .toString();
+    }
+}
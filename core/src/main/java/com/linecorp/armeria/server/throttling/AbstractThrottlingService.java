@@ -27,6 +27,7 @@ import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.Response;
 import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.server.Service;
+import com.linecorp.armeria.server.ServiceConfig;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.SimpleDecoratingService;
 
@@ -64,6 +65,12 @@ public abstract class AbstractThrottlingService<I extends Request, O extends Res
     protected abstract O onFailure(ServiceRequestContext ctx, I req, @Nullable Throwable cause)
             throws Exception;
 
+    @Override
+    public void serviceAdded(ServiceConfig cfg) throws Exception {
+        super.serviceAdded(cfg);
+        strategy.serviceAdded(cfg);
+    }
+
     @Override
     public O serve(ServiceRequestContext ctx, I req) throws Exception {
         return responseConverter.apply(
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.internal.EventLoopLagProbe;
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.ServerConfig;
+import com.linecorp.armeria.server.ServerListenerAdapter;
+import com.linecorp.armeria.server.ServiceConfig;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.netty.channel.EventLoop;
+
+/**
+ * A {@link ThrottlingStrategy} that rejects requests when the server is overloaded, i.e.
+ * <ul>
+ *   <li>the {@link EventLoop} which handles the request runs scheduled tasks later than
+ *       {@link LoadSheddingThrottlingStrategyBuilder#maxEventLoopLag(java.time.Duration)},</li>
+ *   <li>the {@link EventLoop} has more pending tasks than
+ *       {@link LoadSheddingThrottlingStrategyBuilder#maxPendingTasks(int)} or</li>
+ *   <li>the blocking task executor has more queued tasks than
+ *       {@link LoadSheddingThrottlingStrategyBuilder#maxBlockingTaskQueueSize(int)}.</li>
+ * </ul>
+ *
+ * <p>The lag of an {@link EventLoop} is measured by a task which is scheduled every
+ * {@link LoadSheddingThrottlingStrategyBuilder#sampleInterval(java.time.Duration)} once the first request
+ * handled by the {@link EventLoop} is accepted. The sampling stops when all the {@link Server}s which use
+ * this strategy are stopped, and resumes when any of them is started again. The measured values are exported
+ * as the following meters:
+ * <ul>
+ *   <li>{@code <prefix>.event.loop.lag{eventLoop}} - the lag of the last sample</li>
+ *   <li>{@code <prefix>.event.loop.pending.tasks{eventLoop}} - the number of the pending tasks</li>
+ *   <li>{@code <prefix>.blocking.task.queue.size} - the number of the queued blocking tasks</li>
+ *   <li>{@code <prefix>.rejected.requests{reason}} - the number of the rejected requests</li>
+ * </ul>
+ * where {@code <prefix>} is {@code "armeria.server.load"} by default.
+ */
+public final class LoadSheddingThrottlingStrategy<T extends Request> extends ThrottlingStrategy<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingThrottlingStrategy.class);
+
+    /**
+     * Returns a new {@link LoadSheddingThrottlingStrategyBuilder}.
+     */
+    public static LoadSheddingThrottlingStrategyBuilder builder() {
+        return new LoadSheddingThrottlingStrategyBuilder();
+    }
+
+    private enum Reason {
+        EVENT_LOOP_LAG,
+        PENDING_TASKS,
+        BLOCKING_TASK_QUEUE;
+
+        final String tagValue = name().toLowerCase(Locale.ENGLISH);
+    }
+
+    private final long maxEventLoopLagNanos;
+    private final int maxPendingTasks;
+    private final int maxBlockingTaskQueueSize;
+    private final long sampleIntervalNanos;
+    private final MeterIdPrefix meterIdPrefix;
+    private final boolean useServiceBlockingTaskExecutor;
+    @Nullable
+    private volatile ThreadPoolExecutor blockingTaskExecutor;
+
+    private final ConcurrentMap<EventLoop, EventLoopLagProbe> probes = new ConcurrentHashMap<>();
+    private final Set<Server> servers = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int numStartedServers;
+    private final LongAdder[] numRejectedRequests = new LongAdder[Reason.values().length];
+    private final AtomicBoolean registeredMetrics = new AtomicBoolean();
+    private volatile int blockingTaskQueueSize;
+
+    LoadSheddingThrottlingStrategy(@Nullable String name, long maxEventLoopLagNanos, int maxPendingTasks,
+                                   int maxBlockingTaskQueueSize, long sampleIntervalNanos,
+                                   MeterIdPrefix meterIdPrefix,
+                                   @Nullable ThreadPoolExecutor blockingTaskExecutor) {
+        super(name);
+        this.maxEventLoopLagNanos = maxEventLoopLagNanos;
+        this.maxPendingTasks = maxPendingTasks;
+        this.maxBlockingTaskQueueSize = maxBlockingTaskQueueSize;
+        this.sampleIntervalNanos = sampleIntervalNanos;
+        this.meterIdPrefix = meterIdPrefix;
+        // Use the blocking task executor of the service if not specified.
+        useServiceBlockingTaskExecutor = blockingTaskExecutor == null;
+        this.blockingTaskExecutor = blockingTaskExecutor;
+        for (int i = 0; i < numRejectedRequests.length; i++) {
+            numRejectedRequests[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the blocking task executor of the specified {@link ServiceConfig} as a
+     * {@link ThreadPoolExecutor}, or {@code null} if its queue size is not available.
+     */
+    @Nullable
+    private static ThreadPoolExecutor serviceBlockingTaskExecutor(ServiceConfig cfg) {
+        ScheduledExecutorService executor = cfg.blockingTaskExecutor();
+        final ServerConfig serverConfig = cfg.server().config();
+        if (executor == serverConfig.blockingTaskExecutor()) {
+            // The server-wide executor is wrapped to collect its metrics.
+            executor = serverConfig.unwrappedBlockingTaskExecutor();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return (ThreadPoolExecutor) executor;
+        }
+        logger.warn("The queue size of the blocking task executor is not available; " +
+                    "the requests will not be rejected by the queue size: {}", executor);
+        return null;
+    }
+
+    @Override
+    void serviceAdded(ServiceConfig cfg) {
+        final Server server = cfg.server();
+        synchronized (servers) {
+            if (useServiceBlockingTaskExecutor && servers.isEmpty()) {
+                blockingTaskExecutor = serviceBlockingTaskExecutor(cfg);
+            }
+            if (!servers.add(server)) {
+                // Added to more than one service of the same server.
+                return;
+            }
+        }
+
+        server.addListener(new ServerListenerAdapter() {
+            @Override
+            public void serverStarting(Server server) {
+                synchronized (servers) {
+                    if (numStartedServers++ == 0) {
+                        probes.values().forEach(EventLoopLagProbe::start);
+                    }
+                }
+            }
+
+            @Override
+            public void serverStopped(Server server) {
+                synchronized (servers) {
+                    if (--numStartedServers == 0) {
+                        probes.values().forEach(EventLoopLagProbe::stop);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public CompletionStage<Boolean> accept(ServiceRequestContext ctx, T request) {
+        final MeterRegistry registry = ctx.meterRegistry();
+        if (!registeredMetrics.get() && registeredMetrics.compareAndSet(false, true)) {
+            registerMetrics(registry);
+        }
+
+        final EventLoopLagProbe probe = probe(ctx.eventLoop(), registry);
+        if (probe != null) {
+            if (probe.lagNanos() > maxEventLoopLagNanos) {
+                return reject(Reason.EVENT_LOOP_LAG);
+            }
+            if (probe.pendingTasks() > maxPendingTasks) {
+                return reject(Reason.PENDING_TASKS);
+            }
+        }
+        if (blockingTaskQueueSize > maxBlockingTaskQueueSize) {
+            return reject(Reason.BLOCKING_TASK_QUEUE);
+        }
+        return completedFuture(true);
+    }
+
+    /**
+     * Returns the {@link EventLoopLagProbe} of the specified {@link EventLoop}, starting a new one if
+     * necessary, or {@code null} if none of the {@link Server}s which use this strategy is running.
+     */
+    @Nullable
+    private EventLoopLagProbe probe(EventLoop eventLoop, MeterRegistry registry) {
+        final EventLoopLagProbe probe = probes.get(eventLoop);
+        if (probe != null) {
+            return probe;
+        }
+
+        synchronized (servers) {
+            if (!servers.isEmpty() && numStartedServers == 0) {
+                // Do not start a new probe which will never be stopped.
+                return null;
+            }
+            return probes.computeIfAbsent(eventLoop, loop -> newProbe(loop, registry));
+        }
+    }
+
+    private EventLoopLagProbe newProbe(EventLoop eventLoop, MeterRegistry registry) {
+        final AtomicBoolean registeredProbeMetrics = new AtomicBoolean();
+        final EventLoopLagProbe probe = new EventLoopLagProbe(eventLoop, sampleIntervalNanos, p -> {
+            updateBlockingTaskQueueSize();
+            // Register the meters in the EventLoop to get the name of its thread.
+            if (registeredProbeMetrics.compareAndSet(false, true)) {
+                registerMetrics(registry, p, Thread.currentThread().getName());
+            }
+        });
+        probe.start();
+        return probe;
+    }
+
+    private CompletionStage<Boolean> reject(Reason reason) {
+        numRejectedRequests[reason.ordinal()].increment();
+        return completedFuture(false);
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        final String rejectedRequests = meterIdPrefix.name("rejected.requests");
+        for (Reason reason : Reason.values()) {
+            registry.more().counter(rejectedRequests, meterIdPrefix.tags("reason", reason.tagValue),
+                                    numRejectedRequests[reason.ordinal()], LongAdder::sum);
+        }
+        if (useServiceBlockingTaskExecutor || blockingTaskExecutor != null) {
+            registry.gauge(meterIdPrefix.name("blocking.task.queue.size"), meterIdPrefix.tags(),
+                           this, s -> s.blockingTaskQueueSize);
+        }
+    }
+
+    private void registerMetrics(MeterRegistry registry, EventLoopLagProbe probe, String threadName) {
+        TimeGauge.builder(meterIdPrefix.name("event.loop.lag"), probe, TimeUnit.NANOSECONDS,
+                          EventLoopLagProbe::lastLagNanos)
+                 .tags(meterIdPrefix.tags("eventLoop", threadName))
+                 .register(registry);
+        registry.gauge(meterIdPrefix.name("event.loop.pending.tasks"),
+                       meterIdPrefix.tags("eventLoop", threadName),
+                       probe, EventLoopLagProbe::pendingTasks);
+    }
+
+    private void updateBlockingTaskQueueSize() {
+        final ThreadPoolExecutor blockingTaskExecutor = this.blockingTaskExecutor;
+        if (blockingTaskExecutor != null) {
+            blockingTaskQueueSize = blockingTaskExecutor.getQueue().size();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.server.ServiceConfig;
+
+import io.netty.channel.EventLoop;
+
+/**
+ * Builds a new {@link LoadSheddingThrottlingStrategy}.
+ */
+public final class LoadSheddingThrottlingStrategyBuilder {
+
+    static final long DEFAULT_MAX_EVENT_LOOP_LAG_MILLIS = 100;
+    static final long DEFAULT_SAMPLE_INTERVAL_MILLIS = 100;
+    static final String DEFAULT_METER_NAME = "armeria.server.load";
+
+    @Nullable
+    private String name;
+    private long maxEventLoopLagMillis = DEFAULT_MAX_EVENT_LOOP_LAG_MILLIS;
+    private int maxPendingTasks = Integer.MAX_VALUE;
+    private int maxBlockingTaskQueueSize = Integer.MAX_VALUE;
+    private long sampleIntervalMillis = DEFAULT_SAMPLE_INTERVAL_MILLIS;
+    private MeterIdPrefix meterIdPrefix = new MeterIdPrefix(DEFAULT_METER_NAME);
+    @Nullable
+    private ThreadPoolExecutor blockingTaskExecutor;
+
+    LoadSheddingThrottlingStrategyBuilder() {}
+
+    /**
+     * Sets the name of the {@link LoadSheddingThrottlingStrategy}.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public LoadSheddingThrottlingStrategyBuilder name(String name) {
+        this.name = requireNonNull(name, "name");
+        return this;
+    }
+
+    /**
+     * Sets the maximum time by which an {@link EventLoop} may run a scheduled task late before the requests
+     * handled by the {@link EventLoop} are rejected. The default value is
+     * {@value #DEFAULT_MAX_EVENT_LOOP_LAG_MILLIS} milliseconds.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public LoadSheddingThrottlingStrategyBuilder maxEventLoopLag(Duration maxEventLoopLag) {
+        checkArgument(!requireNonNull(maxEventLoopLag, "maxEventLoopLag").isNegative(),
+                      "maxEventLoopLag: %s (expected: >= 0)", maxEventLoopLag);
+        maxEventLoopLagMillis = maxEventLoopLag.toMillis();
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the pending tasks of an {@link EventLoop} before the requests handled by
+     * the {@link EventLoop} are rejected. The number of pending tasks is not limited by default.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public LoadSheddingThrottlingStrategyBuilder maxPendingTasks(int maxPendingTasks) {
+        checkArgument(maxPendingTasks >= 0, "maxPendingTasks: %s (expected: >= 0)", maxPendingTasks);
+        this.maxPendingTasks = maxPendingTasks;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the queued tasks of the blocking task executor before requests are
+     * rejected. The queue size is not limited by default.
+     *
+     * @return {@code this} to support method chaining.
+     *
+     * @see #blockingTaskExecutor(ExecutorService)
+     */
+    public LoadSheddingThrottlingStrategyBuilder maxBlockingTaskQueueSize(int maxBlockingTaskQueueSize) {
+        checkArgument(maxBlockingTaskQueueSize >= 0,
+                      "maxBlockingTaskQueueSize: %s (expected: >= 0)", maxBlockingTaskQueueSize);
+        this.maxBlockingTaskQueueSize = maxBlockingTaskQueueSize;
+        return this;
+    }
+
+    /**
+     * Sets the blocking task executor whose queue size is monitored. The executor must be
+     * a {@link ThreadPoolExecutor} because the queue size of other executors is not available.
+     * If not set, the {@linkplain ServiceConfig#blockingTaskExecutor() blocking task executor} of the service
+     * which the {@link LoadSheddingThrottlingStrategy} is added to first is used, and the queue size is not
+     * monitored if it is not a {@link ThreadPoolExecutor}.
+     *
+     * @return {@code this} to support method chaining.
+     *
+     * @throws IllegalArgumentException if the specified executor is not a {@link ThreadPoolExecutor}
+     */
+    public LoadSheddingThrottlingStrategyBuilder blockingTaskExecutor(ExecutorService blockingTaskExecutor) {
+        requireNonNull(blockingTaskExecutor, "blockingTaskExecutor");
+        checkArgument(blockingTaskExecutor instanceof ThreadPoolExecutor,
+                      "blockingTaskExecutor: %s (expected: a ThreadPoolExecutor)", blockingTaskExecutor);
+        this.blockingTaskExecutor = (ThreadPoolExecutor) blockingTaskExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the interval between the samples of the lag and the number of pending tasks of an
+     * {@link EventLoop}. The default value is {@value #DEFAULT_SAMPLE_INTERVAL_MILLIS} milliseconds.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public LoadSheddingThrottlingStrategyBuilder sampleInterval(Duration sampleInterval) {
+        checkArgument(!requireNonNull(sampleInterval, "sampleInterval").isNegative() &&
+                      !sampleInterval.isZero(),
+                      "sampleInterval: %s (expected: > 0)", sampleInterval);
+        sampleIntervalMillis = sampleInterval.toMillis();
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterIdPrefix} of the meters exported by the {@link LoadSheddingThrottlingStrategy}.
+     * {@code "armeria.server.load"} is used by default.
+     *
+     * @return {@code this} to support method chaining.
+     */
+    public LoadSheddingThrottlingStrategyBuilder meterIdPrefix(MeterIdPrefix meterIdPrefix) {
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link LoadSheddingThrottlingStrategy} based on the properties of this
+     * builder.
+     */
+    public <T extends Request> LoadSheddingThrottlingStrategy<T> build() {
+        return new LoadSheddingThrottlingStrategy<>(
+                name, TimeUnit.MILLISECONDS.toNanos(maxEventLoopLagMillis), maxPendingTasks,
+                maxBlockingTaskQueueSize, TimeUnit.MILLISECONDS.toNanos(Math.max(sampleIntervalMillis, 1)),
+                meterIdPrefix, blockingTaskExecutor);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues()
+                          .add("name", name)
+                          .add("maxEventLoopLagMillis", maxEventLoopLagMillis)
+                          .add("maxPendingTasks", maxPendingTasks)
+                          .add("maxBlockingTaskQueueSize", maxBlockingTaskQueueSize)
+                          .add("sampleIntervalMillis", sampleIntervalMillis)
+                          .add("meterIdPrefix", meterIdPrefix)
+                          .add("blockingTaskExecutor", blockingTaskExecutor)
+                          .toString();
+    }
+}
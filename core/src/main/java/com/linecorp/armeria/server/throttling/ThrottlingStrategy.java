@@ -24,6 +24,8 @@ import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 
 import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.server.Service;
+import com.linecorp.armeria.server.ServiceConfig;
 import com.linecorp.armeria.server.ServiceRequestContext;
 
 /**
@@ -120,6 +122,13 @@ public abstract class ThrottlingStrategy<T extends Request> {
      */
     public abstract CompletionStage<Boolean> accept(ServiceRequestContext ctx, T request);
 
+    /**
+     * Invoked when the {@link Service} throttled by this strategy has been added to a server.
+     *
+     * @see Service#serviceAdded(ServiceConfig)
+     */
+    void serviceAdded(ServiceConfig cfg) {}
+
     /**
      * Returns the name of this {@link ThrottlingStrategy}.
      */
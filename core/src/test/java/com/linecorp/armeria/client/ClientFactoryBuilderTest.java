@@ -17,6 +17,7 @@ package com.linecorp.armeria.client;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 
@@ -24,6 +25,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
 import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
+import com.google.common.collect.Iterables;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.netty.resolver.DefaultAddressResolverGroup;
 
 class ClientFactoryBuilderTest {
@@ -82,6 +87,31 @@ class ClientFactoryBuilderTest {
         });
     }
 
+    @Test
+    void loadBasedFactoriesSharingWorkerGroupExportSeparateMeters() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final ClientFactory factory1 = ClientFactory.builder()
+                                                    .loadBasedEventLoopScheduling(true)
+                                                    .meterRegistry(registry)
+                                                    .build();
+        final ClientFactory factory2 = ClientFactory.builder()
+                                                    .loadBasedEventLoopScheduling(true)
+                                                    .meterRegistry(registry)
+                                                    .build();
+        try {
+            assertThat(factory1.eventLoopGroup()).isSameAs(factory2.eventLoopGroup());
+            assertThat(registry.get("armeria.client.eventLoops.rebalances").functionCounters()).hasSize(2);
+
+            // The meters of each EventLoop are registered when it is sampled for the first time.
+            final int numEventLoops = Iterables.size(factory1.eventLoopGroup());
+            await().untilAsserted(() -> assertThat(registry.get("armeria.client.eventLoops.load")
+                                                           .timeGauges()).hasSize(numEventLoops * 2));
+        } finally {
+            factory1.close();
+            factory2.close();
+        }
+    }
+
     @Test
     @EnabledIfSystemProperty(named = "com.linecorp.armeria.useJdkDnsResolver", matches = "true")
     void useDefaultAddressResolverGroup() {
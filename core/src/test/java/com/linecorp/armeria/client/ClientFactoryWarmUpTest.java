@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.common.AttributeMap;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.util.EventLoopGroups;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit.server.ServerExtension;
+
+class ClientFactoryWarmUpTest {
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/", (ctx, req) -> HttpResponse.of(HttpStatus.OK));
+        }
+    };
+
+    @Test
+    void http2ConnectionsAreReused() {
+        final AtomicInteger numOpenedConnections = new AtomicInteger();
+        try (ClientFactory factory = newClientFactory(numOpenedConnections)) {
+            final Endpoint endpoint = Endpoint.of("127.0.0.1", server.httpPort());
+            assertThat(factory.warmUp(SessionProtocol.H2C, endpoint, 2).join()).isEqualTo(2);
+            assertThat(numOpenedConnections).hasValue(2);
+
+            // Warming up again does not open more connections.
+            assertThat(factory.warmUp(SessionProtocol.H2C, endpoint, 2).join()).isEqualTo(2);
+            assertThat(numOpenedConnections).hasValue(2);
+
+            final WebClient client = WebClient.builder("h2c://127.0.0.1:" + server.httpPort())
+                                              .factory(factory)
+                                              .build();
+            assertThat(client.get("/").aggregate().join().status()).isEqualTo(HttpStatus.OK);
+            assertThat(numOpenedConnections).hasValue(2);
+        }
+    }
+
+    @Test
+    void http1Connections() {
+        final AtomicInteger numOpenedConnections = new AtomicInteger();
+        try (ClientFactory factory = newClientFactory(numOpenedConnections)) {
+            final Endpoint endpoint = Endpoint.of("127.0.0.1", server.httpPort());
+            assertThat(factory.warmUp(SessionProtocol.H1C, endpoint, 3).join()).isEqualTo(3);
+            assertThat(numOpenedConnections).hasValue(3);
+        }
+    }
+
+    @Test
+    void failedConnectionsAreNotCounted() {
+        try (ClientFactory factory = newClientFactory(new AtomicInteger())) {
+            // Nothing listens on port 1.
+            final Endpoint endpoint = Endpoint.of("127.0.0.1", 1);
+            assertThat(factory.warmUp(SessionProtocol.H2C, endpoint, 2).join()).isZero();
+        }
+    }
+
+    private static ClientFactory newClientFactory(AtomicInteger numOpenedConnections) {
+        return ClientFactory.builder()
+                            .workerGroup(EventLoopGroups.newEventLoopGroup(4), true)
+                            .maxNumEventLoopsPerEndpoint(2)
+                            .connectionPoolListener(new ConnectionPoolListenerAdapter() {
+                                @Override
+                                public void connectionOpen(SessionProtocol protocol,
+                                                           InetSocketAddress remoteAddr,
+                                                           InetSocketAddress localAddr,
+                                                           AttributeMap attrs) throws Exception {
+                                    numOpenedConnections.incrementAndGet();
+                                }
+                            })
+                            .build();
+    }
+}
@@ -24,15 +24,25 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableList;
 
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
 import com.linecorp.armeria.common.util.ReleasableHolder;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServiceRequestContext;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoop;
 import io.netty.channel.DefaultEventLoopGroup;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
@@ -279,6 +289,129 @@ class DefaultEventLoopSchedulerTest {
         }
     }
 
+    @Test
+    void preferServiceEventLoop() {
+        final DefaultEventLoopScheduler s =
+                new DefaultEventLoopScheduler(group, GROUP_SIZE, GROUP_SIZE, ImmutableList.of(), true, false);
+        final EventLoop serviceEventLoop = group.next();
+        final ServiceRequestContext sctx = ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                                                .eventLoop(serviceEventLoop)
+                                                                .build();
+        try (SafeCloseable ignored = sctx.push()) {
+            final ReleasableHolder<EventLoop> acquired = s.acquire(endpoint, SessionProtocol.HTTP);
+            assertThat(acquired.get()).isSameAs(serviceEventLoop);
+            acquired.release();
+        }
+
+        // Falls back to the usual scheduling if the event loop belongs to another group.
+        final EventLoop otherEventLoop = new DefaultEventLoop();
+        final ServiceRequestContext sctx2 = ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                                                 .eventLoop(otherEventLoop)
+                                                                 .build();
+        try (SafeCloseable ignored = sctx2.push()) {
+            assertThat(s.acquire(endpoint, SessionProtocol.HTTP)).isInstanceOf(AbstractEventLoopEntry.class);
+        } finally {
+            otherEventLoop.shutdownGracefully();
+        }
+        assertThat(s.acquire(endpoint, SessionProtocol.HTTP)).isInstanceOf(AbstractEventLoopEntry.class);
+    }
+
+    @Test
+    void loadBasedScheduling() throws Exception {
+        final EventLoopGroup eventLoopGroup = new DefaultEventLoopGroup(GROUP_SIZE);
+        final DefaultEventLoopScheduler s = new DefaultEventLoopScheduler(
+                eventLoopGroup, 1, 1, ImmutableList.of(), false, true);
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        s.registerMetrics(registry, new MeterIdPrefix("foo"));
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            final EventLoop blocked = (EventLoop) eventLoopGroup.iterator().next();
+            blocked.execute(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException ignored) {
+                    // Shut down
+                }
+            });
+
+            // Wait until the blocked event loop misses its sampling task.
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(EventLoopLoadMonitor.SAMPLE_INTERVAL_NANOS) * 3);
+
+            for (int i = 0; i < GROUP_SIZE * 2; i++) {
+                final EventLoop acquired = acquireEntry(s, Endpoint.of("host" + i + ".com")).get();
+                assertThat(acquired).isNotSameAs(blocked);
+            }
+
+            final EventLoop rebalanced = s.rebalance(blocked);
+            assertThat(rebalanced).isNotNull().isNotSameAs(blocked);
+            assertThat(s.rebalance(rebalanced)).isNull();
+            assertThat(registry.get("foo.rebalances").functionCounter().count()).isOne();
+        } finally {
+            latch.countDown();
+            s.close();
+            eventLoopGroup.shutdownGracefully();
+        }
+    }
+
+    @Test
+    void rebalanceOnAcquire() throws Exception {
+        final EventLoopGroup eventLoopGroup = new DefaultEventLoopGroup(2);
+        final DefaultEventLoopScheduler s = new DefaultEventLoopScheduler(
+                eventLoopGroup, 1, 1, ImmutableList.of(), false, true, 0);
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        s.registerMetrics(registry, new MeterIdPrefix("foo"));
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            final Endpoint endpointA = Endpoint.of("a.com");
+            final Endpoint endpointB = Endpoint.of("b.com");
+            final Endpoint endpointC = Endpoint.of("c.com");
+
+            // The event loops are idle, so they are assigned in a round-robin manner.
+            final AbstractEventLoopEntry entryA = acquireEntry(s, endpointA);
+            final AbstractEventLoopEntry entryB = acquireEntry(s, endpointB);
+            final AbstractEventLoopEntry entryC = acquireEntry(s, endpointC);
+            final EventLoop blocked = entryA.get();
+            assertThat(entryB.get()).isNotSameAs(blocked);
+            assertThat(entryC.get()).isSameAs(blocked);
+            entryA.release();
+            entryB.release();
+            entryC.release();
+
+            blocked.execute(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException ignored) {
+                    // Shut down
+                }
+            });
+
+            // Wait until the blocked event loop misses its sampling task.
+            final long sampleIntervalMillis =
+                    TimeUnit.NANOSECONDS.toMillis(EventLoopLoadMonitor.SAMPLE_INTERVAL_NANOS);
+            Thread.sleep(sampleIntervalMillis * 3);
+
+            // Only one endpoint moves away per sample.
+            final AbstractEventLoopEntry movedA = acquireEntry(s, endpointA);
+            final AbstractEventLoopEntry notMovedC = acquireEntry(s, endpointC);
+            assertThat(movedA.get()).isNotSameAs(blocked);
+            assertThat(notMovedC.get()).isSameAs(blocked);
+            assertThat(s.entries(endpointA, SessionProtocol.HTTP)).containsExactly(movedA);
+            movedA.release();
+            notMovedC.release();
+
+            Thread.sleep(sampleIntervalMillis * 2);
+            final AbstractEventLoopEntry movedC = acquireEntry(s, endpointC);
+            assertThat(movedC.get()).isNotSameAs(blocked);
+            assertThat(s.entries(endpointC, SessionProtocol.HTTP)).containsExactly(movedC);
+            movedC.release();
+            assertThat(registry.get("foo.rebalances").functionCounter().count()).isEqualTo(2);
+        } finally {
+            latch.countDown();
+            s.close();
+            eventLoopGroup.shutdownGracefully();
+        }
+    }
+
     private static DefaultEventLoopScheduler defaultEventLoopScheduler() {
         return new DefaultEventLoopScheduler(group, GROUP_SIZE, GROUP_SIZE, ImmutableList.of());
     }
@@ -120,6 +120,23 @@ class EndpointTest {
         assertThatThrownBy(() -> foo.withWeight(-1)).isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    void hostWithZone() {
+        final Endpoint foo = Endpoint.of("foo.com", 80).withWeight(500);
+        assertThat(foo.zone()).isNull();
+
+        final Endpoint fooWithZone = foo.withZone("zone-a");
+        assertThat(fooWithZone.zone()).isEqualTo("zone-a");
+        assertThat(fooWithZone.weight()).isEqualTo(500);
+        assertThat(fooWithZone.withZone("zone-a")).isSameAs(fooWithZone);
+        assertThat(fooWithZone.withPort(8080).zone()).isEqualTo("zone-a");
+        assertThat(fooWithZone.withZone(null).zone()).isNull();
+        assertThat(fooWithZone).isEqualTo(foo);
+        assertThat(fooWithZone.toString()).contains("zone=zone-a");
+
+        assertThatThrownBy(() -> Endpoint.ofGroup("foo").zone()).isInstanceOf(IllegalStateException.class);
+    }
+
     @Test
     void hostWithIpAddr() {
         final Endpoint foo = Endpoint.of("foo.com").withIpAddr("192.168.0.1");
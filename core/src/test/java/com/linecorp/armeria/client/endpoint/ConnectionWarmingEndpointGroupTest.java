@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.DecoratingClientFactory;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.SessionProtocol;
+
+class ConnectionWarmingEndpointGroupTest {
+
+    private static final Endpoint FOO = Endpoint.of("foo.com", 8080);
+    private static final Endpoint BAR = Endpoint.of("bar.com", 8080);
+
+    @Test
+    void endpointsAreProvidedAfterWarmUp() {
+        final WarmUpRecordingClientFactory factory = new WarmUpRecordingClientFactory();
+        final DynamicEndpointGroup delegate = new DynamicEndpointGroup();
+        final ConnectionWarmingEndpointGroup group =
+                ConnectionWarmingEndpointGroup.of(delegate, factory, SessionProtocol.H2C, 2);
+
+        delegate.setEndpoints(ImmutableList.of(FOO, BAR));
+        assertThat(factory.warmUps).containsOnlyKeys(FOO, BAR);
+        assertThat(group.initialEndpointsFuture()).isNotDone();
+
+        factory.warmUps.get(FOO).complete(2);
+        assertThat(group.initialEndpointsFuture()).isNotDone();
+
+        // A failed warm-up does not prevent the endpoint from being provided.
+        factory.warmUps.get(BAR).complete(0);
+        assertThat(group.initialEndpointsFuture()).isDone();
+        assertThat(group.endpoints()).containsExactlyInAnyOrder(FOO, BAR);
+    }
+
+    @Test
+    void addedEndpointIsProvidedAfterWarmUp() {
+        final WarmUpRecordingClientFactory factory = new WarmUpRecordingClientFactory();
+        final DynamicEndpointGroup delegate = new DynamicEndpointGroup();
+        final ConnectionWarmingEndpointGroup group =
+                ConnectionWarmingEndpointGroup.of(delegate, factory, SessionProtocol.H2C, 1);
+
+        delegate.setEndpoints(ImmutableList.of(FOO));
+        factory.warmUps.get(FOO).complete(1);
+        assertThat(group.endpoints()).containsExactly(FOO);
+
+        delegate.addEndpoint(BAR);
+        assertThat(group.endpoints()).containsExactly(FOO);
+        factory.warmUps.get(BAR).complete(1);
+        assertThat(group.endpoints()).containsExactlyInAnyOrder(FOO, BAR);
+
+        // A removed endpoint is warmed up again when added back.
+        delegate.removeEndpoint(BAR);
+        assertThat(group.endpoints()).containsExactly(FOO);
+        factory.warmUps.remove(BAR);
+        delegate.addEndpoint(BAR);
+        assertThat(factory.warmUps).containsKey(BAR);
+        assertThat(group.endpoints()).containsExactly(FOO);
+    }
+
+    @Test
+    void emptyDelegate() {
+        final DynamicEndpointGroup delegate = new DynamicEndpointGroup();
+        final ConnectionWarmingEndpointGroup group =
+                ConnectionWarmingEndpointGroup.of(delegate, new WarmUpRecordingClientFactory(),
+                                                  SessionProtocol.H2C, 1);
+        delegate.setEndpoints(ImmutableList.of());
+        assertThat(group.initialEndpointsFuture()).isDone();
+        assertThat(group.endpoints()).isEmpty();
+    }
+
+    private static final class WarmUpRecordingClientFactory extends DecoratingClientFactory {
+
+        final Map<Endpoint, CompletableFuture<Integer>> warmUps = new ConcurrentHashMap<>();
+
+        WarmUpRecordingClientFactory() {
+            super(ClientFactory.ofDefault());
+        }
+
+        @Override
+        public CompletableFuture<Integer> warmUp(SessionProtocol sessionProtocol, Endpoint endpoint,
+                                                 int numConnections) {
+            final CompletableFuture<Integer> future = new CompletableFuture<>();
+            warmUps.put(endpoint, future);
+            return future;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.LeastLoadedStrategy.EndpointState;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+
+class LeastLoadedStrategyTest {
+
+    private static final Endpoint FOO = Endpoint.of("foo.com", 8080);
+    private static final Endpoint BAR = Endpoint.of("bar.com", 8080);
+
+    private static ClientRequestContext newContext() {
+        return ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+    }
+
+    @Test
+    void selectsEndpointWithLessOutstandingRequests() {
+        final EndpointSelector selector =
+                EndpointSelectionStrategy.LEAST_LOADED.newSelector(EndpointGroup.of(FOO, BAR));
+        assertThat(selector.strategy()).isSameAs(EndpointSelectionStrategy.LEAST_LOADED);
+
+        final ClientRequestContext ctx1 = newContext();
+        final Endpoint first = selector.select(ctx1);
+        // The other endpoint has no outstanding requests.
+        final Endpoint second = selector.select(newContext());
+        assertThat(second).isNotEqualTo(first);
+
+        // Complete the first request so that its endpoint has no outstanding requests again.
+        ctx1.logBuilder().endRequest();
+        ctx1.logBuilder().endResponse();
+        assertThat(selector.select(newContext())).isEqualTo(first);
+    }
+
+    @Test
+    void powerOfTwoChoicesAvoidsBusyEndpoint() {
+        final EndpointSelector selector =
+                EndpointSelectionStrategy.POWER_OF_TWO_CHOICES.newSelector(EndpointGroup.of(FOO, BAR));
+        final Endpoint busy = selector.select(newContext());
+        for (int i = 0; i < 10; i++) {
+            final ClientRequestContext ctx = newContext();
+            assertThat(selector.select(ctx)).isNotEqualTo(busy);
+            ctx.logBuilder().endRequest();
+            ctx.logBuilder().endResponse();
+        }
+    }
+
+    @Test
+    void selectEmpty() {
+        final EndpointSelector selector =
+                EndpointSelectionStrategy.POWER_OF_TWO_CHOICES.newSelector(EndpointGroup.empty());
+        assertThat(catchThrowable(() -> selector.select(newContext())))
+                .isInstanceOf(EndpointGroupException.class);
+    }
+
+    @Test
+    void latencyIsTakenIntoAccount() {
+        final EndpointState fast = new EndpointState(FOO);
+        final EndpointState slow = new EndpointState(BAR);
+        fast.onResponse(TimeUnit.MILLISECONDS.toNanos(10), 0);
+        slow.onResponse(TimeUnit.MILLISECONDS.toNanos(100), 0);
+
+        assertThat(LeastLoadedStrategy.lessLoaded(fast, slow, 1)).isSameAs(fast);
+        assertThat(LeastLoadedStrategy.lessLoaded(slow, fast, 1)).isSameAs(fast);
+
+        // The fast endpoint is still preferred with a few outstanding requests.
+        fast.onRequest();
+        fast.onRequest();
+        assertThat(LeastLoadedStrategy.lessLoaded(slow, fast, 1)).isSameAs(fast);
+
+        // The latency is forgotten after a while, so only the number of outstanding requests matters.
+        final long later = TimeUnit.MINUTES.toNanos(1);
+        assertThat(LeastLoadedStrategy.lessLoaded(fast, slow, later)).isSameAs(slow);
+    }
+
+    @Test
+    void fastFailingEndpointDoesNotWin() {
+        final EndpointSelector selector =
+                EndpointSelectionStrategy.LEAST_LOADED.newSelector(EndpointGroup.of(FOO, BAR));
+
+        // Send one request to each endpoint. Both complete immediately, but only one of them succeeds.
+        final ClientRequestContext ctx1 = newContext();
+        final Endpoint failing = selector.select(ctx1);
+        final ClientRequestContext ctx2 = newContext();
+        final Endpoint healthy = selector.select(ctx2);
+        assertThat(healthy).isNotEqualTo(failing);
+
+        ctx1.logBuilder().endRequest();
+        ctx1.logBuilder().responseHeaders(ResponseHeaders.of(HttpStatus.SERVICE_UNAVAILABLE));
+        ctx1.logBuilder().endResponse();
+        ctx2.logBuilder().endRequest();
+        ctx2.logBuilder().responseHeaders(ResponseHeaders.of(HttpStatus.OK));
+        ctx2.logBuilder().endResponse();
+
+        for (int i = 0; i < 10; i++) {
+            final ClientRequestContext ctx = newContext();
+            assertThat(selector.select(ctx)).isEqualTo(healthy);
+            ctx.logBuilder().endRequest();
+            ctx.logBuilder().responseHeaders(ResponseHeaders.of(HttpStatus.OK));
+            ctx.logBuilder().endResponse();
+        }
+    }
+}
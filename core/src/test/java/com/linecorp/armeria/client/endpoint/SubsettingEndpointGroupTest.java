@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.Endpoint;
+
+class SubsettingEndpointGroupTest {
+
+    private static List<Endpoint> endpoints(int... ports) {
+        return IntStream.of(ports).mapToObj(port -> Endpoint.of("127.0.0.1", port))
+                        .collect(Collectors.toList());
+    }
+
+    @Test
+    void subsetIsConsecutiveOnRing() {
+        final List<Endpoint> endpoints = endpoints(5, 1, 4, 2, 3);
+        assertThat(SubsettingEndpointGroup.subset(endpoints, 0, 2)).isEqualTo(endpoints(1, 2));
+        assertThat(SubsettingEndpointGroup.subset(endpoints, 0.5, 2)).isEqualTo(endpoints(3, 4));
+        assertThat(SubsettingEndpointGroup.subset(endpoints, 0.9, 3)).isEqualTo(endpoints(5, 1, 2));
+        assertThat(SubsettingEndpointGroup.subset(endpoints, 0.9, 5)).isSameAs(endpoints);
+    }
+
+    @Test
+    void followsDelegate() {
+        final DynamicEndpointGroup delegate = new DynamicEndpointGroup();
+        try (SubsettingEndpointGroup group = new SubsettingEndpointGroup(delegate, 0.5, 2)) {
+            assertThat(group.initialEndpointsFuture()).isNotDone();
+
+            delegate.setEndpoints(endpoints(1, 2, 3, 4));
+            assertThat(group.initialEndpointsFuture()).isDone();
+            assertThat(group.endpoints()).isEqualTo(endpoints(3, 4));
+
+            delegate.removeEndpoint(Endpoint.of("127.0.0.1", 4));
+            assertThat(group.endpoints()).isEqualTo(endpoints(2, 3));
+
+            group.setSubsetSize(3);
+            assertThat(group.subsetSize()).isEqualTo(3);
+            assertThat(group.endpoints()).isEqualTo(endpoints(1, 2, 3));
+        }
+    }
+
+    @Test
+    void subsetsAreSpreadEvenly() {
+        final DynamicEndpointGroup delegate = new DynamicEndpointGroup();
+        final ImmutableList.Builder<Endpoint> builder = ImmutableList.builder();
+        for (int i = 0; i < 10; i++) {
+            builder.add(Endpoint.of("10.0.0." + i, 8080));
+        }
+        delegate.setEndpoints(builder.build());
+
+        final int[] counts = new int[10];
+        for (int i = 0; i < 1000; i++) {
+            try (SubsettingEndpointGroup group =
+                         SubsettingEndpointGroup.of(delegate, "client-" + i, 3)) {
+                assertThat(group.endpoints()).hasSize(3);
+                group.endpoints().forEach(e -> counts[e.host().charAt(e.host().length() - 1) - '0']++);
+            }
+        }
+        for (int count : counts) {
+            // 300 connections per endpoint on average.
+            assertThat(count).isBetween(200, 400);
+        }
+    }
+
+    @Test
+    void sameClientIdGetsSameSubset() {
+        final DynamicEndpointGroup delegate = new DynamicEndpointGroup();
+        delegate.setEndpoints(endpoints(1, 2, 3, 4, 5, 6, 7, 8));
+        try (SubsettingEndpointGroup groupOne = SubsettingEndpointGroup.of(delegate, "foo", 2);
+             SubsettingEndpointGroup groupTwo = SubsettingEndpointGroup.of(delegate, "foo", 2)) {
+            assertThat(groupOne.endpoints()).isEqualTo(groupTwo.endpoints());
+        }
+    }
+
+    @Test
+    void invalidSubsetSize() {
+        assertThatThrownBy(() -> SubsettingEndpointGroup.of(new DynamicEndpointGroup(), "foo", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
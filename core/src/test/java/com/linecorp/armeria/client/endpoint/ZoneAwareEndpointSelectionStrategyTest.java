@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.ZoneAwareEndpointSelectionStrategy.Tiers;
+import com.linecorp.armeria.client.endpoint.healthcheck.HealthCheckedEndpointGroup;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit.server.ServerExtension;
+
+class ZoneAwareEndpointSelectionStrategyTest {
+
+    private static final Endpoint LOCAL_1 = Endpoint.of("local1.com", 8080).withZone("zone-a");
+    private static final Endpoint LOCAL_2 = Endpoint.of("local2.com", 8080).withZone("zone-a");
+    private static final Endpoint REMOTE = Endpoint.of("remote.com", 8080).withZone("zone-b");
+    private static final Endpoint NO_ZONE = Endpoint.of("nozone.com", 8080);
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            // Only the endpoints whose host names start with 'unhealthy' are unhealthy.
+            sb.service("/health", (ctx, req) -> {
+                final String authority = req.headers().authority();
+                return HttpResponse.of(authority != null && authority.startsWith("unhealthy") ?
+                                       HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK);
+            });
+        }
+    };
+
+    private final ClientRequestContext ctx = ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+
+    @Test
+    void prefersLocalZone() {
+        final EndpointSelector selector = new ZoneAwareEndpointSelectionStrategy("zone-a")
+                .newSelector(EndpointGroup.of(REMOTE, LOCAL_1, NO_ZONE, LOCAL_2));
+        for (int i = 0; i < 10; i++) {
+            assertThat(selector.select(ctx).zone()).isEqualTo("zone-a");
+        }
+    }
+
+    @Test
+    void spillsOverWhenNoLocalEndpoints() {
+        final EndpointSelector selector = new ZoneAwareEndpointSelectionStrategy("zone-c")
+                .newSelector(EndpointGroup.of(REMOTE, NO_ZONE));
+        assertThat(selector.select(ctx)).isIn(REMOTE, NO_ZONE);
+        assertThat(selector.select(ctx)).isIn(REMOTE, NO_ZONE);
+    }
+
+    @Test
+    void localShare() {
+        final ZoneAwareEndpointSelectionStrategy strategy =
+                new ZoneAwareEndpointSelectionStrategy("zone-a", 0.8);
+        final Tiers tiers = strategy.newTiers(EndpointGroup.of(LOCAL_1, LOCAL_2, REMOTE));
+        assertThat(tiers.local).containsExactly(LOCAL_1, LOCAL_2);
+        assertThat(tiers.remote).containsExactly(REMOTE);
+        assertThat(tiers.localShare).isEqualTo(1.0);
+
+        assertThat(strategy.newTiers(EndpointGroup.of(REMOTE)).localShare).isZero();
+    }
+
+    @Test
+    void localShareOfHealthCheckedGroup() {
+        final Endpoint healthyLocal = healthCheckedEndpoint("healthy-local.com", "zone-a");
+        final Endpoint unhealthyLocal = healthCheckedEndpoint("unhealthy-local.com", "zone-a");
+        final Endpoint healthyRemote = healthCheckedEndpoint("healthy-remote.com", "zone-b");
+        final ZoneAwareEndpointSelectionStrategy strategy =
+                new ZoneAwareEndpointSelectionStrategy("zone-a", 0.8);
+        try (HealthCheckedEndpointGroup group = HealthCheckedEndpointGroup.of(
+                EndpointGroup.of(healthyLocal, unhealthyLocal, healthyRemote), "/health")) {
+            // Only half of the local endpoints are healthy, so 0.5 / 0.8 of the requests are sent locally.
+            final Tiers tiers = strategy.newTiers(group);
+            assertThat(tiers.local).containsExactly(healthyLocal);
+            assertThat(tiers.remote).containsExactly(healthyRemote);
+            assertThat(tiers.localShare).isEqualTo(0.625);
+
+            // The health checked group in a composite group also drives the spillover.
+            final Tiers compositeTiers = strategy.newTiers(EndpointGroup.of(group, REMOTE));
+            assertThat(compositeTiers.local).containsExactly(healthyLocal);
+            assertThat(compositeTiers.remote).containsExactly(healthyRemote, REMOTE);
+            assertThat(compositeTiers.localShare).isEqualTo(0.625);
+        }
+    }
+
+    private static Endpoint healthCheckedEndpoint(String host, String zone) {
+        return Endpoint.of(host, server.httpPort()).withIpAddr("127.0.0.1").withZone(zone);
+    }
+
+    @Test
+    void emptyGroup() {
+        final EndpointSelector selector = new ZoneAwareEndpointSelectionStrategy("zone-a")
+                .newSelector(EndpointGroup.empty());
+        assertThatThrownBy(() -> selector.select(ctx)).isInstanceOf(EndpointGroupException.class);
+    }
+
+    @Test
+    void invalidMinHealthyRatio() {
+        assertThatThrownBy(() -> new ZoneAwareEndpointSelectionStrategy("zone-a", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZoneAwareEndpointSelectionStrategy("zone-a", 1.1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
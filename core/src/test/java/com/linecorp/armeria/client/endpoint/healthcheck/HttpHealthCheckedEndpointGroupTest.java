@@ -297,6 +297,41 @@ class HttpHealthCheckedEndpointGroupTest {
         }
     }
 
+    @Test
+    void healthCheckerIsSharedBetweenGroups() throws Exception {
+        serverOne.start();
+
+        final Endpoint endpoint = Endpoint.of("127.0.0.1", serverOne.httpPort());
+        try (HealthCheckedEndpointGroup groupOne =
+                     HealthCheckedEndpointGroup.builder(endpoint, HEALTH_CHECK_PATH)
+                                               .clientFactory(clientFactory)
+                                               .build()) {
+            await().untilAsserted(() -> assertThat(groupOne.endpoints()).containsExactly(endpoint));
+            assertThat(numSharedCheckers()).isOne();
+
+            try (HealthCheckedEndpointGroup groupTwo =
+                         HealthCheckedEndpointGroup.builder(EndpointGroup.of(endpoint), HEALTH_CHECK_PATH)
+                                                   .clientFactory(clientFactory)
+                                                   .build()) {
+                // The health determined by the first group's checker is propagated to the second group.
+                await().untilAsserted(() -> assertThat(groupTwo.endpoints()).containsExactly(endpoint));
+                assertThat(numSharedCheckers()).isOne();
+            }
+
+            assertThat(numSharedCheckers()).isOne();
+        }
+
+        assertThat(numSharedCheckers()).isZero();
+    }
+
+    private long numSharedCheckers() {
+        synchronized (SharedHttpHealthChecker.checkers) {
+            return SharedHttpHealthChecker.checkers.values().stream()
+                                                   .filter(c -> c.clientFactory() == clientFactory)
+                                                   .count();
+        }
+    }
+
     private HealthCheckedEndpointGroup build(HealthCheckedEndpointGroupBuilder builder,
                                              SessionProtocol protocol) {
         return builder.protocol(protocol)
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit.server.ServerExtension;
+
+class HedgingHttpClientTest {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+    private static final List<String> retryCounts = new CopyOnWriteArrayList<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/slow-first", (ctx, req) -> {
+                retryCounts.add(String.valueOf(req.headers().get(RetryingClient.ARMERIA_RETRY_COUNT)));
+                if (counter.getAndIncrement() == 0) {
+                    return HttpResponse.delayed(HttpResponse.of("slow"), Duration.ofSeconds(10));
+                }
+                return HttpResponse.of("fast");
+            });
+            sb.service("/slow", (ctx, req) -> {
+                counter.incrementAndGet();
+                return HttpResponse.delayed(HttpResponse.of("slow"), Duration.ofMillis(500));
+            });
+            sb.service("/fast", (ctx, req) -> HttpResponse.of("fast"));
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        counter.set(0);
+        retryCounts.clear();
+    }
+
+    @Test
+    void hedgedResponseWins() {
+        final WebClient client = WebClient.builder(server.uri("/"))
+                                          .decorator(HedgingHttpClient.builder()
+                                                                      .hedgingDelayMillis(100)
+                                                                      .budget(1, 1)
+                                                                      .newDecorator())
+                                          .build();
+        final long startNanos = System.nanoTime();
+        final AggregatedHttpResponse res = client.get("/slow-first").aggregate().join();
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentUtf8()).isEqualTo("fast");
+        assertThat(System.nanoTime() - startNanos).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        assertThat(retryCounts).containsExactly("null", "1");
+    }
+
+    @Test
+    void budgetLimitsHedgedRequests() {
+        final WebClient client = WebClient.builder(server.uri("/"))
+                                          .decorator(HedgingHttpClient.builder()
+                                                                      .hedgingDelayMillis(10)
+                                                                      .maxTotalAttempts(3)
+                                                                      .budget(0.1, 1)
+                                                                      .newDecorator())
+                                          .build();
+        for (int i = 0; i < 10; i++) {
+            assertThat(client.get("/slow").aggregate().join().contentUtf8()).isEqualTo("slow");
+        }
+        // 10 requests earn a single token.
+        assertThat(counter).hasValue(11);
+    }
+
+    @Test
+    void budget() {
+        final HedgingBudget budget = new HedgingBudget(0.5, 2);
+        assertThat(budget.tryWithdraw()).isFalse();
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isFalse();
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        // Capped by maxTokens.
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void latencyPercentile() {
+        final LatencyPercentileTracker tracker = new LatencyPercentileTracker(0.95);
+        for (int i = 1; i < LatencyPercentileTracker.RECOMPUTE_INTERVAL; i++) {
+            tracker.record(i);
+        }
+        assertThat(tracker.percentileNanos()).isEqualTo(-1);
+
+        for (int i = LatencyPercentileTracker.RECOMPUTE_INTERVAL;
+             i <= LatencyPercentileTracker.NUM_SAMPLES; i++) {
+            tracker.record(i);
+        }
+        // The 243rd of the 256 samples.
+        assertThat(tracker.percentileNanos()).isEqualTo(243);
+
+        // The oldest samples are overwritten.
+        for (int i = 0; i < LatencyPercentileTracker.NUM_SAMPLES; i++) {
+            tracker.record(1);
+        }
+        assertThat(tracker.percentileNanos()).isEqualTo(1);
+    }
+}
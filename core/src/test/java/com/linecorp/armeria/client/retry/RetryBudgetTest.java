@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.base.Ticker;
+
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit.server.ServerExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RetryBudgetTest {
+
+    private static final AtomicInteger numRequests = new AtomicInteger();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/unavailable", (ctx, req) -> {
+                numRequests.incrementAndGet();
+                return HttpResponse.of(HttpStatus.SERVICE_UNAVAILABLE);
+            });
+        }
+    };
+
+    @Test
+    void limitsRetriesToRatioOfSuccesses() {
+        final AtomicLong nanos = new AtomicLong();
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        final RetryBudget budget = new RetryBudget(0.5, 0, TimeUnit.SECONDS.toNanos(10), ticker);
+        assertThat(budget.tryRetry()).isFalse();
+
+        for (int i = 0; i < 4; i++) {
+            budget.onSuccess();
+        }
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+
+        // The successes and retries expire after the window.
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertThat(budget.tryRetry()).isFalse();
+        budget.onSuccess();
+        budget.onSuccess();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+    }
+
+    @Test
+    void minRetries() {
+        final RetryBudget budget = new RetryBudget(0, 1, TimeUnit.SECONDS.toNanos(2), Ticker.systemTicker());
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+    }
+
+    @Test
+    void deniedRetries() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final RetryBudget budget = RetryBudget.of(0.1, 0, Duration.ofSeconds(10));
+        budget.registerMetrics(registry, new MeterIdPrefix("foo"));
+        numRequests.set(0);
+
+        final WebClient client =
+                WebClient.builder(server.uri("/"))
+                         .decorator(RetryingHttpClient.builder(RetryStrategy.onServerErrorStatus())
+                                                      .maxTotalAttempts(5)
+                                                      .retryBudget(budget)
+                                                      .newDecorator())
+                         .build();
+        assertThat(client.get("/unavailable").aggregate().join().status())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(numRequests).hasValue(1);
+        assertThat(registry.get("foo.retries").tags("result", "denied").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("foo.retries").tags("result", "allowed").functionCounter().count())
+                .isZero();
+    }
+}
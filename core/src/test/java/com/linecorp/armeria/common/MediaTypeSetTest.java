@@ -97,6 +97,31 @@ public class MediaTypeSetTest {
         assertThat(set.matchHeaders("text/html, text/html; level=1")).contains(HTML_UTF_8_LEVEL_1);
     }
 
+    @Test
+    public void sortedRanges() {
+        assertThat(MediaTypeSet.sortedRanges("*/*; q=0.8, text/*, text/html; q=0.9, text/plain, " +
+                                             "text/plain; format=flowed"))
+                .containsExactly(MediaType.parse("text/plain; format=flowed"),
+                                 MediaType.parse("text/plain"),
+                                 MediaType.parse("text/*"),
+                                 MediaType.parse("text/html; q=0.9"),
+                                 MediaType.parse("*/*; q=0.8"));
+
+        // The parsed ranges are reused.
+        assertThat(MediaTypeSet.sortedRanges("text/html, */*; q=0.1"))
+                .isSameAs(MediaTypeSet.sortedRanges("text/html, */*; q=0.1"));
+    }
+
+    @Test
+    public void matchMultipleHeaders() {
+        final MediaTypeSet set = new MediaTypeSet(HTML_UTF_8, PLAIN_TEXT_UTF_8);
+
+        // A tie is broken by the order of appearance across headers.
+        assertThat(set.matchHeaders("text/plain; q=0.5", "text/html; q=0.5")).contains(PLAIN_TEXT_UTF_8);
+        assertThat(set.matchHeaders("text/html; q=0.5", "text/plain; q=0.5")).contains(HTML_UTF_8);
+        assertThat(set.matchHeaders("text/html; q=0.5", "text/plain")).contains(PLAIN_TEXT_UTF_8);
+    }
+
     @Test
     public void invalidRange() {
         final MediaTypeSet set = new MediaTypeSet(HTML_UTF_8);
@@ -109,6 +134,12 @@ public class MediaTypeSetTest {
 
         // A bad qvalue is interpreted as 0.
         assertThat(set.matchHeaders("text/*; q=bad, text/plain; q=0.5")).contains(PLAIN_TEXT_UTF_8);
+
+        // A NaN qvalue is interpreted as 0 as well rather than being preferred over everything.
+        assertThat(set.matchHeaders("text/html; q=NaN, text/plain; q=0.5")).contains(PLAIN_TEXT_UTF_8);
+        assertThat(MediaTypeSet.sortedRanges("text/html; q=NaN, text/plain; q=0.5"))
+                .containsExactly(MediaType.parse("text/plain; q=0.5"),
+                                 MediaType.parse("text/html; q=NaN"));
     }
 
     @Test
@@ -88,6 +88,13 @@ public class MediaTypeTest {
         }
     }
 
+    @Test
+    public void testParse_cached() {
+        final MediaType parsed = MediaType.parse("application/x-armeria; version=1");
+        assertSame(parsed, MediaType.parse("application/x-armeria; version=1"));
+        assertEquals(MediaType.create("application", "x-armeria").withParameter("version", "1"), parsed);
+    }
+
     @Test // reflection
     public void testCreate_useConstants() throws Exception {
         for (MediaType constant : getConstants()) {
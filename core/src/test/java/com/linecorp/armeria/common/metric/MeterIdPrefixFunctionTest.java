@@ -150,6 +150,53 @@ class MeterIdPrefixFunctionTest {
                                                Tag.of("route", "exact:/get"));
     }
 
+    @Test
+    void defaultPrefixesAreReused() {
+        final MeterRegistry registry = NoopMeterRegistry.get();
+        final MeterIdPrefixFunction f = MeterIdPrefixFunction.ofDefault("foo");
+
+        final RequestContext ctx = newContext(HttpMethod.GET, "/", null);
+        final MeterIdPrefix activeRequestPrefix = f.activeRequestPrefix(registry, ctx.log());
+        final MeterIdPrefix unknownStatusPrefix = f.apply(registry, ctx.log());
+        assertThat(f.activeRequestPrefix(registry, ctx.log())).isSameAs(activeRequestPrefix);
+        assertThat(f.apply(registry, ctx.log())).isSameAs(unknownStatusPrefix);
+
+        ctx.logBuilder().startResponse();
+        ctx.logBuilder().responseHeaders(ResponseHeaders.of(200));
+        final MeterIdPrefix okPrefix = f.apply(registry, ctx.log());
+        assertThat(okPrefix).isNotEqualTo(unknownStatusPrefix);
+        assertThat(f.apply(registry, ctx.log())).isSameAs(okPrefix);
+    }
+
+    @Test
+    void defaultOverflow() {
+        final MeterRegistry registry = NoopMeterRegistry.get();
+        final MeterIdPrefixFunction f = MeterIdPrefixFunction.ofDefault("foo", 1);
+
+        final RequestContext ctx1 = newContext(HttpMethod.GET, "/", null);
+        assertThat(f.apply(registry, ctx1.log()).tags())
+                .containsExactly(Tag.of("hostnamePattern", "*"),
+                                 Tag.of("httpStatus", "0"),
+                                 Tag.of("method", "GET"),
+                                 Tag.of("route", "exact:/"));
+
+        // The second combination exceeds the limit.
+        final RequestContext ctx2 = newContext(HttpMethod.POST, "/post", null);
+        final MeterIdPrefix res = f.apply(registry, ctx2.log());
+        assertThat(res.name()).isEqualTo("foo");
+        assertThat(res.tags()).containsExactly(Tag.of("hostnamePattern", "other"),
+                                               Tag.of("httpStatus", "0"),
+                                               Tag.of("method", "other"),
+                                               Tag.of("route", "other"));
+        assertThat(f.activeRequestPrefix(registry, ctx2.log()).tags())
+                .containsExactly(Tag.of("hostnamePattern", "other"),
+                                 Tag.of("method", "other"),
+                                 Tag.of("route", "other"));
+
+        // The first combination is still tagged as it is.
+        assertThat(f.apply(registry, ctx1.log()).tags()).contains(Tag.of("route", "exact:/"));
+    }
+
     @Nested
     class EqualsAndHashCode {
         @Test
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.util.SystemInfo;
+
+/**
+ * Runs with {@code -Dcom.linecorp.armeria.coarseClockPrecisionMillis=10} by the {@code testCoarseClock} task,
+ * because {@link Flags} are read only once.
+ */
+class CoarseClockEnabledTest {
+
+    private static final int NUM_SAMPLES = 100;
+
+    @BeforeEach
+    void setUp() {
+        assumeThat(CoarseClock.isEnabled()).isTrue();
+    }
+
+    @Test
+    void advancesOnTick() {
+        final long nanoTime = System.nanoTime();
+        final long currentTimeMicros = SystemInfo.currentTimeMicros();
+        CoarseClock.tick();
+        assertThat(CoarseClock.nanoTime()).isGreaterThanOrEqualTo(nanoTime);
+        assertThat(CoarseClock.currentTimeMicros()).isGreaterThanOrEqualTo(currentTimeMicros);
+        assertThat(CoarseClock.ticker().read()).isGreaterThanOrEqualTo(nanoTime);
+    }
+
+    @Test
+    void advancesInBackground() throws Exception {
+        final long nanoTime = CoarseClock.nanoTime();
+        final long currentTimeMicros = CoarseClock.currentTimeMicros();
+        Thread.sleep(Flags.coarseClockPrecisionMillis() * 10L);
+        assertThat(CoarseClock.nanoTime()).isGreaterThan(nanoTime);
+        assertThat(CoarseClock.currentTimeMicros()).isGreaterThan(currentTimeMicros);
+    }
+
+    @Test
+    void doesNotReadSystemClock() {
+        // The same value is returned until the next tick.
+        final long startNanos = System.nanoTime();
+        long lastNanoTime = CoarseClock.nanoTime();
+        boolean repeated = false;
+        while (!repeated && System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(1)) {
+            final long nanoTime = CoarseClock.nanoTime();
+            repeated = nanoTime == lastNanoTime;
+            lastNanoTime = nanoTime;
+        }
+        assertThat(repeated).isTrue();
+    }
+
+    @Test
+    void staysWithinPrecision() throws Exception {
+        final long precisionNanos = TimeUnit.MILLISECONDS.toNanos(Flags.coarseClockPrecisionMillis());
+        final long[] lagNanos = new long[NUM_SAMPLES];
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final long coarseNanoTime = CoarseClock.nanoTime();
+            lagNanos[i] = System.nanoTime() - coarseNanoTime;
+            assertThat(lagNanos[i]).isNotNegative();
+            Thread.sleep(1);
+        }
+
+        // Use the median so that an occasional delay of the updater thread does not fail the test.
+        Arrays.sort(lagNanos);
+        assertThat(lagNanos[NUM_SAMPLES / 2]).isLessThanOrEqualTo(precisionNanos);
+    }
+}
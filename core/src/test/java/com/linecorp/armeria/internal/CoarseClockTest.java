@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.util.SystemInfo;
+
+class CoarseClockTest {
+
+    @Test
+    void readsSystemClockWhenDisabled() {
+        assertThat(CoarseClock.isEnabled()).isFalse();
+
+        final long nanoTime = System.nanoTime();
+        final long currentTimeMicros = SystemInfo.currentTimeMicros();
+        assertThat(CoarseClock.nanoTime()).isGreaterThanOrEqualTo(nanoTime);
+        assertThat(CoarseClock.currentTimeMicros()).isGreaterThanOrEqualTo(currentTimeMicros);
+    }
+
+    @Test
+    void tickerReadsCoarseClock() {
+        final long nanoTime = System.nanoTime();
+        CoarseClock.tick();
+        assertThat(CoarseClock.ticker().read()).isGreaterThanOrEqualTo(nanoTime);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.ResponseTimeoutException;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.testing.junit.server.ServerExtension;
+
+/**
+ * Runs with {@code -Dcom.linecorp.armeria.useDeadlinePropagation=true} by the {@code testDeadlinePropagation}
+ * task, because {@link Flags} are read only once.
+ */
+class DeadlinePropagationTest {
+
+    private static final BlockingQueue<String> receivedTimeouts = new LinkedBlockingQueue<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/backend", (ctx, req) -> {
+                receivedTimeouts.add(req.headers().get(DeadlineUtil.ARMERIA_TIMEOUT, ""));
+                return HttpResponse.of(HttpStatus.OK);
+            });
+            sb.service("/frontend", (ctx, req) -> {
+                ctx.setRequestTimeoutMillis(5000);
+                return delayingClient().get("/backend");
+            });
+            sb.service("/proxy", (ctx, req) -> {
+                // Forward the request with the header which contains the timeout of the caller.
+                return delayingClient().execute(req.withHeaders(req.headers().toBuilder().path("/backend")));
+            });
+        }
+    };
+
+    /**
+     * Returns a {@link WebClient} which sends a request one second after its context is created.
+     */
+    private static WebClient delayingClient() {
+        return WebClient.builder(server.uri("/"))
+                        .decorator((delegate, ctx, req) -> {
+                            final CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+                            ctx.eventLoop().schedule(() -> {
+                                try {
+                                    future.complete(delegate.execute(ctx, req));
+                                } catch (Exception e) {
+                                    future.completeExceptionally(e);
+                                }
+                            }, 1, TimeUnit.SECONDS);
+                            return HttpResponse.from(future);
+                        })
+                        .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeThat(Flags.useDeadlinePropagation()).isTrue();
+        receivedTimeouts.clear();
+    }
+
+    @Test
+    void propagateRemainingTimeoutAtWriteTime() throws Exception {
+        final AggregatedHttpResponse res = WebClient.of(server.uri("/")).get("/frontend").aggregate().join();
+        assertThat(res.status()).isSameAs(HttpStatus.OK);
+
+        // The client request was sent more than a second after the frontend request started.
+        final String timeout = receivedTimeouts.poll(10, TimeUnit.SECONDS);
+        assertThat(timeout).isNotNull();
+        assertThat(Long.parseLong(timeout)).isBetween(1L, 4000L);
+    }
+
+    @Test
+    void propagateRemainingTimeoutOfForwardedRequest() throws Exception {
+        final RequestHeaders headers = RequestHeaders.of(HttpMethod.GET, "/proxy",
+                                                         DeadlineUtil.ARMERIA_TIMEOUT, "3000");
+        final AggregatedHttpResponse res = WebClient.of(server.uri("/")).execute(headers).aggregate().join();
+        assertThat(res.status()).isSameAs(HttpStatus.OK);
+
+        // The timeout of the caller is not forwarded as it is.
+        final String timeout = receivedTimeouts.poll(10, TimeUnit.SECONDS);
+        assertThat(timeout).isNotNull();
+        assertThat(Long.parseLong(timeout)).isBetween(1L, 2000L);
+    }
+
+    @Test
+    void failWithoutSendingRequestIfDeadlinePassed() throws Exception {
+        final ServiceRequestContext sctx =
+                ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                     .requestStartTime(CoarseClock.nanoTime() - TimeUnit.SECONDS.toNanos(10),
+                                                       CoarseClock.currentTimeMicros())
+                                     .build();
+        sctx.setRequestTimeoutMillis(1000);
+
+        final HttpResponse res;
+        try (SafeCloseable ignored = sctx.push()) {
+            res = WebClient.of(server.uri("/")).get("/backend");
+        }
+        assertThatThrownBy(() -> res.aggregate().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ResponseTimeoutException.class);
+        assertThat(receivedTimeouts.poll(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void rejectExpiredRequest() {
+        final RequestHeaders headers = RequestHeaders.of(HttpMethod.GET, "/backend",
+                                                         DeadlineUtil.ARMERIA_TIMEOUT, "0");
+        final AggregatedHttpResponse res = WebClient.of(server.uri("/")).execute(headers).aggregate().join();
+        assertThat(res.status()).isSameAs(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(receivedTimeouts).isEmpty();
+    }
+}
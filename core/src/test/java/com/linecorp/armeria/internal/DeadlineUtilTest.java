@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+class DeadlineUtilTest {
+
+    @Test
+    void noRequestTimeout() {
+        final ServiceRequestContext ctx = newContext(0);
+        ctx.setRequestTimeoutMillis(0);
+        assertThat(DeadlineUtil.remainingTimeoutMillis(ctx)).isEqualTo(-1);
+        assertThat(DeadlineUtil.capResponseTimeoutMillis(ctx, 0)).isZero();
+        assertThat(DeadlineUtil.capResponseTimeoutMillis(ctx, 5000)).isEqualTo(5000);
+    }
+
+    @Test
+    void capByRemainingRequestTimeout() {
+        final ServiceRequestContext ctx = newContext(0);
+        ctx.setRequestTimeoutMillis(60_000);
+        assertThat(DeadlineUtil.remainingTimeoutMillis(ctx)).isBetween(1L, 60_000L);
+        assertThat(DeadlineUtil.capResponseTimeoutMillis(ctx, 5000)).isEqualTo(5000);
+        assertThat(DeadlineUtil.capResponseTimeoutMillis(ctx, 120_000)).isBetween(1L, 60_000L);
+        assertThat(DeadlineUtil.capResponseTimeoutMillis(ctx, 0)).isBetween(1L, 60_000L);
+    }
+
+    @Test
+    void requestTimeoutPassed() {
+        final ServiceRequestContext ctx = newContext(TimeUnit.SECONDS.toNanos(10));
+        ctx.setRequestTimeoutMillis(1000);
+        assertThat(DeadlineUtil.remainingTimeoutMillis(ctx)).isZero();
+        // Should time out immediately rather than never.
+        assertThat(DeadlineUtil.capResponseTimeoutMillis(ctx, 0)).isOne();
+        assertThat(DeadlineUtil.capResponseTimeoutMillis(ctx, 5000)).isOne();
+    }
+
+    @Test
+    void parseTimeoutMillis() {
+        assertThat(DeadlineUtil.parseTimeoutMillis(null)).isEqualTo(-1);
+        assertThat(DeadlineUtil.parseTimeoutMillis("")).isEqualTo(-1);
+        assertThat(DeadlineUtil.parseTimeoutMillis("foo")).isEqualTo(-1);
+        assertThat(DeadlineUtil.parseTimeoutMillis("-1")).isEqualTo(-1);
+        assertThat(DeadlineUtil.parseTimeoutMillis("0")).isZero();
+        assertThat(DeadlineUtil.parseTimeoutMillis("1500")).isEqualTo(1500);
+    }
+
+    private static ServiceRequestContext newContext(long elapsedNanos) {
+        return ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                    .requestStartTime(CoarseClock.nanoTime() - elapsedNanos,
+                                                      CoarseClock.currentTimeMicros())
+                                    .build();
+    }
+}
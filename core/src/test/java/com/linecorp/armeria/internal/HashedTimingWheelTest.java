@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.internal.HashedTimingWheel.Timeout;
+
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+
+class HashedTimingWheelTest {
+
+    private static EventLoop eventLoop;
+
+    @BeforeAll
+    static void setUp() {
+        eventLoop = new DefaultEventLoop();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        eventLoop.shutdownGracefully();
+    }
+
+    @Test
+    void expire() {
+        final AtomicBoolean expired = new AtomicBoolean();
+        final Timeout timeout = HashedTimingWheel.newTimeout(eventLoop, () -> expired.set(true),
+                                                             50, TimeUnit.MILLISECONDS);
+        await().untilTrue(expired);
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(timeout.isCancelled()).isFalse();
+    }
+
+    @Test
+    void neverExpireEarly() throws Exception {
+        // Use a small wheel so that the timeouts wrap around the wheel more than once.
+        final HashedTimingWheel wheel =
+                eventLoop.submit(() -> new HashedTimingWheel(eventLoop, TimeUnit.MILLISECONDS.toNanos(1), 4))
+                         .get();
+        final AtomicInteger numExpired = new AtomicInteger();
+        final AtomicLong numEarlyExpirations = new AtomicLong();
+        eventLoop.submit(() -> {
+            for (int i = 0; i < 100; i++) {
+                final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(i % 30);
+                wheel.add(new Timeout(() -> {
+                    if (System.nanoTime() < deadlineNanos) {
+                        numEarlyExpirations.incrementAndGet();
+                    }
+                    numExpired.incrementAndGet();
+                }, deadlineNanos));
+            }
+        }).get();
+
+        await().untilAsserted(() -> assertThat(numExpired).hasValue(100));
+        assertThat(numEarlyExpirations).hasValue(0);
+        assertThat(eventLoop.submit(wheel::numTimeouts).get()).isZero();
+    }
+
+    @Test
+    void cancelInEventLoop() throws Exception {
+        final AtomicBoolean expired = new AtomicBoolean();
+        final Timeout timeout = eventLoop.submit(() -> {
+            final Timeout t = HashedTimingWheel.newTimeout(eventLoop, () -> expired.set(true),
+                                                           10, TimeUnit.MILLISECONDS);
+            assertThat(t.cancel()).isTrue();
+            return t;
+        }).get();
+
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        Thread.sleep(100);
+        assertThat(expired).isFalse();
+    }
+
+    @Test
+    void cancelOutsideEventLoop() throws Exception {
+        final AtomicBoolean expired = new AtomicBoolean();
+        final Timeout timeout = HashedTimingWheel.newTimeout(eventLoop, () -> expired.set(true),
+                                                             10, TimeUnit.MILLISECONDS);
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.isCancelled()).isTrue();
+        Thread.sleep(100);
+        assertThat(expired).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.util.AsciiString;
+
+class HeaderValueCacheTest {
+
+    @Test
+    void cachedHeaderValuesAreReused() {
+        final String first = HeaderValueCache.toString(HttpHeaderNames.USER_AGENT,
+                                                        new AsciiString("armeria/1.0"));
+        final String second = HeaderValueCache.toString(HttpHeaderNames.USER_AGENT,
+                                                         new AsciiString("armeria/1.0"));
+        final String third = HeaderValueCache.toString(HttpHeaderNames.USER_AGENT, "armeria/1.0");
+        assertThat(first).isEqualTo("armeria/1.0");
+        assertThat(second).isSameAs(first);
+        assertThat(third).isSameAs(first);
+    }
+
+    @Test
+    void headerValuesAreCaseSensitive() {
+        final String lowerCased = HeaderValueCache.toString(HttpHeaderNames.ACCEPT, new AsciiString("a/b"));
+        final String upperCased = HeaderValueCache.toString(HttpHeaderNames.ACCEPT, new AsciiString("A/B"));
+        assertThat(lowerCased).isEqualTo("a/b");
+        assertThat(upperCased).isEqualTo("A/B");
+    }
+
+    @Test
+    void uncachedHeaderValuesAreNotReused() {
+        final AsciiString name = HttpHeaderNames.of("x-not-cached");
+        final String first = HeaderValueCache.toString(name, new AsciiString("foo"));
+        final String second = HeaderValueCache.toString(name, new AsciiString("foo"));
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+    }
+
+    @Test
+    void contentTypesAreReused() {
+        final MediaType first = HeaderValueCache.toContentType("application/json; charset=utf-8");
+        final MediaType second = HeaderValueCache.toContentType("application/json; charset=utf-8");
+        assertThat(first).isEqualTo(MediaType.JSON_UTF_8);
+        assertThat(second).isSameAs(first);
+        assertThat(HeaderValueCache.toContentType("not a media type")).isNull();
+        assertThat(HeaderValueCache.toContentType("not a media type")).isNull();
+    }
+
+    @Test
+    void metrics() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        HeaderValueCache.registerMetrics(registry, new MeterIdPrefix("foo"));
+        HeaderValueCache.toString(HttpHeaderNames.ACCEPT_ENCODING, "gzip");
+        HeaderValueCache.toString(HttpHeaderNames.ACCEPT_ENCODING, "gzip");
+
+        final double hits = registry.get("foo.requests")
+                                    .tags("header", "accept-encoding", "result", "hit")
+                                    .functionCounter().count();
+        assertThat(hits).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void contentTypeLookupIsCountedOnce() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        HeaderValueCache.registerMetrics(registry, new MeterIdPrefix("foo"));
+        final FunctionCounter hits = registry.find("foo.requests")
+                                             .tags("header", "content-type", "result", "hit")
+                                             .functionCounter();
+        final FunctionCounter misses = registry.find("foo.requests")
+                                               .tags("header", "content-type", "result", "miss")
+                                               .functionCounter();
+        assumeThat(hits).isNotNull();
+        assumeThat(misses).isNotNull();
+
+        final double numLookups = hits.count() + misses.count();
+        final RequestHeaders headers = new Http2RequestHeadersView(
+                new DefaultHttp2Headers().method("POST").path("/")
+                                         .add(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=utf-8"),
+                true, "http", "foo.com");
+        assertThat(headers.contentType()).isEqualTo(MediaType.PLAIN_TEXT_UTF_8);
+        assertThat(hits.count() + misses.count()).isEqualTo(numLookups + 1);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.Http2Headers;
+
+class Http2RequestHeadersViewTest {
+
+    private static Http2Headers newHttp2Headers() {
+        return new DefaultHttp2Headers().method("POST")
+                                        .path("/foo?bar=baz")
+                                        .add(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                        .add("x-multi", "1")
+                                        .add("x-multi", "2")
+                                        .add(HttpHeaderNames.COOKIE, "a=b")
+                                        .add(HttpHeaderNames.COOKIE, "c=d; e=f");
+    }
+
+    @Test
+    void shortcutsAreReadFromDecodedHeaders() {
+        final RequestHeaders headers =
+                new Http2RequestHeadersView(newHttp2Headers(), true, "https", "foo.com:8443");
+
+        assertThat(headers.method()).isSameAs(HttpMethod.POST);
+        assertThat(headers.path()).isEqualTo("/foo?bar=baz");
+        assertThat(headers.scheme()).isEqualTo("https");
+        assertThat(headers.authority()).isEqualTo("foo.com:8443");
+        assertThat(headers.isEndOfStream()).isTrue();
+        assertThat(headers.contentType()).isEqualTo(MediaType.JSON);
+        assertThat(headers.get("Content-Type")).isEqualTo("application/json");
+        assertThat(headers.get(HttpHeaderNames.SCHEME)).isEqualTo("https");
+        assertThat(headers.contains(HttpHeaderNames.AUTHORITY)).isTrue();
+        assertThat(headers.get("x-multi")).isEqualTo("1");
+        assertThat(headers.contains("x-missing")).isFalse();
+        assertThat(headers.get("x-missing", "default")).isEqualTo("default");
+    }
+
+    @Test
+    void cookiesAreMerged() {
+        final RequestHeaders headers =
+                new Http2RequestHeadersView(newHttp2Headers(), false, "https", "foo.com");
+        assertThat(headers.getAll(HttpHeaderNames.COOKIE)).containsExactly("a=b; c=d; e=f");
+        assertThat(headers.get(HttpHeaderNames.COOKIE)).isEqualTo("a=b; c=d; e=f");
+    }
+
+    @Test
+    void equalToConvertedHeaders() {
+        final RequestHeaders view =
+                new Http2RequestHeadersView(newHttp2Headers(), false, "https", "foo.com");
+        final RequestHeaders converted =
+                RequestHeaders.builder(HttpMethod.POST, "/foo?bar=baz")
+                              .scheme("https")
+                              .authority("foo.com")
+                              .contentType(MediaType.JSON)
+                              .add("x-multi", "1")
+                              .add("x-multi", "2")
+                              .add(HttpHeaderNames.COOKIE, "a=b; c=d; e=f")
+                              .build();
+
+        assertThat(view).isEqualTo(converted);
+        assertThat(converted).isEqualTo(view);
+        assertThat(view.size()).isEqualTo(converted.size());
+        assertThat(view.getAll("x-multi")).containsExactly("1", "2");
+    }
+
+    @Test
+    void toBuilderCopiesHeaders() {
+        final Http2Headers http2Headers = newHttp2Headers();
+        final RequestHeaders view = new Http2RequestHeadersView(http2Headers, false, "http", "foo.com");
+        final RequestHeaders modified = view.toBuilder().set("x-multi", "3").build();
+
+        assertThat(modified.getAll("x-multi")).containsExactly("3");
+        assertThat(view.getAll("x-multi")).containsExactly("1", "2");
+        assertThat(http2Headers.getAll("x-multi")).hasSize(2);
+    }
+}
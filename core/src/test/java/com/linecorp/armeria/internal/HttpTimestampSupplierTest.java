@@ -29,6 +29,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import com.linecorp.armeria.common.util.Ticker;
+
 class HttpTimestampSupplierTest {
 
     private static final Instant TIME0 = Instant.parse("2019-10-18T10:15:30.05Z");
@@ -40,7 +42,7 @@ class HttpTimestampSupplierTest {
 
     @BeforeEach
     void setUp() {
-        supplier = new HttpTimestampSupplier(clock);
+        supplier = new HttpTimestampSupplier(clock, Ticker.systemTicker());
         when(clock.getZone()).thenReturn(ZoneOffset.UTC);
     }
 
@@ -282,4 +282,31 @@ public class PathAndQueryTest {
         assertThat(res2.path()).isEqualTo("/#/:[]@!$&'()*+,;=?");
         assertThat(res2.query()).isEqualTo("a=%23%2F%3A%5B%5D%40%21%24%26%27%28%29%2A%2B%2C%3B%3D%3F");
     }
+
+    @Test
+    public void verbatimPathIsNotCopied() {
+        final String rawPath = "/armeria/services/hello-world";
+        final PathAndQuery res = PathAndQuery.parse(rawPath);
+        assertThat(res).isNotNull();
+        assertThat(res.path()).isSameAs(rawPath);
+        assertThat(res.query()).isNull();
+
+        final PathAndQuery res2 = PathAndQuery.parse("/search?q=armeria+http2&page=2");
+        assertThat(res2).isNotNull();
+        assertThat(res2.path()).isEqualTo("/search");
+        assertThat(res2.query()).isEqualTo("q=armeria+http2&page=2");
+    }
+
+    @Test
+    public void nonVerbatimPathIsNormalized() {
+        // Consecutive slashes
+        assertThat(PathAndQuery.parse("/a//b?c").path()).isEqualTo("/a/b");
+        // Characters that have to be percent-encoded
+        assertThat(PathAndQuery.parse("/a b?c d").path()).isEqualTo("/a%20b");
+        assertThat(PathAndQuery.parse("/a b?c d").query()).isEqualTo("c+d");
+        assertThat(PathAndQuery.parse("/%c3%a9").path()).isEqualTo("/%C3%A9");
+        // Colon in the first path component
+        assertThat(PathAndQuery.parse("/a:b")).isNull();
+        assertThat(PathAndQuery.parse("/a/b:c").path()).isEqualTo("/a/b:c");
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+class VirtualThreadsTest {
+
+    @Test
+    void unavailable() {
+        assumeThat(VirtualThreads.isAvailable()).isFalse();
+        assertThat(VirtualThreads.newThreadFactory("foo")).isNull();
+        assertThat(VirtualThreads.newBlockingTaskExecutor("foo")).isNull();
+        assertThat(VirtualThreads.isVirtual(Thread.currentThread())).isFalse();
+    }
+
+    @Test
+    void tasksRunOnVirtualThreadsWithContext() throws Exception {
+        assumeThat(VirtualThreads.isAvailable()).isTrue();
+        final ScheduledExecutorService executor = VirtualThreads.newBlockingTaskExecutor("foo");
+        assertThat(executor).isNotNull();
+        try {
+            final ServiceRequestContext ctx = ServiceRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+            final ScheduledExecutorService contextAware = ctx.makeContextAware(executor);
+
+            final Thread thread = contextAware.submit(() -> {
+                assertThat(RequestContext.<ServiceRequestContext>current()).isSameAs(ctx);
+                return Thread.currentThread();
+            }).get(10, TimeUnit.SECONDS);
+            assertThat(VirtualThreads.isVirtual(thread)).isTrue();
+            assertThat(thread.getName()).startsWith("foo-");
+
+            final Thread scheduledThread = contextAware.schedule(() -> {
+                assertThat(RequestContext.<ServiceRequestContext>current()).isSameAs(ctx);
+                return Thread.currentThread();
+            }, 10, TimeUnit.MILLISECONDS).get(10, TimeUnit.SECONDS);
+            assertThat(VirtualThreads.isVirtual(scheduledThread)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void periodicTasksDoNotOverlap() throws Exception {
+        assumeThat(VirtualThreads.isAvailable()).isTrue();
+        final ScheduledExecutorService executor = VirtualThreads.newBlockingTaskExecutor("foo");
+        assertThat(executor).isNotNull();
+        try {
+            final AtomicInteger numRunningTasks = new AtomicInteger();
+            final AtomicInteger maxRunningTasks = new AtomicInteger();
+            final CountDownLatch latch = new CountDownLatch(5);
+            final ScheduledFuture<?> future = executor.scheduleAtFixedRate(() -> {
+                final int numRunning = numRunningTasks.incrementAndGet();
+                maxRunningTasks.accumulateAndGet(numRunning, Math::max);
+                try {
+                    // Take longer than the period.
+                    Thread.sleep(20);
+                } catch (InterruptedException ignored) {
+                    // Ignore
+                }
+                numRunningTasks.decrementAndGet();
+                assertThat(VirtualThreads.isVirtual(Thread.currentThread())).isTrue();
+                latch.countDown();
+            }, 0, 1, TimeUnit.MILLISECONDS);
+
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+            future.cancel(false);
+            assertThat(maxRunningTasks).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void periodicTaskFailsOnException() throws Exception {
+        assumeThat(VirtualThreads.isAvailable()).isTrue();
+        final ScheduledExecutorService executor = VirtualThreads.newBlockingTaskExecutor("foo");
+        assertThat(executor).isNotNull();
+        try {
+            final ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
+                throw new IllegalStateException("expected");
+            }, 0, 1, TimeUnit.MILLISECONDS);
+
+            // Run only by its triggers, so it must not be run as a Runnable by others.
+            assertThat(future).isNotInstanceOf(Runnable.class);
+            assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(future.isDone()).isTrue();
+            assertThat(future.cancel(false)).isFalse();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shutdown() throws Exception {
+        assumeThat(VirtualThreads.isAvailable()).isTrue();
+        final ScheduledExecutorService executor = VirtualThreads.newBlockingTaskExecutor("foo");
+        assertThat(executor).isNotNull();
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException ignored) {
+                // Ignore
+            }
+        });
+        final ScheduledFuture<?> delayed = executor.schedule(() -> {}, 1, TimeUnit.DAYS);
+
+        executor.shutdown();
+        assertThat(executor.isShutdown()).isTrue();
+        assertThat(delayed.isCancelled()).isTrue();
+        assertThat(executor.isTerminated()).isFalse();
+
+        latch.countDown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.isTerminated()).isTrue();
+    }
+}
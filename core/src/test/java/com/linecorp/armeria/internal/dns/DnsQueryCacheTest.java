@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.dns;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.testing.junit.common.EventLoopExtension;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.dns.DefaultDnsRawRecord;
+import io.netty.handler.codec.dns.DnsQuestion;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+class DnsQueryCacheTest {
+
+    @RegisterExtension
+    static final EventLoopExtension eventLoop = new EventLoopExtension();
+
+    private static final List<DnsQuestion> QUESTIONS =
+            ImmutableList.of(DnsQuestionWithoutTrailingDot.of("foo.com", DnsRecordType.A));
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final DnsQueryCache cache = new DnsQueryCache(nanos::get, 4);
+
+    @Test
+    void coalescesAndCaches() throws Exception {
+        final FakeResolver resolver = new FakeResolver(cache, 0);
+        final Future<List<DnsRecord>> first = resolver.sendQueries(QUESTIONS, "");
+        final Future<List<DnsRecord>> second = resolver.sendQueries(QUESTIONS, "");
+        assertThat(resolver.pending).hasSize(1);
+
+        complete(resolver.pending.remove(0), ImmutableList.of(newRecord(60)));
+        assertThat(ttl(first)).isEqualTo(60);
+        assertThat(ttl(second)).isEqualTo(60);
+
+        // Served from the cache with the decreased TTL.
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertThat(ttl(resolver.sendQueries(QUESTIONS, ""))).isEqualTo(40);
+        assertThat(resolver.pending).isEmpty();
+
+        // Expired.
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        resolver.sendQueries(QUESTIONS, "");
+        assertThat(resolver.pending).hasSize(1);
+    }
+
+    @Test
+    void prefetchesBeforeExpiry() throws Exception {
+        final FakeResolver resolver = new FakeResolver(cache, 0);
+        resolver.sendQueries(QUESTIONS, "");
+        complete(resolver.pending.remove(0), ImmutableList.of(newRecord(100)));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(95));
+        assertThat(ttl(resolver.sendQueries(QUESTIONS, ""))).isEqualTo(5);
+        assertThat(resolver.pending).hasSize(1);
+
+        // Only one prefetch is sent for an entry.
+        resolver.sendQueries(QUESTIONS, "");
+        assertThat(resolver.pending).hasSize(1);
+
+        complete(resolver.pending.remove(0), ImmutableList.of(newRecord(100)));
+        assertThat(ttl(resolver.sendQueries(QUESTIONS, ""))).isEqualTo(100);
+        assertThat(resolver.pending).isEmpty();
+    }
+
+    @Test
+    void cachesNegativeResults() {
+        final FakeResolver resolver = new FakeResolver(cache, 10);
+        final Future<List<DnsRecord>> first = resolver.sendQueries(QUESTIONS, "");
+        fail(resolver.pending.remove(0), new UnknownHostException());
+        assertThat(first.awaitUninterruptibly().cause()).isInstanceOf(UnknownHostException.class);
+
+        assertThat(resolver.sendQueries(QUESTIONS, "").awaitUninterruptibly().cause())
+                .isInstanceOf(UnknownHostException.class);
+        assertThat(resolver.pending).isEmpty();
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        resolver.sendQueries(QUESTIONS, "");
+        assertThat(resolver.pending).hasSize(1);
+    }
+
+    @Test
+    void doesNotCacheTimeouts() {
+        final FakeResolver resolver = new FakeResolver(cache, 10);
+        resolver.sendQueries(QUESTIONS, "");
+        fail(resolver.pending.remove(0), new UnknownHostException("timeout").initCause(new Exception()));
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void removesExpiredEntries() {
+        final FakeResolver resolver = new FakeResolver(cache, 0);
+        resolver.sendQueries(QUESTIONS, "");
+        complete(resolver.pending.remove(0), ImmutableList.of(newRecord(60)));
+        assertThat(cache.size()).isOne();
+
+        // Removed even if it is not looked up again. Add a second because the expiration is done at
+        // the granularity of the timer wheel.
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void sizeIsBounded() {
+        final FakeResolver resolver = new FakeResolver(cache, 0);
+        for (int i = 0; i < 10; i++) {
+            final List<DnsQuestion> questions =
+                    ImmutableList.of(DnsQuestionWithoutTrailingDot.of("foo" + i + ".com", DnsRecordType.A));
+            resolver.sendQueries(questions, "");
+            complete(resolver.pending.remove(0), ImmutableList.of(newRecord(60)));
+            assertThat(cache.size()).isLessThanOrEqualTo(4);
+        }
+    }
+
+    @Test
+    void differentScopesAreNotShared() {
+        final FakeResolver a = new FakeResolver(cache, 0);
+        final FakeResolver b = new FakeResolver(cache, 0);
+        a.sendQueries(QUESTIONS, "");
+        b.sendQueries(QUESTIONS, "");
+        assertThat(a.pending).hasSize(1);
+        assertThat(b.pending).hasSize(1);
+    }
+
+    /**
+     * Completes the specified {@link Promise} in the event loop, so that the cache is updated when this
+     * method returns.
+     */
+    private static void complete(Promise<List<DnsRecord>> promise, List<DnsRecord> records) {
+        eventLoop.get().submit(() -> promise.setSuccess(records)).syncUninterruptibly();
+    }
+
+    private static void fail(Promise<List<DnsRecord>> promise, Throwable cause) {
+        eventLoop.get().submit(() -> promise.setFailure(cause)).syncUninterruptibly();
+    }
+
+    private static DnsRecord newRecord(long ttl) {
+        return new DefaultDnsRawRecord("foo.com", DnsRecordType.A, ttl,
+                                       Unpooled.wrappedBuffer(new byte[] { 127, 0, 0, 1 }));
+    }
+
+    private static long ttl(Future<List<DnsRecord>> future) throws Exception {
+        final List<DnsRecord> records = future.get(10, TimeUnit.SECONDS);
+        try {
+            assertThat(records).hasSize(1);
+            return records.get(0).timeToLive();
+        } finally {
+            records.forEach(ReferenceCountUtil::safeRelease);
+        }
+    }
+
+    private static final class FakeResolver extends DefaultDnsNameResolver {
+
+        final List<Promise<List<DnsRecord>>> pending = new ArrayList<>();
+
+        FakeResolver(DnsQueryCache cache, int negativeTtl) {
+            super(mock(DnsNameResolver.class), eventLoop.get(), cache, new Object(), negativeTtl);
+        }
+
+        @Override
+        Future<List<DnsRecord>> sendQueriesWithoutCache(List<DnsQuestion> questions, String logPrefix) {
+            final Promise<List<DnsRecord>> promise = executor().newPromise();
+            pending.add(promise);
+            return promise;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.metric;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StripedHistogramTest {
+
+    @Test
+    void bucketBoundaries() {
+        long lastValue = -1;
+        for (int i = 0; i < StripedHistogram.NUM_BUCKETS; i++) {
+            final long value = StripedHistogram.highestEquivalentValue(i);
+            assertThat(value).isGreaterThan(lastValue);
+            assertThat(StripedHistogram.bucketIndex(value)).isEqualTo(i);
+            assertThat(StripedHistogram.bucketIndex(lastValue + 1)).isEqualTo(i);
+            lastValue = value;
+        }
+    }
+
+    @Test
+    void percentiles() {
+        final StripedHistogram histogram = new StripedHistogram(TimeUnit.MINUTES.toNanos(1));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-1);
+
+        assertThat(histogram.count()).isEqualTo(1000);
+        assertThat(histogram.sum()).isEqualTo(500500);
+        assertThat((double) histogram.percentile(0.5)).isCloseTo(500, within(500 * 0.125));
+        assertThat((double) histogram.percentile(0.99)).isCloseTo(990, within(990 * 0.125));
+        assertThat((double) histogram.max()).isCloseTo(1000, within(1000 * 0.125));
+        assertThat(histogram.percentile(0)).isEqualTo(1);
+    }
+
+    @Test
+    void singleStripeWithoutContention() {
+        final StripedHistogram histogram = new StripedHistogram(TimeUnit.MINUTES.toNanos(1));
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(i);
+        }
+        assertThat(histogram.numStripes()).isOne();
+    }
+
+    @Test
+    void stripesAreMerged() throws Exception {
+        final StripedHistogram histogram = new StripedHistogram(TimeUnit.MINUTES.toNanos(1));
+        final int numThreads = 4;
+        final CountDownLatch latch = new CountDownLatch(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    histogram.record(10);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+
+        assertThat(histogram.count()).isEqualTo(4000);
+        assertThat(histogram.sum()).isEqualTo(40000);
+        assertThat(histogram.percentile(0.5)).isEqualTo(10);
+    }
+
+    @Test
+    void exportedAsTimer() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final StripedHistogram histogram =
+                StripedHistogram.newTimer(registry, "foo", ImmutableList.of());
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+        final FunctionTimer timer = registry.get("foo").functionTimer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(100);
+        assertThat(registry.get("foo.percentile").tag("phi", "0.5").timeGauge().value(TimeUnit.MILLISECONDS))
+                .isCloseTo(100, within(100 * 0.125));
+    }
+}
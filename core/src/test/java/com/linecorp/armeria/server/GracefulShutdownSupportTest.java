@@ -41,6 +41,7 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
 import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
 
 import com.linecorp.armeria.common.util.ThreadFactories;
 
@@ -56,19 +57,25 @@ public class GracefulShutdownSupportTest {
 
     private GracefulShutdownSupport support;
     private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor serviceExecutor;
 
     @Before
     public void setUp() {
         executor = new ThreadPoolExecutor(
                 0, 1, 1, TimeUnit.SECONDS, new LinkedTransferQueue<>(),
                 ThreadFactories.newEventLoopThreadFactory("graceful-shutdown-test", true));
+        serviceExecutor = new ThreadPoolExecutor(
+                0, 1, 1, TimeUnit.SECONDS, new LinkedTransferQueue<>(),
+                ThreadFactories.newEventLoopThreadFactory("graceful-shutdown-service-test", true));
 
-        support = GracefulShutdownSupport.create(Duration.ofNanos(QUIET_PERIOD_NANOS), executor, ticker);
+        support = GracefulShutdownSupport.create(Duration.ofNanos(QUIET_PERIOD_NANOS),
+                                                 ImmutableList.of(executor, serviceExecutor), ticker);
     }
 
     @After
     public void tearDown() {
         executor.shutdownNow();
+        serviceExecutor.shutdownNow();
     }
 
     @Test
@@ -164,6 +171,12 @@ public class GracefulShutdownSupportTest {
         assertWithPendingTasks(0, 42);
     }
 
+    @Test
+    public void activeServiceBlockingTaskPassedQuietPeriod() throws Exception {
+        submitLongTask(serviceExecutor);
+        assertWithPendingTasks(0, 42);
+    }
+
     @Test
     public void testQuietPeriodExtensionOnRequest() throws Exception {
         final long deltaNanos = QUIET_PERIOD_NANOS / 2;
@@ -226,6 +239,10 @@ public class GracefulShutdownSupportTest {
     }
 
     private void submitLongTask() {
+        submitLongTask(executor);
+    }
+
+    private static void submitLongTask(ThreadPoolExecutor executor) {
         final AtomicBoolean running = new AtomicBoolean();
         executor.execute(() -> {
             running.set(true);
@@ -17,9 +17,17 @@ package com.linecorp.armeria.server;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.awaitility.Awaitility.await;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -28,15 +36,26 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
+
 import com.linecorp.armeria.client.ClientFactory;
 import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.common.util.SystemInfo;
 import com.linecorp.armeria.testing.internal.MockAddressResolverGroup;
 import com.linecorp.armeria.testing.junit.server.ServerExtension;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.ssl.OpenSslContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+
 class ServerBuilderTest {
 
     private static ClientFactory clientFactory;
@@ -310,4 +329,80 @@ class ServerBuilderTest {
             server.stop();
         }
     }
+
+    @Test
+    void tlsSessionTicketKeyProviderRequiresPositiveRefreshInterval() {
+        final TlsSessionTicketKeyProvider provider = ImmutableList::of;
+        assertThatThrownBy(() -> Server.builder().tlsSessionTicketKeyProvider(provider, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Server.builder().tlsSessionTicketKeyProvider(provider,
+                                                                              Duration.ofSeconds(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void tlsSessionIsResumedAfterTicketKeyRotation() throws Exception {
+        assumeThat(Flags.useOpenSsl()).isTrue();
+        // The JDK client sends a session ticket since Java 13.
+        assumeThat(SystemInfo.javaVersion()).isGreaterThanOrEqualTo(13);
+
+        final OpenSslSessionTicketKey oldKey = newTicketKey();
+        final OpenSslSessionTicketKey newKey = newTicketKey();
+        final AtomicReference<List<OpenSslSessionTicketKey>> keys =
+                new AtomicReference<>(ImmutableList.of(oldKey));
+        final AtomicInteger numKeyRequests = new AtomicInteger();
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final Server server = Server.builder()
+                                    .https(0)
+                                    .tlsSelfSigned()
+                                    .meterRegistry(meterRegistry)
+                                    .tlsSessionTicketKeyProvider(() -> {
+                                        numKeyRequests.incrementAndGet();
+                                        return keys.get();
+                                    }, Duration.ofMillis(100))
+                                    .service("/", (ctx, req) -> HttpResponse.of(HttpStatus.OK))
+                                    .build();
+        server.start().join();
+        try {
+            // Disable the session cache so that a session can be resumed only with a session ticket.
+            ((OpenSslContext) server.config().defaultVirtualHost().sslContext())
+                    .sessionContext().setSessionCacheEnabled(false);
+
+            final SSLContext sslContext = SSLContext.getInstance("TLSv1.2");
+            sslContext.init(null, InsecureTrustManagerFactory.INSTANCE.getTrustManagers(), null);
+            final int port = server.activeLocalPort(SessionProtocol.HTTPS);
+            handshake(sslContext, port);
+
+            // Rotate the keys while keeping the old key for decrypting the tickets issued before.
+            keys.set(ImmutableList.of(newKey, oldKey));
+            final int numKeyRequestsBeforeRotation = numKeyRequests.get();
+            // Wait for one more request so that the keys returned by the previous one have been set.
+            await().until(() -> numKeyRequests.get() > numKeyRequestsBeforeRotation + 1);
+            handshake(sslContext, port);
+
+            await().untilAsserted(() -> assertThat(MoreMeters.measureAll(meterRegistry))
+                    .containsEntry("armeria.server.tls.handshakes#count{hostnamePattern=*,type=full}", 1.0)
+                    .containsEntry("armeria.server.tls.handshakes#count{hostnamePattern=*,type=resumed}",
+                                   1.0));
+        } finally {
+            server.stop().join();
+        }
+    }
+
+    private static OpenSslSessionTicketKey newTicketKey() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final byte[] name = new byte[OpenSslSessionTicketKey.NAME_SIZE];
+        final byte[] hmacKey = new byte[OpenSslSessionTicketKey.HMAC_KEY_SIZE];
+        final byte[] aesKey = new byte[OpenSslSessionTicketKey.AES_KEY_SIZE];
+        random.nextBytes(name);
+        random.nextBytes(hmacKey);
+        random.nextBytes(aesKey);
+        return new OpenSslSessionTicketKey(name, hmacKey, aesKey);
+    }
+
+    private static void handshake(SSLContext sslContext, int port) throws Exception {
+        try (SSLSocket socket = (SSLSocket) sslContext.getSocketFactory().createSocket("127.0.0.1", port)) {
+            socket.startHandshake();
+        }
+    }
 }
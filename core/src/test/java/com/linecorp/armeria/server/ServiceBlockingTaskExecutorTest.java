@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.testing.junit.server.ServerExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ServiceBlockingTaskExecutorTest {
+
+    private static final HttpService threadNameService = (ctx, req) -> HttpResponse.from(
+            CompletableFuture.supplyAsync(() -> HttpResponse.of(Thread.currentThread().getName()),
+                                          ctx.blockingTaskExecutor()));
+
+    private static final CountDownLatch blockingTaskStarted = new CountDownLatch(1);
+    private static final CountDownLatch releaseBlockingTasks = new CountDownLatch(1);
+
+    private static final HttpService blockingService = (ctx, req) -> HttpResponse.from(
+            CompletableFuture.supplyAsync(() -> {
+                blockingTaskStarted.countDown();
+                try {
+                    releaseBlockingTasks.await();
+                } catch (InterruptedException ignored) {
+                    // Shut down
+                }
+                return HttpResponse.of(HttpStatus.OK);
+            }, ctx.blockingTaskExecutor()));
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/shared", threadNameService);
+            sb.route().get("/isolated")
+              .blockingTaskExecutor(1, 10)
+              .build(threadNameService);
+            sb.route().get("/full")
+              .blockingTaskExecutor(1, 1)
+              .build(blockingService);
+        }
+    };
+
+    @Test
+    void serviceUsesItsOwnExecutor() {
+        final WebClient client = WebClient.of(server.uri("/"));
+        assertThat(client.get("/shared").aggregate().join().contentUtf8())
+                .startsWith("armeria-common-blocking-tasks");
+        assertThat(client.get("/isolated").aggregate().join().contentUtf8())
+                .startsWith("armeria-service-blocking-tasks");
+    }
+
+    @Test
+    void respondsServiceUnavailableWhenQueueIsFull() {
+        final ServiceConfig serviceConfig =
+                server.server().config().serviceConfigs().stream()
+                      .filter(cfg -> cfg.route().paths().contains("/full"))
+                      .findFirst().get();
+        // Created when the server was built.
+        assertThat(serviceConfig.blockingTaskExecutor()).isInstanceOf(BoundedScheduledThreadPoolExecutor.class);
+        final BoundedScheduledThreadPoolExecutor executor =
+                (BoundedScheduledThreadPoolExecutor) serviceConfig.blockingTaskExecutor();
+        final WebClient client = WebClient.of(server.uri("/"));
+        try {
+            // Occupy the only thread and the only slot in the queue.
+            final CompletableFuture<AggregatedHttpResponse> first = client.get("/full").aggregate();
+            await().until(() -> blockingTaskStarted.getCount() == 0);
+            final CompletableFuture<AggregatedHttpResponse> second = client.get("/full").aggregate();
+            await().untilAsserted(() -> assertThat(executor.getQueue()).hasSize(1));
+
+            assertThat(client.get("/full").aggregate().join().status())
+                    .isSameAs(HttpStatus.SERVICE_UNAVAILABLE);
+
+            releaseBlockingTasks.countDown();
+            assertThat(first.join().status()).isSameAs(HttpStatus.OK);
+            assertThat(second.join().status()).isSameAs(HttpStatus.OK);
+        } finally {
+            releaseBlockingTasks.countDown();
+        }
+    }
+
+    @Test
+    void createsExecutorForEachServer() {
+        final ServerBuilder sb = Server.builder();
+        sb.route().get("/foo").post("/bar")
+          .blockingTaskExecutor(1, 1)
+          .build((ctx, req) -> HttpResponse.of(HttpStatus.OK));
+        final Server first = sb.build();
+        final Server second = sb.build();
+
+        // Shared by the routes of the binding.
+        final List<ScheduledExecutorService> firstExecutors = blockingTaskExecutors(first);
+        assertThat(firstExecutors).hasSize(2);
+        assertThat(firstExecutors.get(0)).isSameAs(firstExecutors.get(1));
+
+        // Not shared with another Server, which shuts down its own executor when it stops.
+        final List<ScheduledExecutorService> secondExecutors = blockingTaskExecutors(second);
+        assertThat(secondExecutors).hasSize(2);
+        assertThat(secondExecutors.get(0)).isSameAs(secondExecutors.get(1))
+                                          .isNotSameAs(firstExecutors.get(0));
+
+        firstExecutors.get(0).shutdown();
+        secondExecutors.get(0).shutdown();
+    }
+
+    private static List<ScheduledExecutorService> blockingTaskExecutors(Server server) {
+        return server.config().serviceConfigs().stream()
+                     .map(ServiceConfig::blockingTaskExecutor)
+                     .filter(BoundedScheduledThreadPoolExecutor.class::isInstance)
+                     .collect(toImmutableList());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        final BoundedScheduledThreadPoolExecutor executor = new BoundedScheduledThreadPoolExecutor(1, 1);
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        executor.registerMetrics(registry, new MeterIdPrefix("foo"));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    // Shut down
+                }
+            });
+            started.await();
+
+            // Occupies the only slot in the queue.
+            executor.execute(() -> {});
+            assertThatThrownBy(() -> executor.execute(() -> {}))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            assertThat(registry.get("foo.active.threads").gauge().value()).isOne();
+            assertThat(registry.get("foo.pending.tasks").gauge().value()).isOne();
+            assertThat(registry.get("foo.rejected.tasks").functionCounter().count()).isOne();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseWriter;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+class PriorityLimitingServiceTest {
+
+    private final List<String> servedPaths = new CopyOnWriteArrayList<>();
+    private final List<HttpResponseWriter> writers = new CopyOnWriteArrayList<>();
+
+    private final HttpService delegate = (ctx, req) -> {
+        servedPaths.add(ctx.path());
+        final HttpResponseWriter res = HttpResponse.streaming();
+        writers.add(res);
+        return res;
+    };
+
+    @Test
+    void higherTierIsServedFirst() throws Exception {
+        final PriorityLimitingService service =
+                PriorityLimitingService.builder()
+                                       .addTier("high", ctx -> ctx.path().startsWith("/high"), 0, 10)
+                                       .defaultTier(0, 10)
+                                       .maxConcurrency(1)
+                                       .build(delegate);
+
+        final HttpResponse low1 = serve(service, "/low1");
+        final HttpResponse low2 = serve(service, "/low2");
+        final HttpResponse high = serve(service, "/high");
+        assertThat(servedPaths).containsExactly("/low1");
+
+        complete(0);
+        assertThat(low1.aggregate().join().status()).isEqualTo(HttpStatus.OK);
+        await().untilAsserted(() -> assertThat(servedPaths).containsExactly("/low1", "/high"));
+
+        complete(1);
+        assertThat(high.aggregate().join().status()).isEqualTo(HttpStatus.OK);
+        await().untilAsserted(() -> assertThat(servedPaths).containsExactly("/low1", "/high", "/low2"));
+
+        complete(2);
+        assertThat(low2.aggregate().join().status()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void tierLimitsAreSeparate() throws Exception {
+        final PriorityLimitingService service =
+                PriorityLimitingService.builder()
+                                       .addTier("health", ctx -> ctx.path().equals("/health"), 1, 0)
+                                       .defaultTier(1, 0)
+                                       .build(delegate);
+
+        serve(service, "/batch1");
+        // The default tier is full and it has no queue.
+        final AggregatedHttpResponse rejected = serve(service, "/batch2").aggregate().join();
+        assertThat(rejected.status()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        // The health check is served regardless of the default tier.
+        serve(service, "/health");
+        assertThat(servedPaths).containsExactly("/batch1", "/health");
+    }
+
+    @Test
+    void pendingTimeout() throws Exception {
+        final PriorityLimitingService service =
+                PriorityLimitingService.builder()
+                                       .defaultTier(1, 10)
+                                       .pendingTimeoutMillis(100)
+                                       .build(delegate);
+
+        serve(service, "/foo");
+        final AggregatedHttpResponse timedOut = serve(service, "/bar").aggregate().join();
+        assertThat(timedOut.status()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(servedPaths).containsExactly("/foo");
+    }
+
+    private static HttpResponse serve(HttpService service, String path) throws Exception {
+        final HttpRequest req = HttpRequest.of(HttpMethod.GET, path);
+        final ServiceRequestContext ctx = ServiceRequestContext.of(req);
+        return service.serve(ctx, req);
+    }
+
+    private void complete(int index) {
+        final HttpResponseWriter res = writers.get(index);
+        res.write(ResponseHeaders.of(HttpStatus.OK));
+        res.close();
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2019 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.ScheduledFuture;
+
+class LoadSheddingThrottlingStrategyTest {
+
+    private EventLoop eventLoop;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        eventLoop = new DefaultEventLoop();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventLoop.shutdownGracefully();
+    }
+
+    @Test
+    void rejectOnEventLoopLag() throws Exception {
+        final LoadSheddingThrottlingStrategy<HttpRequest> strategy =
+                LoadSheddingThrottlingStrategy.builder()
+                                              .maxEventLoopLag(Duration.ofMillis(100))
+                                              .sampleInterval(Duration.ofMillis(10))
+                                              .build();
+        final ServiceRequestContext ctx = newContext();
+        assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join()).isTrue();
+
+        // Wait until the first sample is taken.
+        await().untilAsserted(() -> assertThat(registry.find("armeria.server.load.event.loop.lag")
+                                                       .timeGauge()).isNotNull());
+        assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join()).isTrue();
+
+        // Block the event loop.
+        final CountDownLatch latch = new CountDownLatch(1);
+        eventLoop.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException ignored) {
+                // Ignore
+            }
+        });
+
+        try {
+            await().untilAsserted(
+                    () -> assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join())
+                            .isFalse());
+        } finally {
+            latch.countDown();
+        }
+        assertThat(registry.get("armeria.server.load.rejected.requests")
+                           .tag("reason", "event_loop_lag")
+                           .functionCounter().count()).isGreaterThanOrEqualTo(1);
+
+        // Accept again once the event loop catches up.
+        await().untilAsserted(
+                () -> assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join())
+                        .isTrue());
+    }
+
+    @Test
+    void rejectOnPendingTasks() {
+        final LoadSheddingThrottlingStrategy<HttpRequest> strategy =
+                LoadSheddingThrottlingStrategy.builder()
+                                              .maxPendingTasks(10)
+                                              .sampleInterval(Duration.ofMillis(10))
+                                              .build();
+        final PendingTasksEventLoop eventLoop = new PendingTasksEventLoop();
+        try {
+            final ServiceRequestContext ctx = newContext(eventLoop);
+            assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join()).isTrue();
+
+            eventLoop.pendingTasks = 11;
+            await().untilAsserted(
+                    () -> assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join())
+                            .isFalse());
+            assertThat(registry.get("armeria.server.load.rejected.requests")
+                               .tag("reason", "pending_tasks")
+                               .functionCounter().count()).isGreaterThanOrEqualTo(1);
+
+            eventLoop.pendingTasks = 10;
+            await().untilAsserted(
+                    () -> assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join())
+                            .isTrue());
+        } finally {
+            eventLoop.shutdownGracefully();
+        }
+    }
+
+    @Test
+    void rejectOnBlockingTaskQueueOfServer() throws Exception {
+        final LoadSheddingThrottlingStrategy<HttpRequest> strategy =
+                LoadSheddingThrottlingStrategy.builder()
+                                              .maxBlockingTaskQueueSize(1)
+                                              .sampleInterval(Duration.ofMillis(10))
+                                              .build();
+        final HttpService service = (ctx, req) -> HttpResponse.of(HttpStatus.OK);
+        final ScheduledThreadPoolExecutor blockingTaskExecutor = new ScheduledThreadPoolExecutor(1);
+        // The strategy monitors the server-wide executor although it is wrapped by the server.
+        final Server server = Server.builder()
+                                    .blockingTaskExecutor(blockingTaskExecutor, true)
+                                    .service("/", service.decorate(ThrottlingService.newDecorator(strategy)))
+                                    .build();
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            server.start().join();
+            final ServiceRequestContext ctx = newContext();
+            assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join()).isTrue();
+
+            // Block the only thread and queue two tasks.
+            for (int i = 0; i < 3; i++) {
+                server.config().blockingTaskExecutor().execute(() -> {
+                    try {
+                        latch.await();
+                    } catch (InterruptedException ignored) {
+                        // Ignore
+                    }
+                });
+            }
+            await().untilAsserted(
+                    () -> assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join())
+                            .isFalse());
+            await().untilAsserted(
+                    () -> assertThat(registry.get("armeria.server.load.blocking.task.queue.size")
+                                             .gauge().value()).isEqualTo(2));
+            assertThat(registry.get("armeria.server.load.rejected.requests")
+                               .tag("reason", "blocking_task_queue")
+                               .functionCounter().count()).isGreaterThanOrEqualTo(1);
+
+            latch.countDown();
+            await().untilAsserted(
+                    () -> assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join())
+                            .isTrue());
+        } finally {
+            latch.countDown();
+            server.stop().join();
+        }
+    }
+
+    @Test
+    void rejectUninspectableBlockingTaskExecutor() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThatThrownBy(() -> LoadSheddingThrottlingStrategy.builder().blockingTaskExecutor(executor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("ThreadPoolExecutor");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void exportMetrics() {
+        final LoadSheddingThrottlingStrategy<HttpRequest> strategy =
+                LoadSheddingThrottlingStrategy.builder()
+                                              .sampleInterval(Duration.ofMillis(10))
+                                              .build();
+        final ServiceRequestContext ctx = newContext();
+        assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join()).isTrue();
+
+        await().untilAsserted(() -> {
+            assertThat(registry.find("armeria.server.load.event.loop.lag").timeGauge()).isNotNull();
+            assertThat(registry.find("armeria.server.load.event.loop.pending.tasks").gauge()).isNotNull();
+        });
+        // Not added to any service, so there is no blocking task executor to monitor.
+        assertThat(registry.get("armeria.server.load.blocking.task.queue.size").gauge().value()).isZero();
+        assertThat(registry.get("armeria.server.load.rejected.requests")
+                           .tag("reason", "pending_tasks")
+                           .functionCounter().count()).isZero();
+    }
+
+    @Test
+    void stopSamplingWhenServerStops() throws Exception {
+        final LoadSheddingThrottlingStrategy<HttpRequest> strategy =
+                LoadSheddingThrottlingStrategy.builder()
+                                              .sampleInterval(Duration.ofMillis(10))
+                                              .build();
+        final HttpService service = (ctx, req) -> HttpResponse.of(HttpStatus.OK);
+        final Server server = Server.builder()
+                                    .service("/", service.decorate(ThrottlingService.newDecorator(strategy)))
+                                    .build();
+        final CountingEventLoop eventLoop = new CountingEventLoop();
+        try {
+            server.start().join();
+            final ServiceRequestContext ctx = newContext(eventLoop);
+            assertThat(strategy.accept(ctx, ctx.request()).toCompletableFuture().join()).isTrue();
+            await().untilAsserted(() -> assertThat(eventLoop.numScheduledTasks).hasValueGreaterThan(1));
+
+            server.stop().join();
+            // Wait until the sampling task is cancelled.
+            eventLoop.submit(() -> {}).syncUninterruptibly();
+            final int numScheduledTasks = eventLoop.numScheduledTasks.get();
+            Thread.sleep(100);
+            assertThat(eventLoop.numScheduledTasks).hasValue(numScheduledTasks);
+
+            // Resume sampling when the server is started again.
+            server.start().join();
+            await().untilAsserted(() -> assertThat(eventLoop.numScheduledTasks)
+                    .hasValueGreaterThan(numScheduledTasks));
+        } finally {
+            server.stop().join();
+            eventLoop.shutdownGracefully();
+        }
+    }
+
+    private ServiceRequestContext newContext() {
+        return newContext(eventLoop);
+    }
+
+    private ServiceRequestContext newContext(EventLoop eventLoop) {
+        return ServiceRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                    .eventLoop(eventLoop)
+                                    .meterRegistry(registry)
+                                    .build();
+    }
+
+    private static final class PendingTasksEventLoop extends DefaultEventLoop {
+
+        volatile int pendingTasks;
+
+        @Override
+        public int pendingTasks() {
+            return pendingTasks;
+        }
+    }
+
+    private static final class CountingEventLoop extends DefaultEventLoop {
+
+        final AtomicInteger numScheduledTasks = new AtomicInteger();
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            numScheduledTasks.incrementAndGet();
+            return super.schedule(command, delay, unit);
+        }
+    }
+}
@@ -49,15 +49,13 @@ final class DefaultNodeValueCodec implements NodeValueCodec {
                 }
                 break;
             }
-            case 3: { //host , port , weight
+            case 3: //host , port , weight
+            case 4: { //host , port , weight , zone
                 final String host = tokens[0];
                 final int port = Integer.parseInt(tokens[1]);
                 final int weight = Integer.parseInt(tokens[2]);
-                if (port == 0) {
-                    endpoint = Endpoint.of(host).withWeight(weight);
-                } else {
-                    endpoint = Endpoint.of(host, port).withWeight(weight);
-                }
+                final Endpoint e = port == 0 ? Endpoint.of(host) : Endpoint.of(host, port);
+                endpoint = e.withWeight(weight).withZone(tokens.length == 4 ? tokens[3] : null);
                 break;
             }
             default: //unknown
@@ -87,8 +85,7 @@ final class DefaultNodeValueCodec implements NodeValueCodec {
     public byte[] encodeAll(Iterable<Endpoint> endpoints) {
         requireNonNull(endpoints, "endpoints");
         final StringBuilder nodeValue = new StringBuilder();
-        endpoints.forEach(endpoint -> nodeValue.append(endpoint.host()).append(fieldDelimiter).append(
-                endpoint.port()).append(fieldDelimiter).append(endpoint.weight()).append(segmentDelimiter));
+        endpoints.forEach(endpoint -> nodeValue.append(encodeToString(endpoint)).append(segmentDelimiter));
         //delete the last unused segment delimiter
         if (nodeValue.length() > 0) {
             nodeValue.deleteCharAt(nodeValue.length() - 1);
@@ -98,7 +95,14 @@ final class DefaultNodeValueCodec implements NodeValueCodec {
 
     @Override
     public byte[] encode(Endpoint endpoint) {
-        return (endpoint.host() + fieldDelimiter + endpoint.port() + fieldDelimiter + endpoint.weight())
-                .getBytes(StandardCharsets.UTF_8);
+        return encodeToString(endpoint).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String encodeToString(Endpoint endpoint) {
+        final String value = endpoint.host() + fieldDelimiter + endpoint.port() + fieldDelimiter +
+                             endpoint.weight();
+        final String zone = endpoint.zone();
+        // Omit the zone if not specified, so that the decoders which do not know about zones keep working.
+        return zone != null ? value + fieldDelimiter + zone : value;
     }
 }
@@ -18,6 +18,8 @@ package com.linecorp.armeria.common.zookeeper;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Test;
 
 import com.linecorp.armeria.client.Endpoint;
@@ -36,4 +38,17 @@ public class NodeValueCodecTest {
                 .decodeAll("http://foo.com:8001, bar.com:8002"))
                 .isInstanceOf(EndpointGroupException.class);
     }
+
+    @Test
+    public void convertWithZone() {
+        final Endpoint endpoint = Endpoint.of("foo.com", 8080).withWeight(500).withZone("zone-a");
+        final byte[] encoded = NodeValueCodec.DEFAULT.encode(endpoint);
+        assertThat(new String(encoded, StandardCharsets.UTF_8)).isEqualTo("foo.com:8080:500:zone-a");
+
+        final Endpoint decoded = NodeValueCodec.DEFAULT.decode(encoded);
+        assertThat(decoded).isEqualTo(endpoint);
+        assertThat(decoded.weight()).isEqualTo(500);
+        assertThat(decoded.zone()).isEqualTo("zone-a");
+        assertThat(NodeValueCodec.DEFAULT.decode("foo.com:8080:500").zone()).isNull();
+    }
 }